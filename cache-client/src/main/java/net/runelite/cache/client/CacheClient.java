@@ -38,11 +38,12 @@ import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.channel.socket.nio.NioSocketChannel;
 import java.io.IOException;
-import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
 import net.runelite.cache.fs.Archive;
 import net.runelite.cache.fs.Index;
 import net.runelite.cache.fs.Storage;
@@ -67,7 +68,7 @@ public class CacheClient implements AutoCloseable
 	private static final String HOST = "oldschool1.runescape.com";
 	private static final int PORT = 43594;
 
-	private static final int MAX_REQUESTS = 19; // too many and the server closes the conncetion
+	static final int MAX_REQUESTS = 19; // too many and the server closes the conncetion
 
 	private final Store store; // store cache will be written to
 	private final String host;
@@ -80,7 +81,9 @@ public class CacheClient implements AutoCloseable
 	private Channel channel;
 
 	private CompletableFuture<HandshakeResponseType> handshakeFuture;
-	private final Queue<PendingFileRequest> requests = new ArrayDeque<>();
+	// in flight requests keyed by index << 16 | archive
+	private final ConcurrentMap<Integer, PendingFileRequest> requests = new ConcurrentHashMap<>();
+	private final Semaphore inFlight = new Semaphore(MAX_REQUESTS);
 
 	public CacheClient(Store store, int clientRevision)
 	{
@@ -117,7 +120,7 @@ public class CacheClient implements AutoCloseable
 					p.addLast("decoder", new HandshakeResponseDecoder());
 
 					p.addLast(
-						new CacheClientHandler(),
+						new CacheClientHandler(CacheClient.this),
 						new HandshakeResponseHandler(CacheClient.this),
 						new ArchiveResponseHandler(CacheClient.this)
 					);
@@ -204,241 +207,321 @@ public class CacheClient implements AutoCloseable
 	{
 		Stopwatch stopwatch = Stopwatch.createStarted();
 
+		List<CompletableFuture<Void>> pending = new ArrayList<>();
 		List<IndexInfo> indexes = requestIndexes();
 		for (IndexInfo indexInfo : indexes)
 		{
 			int i = indexInfo.getId();
-			int crc = indexInfo.getCrc();
-			int revision = indexInfo.getRevision();
 
-			Index index = store.findIndex(i);
+			logger.info("Downloading index {}", i);
+
+			FileResult indexFileResult = requestFile(255, i, true).join();
+			indexFileResult.decompress(null);
+
+			logger.info("Downloaded index {}", i);
 
-			if (index == null)
+			List<Archive> archives = updateIndex(store, indexInfo, indexFileResult);
+			if (archives == null)
 			{
-				logger.info("Index {} does not exist, creating", i);
+				continue;
 			}
-			else if (index.getRevision() != revision)
+
+			for (Archive archive : archives)
 			{
-				if (revision < index.getRevision())
-				{
-					logger.warn("Index {} revision is going BACKWARDS! (our revision {}, their revision {})", index.getId(), index.getRevision(), revision);
-				}
-				else
+				CompletableFuture<FileResult> future = requestFile(archive.getIndex().getId(), archive.getArchiveId(), false);
+				pending.add(future.thenAccept(fr ->
 				{
-					logger.info("Index {} has the wrong revision (our revision {}, their revision {})", index.getId(), index.getRevision(), revision);
-				}
+					try
+					{
+						saveArchive(store, watcher, archive, fr.getCompressedData());
+					}
+					catch (IOException ex)
+					{
+						logger.warn("unable to save archive data", ex);
+					}
+				}));
 			}
-			else if (index.getCrc() != crc)
+		}
+
+		// flush any pending requests
+		channel.flush();
+
+		// wait for pending requests
+		CompletableFuture.allOf(pending.toArray(new CompletableFuture[pending.size()]))
+			.handle((v, ex) -> null)
+			.join();
+
+		stopwatch.stop();
+		logger.info("Download completed in {}", stopwatch);
+	}
+
+	/**
+	 * Apply a downloaded index descriptor to the store, creating the index
+	 * and archives if required.
+	 *
+	 * @param store store to update
+	 * @param indexInfo crc and revision of the index from the index 255 table
+	 * @param indexFileResult decompressed index descriptor
+	 * @return the archives which are out of date and need downloading, or
+	 * null if the descriptor does not match its crc
+	 * @throws IOException
+	 */
+	static List<Archive> updateIndex(Store store, IndexInfo indexInfo, FileResult indexFileResult) throws IOException
+	{
+		int i = indexInfo.getId();
+		int crc = indexInfo.getCrc();
+		int revision = indexInfo.getRevision();
+
+		Index index = store.findIndex(i);
+
+		if (index == null)
+		{
+			logger.info("Index {} does not exist, creating", i);
+		}
+		else if (index.getRevision() != revision)
+		{
+			if (revision < index.getRevision())
 			{
-				logger.warn("Index {} CRC has changed! (our crc {}, their crc {})",
-					index.getCrc(), index.getCrc(), crc);
+				logger.warn("Index {} revision is going BACKWARDS! (our revision {}, their revision {})", index.getId(), index.getRevision(), revision);
 			}
 			else
 			{
-				// despite the index being up to date, not everything
-				// can be downloaded, eg. for tracks.
-				logger.info("Index {} is up to date", index.getId());
+				logger.info("Index {} has the wrong revision (our revision {}, their revision {})", index.getId(), index.getRevision(), revision);
 			}
+		}
+		else if (index.getCrc() != crc)
+		{
+			logger.warn("Index {} CRC has changed! (our crc {}, their crc {})",
+				index.getCrc(), index.getCrc(), crc);
+		}
+		else
+		{
+			// despite the index being up to date, not everything
+			// can be downloaded, eg. for tracks.
+			logger.info("Index {} is up to date", index.getId());
+		}
 
-			logger.info("Downloading index {}", i);
+		if (indexFileResult.getCrc() != crc)
+		{
+			logger.warn("Corrupted download for index {}", i);
+			return null;
+		}
 
-			FileResult indexFileResult = requestFile(255, i, true).join();
-			indexFileResult.decompress(null);
+		IndexData indexData = new IndexData();
+		indexData.load(indexFileResult.getContents());
 
-			logger.info("Downloaded index {}", i);
+		if (index == null)
+		{
+			index = store.addIndex(i);
+		}
+
+		// update index settings
+		index.setProtocol(indexData.getProtocol());
+		index.setNamed(indexData.isNamed());
+		index.setCrc(crc);
+		index.setRevision(revision);
 
-			if (indexFileResult.getCrc() != crc)
+		logger.info("Index {} has {} archives", i, indexData.getArchives().length);
+
+		List<Archive> archives = new ArrayList<>();
+		for (ArchiveData ad : indexData.getArchives())
+		{
+			Archive existing = index.getArchive(ad.getId());
+
+			if (existing != null && existing.getRevision() == ad.getRevision()
+				&& existing.getCrc() == ad.getCrc()
+				&& existing.getNameHash() == ad.getNameHash())
 			{
-				logger.warn("Corrupted download for index {}", i);
+				logger.debug("Archive {}/{} in index {} is up to date",
+					ad.getId(), indexData.getArchives().length, index.getId());
 				continue;
 			}
 
-			IndexData indexData = new IndexData();
-			indexData.load(indexFileResult.getContents());
-
-			if (index == null)
+			if (existing == null)
 			{
-				index = store.addIndex(i);
+				logger.info("Archive {}/{} in index {} is out of date, downloading",
+					ad.getId(), indexData.getArchives().length, index.getId());
 			}
-
-			// update index settings
-			index.setProtocol(indexData.getProtocol());
-			index.setNamed(indexData.isNamed());
-			index.setCrc(crc);
-			index.setRevision(revision);
-
-			logger.info("Index {} has {} archives", i, indexData.getArchives().length);
-
-			for (ArchiveData ad : indexData.getArchives())
+			else if (ad.getRevision() < existing.getRevision())
+			{
+				logger.warn("Archive {}/{} in index {} revision is going BACKWARDS! (our revision {}, their revision {})",
+					ad.getId(), indexData.getArchives().length, index.getId(),
+					existing.getRevision(), ad.getRevision());
+			}
+			else
 			{
-				Archive existing = index.getArchive(ad.getId());
+				logger.info("Archive {}/{} in index {} is out of date, downloading. " +
+					"revision: ours: {} theirs: {}, crc: ours: {} theirs {}, name: ours {} theirs {}",
+					ad.getId(), indexData.getArchives().length, index.getId(),
+					existing.getRevision(), ad.getRevision(),
+					existing.getCrc(), ad.getCrc(),
+					existing.getNameHash(), ad.getNameHash());
+			}
 
-				if (existing != null && existing.getRevision() == ad.getRevision()
-					&& existing.getCrc() == ad.getCrc()
-					&& existing.getNameHash() == ad.getNameHash())
-				{
-					logger.debug("Archive {}/{} in index {} is up to date",
-						ad.getId(), indexData.getArchives().length, index.getId());
-					continue;
-				}
+			final Archive archive = existing == null
+				? index.addArchive(ad.getId())
+				: existing;
 
-				if (existing == null)
-				{
-					logger.info("Archive {}/{} in index {} is out of date, downloading",
-						ad.getId(), indexData.getArchives().length, index.getId());
-				}
-				else if (ad.getRevision() < existing.getRevision())
-				{
-					logger.warn("Archive {}/{} in index {} revision is going BACKWARDS! (our revision {}, their revision {})",
-						ad.getId(), indexData.getArchives().length, index.getId(),
-						existing.getRevision(), ad.getRevision());
-				}
-				else
-				{
-					logger.info("Archive {}/{} in index {} is out of date, downloading. " +
-						"revision: ours: {} theirs: {}, crc: ours: {} theirs {}, name: ours {} theirs {}",
-						ad.getId(), indexData.getArchives().length, index.getId(),
-						existing.getRevision(), ad.getRevision(),
-						existing.getCrc(), ad.getCrc(),
-						existing.getNameHash(), ad.getNameHash());
-				}
+			archive.setRevision(ad.getRevision());
+			archive.setCrc(ad.getCrc());
+			archive.setNameHash(ad.getNameHash());
 
-				final Archive archive = existing == null
-					? index.addArchive(ad.getId())
-					: existing;
+			// Add files
+			archive.setFileData(ad.getFiles());
 
-				archive.setRevision(ad.getRevision());
-				archive.setCrc(ad.getCrc());
-				archive.setNameHash(ad.getNameHash());
+			archives.add(archive);
+		}
+		return archives;
+	}
 
-				// Add files
-				archive.setFileData(ad.getFiles());
+	/**
+	 * Verify the crc of downloaded archive data and either pass it to the
+	 * watcher or save it to the store's storage.
+	 *
+	 * @param store store to save to
+	 * @param watcher download watcher, or null
+	 * @param archive archive the data is for
+	 * @param data compressed archive data
+	 * @throws IOException
+	 */
+	static void saveArchive(Store store, DownloadWatcher watcher, Archive archive, byte[] data) throws IOException
+	{
+		Crc32 crc32 = new Crc32();
+		crc32.update(data, 0, data.length);
+		int hash = crc32.getHash();
 
-				CompletableFuture<FileResult> future = requestFile(index.getId(), ad.getId(), false);
-				future.handle((fr, ex) ->
-				{
-					byte[] data = fr.getCompressedData();
+		if (hash != archive.getCrc())
+		{
+			logger.warn("crc mismatch on downloaded archive {}/{}: {} != {}",
+				archive.getIndex().getId(), archive.getArchiveId(),
+				hash, archive.getCrc());
+			throw new RuntimeException("crc mismatch");
+		}
 
-					Crc32 crc32 = new Crc32();
-					crc32.update(data, 0, data.length);
-					int hash = crc32.getHash();
+		if (watcher != null)
+		{
+			watcher.downloadComplete(archive, data);
+		}
+		else
+		{
+			Storage storage = store.getStorage();
+			storage.saveArchive(archive, data);
+		}
+	}
 
-					if (hash != archive.getCrc())
-					{
-						logger.warn("crc mismatch on downloaded archive {}/{}: {} != {}",
-							archive.getIndex().getId(), archive.getArchiveId(),
-							hash, archive.getCrc());
-						throw new RuntimeException("crc mismatch");
-					}
+	private CompletableFuture<FileResult> requestFile(int index, int fileId, boolean flush)
+	{
+		return requestFile(index, fileId, false, flush);
+	}
 
-					if (watcher != null)
-					{
-						watcher.downloadComplete(archive, data);
-					}
-					else
-					{
-						try
-						{
-							Storage storage = store.getStorage();
-							storage.saveArchive(archive, data);
-						}
-						catch (IOException ex1)
-						{
-							logger.warn("unable to save archive data", ex1);
-						}
-					}
-					return null;
-				});
-			}
+	/**
+	 * Request an archive from the server. At most {@link #MAX_REQUESTS}
+	 * requests may be in flight at once, past which this blocks until a
+	 * response is received, so this must not be called from the channel's
+	 * event loop. Use {@link #tryRequestFile} there instead.
+	 *
+	 * @param index index id, or 255 for index descriptors
+	 * @param fileId archive id
+	 * @param priority whether the server should handle this request first
+	 * @param flush whether to flush the request to the server immediately
+	 * @return future completed when the archive is received
+	 */
+	CompletableFuture<FileResult> requestFile(int index, int fileId, boolean priority, boolean flush)
+	{
+		if (state != ClientState.CONNECTED)
+		{
+			throw new IllegalStateException("Can't request files until connected!");
 		}
 
-		// flush any pending requests
-		channel.flush();
-
-		while (!requests.isEmpty())
+		if (!inFlight.tryAcquire())
 		{
-			// wait for pending requests
-			synchronized (this)
-			{
-				try
-				{
-					wait();
-				}
-				catch (InterruptedException ex)
-				{
-					logger.warn(null, ex);
-				}
-			}
+			channel.flush();
+			inFlight.acquireUninterruptibly();
 		}
 
-		stopwatch.stop();
-		logger.info("Download completed in {}", stopwatch);
+		return sendRequest(index, fileId, priority, flush);
 	}
 
-	private synchronized CompletableFuture<FileResult> requestFile(int index, int fileId, boolean flush)
+	/**
+	 * Request an archive from the server if a request slot is free.
+	 * This never blocks, so it is safe to call from the channel's event loop.
+	 *
+	 * @param index index id, or 255 for index descriptors
+	 * @param fileId archive id
+	 * @param priority whether the server should handle this request first
+	 * @param flush whether to flush the request to the server immediately
+	 * @return future completed when the archive is received, or null if
+	 * {@link #MAX_REQUESTS} requests are already in flight
+	 */
+	CompletableFuture<FileResult> tryRequestFile(int index, int fileId, boolean priority, boolean flush)
 	{
 		if (state != ClientState.CONNECTED)
 		{
 			throw new IllegalStateException("Can't request files until connected!");
 		}
 
-		if (!flush)
+		if (!inFlight.tryAcquire())
 		{
-			while (requests.size() >= MAX_REQUESTS)
-			{
-				channel.flush();
-
-				try
-				{
-					wait();
-				}
-				catch (InterruptedException ex)
-				{
-					logger.warn("interrupted while waiting for requests", ex);
-				}
-			}
+			return null;
 		}
 
-		ArchiveRequestPacket archiveRequest = new ArchiveRequestPacket();
-		archiveRequest.setPriority(false);
-		archiveRequest.setIndex(index);
-		archiveRequest.setArchive(fileId);
+		return sendRequest(index, fileId, priority, flush);
+	}
 
+	private CompletableFuture<FileResult> sendRequest(int index, int fileId, boolean priority, boolean flush)
+	{
 		CompletableFuture<FileResult> future = new CompletableFuture<>();
 		PendingFileRequest pf = new PendingFileRequest(index,
 			fileId, future);
 
-		logger.trace("Sending request for {}/{}", index, fileId);
-
-		requests.add(pf);
-
-		if (!flush)
+		PendingFileRequest existing = requests.putIfAbsent(key(index, fileId), pf);
+		if (existing != null)
 		{
-			channel.write(archiveRequest);
+			// already requested, the response will complete the existing future
+			inFlight.release();
+			return existing.getFuture();
 		}
-		else
+
+		ArchiveRequestPacket archiveRequest = new ArchiveRequestPacket();
+		archiveRequest.setPriority(priority);
+		archiveRequest.setIndex(index);
+		archiveRequest.setArchive(fileId);
+
+		logger.trace("Sending request for {}/{}", index, fileId);
+
+		ChannelFuture write = flush ? channel.writeAndFlush(archiveRequest) : channel.write(archiveRequest);
+		write.addListener(f ->
 		{
-			channel.writeAndFlush(archiveRequest);
-		}
+			// the channel may have closed after onDisconnect already failed
+			// the pending requests, so fail this one here too
+			if (!f.isSuccess() && requests.remove(key(index, fileId), pf))
+			{
+				inFlight.release();
+				future.completeExceptionally(f.cause());
+			}
+		});
 
 		return future;
 	}
 
-	private PendingFileRequest findRequest(int index, int file)
+	void flush()
 	{
-		for (PendingFileRequest pr : requests)
-		{
-			if (pr.getIndex() == index && pr.getArchive() == file)
-			{
-				return pr;
-			}
-		}
-		return null;
+		channel.flush();
+	}
+
+	Channel getChannel()
+	{
+		return channel;
+	}
+
+	private static int key(int index, int file)
+	{
+		return index << 16 | file;
 	}
 
-	protected synchronized void onFileFinish(int index, int file, byte[] compressedData)
+	protected void onFileFinish(int index, int file, byte[] compressedData)
 	{
-		PendingFileRequest pr = findRequest(index, file);
+		PendingFileRequest pr = requests.remove(key(index, file));
 
 		if (pr == null)
 		{
@@ -446,9 +529,8 @@ public class CacheClient implements AutoCloseable
 			return;
 		}
 
-		requests.remove(pr);
-
-		notify();
+		// release before completing, so the completion may request another file
+		inFlight.release();
 
 		FileResult result = new FileResult(index, file, compressedData);
 
@@ -456,4 +538,16 @@ public class CacheClient implements AutoCloseable
 
 		pr.getFuture().complete(result);
 	}
+
+	void onDisconnect()
+	{
+		for (PendingFileRequest pr : requests.values())
+		{
+			if (requests.remove(key(pr.getIndex(), pr.getArchive()), pr))
+			{
+				inFlight.release();
+				pr.getFuture().completeExceptionally(new IOException("Connection closed with request for " + pr.getIndex() + "/" + pr.getArchive() + " pending"));
+			}
+		}
+	}
 }
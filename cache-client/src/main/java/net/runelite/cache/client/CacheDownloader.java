@@ -0,0 +1,330 @@
+/*
+ * Copyright (c) 2018, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.client;
+
+import com.google.common.base.Stopwatch;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import net.runelite.cache.fs.Archive;
+import net.runelite.cache.fs.Store;
+import net.runelite.protocol.api.login.HandshakeResponseType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Downloads a cache over several connections to the update server at once.
+ * <p>
+ * The index descriptors are all requested up front, as priority requests
+ * spread across the connections. The out of date archives are then queued
+ * and each connection pulls from the queue whenever it has a free request
+ * slot, so faster connections take more of the work. Requests on a
+ * connection which fails are moved back to the queue for the other
+ * connections. Downloaded archives are verified and saved on a dedicated
+ * writer thread to keep disk io off of the network threads.
+ */
+public class CacheDownloader implements AutoCloseable
+{
+	private static final Logger logger = LoggerFactory.getLogger(CacheDownloader.class);
+
+	private static final String HOST = "oldschool1.runescape.com";
+	private static final int DEFAULT_CONNECTIONS = 4;
+
+	private final Store store;
+	private final String host;
+	private final int clientRevision;
+	private final int connections;
+	private DownloadWatcher watcher;
+
+	private final List<Connection> clients = new ArrayList<>();
+	private final ExecutorService writer = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+		.setNameFormat("cache-writer")
+		.build());
+
+	public CacheDownloader(Store store, int clientRevision)
+	{
+		this(store, HOST, clientRevision, DEFAULT_CONNECTIONS);
+	}
+
+	public CacheDownloader(Store store, String host, int clientRevision, int connections)
+	{
+		if (connections < 1)
+		{
+			throw new IllegalArgumentException("connections must be at least 1");
+		}
+
+		this.store = store;
+		this.host = host;
+		this.clientRevision = clientRevision;
+		this.connections = connections;
+	}
+
+	public DownloadWatcher getWatcher()
+	{
+		return watcher;
+	}
+
+	public void setWatcher(DownloadWatcher watcher)
+	{
+		this.watcher = watcher;
+	}
+
+	/**
+	 * Open and handshake all connections
+	 *
+	 * @throws IOException if any handshake is rejected
+	 */
+	public void connect() throws IOException
+	{
+		List<CompletableFuture<HandshakeResponseType>> handshakes = new ArrayList<>();
+		for (int i = 0; i < connections; ++i)
+		{
+			CacheClient client = new CacheClient(store, host, clientRevision);
+			clients.add(new Connection(client));
+
+			client.connect();
+			handshakes.add(client.handshake());
+		}
+
+		for (CompletableFuture<HandshakeResponseType> handshake : handshakes)
+		{
+			HandshakeResponseType response = handshake.join();
+			if (response != HandshakeResponseType.RESPONSE_OK)
+			{
+				throw new IOException("Handshake failed: " + response);
+			}
+		}
+
+		logger.info("Opened {} connections to {}", connections, host);
+	}
+
+	@Override
+	public void close()
+	{
+		for (Connection connection : clients)
+		{
+			connection.client.close();
+		}
+		clients.clear();
+
+		writer.shutdown();
+	}
+
+	public void download() throws IOException
+	{
+		Stopwatch stopwatch = Stopwatch.createStarted();
+
+		List<IndexInfo> indexes = clients.get(0).client.requestIndexes();
+
+		// request every index descriptor up front
+		List<CompletableFuture<FileResult>> descriptors = new ArrayList<>(indexes.size());
+		for (IndexInfo indexInfo : indexes)
+		{
+			CacheClient client = clients.get(indexInfo.getId() % clients.size()).client;
+			descriptors.add(client.requestFile(255, indexInfo.getId(), true, true));
+		}
+
+		Deque<Archive> queue = new ConcurrentLinkedDeque<>();
+		for (int i = 0; i < indexes.size(); ++i)
+		{
+			IndexInfo indexInfo = indexes.get(i);
+			FileResult indexFileResult = descriptors.get(i).join();
+			indexFileResult.decompress(null);
+
+			logger.info("Downloaded index {}", indexInfo.getId());
+
+			List<Archive> archives = CacheClient.updateIndex(store, indexInfo, indexFileResult);
+			if (archives != null)
+			{
+				queue.addAll(archives);
+			}
+		}
+
+		int total = queue.size();
+		logger.info("Downloading {} archives over {} connections", total, clients.size());
+
+		Download download = new Download(queue, total);
+		for (Connection connection : clients)
+		{
+			// all requests for a connection are sent from its event loop
+			connection.client.getChannel().eventLoop().execute(() -> pump(download, connection));
+		}
+
+		try
+		{
+			download.remaining.await();
+		}
+		catch (InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+			throw new IOException("interrupted while downloading", ex);
+		}
+
+		Throwable failure = download.failure.get();
+		if (failure != null)
+		{
+			throw new IOException("unable to download cache", failure);
+		}
+
+		stopwatch.stop();
+		logger.info("Downloaded {} archives in {}", total, stopwatch);
+	}
+
+	/**
+	 * Fill the connection's free request slots from the download queue.
+	 * Must be called from the connection's event loop, so this must not block.
+	 */
+	private void pump(Download download, Connection connection)
+	{
+		boolean sent = false;
+
+		while (!connection.failed)
+		{
+			Archive archive = download.queue.poll();
+			if (archive == null)
+			{
+				break;
+			}
+
+			CompletableFuture<FileResult> future = connection.client.tryRequestFile(archive.getIndex().getId(), archive.getArchiveId(), false, false);
+			if (future == null)
+			{
+				// no free request slots, pump again when a response arrives
+				download.queue.offerFirst(archive);
+				break;
+			}
+
+			sent = true;
+
+			future.whenComplete((fr, ex) ->
+			{
+				if (ex != null)
+				{
+					requeue(download, connection, archive, ex);
+					return;
+				}
+
+				writer.execute(() -> save(download, archive, fr.getCompressedData()));
+				pump(download, connection);
+			});
+		}
+
+		if (sent)
+		{
+			connection.client.flush();
+		}
+	}
+
+	/**
+	 * Retire a connection whose request failed, and hand its archive to the
+	 * remaining connections. The download only fails once every connection
+	 * has failed.
+	 */
+	private void requeue(Download download, Connection connection, Archive archive, Throwable ex)
+	{
+		if (!connection.failed)
+		{
+			connection.failed = true;
+			logger.warn("Connection failed, moving its requests to the other connections", ex);
+		}
+
+		download.queue.offerFirst(archive);
+
+		boolean alive = false;
+		for (Connection other : clients)
+		{
+			if (!other.failed)
+			{
+				alive = true;
+				other.client.getChannel().eventLoop().execute(() -> pump(download, other));
+			}
+		}
+
+		if (!alive)
+		{
+			download.fail(ex);
+			// drain the rest of the queue so the download can finish
+			while (download.queue.poll() != null)
+			{
+				download.remaining.countDown();
+			}
+		}
+	}
+
+	private void save(Download download, Archive archive, byte[] data)
+	{
+		try
+		{
+			CacheClient.saveArchive(store, watcher, archive, data);
+		}
+		catch (IOException | RuntimeException ex)
+		{
+			logger.warn("unable to save archive {}/{}", archive.getIndex().getId(), archive.getArchiveId(), ex);
+			download.fail(ex);
+		}
+		finally
+		{
+			download.remaining.countDown();
+		}
+	}
+
+	private static class Connection
+	{
+		private final CacheClient client;
+		// set once a request on this connection has failed
+		private volatile boolean failed;
+
+		Connection(CacheClient client)
+		{
+			this.client = client;
+		}
+	}
+
+	private static class Download
+	{
+		private final Deque<Archive> queue;
+		private final CountDownLatch remaining;
+		private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+		Download(Deque<Archive> queue, int total)
+		{
+			this.queue = queue;
+			this.remaining = new CountDownLatch(total);
+		}
+
+		void fail(Throwable ex)
+		{
+			failure.compareAndSet(null, ex);
+		}
+	}
+}
@@ -26,19 +26,20 @@ package net.runelite.cache.server;
 
 import com.google.common.primitives.Ints;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
 import java.io.IOException;
 import java.util.Arrays;
 import net.runelite.cache.fs.Archive;
-import net.runelite.cache.fs.Container;
 import net.runelite.cache.fs.Index;
 import net.runelite.cache.fs.Storage;
 import net.runelite.cache.fs.Store;
 import net.runelite.cache.fs.jagex.CompressionType;
 import net.runelite.cache.fs.jagex.DiskStorage;
+import net.runelite.cache.util.Crc32;
 import net.runelite.protocol.api.update.ArchiveRequestPacket;
-import net.runelite.protocol.api.update.ArchiveResponsePacket;
+import net.runelite.protocol.update.encoders.ArchiveResponseEncoder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -46,81 +47,107 @@ public class ArchiveRequestHandler extends SimpleChannelInboundHandler<ArchiveRe
 {
 	private static final Logger logger = LoggerFactory.getLogger(ArchiveRequestHandler.class);
 
+	private final CacheServer server;
 	private final Store store;
 
-	public ArchiveRequestHandler(Store store)
+	public ArchiveRequestHandler(CacheServer server)
 	{
-		this.store = store;
+		this.server = server;
+		this.store = server.getStore();
 	}
 
 	@Override
 	protected void channelRead0(ChannelHandlerContext ctx, ArchiveRequestPacket archiveRequest) throws Exception
 	{
-		if (archiveRequest.getIndex() == 255)
+		int index = archiveRequest.getIndex();
+		int archiveId = archiveRequest.getArchive();
+
+		logger.debug("Client {} requests index {} archive {}", ctx.channel().remoteAddress(), index, archiveId);
+
+		if (index == 255 && archiveId == 255)
 		{
-			handleRequest255(ctx, archiveRequest.getIndex(),
-				archiveRequest.getArchive());
+			ctx.writeAndFlush(server.getIndexResponse());
+			return;
 		}
-		else
+
+		// read before the archive is loaded, so a response built from data
+		// written concurrently is never cached under the newer count
+		long modCount = server.getModCount();
+		ResponseCache responseCache = server.getResponseCache();
+		ByteBuf response = responseCache.get(index, archiveId, modCount);
+		if (response != null)
 		{
-			handleRequest(ctx, archiveRequest.getIndex(),
-				archiveRequest.getArchive());
+			ctx.writeAndFlush(response);
+			return;
 		}
-	}
 
-	private void handleRequest255(ChannelHandlerContext ctx, int index, int archiveId) throws IOException
-	{
-		logger.info("Client {} requests 255: index {}, archive {}", ctx.channel().remoteAddress(), index, archiveId);
+		byte[] packed;
+		int crc;
+		if (index == 255)
+		{
+			// Requires disk storage. Use packed index data from
+			// store as its crc matches
+			Index i = store.findIndex(archiveId);
+			assert i != null;
 
-		byte[] compressed;
-		if (archiveId == 255)
+			DiskStorage storage = (DiskStorage) store.getStorage();
+			packed = storage.readIndex(archiveId);
+			crc = i.getCrc();
+		}
+		else
 		{
-			// index 255 data, for each index:
-			// 4 byte crc
-			// 4 byte revision
-			ByteBuf buffer = ctx.alloc().heapBuffer(store.getIndexes().size() * 8);
-			for (Index i : store.getIndexes())
+			Index i = store.findIndex(index);
+			assert i != null;
+
+			Archive archive = i.getArchive(archiveId);
+			assert archive != null;
+
+			MappedResponseCache mappedResponseCache = server.getMappedResponseCache();
+			if (mappedResponseCache != null)
+			{
+				ByteBuf mappedResponse = mappedResponseCache.get(archive);
+				if (mappedResponse != null)
+				{
+					ctx.writeAndFlush(mappedResponse);
+					return;
+				}
+			}
+
+			packed = loadArchive(archive);
+			if (packed == null)
 			{
-				buffer.writeInt(i.getCrc());
-				buffer.writeInt(i.getRevision());
+				logger.warn("Missing archive {}/{}", index, archiveId);
+				return; // is it possible to notify the client of an error with this?
 			}
+			crc = archive.getCrc();
+		}
 
-			compressed = compress(CompressionType.NONE, Arrays.copyOf(buffer.array(), buffer.readableBytes()));
-			buffer.release();
+		response = Unpooled.directBuffer(ArchiveResponseEncoder.responseSize(packed.length));
+		ArchiveResponseEncoder.writeResponse(index, archiveId, packed, response);
+
+		Crc32 crc32 = new Crc32();
+		crc32.update(packed, 0, packed.length);
+		if (crc32.getHash() == crc)
+		{
+			responseCache.put(index, archiveId, response.retainedDuplicate(), modCount);
 		}
 		else
 		{
-			// Requires disk storage. Use packed index data from
-			// store as its crc matches
-			DiskStorage storage = (DiskStorage) store.getStorage();
-			compressed = storage.readIndex(archiveId);
+			// serve it anyway, but don't hold on to it
+			logger.warn("crc mismatch for archive {}/{}: {} != {}", index, archiveId, crc32.getHash(), crc);
 		}
 
-		ArchiveResponsePacket response = new ArchiveResponsePacket();
-		response.setIndex(index);
-		response.setArchive(archiveId);
-		response.setData(compressed);
-
 		ctx.writeAndFlush(response);
 	}
 
-	private void handleRequest(ChannelHandlerContext ctx, int index, int archiveId) throws IOException
+	private byte[] loadArchive(Archive archive) throws IOException
 	{
-		logger.info("Client {} requests index {} archive {}", ctx.channel().remoteAddress(), index, archiveId);
-
-		Index i = store.findIndex(index);
-		assert i != null;
-
-		Archive archive = i.getArchive(archiveId);
-		assert archive != null;
-
 		Storage storage = store.getStorage();
 		byte[] packed = storage.loadArchive(archive); // is compressed, includes length and type
 
 		if (packed == null)
 		{
-			logger.warn("Missing archive {}/{}", index, archiveId);
-			return; // is it possible to notify the client of an error with this?
+			return null;
 		}
 
 		byte compression = packed[0];
@@ -141,18 +168,6 @@ public class ArchiveRequestHandler extends SimpleChannelInboundHandler<ArchiveRe
 			packed = Arrays.copyOf(packed, packed.length - 2);
 		}
 
-		ArchiveResponsePacket response = new ArchiveResponsePacket();
-		response.setIndex(index);
-		response.setArchive(archiveId);
-		response.setData(packed);
-
-		ctx.writeAndFlush(response);
-	}
-
-	private byte[] compress(int compression, byte[] data) throws IOException
-	{
-		Container container = new Container(compression, -1);
-		container.compress(data, null);
-		return container.data;
+		return packed;
 	}
 }
@@ -25,13 +25,24 @@
 package net.runelite.cache.server;
 
 import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import net.runelite.cache.fs.Container;
+import net.runelite.cache.fs.Index;
+import net.runelite.cache.fs.Storage;
 import net.runelite.cache.fs.Store;
+import net.runelite.cache.fs.jagex.CompressionType;
+import net.runelite.cache.fs.jagex.DiskStorage;
+import net.runelite.protocol.update.encoders.ArchiveResponseEncoder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -41,23 +52,52 @@ public class CacheServer implements AutoCloseable
 
 	private static final int PORT = 43594;
 
-	private final EventLoopGroup group = new NioEventLoopGroup(1);
+	private static final long DEFAULT_CACHE_SIZE = 64 * 1024 * 1024;
+
+	private final EventLoopGroup bossGroup = new NioEventLoopGroup(1);
+	private final EventLoopGroup workerGroup;
 
 	private Channel channel;
 
 	private final Store store;
 	private final int revision;
+	private final ResponseCache responseCache;
+	private final MappedResponseCache mappedResponseCache;
+	private ByteBuf indexResponse;
+	private long indexModCount;
 
 	public CacheServer(Store store, int revision)
+	{
+		this(store, revision, Runtime.getRuntime().availableProcessors(), DEFAULT_CACHE_SIZE);
+	}
+
+	/**
+	 * @param store store to serve
+	 * @param revision client revision to accept
+	 * @param threads number of worker threads to handle clients with
+	 * @param cacheSize maximum size in bytes of the cached archive responses
+	 */
+	public CacheServer(Store store, int revision, int threads, long cacheSize)
 	{
 		this.store = store;
 		this.revision = revision;
+		this.workerGroup = new NioEventLoopGroup(threads);
+		this.responseCache = new ResponseCache(cacheSize);
+
+		// archives are served directly out of the data file when it is mapped
+		Storage storage = store.getStorage();
+		this.mappedResponseCache = storage instanceof DiskStorage && ((DiskStorage) storage).isMapped()
+			? new MappedResponseCache((DiskStorage) storage)
+			: null;
 	}
 
-	public void start()
+	public void start() throws IOException
 	{
+		indexModCount = getModCount();
+		indexResponse = buildIndexResponse();
+
 		ServerBootstrap b = new ServerBootstrap();
-		b.group(group)
+		b.group(bossGroup, workerGroup)
 			.channel(NioServerSocketChannel.class)
 			.option(ChannelOption.TCP_NODELAY, true)
 			.childHandler(new CacheServerInitializer(this));
@@ -77,7 +117,43 @@ public class CacheServer implements AutoCloseable
 	public void close()
 	{
 		channel.close().syncUninterruptibly();
-		group.shutdownGracefully();
+		bossGroup.shutdownGracefully();
+		workerGroup.shutdownGracefully();
+
+		responseCache.clear();
+		if (mappedResponseCache != null)
+		{
+			mappedResponseCache.clear();
+		}
+		if (indexResponse != null)
+		{
+			indexResponse.release();
+			indexResponse = null;
+		}
+	}
+
+	/**
+	 * Build the 255/255 response, which for each index contains:
+	 * 4 byte crc
+	 * 4 byte revision
+	 */
+	private ByteBuf buildIndexResponse() throws IOException
+	{
+		List<Index> indexes = store.getIndexes();
+		ByteBuffer table = ByteBuffer.allocate(indexes.size() * 8);
+		for (Index i : indexes)
+		{
+			table.putInt(i.getCrc());
+			table.putInt(i.getRevision());
+		}
+
+		Container container = new Container(CompressionType.NONE, -1);
+		container.compress(table.array(), null);
+
+		byte[] compressed = container.data;
+		ByteBuf response = Unpooled.directBuffer(ArchiveResponseEncoder.responseSize(compressed.length));
+		ArchiveResponseEncoder.writeResponse(255, 255, compressed, response);
+		return response;
 	}
 
 	public int getRevision()
@@ -89,4 +165,52 @@ public class CacheServer implements AutoCloseable
 	{
 		return store;
 	}
+
+	public ResponseCache getResponseCache()
+	{
+		return responseCache;
+	}
+
+	/**
+	 * Get the cache of responses over the mapped data file
+	 *
+	 * @return the cache, or null if the store's data file is not mapped
+	 */
+	public MappedResponseCache getMappedResponseCache()
+	{
+		return mappedResponseCache;
+	}
+
+	/**
+	 * Get the modification count of the store's storage. Storage other
+	 * than {@link DiskStorage} is not changed while the server runs.
+	 *
+	 * @return the modification count
+	 */
+	public long getModCount()
+	{
+		Storage storage = store.getStorage();
+		return storage instanceof DiskStorage ? ((DiskStorage) storage).getModCount() : 0L;
+	}
+
+	/**
+	 * Get the prebuilt 255/255 response, which is rebuilt if the storage
+	 * has changed since it was built
+	 *
+	 * @return a retained duplicate of the response
+	 * @throws IOException
+	 */
+	public synchronized ByteBuf getIndexResponse() throws IOException
+	{
+		long modCount = getModCount();
+		if (modCount != indexModCount)
+		{
+			ByteBuf response = buildIndexResponse();
+			indexResponse.release();
+			indexResponse = response;
+			indexModCount = modCount;
+		}
+
+		return indexResponse.retainedDuplicate();
+	}
 }
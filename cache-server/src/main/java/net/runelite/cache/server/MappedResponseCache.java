@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) 2018, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.server;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import net.runelite.cache.fs.Archive;
+import net.runelite.cache.fs.jagex.CompressionType;
+import net.runelite.cache.fs.jagex.DiskStorage;
+import net.runelite.cache.util.Crc32;
+import static net.runelite.protocol.update.encoders.ArchiveResponseEncoder.CHUNK_SIZE;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Builds archive responses directly over a memory mapped data file.
+ * <p>
+ * For each archive the layout of its encoded response is computed once:
+ * the response header, followed by views of the archive data in the
+ * mapping, split at block boundaries with the block marker between them.
+ * Responses are composite buffers of the layout, so the archive data is
+ * written to the socket straight from the page cache without being copied.
+ * <p>
+ * Layouts are kept least recently used first up to a fixed count, and are
+ * all dropped once the storage is written to or compacted, as the views
+ * may then no longer hold the archive.
+ */
+public class MappedResponseCache
+{
+	private static final Logger logger = LoggerFactory.getLogger(MappedResponseCache.class);
+
+	private static final int DEFAULT_MAX_LAYOUTS = 65536;
+
+	private static final ByteBuffer BLOCK_MARKER = ByteBuffer.allocateDirect(1)
+		.put(0, (byte) 0xff)
+		.asReadOnlyBuffer();
+
+	private final DiskStorage storage;
+	private final int maxLayouts;
+	private final Map<Integer, ByteBuffer[]> layouts = new LinkedHashMap<Integer, ByteBuffer[]>(16, 0.75f, true)
+	{
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Integer, ByteBuffer[]> eldest)
+		{
+			return size() > maxLayouts;
+		}
+	};
+	// storage modification count the layouts were built at
+	private long modCount;
+
+	public MappedResponseCache(DiskStorage storage)
+	{
+		this(storage, DEFAULT_MAX_LAYOUTS);
+	}
+
+	public MappedResponseCache(DiskStorage storage, int maxLayouts)
+	{
+		this.storage = storage;
+		this.maxLayouts = maxLayouts;
+		this.modCount = storage.getModCount();
+	}
+
+	/**
+	 * Get the response for an archive
+	 *
+	 * @param archive
+	 * @return the response, or null if the archive can't be read or does
+	 * not match its crc
+	 * @throws IOException
+	 */
+	public ByteBuf get(Archive archive) throws IOException
+	{
+		int key = archive.getIndex().getId() << 16 | archive.getArchiveId();
+		// read before the sectors are loaded, so a layout built from data
+		// written concurrently is never cached under the newer count
+		long modCount = storage.getModCount();
+		ByteBuffer[] layout = getLayout(key, modCount);
+		if (layout == null)
+		{
+			ByteBuffer[] sectors = storage.loadArchiveSectors(archive);
+			if (sectors == null)
+			{
+				return null;
+			}
+
+			layout = buildLayout(archive.getIndex().getId(), archive.getArchiveId(), sectors, archive.getCrc());
+			if (layout == null)
+			{
+				return null;
+			}
+
+			putLayout(key, layout, modCount);
+		}
+
+		return Unpooled.wrappedBuffer(layout.length, layout);
+	}
+
+	private synchronized ByteBuffer[] getLayout(int key, long modCount)
+	{
+		if (modCount != this.modCount)
+		{
+			// the storage has changed since the layouts were built
+			layouts.clear();
+			this.modCount = modCount;
+			return null;
+		}
+
+		return layouts.get(key);
+	}
+
+	private synchronized void putLayout(int key, ByteBuffer[] layout, long modCount)
+	{
+		if (modCount == this.modCount)
+		{
+			layouts.putIfAbsent(key, layout);
+		}
+	}
+
+	public synchronized void clear()
+	{
+		layouts.clear();
+	}
+
+	public synchronized int getCount()
+	{
+		return layouts.size();
+	}
+
+	/**
+	 * Compute the layout of the response for an archive
+	 *
+	 * @param index
+	 * @param archive
+	 * @param sectors the archive data
+	 * @param crc expected crc of the archive data
+	 * @return the buffers making up the response, or null if the data is
+	 * invalid
+	 */
+	static ByteBuffer[] buildLayout(int index, int archive, ByteBuffer[] sectors, int crc)
+	{
+		if (sectors.length == 0 || sectors[0].remaining() < 5)
+		{
+			logger.warn("Short archive {}/{}", index, archive);
+			return null;
+		}
+
+		int compression = sectors[0].get(sectors[0].position()) & 0xFF;
+		int compressedSize = sectors[0].getInt(sectors[0].position() + 1);
+
+		// size the client expects the data to be, which excludes the revision
+		// that may be appended
+		int length = 1 // compression type
+			+ 4 // compressed size
+			+ compressedSize
+			+ (compression != CompressionType.NONE ? 4 : 0);
+
+		ByteBuffer header = ByteBuffer.allocateDirect(3);
+		header.put((byte) index);
+		header.putShort((short) archive);
+		header.flip();
+
+		List<ByteBuffer> layout = new ArrayList<>();
+		layout.add(header.asReadOnlyBuffer());
+
+		Crc32 crc32 = new Crc32();
+		int remaining = length;
+		int blockRemaining = CHUNK_SIZE - 3; // - 3 for the header
+		for (ByteBuffer sector : sectors)
+		{
+			int position = sector.position();
+			while (position < sector.limit() && remaining > 0)
+			{
+				if (blockRemaining == 0)
+				{
+					layout.add(BLOCK_MARKER);
+					blockRemaining = CHUNK_SIZE - 1;
+				}
+
+				int n = Math.min(Math.min(sector.limit() - position, blockRemaining), remaining);
+
+				ByteBuffer piece = sector.duplicate();
+				piece.position(position);
+				piece.limit(position + n);
+				piece = piece.slice();
+
+				crc32.update(piece);
+				layout.add(piece);
+
+				position += n;
+				blockRemaining -= n;
+				remaining -= n;
+			}
+		}
+
+		if (remaining > 0)
+		{
+			logger.warn("Archive {}/{} is short {} bytes", index, archive, remaining);
+			return null;
+		}
+
+		if (crc32.getHash() != crc)
+		{
+			logger.warn("crc mismatch for archive {}/{}: {} != {}", index, archive, crc32.getHash(), crc);
+			return null;
+		}
+
+		return layout.toArray(new ByteBuffer[layout.size()]);
+	}
+}
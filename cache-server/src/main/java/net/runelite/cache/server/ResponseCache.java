@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2018, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.server;
+
+import io.netty.buffer.ByteBuf;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A size limited cache of encoded archive responses, keyed by index and
+ * archive. Responses are evicted least recently used first once the total
+ * size of the cached buffers exceeds the limit. Every response is dropped
+ * once the storage modification count changes, so responses are never
+ * served for archives which have since been rewritten.
+ * <p>
+ * The cache owns one reference to each buffer it holds. Buffers returned
+ * from {@link #get(int, int, long)} are retained duplicates, which the caller
+ * must release, usually by writing them to a channel.
+ */
+public class ResponseCache
+{
+	private final long maxSize;
+	private final Map<Integer, ByteBuf> responses = new LinkedHashMap<>(16, 0.75f, true);
+	private long size;
+	private long modCount;
+
+	public ResponseCache(long maxSize)
+	{
+		this.maxSize = maxSize;
+	}
+
+	private static int key(int index, int archive)
+	{
+		return index << 16 | archive;
+	}
+
+	/**
+	 * Get a cached response
+	 *
+	 * @param index
+	 * @param archive
+	 * @param modCount the current modification count of the storage
+	 * @return a retained duplicate of the response, or null if it is not cached
+	 */
+	public synchronized ByteBuf get(int index, int archive, long modCount)
+	{
+		if (modCount != this.modCount)
+		{
+			// the storage has changed since the responses were built
+			clear();
+			this.modCount = modCount;
+			return null;
+		}
+
+		ByteBuf response = responses.get(key(index, archive));
+		return response != null ? response.retainedDuplicate() : null;
+	}
+
+	/**
+	 * Add a response to the cache, transferring ownership of the buffer to
+	 * the cache. The buffer is released immediately if it is larger than the
+	 * cache, or if the storage has changed since it was read.
+	 *
+	 * @param index
+	 * @param archive
+	 * @param response
+	 * @param modCount the modification count of the storage when the
+	 * archive was read, which must be read before the archive is
+	 */
+	public synchronized void put(int index, int archive, ByteBuf response, long modCount)
+	{
+		int length = response.readableBytes();
+		if (length > maxSize || modCount != this.modCount)
+		{
+			response.release();
+			return;
+		}
+
+		ByteBuf old = responses.put(key(index, archive), response);
+		if (old != null)
+		{
+			size -= old.readableBytes();
+			old.release();
+		}
+
+		size += length;
+
+		Iterator<ByteBuf> it = responses.values().iterator();
+		while (size > maxSize && it.hasNext())
+		{
+			ByteBuf eldest = it.next();
+			it.remove();
+			size -= eldest.readableBytes();
+			eldest.release();
+		}
+	}
+
+	public synchronized void clear()
+	{
+		for (ByteBuf response : responses.values())
+		{
+			response.release();
+		}
+		responses.clear();
+		size = 0;
+	}
+
+	public synchronized int getCount()
+	{
+		return responses.size();
+	}
+
+	public synchronized long getSize()
+	{
+		return size;
+	}
+
+	public long getMaxSize()
+	{
+		return maxSize;
+	}
+}
@@ -24,15 +24,25 @@
  */
 package net.runelite.cache.server;
 
+import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
 import net.runelite.cache.StoreLocation;
 import net.runelite.cache.client.CacheClient;
+import net.runelite.cache.client.CacheDownloader;
 import net.runelite.cache.fs.Archive;
 import net.runelite.cache.fs.Container;
 import net.runelite.cache.fs.Index;
 import net.runelite.cache.fs.Storage;
 import net.runelite.cache.fs.Store;
+import net.runelite.cache.fs.jagex.DiskStorage;
 import net.runelite.cache.index.FileData;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
@@ -40,9 +50,13 @@ import org.junit.Ignore;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class CacheServerTest
 {
+	private static final Logger logger = LoggerFactory.getLogger(CacheServerTest.class);
+
 	private static final String HOST = "localhost";
 	private static final int REVISION = 154;
 
@@ -104,6 +118,224 @@ public class CacheServerTest
 		}
 	}
 
+	@Test
+	public void testDownloader() throws Exception
+	{
+		try (Store store = new Store(folder.newFolder());
+			CacheServer server = new CacheServer(store, REVISION))
+		{
+			addRandomArchives(store, 3, 100, 2000);
+
+			server.start();
+
+			try (Store store2 = new Store(folder.newFolder());
+				CacheDownloader downloader = new CacheDownloader(store2, HOST, REVISION, 4))
+			{
+				downloader.connect();
+				downloader.download();
+
+				assertStoresEqual(store, store2);
+
+				// every index descriptor and archive response is cached
+				assertEquals(3 + 3 * 100, server.getResponseCache().getCount());
+			}
+		}
+	}
+
+	@Test
+	public void testDownloaderMapped() throws Exception
+	{
+		try (Store store = new Store(new DiskStorage(folder.newFolder(), true));
+			CacheServer server = new CacheServer(store, REVISION))
+		{
+			addRandomArchives(store, 3, 100, 5000);
+
+			server.start();
+
+			try (Store store2 = new Store(folder.newFolder());
+				CacheDownloader downloader = new CacheDownloader(store2, HOST, REVISION, 4))
+			{
+				downloader.connect();
+				downloader.download();
+
+				assertStoresEqual(store, store2);
+
+				// archives are served from the mapping, only the index descriptors are cached
+				assertEquals(3, server.getResponseCache().getCount());
+			}
+		}
+	}
+
+	@Test
+	@Ignore
+	public void benchmarkMapped() throws Exception
+	{
+		final int clients = 8;
+
+		File dir = folder.newFolder();
+		try (Store store = new Store(dir))
+		{
+			// large archives, like models and maps
+			addRandomArchives(store, 2, 500, 200_000);
+		}
+
+		// copying the archives out of the data file for every request
+		try (Store store = new Store(new DiskStorage(dir, false)))
+		{
+			store.load();
+			runLoad(store, Runtime.getRuntime().availableProcessors(), 0, clients, 2 * 500);
+		}
+
+		// serving them straight from the mapping
+		try (Store store = new Store(new DiskStorage(dir, true)))
+		{
+			store.load();
+			runLoad(store, Runtime.getRuntime().availableProcessors(), 0, clients, 2 * 500);
+		}
+	}
+
+	@Test
+	@Ignore
+	public void benchmarkDownload() throws Exception
+	{
+		try (Store store = new Store(StoreLocation.LOCATION);
+			CacheServer server = new CacheServer(store, REVISION))
+		{
+			store.load();
+
+			server.start();
+
+			for (int connections : new int[]{ 1, 2, 4, 8 })
+			{
+				try (Store store2 = new Store(folder.newFolder());
+					CacheDownloader downloader = new CacheDownloader(store2, HOST, REVISION, connections))
+				{
+					long start = System.nanoTime();
+					downloader.connect();
+					downloader.download();
+					logger.info("Downloaded cache over {} connections in {}ms", connections,
+						TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+				}
+			}
+		}
+	}
+
+	@Test
+	@Ignore
+	public void benchmarkLoad() throws Exception
+	{
+		final int clients = 32;
+
+		try (Store store = new Store(folder.newFolder()))
+		{
+			addRandomArchives(store, 4, 1000, 20_000);
+
+			// a single thread without a response cache, as the server was before
+			runLoad(store, 1, 0, clients, 4 * 1000);
+			runLoad(store, Runtime.getRuntime().availableProcessors(), 64 * 1024 * 1024, clients, 4 * 1000);
+		}
+	}
+
+	private void runLoad(Store store, int threads, long cacheSize, int clients, int archives) throws Exception
+	{
+		try (CacheServer server = new CacheServer(store, REVISION, threads, cacheSize))
+		{
+			server.start();
+
+			for (int run = 0; run < 3; ++run)
+			{
+				List<CacheDownloader> downloaders = new ArrayList<>();
+				for (int i = 0; i < clients; ++i)
+				{
+					CacheDownloader downloader = new CacheDownloader(new Store(folder.newFolder()), HOST, REVISION, 1);
+					downloader.setWatcher((archive, data) ->
+					{
+					});
+					downloader.connect();
+					downloaders.add(downloader);
+				}
+
+				long gcCount = 0, gcTime = 0;
+				for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans())
+				{
+					gcCount -= gc.getCollectionCount();
+					gcTime -= gc.getCollectionTime();
+				}
+
+				long start = System.nanoTime();
+				downloaders.parallelStream().forEach(downloader ->
+				{
+					try
+					{
+						downloader.download();
+					}
+					catch (IOException ex)
+					{
+						throw new UncheckedIOException(ex);
+					}
+				});
+				long elapsed = System.nanoTime() - start;
+
+				for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans())
+				{
+					gcCount += gc.getCollectionCount();
+					gcTime += gc.getCollectionTime();
+				}
+
+				downloaders.forEach(CacheDownloader::close);
+
+				logger.info("{} threads, {} byte cache: {} clients downloaded {} archives each in {}ms, {} requests/s", threads, cacheSize, clients, archives,
+					TimeUnit.NANOSECONDS.toMillis(elapsed), (long) clients * archives * 1_000_000_000L / elapsed);
+				logger.info("{} collections taking {}ms", gcCount, gcTime);
+			}
+		}
+	}
+
+	private static void assertStoresEqual(Store store, Store store2) throws IOException
+	{
+		assertEquals(store.getIndexes().size(), store2.getIndexes().size());
+
+		Storage storage = store.getStorage();
+		Storage storage2 = store2.getStorage();
+		for (Index index : store.getIndexes())
+		{
+			Index index2 = store2.findIndex(index.getId());
+			assertEquals(index.getArchives().size(), index2.getArchives().size());
+
+			for (Archive archive : index.getArchives())
+			{
+				Archive archive2 = index2.getArchive(archive.getArchiveId());
+				assertEquals(archive.getCrc(), archive2.getCrc());
+				assertArrayEquals(archive.decompress(storage.loadArchive(archive)),
+					archive2.decompress(storage2.loadArchive(archive2)));
+			}
+		}
+	}
+
+	private static void addRandomArchives(Store store, int indexes, int archives, int maxSize) throws IOException
+	{
+		Random random = new Random(42L);
+		Storage storage = store.getStorage();
+		for (int i = 0; i < indexes; ++i)
+		{
+			Index index = store.addIndex(i);
+			for (int j = 0; j < archives; ++j)
+			{
+				Archive archive = index.addArchive(j);
+				archive.setFileData(new FileData[]{ new FileData() });
+
+				byte[] data = new byte[random.nextInt(maxSize)];
+				random.nextBytes(data);
+
+				Container container = new Container(archive.getCompression(), -1);
+				container.compress(data, null);
+				storage.saveArchive(archive, container.data);
+			}
+		}
+
+		store.save();
+	}
+
 	private void addInitialFilesToStore(Store store) throws FileNotFoundException, IOException
 	{
 		Storage storage = store.getStorage();
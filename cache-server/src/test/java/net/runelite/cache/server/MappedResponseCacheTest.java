@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2018, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.server;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import net.runelite.cache.StoreLocation;
+import net.runelite.cache.fs.Archive;
+import net.runelite.cache.fs.Container;
+import net.runelite.cache.fs.Index;
+import net.runelite.cache.fs.Store;
+import net.runelite.cache.fs.jagex.CompressionType;
+import net.runelite.cache.fs.jagex.DiskStorage;
+import net.runelite.cache.index.FileData;
+import net.runelite.cache.util.Crc32;
+import net.runelite.protocol.update.encoders.ArchiveResponseEncoder;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MappedResponseCacheTest
+{
+	private static final int SECTOR_DATA_SIZE = 512;
+
+	@Rule
+	public TemporaryFolder folder = StoreLocation.getTemporaryFolder();
+
+	@Test
+	public void testBuildLayout() throws Exception
+	{
+		Random random = new Random(42L);
+		for (int length : new int[]{ 0, 100, 504, 505, 506, 1000, 1019, 1020, 1021, 5000, 100_000 })
+		{
+			byte[] data = new byte[length];
+			random.nextBytes(data);
+
+			Container container = new Container(CompressionType.NONE, -1);
+			container.compress(data, null);
+			byte[] packed = container.data;
+
+			Crc32 crc = new Crc32();
+			crc.update(packed, 0, packed.length);
+
+			ByteBuf expected = Unpooled.buffer();
+			ArchiveResponseEncoder.writeResponse(1, 2, packed, expected);
+
+			ByteBuffer[] layout = MappedResponseCache.buildLayout(1, 2, toSectors(packed, 0), crc.getHash());
+			assertEquals(expected, Unpooled.wrappedBuffer(layout.length, layout));
+
+			// the revision appended to the archive is not sent
+			layout = MappedResponseCache.buildLayout(1, 2, toSectors(packed, 2), crc.getHash());
+			assertEquals(expected, Unpooled.wrappedBuffer(layout.length, layout));
+		}
+	}
+
+	@Test
+	public void testCrcMismatch() throws Exception
+	{
+		Container container = new Container(CompressionType.NONE, -1);
+		container.compress(new byte[1000], null);
+		byte[] packed = container.data;
+
+		assertNull(MappedResponseCache.buildLayout(1, 2, toSectors(packed, 0), 42));
+		// truncated
+		assertNull(MappedResponseCache.buildLayout(1, 2, toSectors(new byte[]{ 0, 0, 0, 0, 10 }, 0), 42));
+	}
+
+	@Test
+	public void testInvalidatedOnWrite() throws Exception
+	{
+		try (Store store = new Store(new DiskStorage(folder.newFolder(), true)))
+		{
+			DiskStorage storage = (DiskStorage) store.getStorage();
+			Archive archive = store.addIndex(0).addArchive(0);
+			archive.setFileData(new FileData[]{ new FileData() });
+			byte[] packed = save(storage, archive, new byte[1000]);
+
+			MappedResponseCache cache = new MappedResponseCache(storage);
+			assertEquals(response(archive, packed), cache.get(archive));
+			assertEquals(1, cache.getCount());
+
+			// rewritten in place over the mapped sectors
+			byte[] data = new byte[2000];
+			Arrays.fill(data, (byte) 1);
+			packed = save(storage, archive, data);
+			assertEquals(response(archive, packed), cache.get(archive));
+
+			store.save();
+			storage.compact();
+			assertEquals(response(archive, packed), cache.get(archive));
+			assertEquals(1, cache.getCount());
+		}
+	}
+
+	@Test
+	public void testMaxLayouts() throws Exception
+	{
+		try (Store store = new Store(new DiskStorage(folder.newFolder(), true)))
+		{
+			DiskStorage storage = (DiskStorage) store.getStorage();
+			Index index = store.addIndex(0);
+			List<Archive> archives = new ArrayList<>();
+			for (int i = 0; i < 3; ++i)
+			{
+				Archive archive = index.addArchive(i);
+				save(storage, archive, new byte[100 * (i + 1)]);
+				archives.add(archive);
+			}
+
+			MappedResponseCache cache = new MappedResponseCache(storage, 2);
+			for (Archive archive : archives)
+			{
+				cache.get(archive);
+			}
+			assertEquals(2, cache.getCount());
+		}
+	}
+
+	private static byte[] save(DiskStorage storage, Archive archive, byte[] data) throws IOException
+	{
+		Container container = new Container(CompressionType.NONE, -1);
+		container.compress(data, null);
+		storage.saveArchive(archive, container.data);
+		return container.data;
+	}
+
+	private static ByteBuf response(Archive archive, byte[] packed)
+	{
+		ByteBuf response = Unpooled.buffer();
+		ArchiveResponseEncoder.writeResponse(archive.getIndex().getId(), archive.getArchiveId(), packed, response);
+		return response;
+	}
+
+	/**
+	 * Split data into direct buffers the size of the data in a sector
+	 */
+	private static ByteBuffer[] toSectors(byte[] data, int trailer)
+	{
+		int length = data.length + trailer;
+		ByteBuffer[] sectors = new ByteBuffer[(length + SECTOR_DATA_SIZE - 1) / SECTOR_DATA_SIZE];
+		for (int i = 0; i < sectors.length; ++i)
+		{
+			int size = Math.min(SECTOR_DATA_SIZE, length - i * SECTOR_DATA_SIZE);
+			ByteBuffer sector = ByteBuffer.allocateDirect(size);
+			int copy = Math.min(size, data.length - i * SECTOR_DATA_SIZE);
+			if (copy > 0)
+			{
+				sector.put(data, i * SECTOR_DATA_SIZE, copy);
+			}
+			sector.clear();
+			sectors[i] = sector.asReadOnlyBuffer();
+		}
+		return sectors;
+	}
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2018, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.server;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import org.junit.Test;
+
+public class ResponseCacheTest
+{
+	@Test
+	public void testEviction()
+	{
+		ResponseCache cache = new ResponseCache(300);
+
+		ByteBuf a = Unpooled.directBuffer(100).writeZero(100);
+		ByteBuf b = Unpooled.directBuffer(100).writeZero(100);
+		ByteBuf c = Unpooled.directBuffer(100).writeZero(100);
+		ByteBuf d = Unpooled.directBuffer(100).writeZero(100);
+
+		cache.put(0, 0, a, 0);
+		cache.put(0, 1, b, 0);
+		cache.put(0, 2, c, 0);
+		assertEquals(300, cache.getSize());
+
+		// touch a so b is the least recently used
+		cache.get(0, 0, 0).release();
+
+		cache.put(0, 3, d, 0);
+		assertEquals(3, cache.getCount());
+		assertEquals(300, cache.getSize());
+		assertNull(cache.get(0, 1, 0));
+		assertEquals(0, b.refCnt());
+
+		ByteBuf response = cache.get(0, 0, 0);
+		assertNotNull(response);
+		assertEquals(100, response.readableBytes());
+		assertEquals(2, a.refCnt());
+
+		// the reader index of the cached response is independent of the duplicate
+		response.skipBytes(100);
+		response.release();
+
+		response = cache.get(0, 0, 0);
+		assertEquals(100, response.readableBytes());
+		response.release();
+
+		cache.clear();
+		assertEquals(0, cache.getSize());
+		assertEquals(0, a.refCnt());
+		assertEquals(0, c.refCnt());
+		assertEquals(0, d.refCnt());
+	}
+
+	@Test
+	public void testTooLarge()
+	{
+		ResponseCache cache = new ResponseCache(50);
+
+		ByteBuf a = Unpooled.directBuffer(100).writeZero(100);
+		cache.put(0, 0, a, 0);
+
+		assertEquals(0, cache.getCount());
+		assertEquals(0, a.refCnt());
+	}
+
+	@Test
+	public void testReplace()
+	{
+		ResponseCache cache = new ResponseCache(1000);
+
+		ByteBuf a = Unpooled.directBuffer(100).writeZero(100);
+		ByteBuf b = Unpooled.directBuffer(200).writeZero(200);
+		cache.put(1, 1, a, 0);
+		cache.put(1, 1, b, 0);
+
+		assertEquals(1, cache.getCount());
+		assertEquals(200, cache.getSize());
+		assertEquals(0, a.refCnt());
+
+		cache.clear();
+	}
+
+	@Test
+	public void testModCount()
+	{
+		ResponseCache cache = new ResponseCache(1000);
+
+		ByteBuf a = Unpooled.directBuffer(100).writeZero(100);
+		cache.put(0, 0, a, 0);
+
+		// the storage changes, dropping every response
+		assertNull(cache.get(0, 0, 1));
+		assertEquals(0, cache.getCount());
+		assertEquals(0, cache.getSize());
+		assertEquals(0, a.refCnt());
+
+		// a response read before the change is not cached
+		ByteBuf b = Unpooled.directBuffer(100).writeZero(100);
+		cache.put(0, 0, b, 0);
+		assertEquals(0, cache.getCount());
+		assertEquals(0, b.refCnt());
+
+		ByteBuf c = Unpooled.directBuffer(100).writeZero(100);
+		cache.put(0, 0, c, 1);
+		ByteBuf response = cache.get(0, 0, 1);
+		assertNotNull(response);
+		response.release();
+
+		cache.clear();
+	}
+}
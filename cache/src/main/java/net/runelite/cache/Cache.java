@@ -27,6 +27,7 @@ package net.runelite.cache;
 import java.io.File;
 import java.io.IOException;
 import net.runelite.cache.fs.Store;
+import net.runelite.cache.fs.jagex.DiskStorage;
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.CommandLineParser;
 import org.apache.commons.cli.DefaultParser;
@@ -46,6 +47,8 @@ public class Cache
 		options.addOption(null, "objects", true, "directory to dump objects to");
 		options.addOption(null, "sprites", true, "directory to dump sprites to");
 
+		options.addOption(null, "compact", false, "compact the cache data file");
+
 		CommandLineParser parser = new DefaultParser();
 		CommandLine cmd;
 		try
@@ -115,6 +118,12 @@ public class Cache
 			System.out.println("Dumping sprites to " + spritedir);
 			dumpSprites(store, new File(spritedir));
 		}
+		else if (cmd.hasOption("compact"))
+		{
+			DiskStorage storage = (DiskStorage) store.getStorage();
+			long reclaimed = storage.compact();
+			System.out.println("Compacted cache, reclaimed " + reclaimed + " bytes");
+		}
 		else
 		{
 			System.err.println("Nothing to do");
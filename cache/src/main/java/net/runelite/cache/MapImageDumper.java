@@ -29,8 +29,12 @@ import java.awt.Graphics2D;
 import java.awt.Image;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import lombok.Getter;
 import lombok.Setter;
 import net.runelite.cache.definitions.AreaDefinition;
@@ -93,6 +97,15 @@ public class MapImageDumper
 	@Setter
 	private boolean outlineRegions;
 
+	/**
+	 * Pool used to load regions and render their tiles concurrently. When
+	 * null everything is done on the calling thread. The output is the same
+	 * either way.
+	 */
+	@Getter
+	@Setter
+	private ForkJoinPool forkJoinPool;
+
 	public MapImageDumper(Store store)
 	{
 		this.store = store;
@@ -192,6 +205,10 @@ public class MapImageDumper
 
 	private void drawMap(BufferedImage image, int z)
 	{
+		// each region's tiles are drawn only within the region's own part of
+		// the image, so regions can be drawn concurrently
+		List<ForkJoinTask<?>> tasks = new ArrayList<>();
+
 		for (Region region : regionLoader.getRegions())
 		{
 			int baseX = region.getBaseX();
@@ -204,7 +221,19 @@ public class MapImageDumper
 			// region has the greatest y, so invert
 			int drawBaseY = regionLoader.getHighestY().getBaseY() - baseY;
 
-			drawMap(image, drawBaseX, drawBaseY, z, region);
+			if (forkJoinPool != null)
+			{
+				tasks.add(forkJoinPool.submit(() -> drawMap(image, drawBaseX, drawBaseY, z, region)));
+			}
+			else
+			{
+				drawMap(image, drawBaseX, drawBaseY, z, region);
+			}
+		}
+
+		for (ForkJoinTask<?> task : tasks)
+		{
+			task.join();
 		}
 	}
 
@@ -894,7 +923,14 @@ public class MapImageDumper
 	private void loadRegions(Store store) throws IOException
 	{
 		regionLoader = new RegionLoader(store);
-		regionLoader.loadRegions();
+		if (forkJoinPool != null)
+		{
+			regionLoader.loadRegions(forkJoinPool);
+		}
+		else
+		{
+			regionLoader.loadRegions();
+		}
 		regionLoader.calculateBounds();
 
 		logger.info("North most region: {}", regionLoader.getLowestY().getBaseY());
@@ -27,6 +27,7 @@ package net.runelite.cache.fs;
 import static com.google.common.primitives.Bytes.concat;
 import com.google.common.primitives.Ints;
 import java.io.IOException;
+import java.util.Arrays;
 import net.runelite.cache.fs.jagex.CompressionType;
 import net.runelite.cache.io.InputStream;
 import net.runelite.cache.io.OutputStream;
@@ -110,11 +111,17 @@ public class Container
 		{
 			case CompressionType.NONE:
 			{
-				byte[] encryptedData = new byte[compressedLength];
-				stream.readBytes(encryptedData, 0, compressedLength);
+				if (stream.remaining() < compressedLength)
+				{
+					throw new IOException("Short container: " + stream.remaining() + " < " + compressedLength);
+				}
+
+				// the payload is copied out once, and decrypted in place
+				data = Arrays.copyOfRange(b, 5, 5 + compressedLength);
+				stream.skip(compressedLength);
 
-				crc32.update(encryptedData, 0, compressedLength);
-				byte[] decryptedData = decrypt(encryptedData, encryptedData.length, keys);
+				crc32.update(data, 0, compressedLength);
+				decrypt(data, 0, compressedLength, keys);
 
 				if (stream.remaining() >= 2)
 				{
@@ -122,63 +129,48 @@ public class Container
 					assert revision != -1;
 				}
 
-				data = decryptedData;
-
 				break;
 			}
 			case CompressionType.BZ2:
+			case CompressionType.GZ:
 			{
-				byte[] encryptedData = new byte[compressedLength + 4];
-				stream.readBytes(encryptedData);
-
-				crc32.update(encryptedData, 0, encryptedData.length);
-				byte[] decryptedData = decrypt(encryptedData, encryptedData.length, keys);
-
-				if (stream.remaining() >= 2)
+				int encryptedLength = compressedLength + 4; // includes decompressed length
+				if (stream.remaining() < encryptedLength)
 				{
-					revision = stream.readUnsignedShort();
-					assert revision != -1;
+					throw new IOException("Short container: " + stream.remaining() + " < " + encryptedLength);
 				}
 
-				stream = new InputStream(decryptedData);
-
-				int decompressedLength = stream.readInt();
-				data = BZip2.decompress(stream.getRemaining(), compressedLength);
+				crc32.update(b, 5, encryptedLength);
 
-				if (data == null)
+				// decrypt a copy of the payload in place, or read it straight
+				// out of the input when it isn't encrypted
+				byte[] decryptedData = b;
+				int offset = 5;
+				if (keys != null)
 				{
-					return null;
+					decryptedData = Arrays.copyOfRange(b, 5, 5 + encryptedLength);
+					offset = 0;
+					decrypt(decryptedData, 0, encryptedLength, keys);
 				}
 
-				assert data.length == decompressedLength;
-
-				break;
-			}
-			case CompressionType.GZ:
-			{
-				byte[] encryptedData = new byte[compressedLength + 4];
-				stream.readBytes(encryptedData);
-
-				crc32.update(encryptedData, 0, encryptedData.length);
-				byte[] decryptedData = decrypt(encryptedData, encryptedData.length, keys);
-
+				stream.skip(encryptedLength);
 				if (stream.remaining() >= 2)
 				{
 					revision = stream.readUnsignedShort();
 					assert revision != -1;
 				}
 
-				stream = new InputStream(decryptedData);
-
-				int decompressedLength = stream.readInt();
-				data = GZip.decompress(stream.getRemaining(), compressedLength);
-
-				if (data == null)
+				int decompressedLength = Ints.fromBytes(decryptedData[offset], decryptedData[offset + 1],
+					decryptedData[offset + 2], decryptedData[offset + 3]);
+				if (decompressedLength < 0)
 				{
-					return null;
+					throw new IOException("Invalid decompressed length " + decompressedLength);
 				}
 
-				assert data.length == decompressedLength;
+				// decompress straight into an array of the decompressed size
+				data = compression == CompressionType.BZ2
+					? BZip2.decompress(decryptedData, offset + 4, compressedLength, decompressedLength)
+					: GZip.decompress(decryptedData, offset + 4, compressedLength, decompressedLength);
 
 				break;
 			}
@@ -192,15 +184,15 @@ public class Container
 		return container;
 	}
 
-	private static byte[] decrypt(byte[] data, int length, int[] keys)
+	private static void decrypt(byte[] data, int offset, int length, int[] keys)
 	{
 		if (keys == null)
 		{
-			return data;
+			return;
 		}
 
 		Xtea xtea = new Xtea(keys);
-		return xtea.decrypt(data, length);
+		xtea.decrypt(data, offset, length);
 	}
 
 	private static byte[] encrypt(byte[] data, int length, int[] keys)
@@ -24,7 +24,10 @@
  */
 package net.runelite.cache.fs;
 
+import io.netty.util.collection.IntObjectHashMap;
+import io.netty.util.collection.IntObjectMap;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import net.runelite.cache.index.ArchiveData;
@@ -47,6 +50,8 @@ public class Index
 	private int compression; // compression method of this index's data in 255
 
 	private final List<Archive> archives = new ArrayList<>();
+	private final IntObjectMap<Archive> archivesById = new IntObjectHashMap<>();
+	private final IntObjectMap<Archive> archivesByName = new IntObjectHashMap<>(); // by name hash, unnamed archives are not included
 
 	public Index(int id)
 	{
@@ -147,39 +152,127 @@ public class Index
 
 	public List<Archive> getArchives()
 	{
-		return archives;
+		return Collections.unmodifiableList(archives);
 	}
 
 	public Archive addArchive(int id)
 	{
 		Archive archive = new Archive(this, id);
 		this.archives.add(archive);
+		this.archivesById.putIfAbsent(id, archive);
 		return archive;
 	}
 
-	public Archive getArchive(int id)
+	public void removeArchive(Archive archive)
 	{
-		for (Archive a : archives)
+		assert archive.getIndex() == this;
+
+		int idx = indexOf(archive);
+		if (idx == -1)
 		{
-			if (a.getArchiveId() == id)
+			return;
+		}
+
+		archives.remove(idx);
+
+		if (archivesById.get(archive.getArchiveId()) == archive)
+		{
+			archivesById.remove(archive.getArchiveId());
+
+			// fall back to the next archive with the same id, if there is one
+			for (Archive a : archives)
 			{
-				return a;
+				if (a.getArchiveId() == archive.getArchiveId())
+				{
+					archivesById.put(a.getArchiveId(), a);
+					break;
+				}
 			}
 		}
-		return null;
+
+		removeName(archive, archive.getNameHash());
+	}
+
+	public Archive getArchive(int id)
+	{
+		return archivesById.get(id);
 	}
 
 	public Archive findArchiveByName(String name)
 	{
 		int hash = Djb2.hash(name);
+		return archivesByName.get(hash);
+	}
+
+	/**
+	 * Find the archives with each of the given names
+	 *
+	 * @param names archive names
+	 * @return the archives, in the same order as the names, with null for
+	 * names which have no archive
+	 */
+	public Archive[] findArchivesByName(String... names)
+	{
+		Archive[] result = new Archive[names.length];
+		for (int i = 0; i < names.length; ++i)
+		{
+			result[i] = archivesByName.get(Djb2.hash(names[i]));
+		}
+		return result;
+	}
+
+	void nameHashChanged(Archive archive, int oldNameHash)
+	{
+		if (archivesById.get(archive.getArchiveId()) != archive && indexOf(archive) == -1)
+		{
+			// archive has been removed
+			return;
+		}
+
+		removeName(archive, oldNameHash);
+
+		if (archive.getNameHash() == 0)
+		{
+			return;
+		}
+
+		Archive existing = archivesByName.get(archive.getNameHash());
+		if (existing == null || indexOf(archive) < indexOf(existing))
+		{
+			archivesByName.put(archive.getNameHash(), archive);
+		}
+	}
+
+	private int indexOf(Archive archive)
+	{
+		for (int i = 0; i < archives.size(); ++i)
+		{
+			if (archives.get(i) == archive)
+			{
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private void removeName(Archive archive, int nameHash)
+	{
+		if (nameHash == 0 || archivesByName.get(nameHash) != archive)
+		{
+			return;
+		}
+
+		archivesByName.remove(nameHash);
+
+		// fall back to the next archive with the same name, if there is one
 		for (Archive a : archives)
 		{
-			if (a.getNameHash() == hash)
+			if (a != archive && a.getNameHash() == nameHash)
 			{
-				return a;
+				archivesByName.put(nameHash, a);
+				break;
 			}
 		}
-		return null;
 	}
 
 	public IndexData toIndexData()
@@ -26,6 +26,14 @@ package net.runelite.cache.fs;
 
 import java.io.IOException;
 
+/**
+ * Backing storage for a {@link Store}.
+ * <p>
+ * {@link #loadArchive(Archive)} may be called concurrently from multiple
+ * threads once the store has been loaded. The remaining methods mutate the
+ * storage and must not be called concurrently with each other, although
+ * implementations may allow them to run alongside archive loads.
+ */
 public interface Storage extends AutoCloseable
 {
 	void init(Store store) throws IOException;
@@ -30,6 +30,11 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -40,24 +45,96 @@ public class DataFile implements Closeable
 	private static final int SECTOR_SIZE = 520;
 
 	private final RandomAccessFile dat;
+	private final boolean mapped;
+
+	/**
+	 * read only mapping of the data file, only used in mapped mode. This is
+	 * remapped when a read hits a sector past the end of the mapping,
+	 * eg. after the file has grown from writes.
+	 */
+	private volatile MappedByteBuffer map;
+
+	/**
+	 * guards the mapping against the file being truncated or closed while
+	 * it is being read, which can crash rather than throw
+	 */
+	private final ReadWriteLock mapLock = new ReentrantReadWriteLock();
 
 	public DataFile(File file) throws FileNotFoundException
+	{
+		this(file, false);
+	}
+
+	/**
+	 * @param file data file
+	 * @param mapped whether to read sectors out of a memory mapping of the
+	 * file instead of seeking and reading it
+	 * @throws FileNotFoundException
+	 */
+	public DataFile(File file, boolean mapped) throws FileNotFoundException
 	{
 		this.dat = new RandomAccessFile(file, "rw");
+		this.mapped = mapped;
 	}
 
+	/**
+	 * Close the data file. In mapped mode this waits for reads of the mapping
+	 * to finish, and views returned by {@link #readSectors(int, int, int, int)}
+	 * must not be used afterwards.
+	 *
+	 * @throws IOException
+	 */
 	@Override
 	public void close() throws IOException
 	{
-		dat.close();
+		Lock writeLock = mapLock.writeLock();
+		writeLock.lock();
+		try
+		{
+			map = null;
+			dat.close();
+		}
+		finally
+		{
+			writeLock.unlock();
+		}
 	}
 
+	/**
+	 * Truncate the data file. In mapped mode this waits for reads of the
+	 * mapping to finish, and views returned by
+	 * {@link #readSectors(int, int, int, int)} must not be used afterwards.
+	 *
+	 * @throws IOException
+	 */
 	public void clear() throws IOException
 	{
-		dat.setLength(0L);
+		// the map lock must be taken before the monitor, as mapped reads
+		// hold the read lock while remapping under the monitor
+		Lock writeLock = mapLock.writeLock();
+		writeLock.lock();
+		try
+		{
+			synchronized (this)
+			{
+				map = null;
+				dat.setLength(0L);
+			}
+		}
+		finally
+		{
+			writeLock.unlock();
+		}
+	}
+
+	public boolean isMapped()
+	{
+		return mapped;
 	}
 
 	/**
+	 * Read the contents of an archive. This may be called concurrently from
+	 * multiple threads.
 	 *
 	 * @param indexId expected index of archive of contents being read
 	 * @param archiveId expected archive of contents being read
@@ -68,13 +145,31 @@ public class DataFile implements Closeable
 	 */
 	public byte[] read(int indexId, int archiveId, int sector, int size) throws IOException
 	{
-		if (sector <= 0L || dat.length() / SECTOR_SIZE < (long) sector)
+		if (mapped)
+		{
+			byte[] buffer = new byte[size];
+			Lock readLock = mapLock.readLock();
+			readLock.lock();
+			try
+			{
+				return readMapped(indexId, archiveId, sector, size, buffer) ? buffer : null;
+			}
+			finally
+			{
+				readLock.unlock();
+			}
+		}
+
+		FileChannel channel = dat.getChannel();
+		long length = channel.size();
+		if (sector <= 0L || length / SECTOR_SIZE < (long) sector)
 		{
-			logger.warn("bad read, dat length {}, requested sector {}", dat.length(), sector);
+			logger.warn("bad read, dat length {}, requested sector {}", length, sector);
 			return null;
 		}
 
 		byte[] readBuffer = new byte[SECTOR_SIZE];
+		ByteBuffer readByteBuffer = ByteBuffer.wrap(readBuffer);
 		ByteBuffer buffer = ByteBuffer.allocate(size);
 
 		for (int part = 0, readBytesCount = 0, nextSector;
@@ -87,7 +182,7 @@ public class DataFile implements Closeable
 				return null;
 			}
 
-			dat.seek(SECTOR_SIZE * sector);
+			long position = (long) SECTOR_SIZE * sector;
 
 			int dataBlockSize = size - readBytesCount;
 			byte headerSize;
@@ -102,7 +197,7 @@ public class DataFile implements Closeable
 					dataBlockSize = SECTOR_SIZE - headerSize;
 				}
 
-				int i = dat.read(readBuffer, 0, headerSize + dataBlockSize);
+				int i = readFully(channel, readByteBuffer, position, headerSize + dataBlockSize);
 				if (i != headerSize + dataBlockSize)
 				{
 					logger.warn("Short read when reading file data for {}/{}", indexId, archiveId);
@@ -127,7 +222,7 @@ public class DataFile implements Closeable
 					dataBlockSize = SECTOR_SIZE - headerSize;
 				}
 
-				int i = dat.read(readBuffer, 0, headerSize + dataBlockSize);
+				int i = readFully(channel, readByteBuffer, position, headerSize + dataBlockSize);
 				if (i != headerSize + dataBlockSize)
 				{
 					logger.warn("short read");
@@ -153,7 +248,7 @@ public class DataFile implements Closeable
 				return null;
 			}
 
-			if (nextSector < 0 || dat.length() / SECTOR_SIZE < (long) nextSector)
+			if (nextSector < 0 || length / SECTOR_SIZE < (long) nextSector)
 			{
 				logger.warn("Invalid next sector");
 				return null;
@@ -169,7 +264,333 @@ public class DataFile implements Closeable
 		return buffer.array();
 	}
 
+	/**
+	 * Read the header of a sector and check that it belongs to the given
+	 * archive part
+	 *
+	 * @return the next sector in the chain, or -1 if the sector does not
+	 * belong to the archive
+	 */
+	private int readNextSector(int indexId, int archiveId, int sector, int part) throws IOException
+	{
+		int headerSize = archiveId > 0xFFFF ? 10 : 8;
+		ByteBuffer header = ByteBuffer.allocate(headerSize);
+		if (readFully(dat.getChannel(), header, (long) SECTOR_SIZE * sector, headerSize) != headerSize)
+		{
+			return -1;
+		}
+
+		int currentArchive;
+		int currentPart;
+		int nextSector;
+		int currentIndex;
+
+		if (archiveId > 0xFFFF)
+		{
+			currentArchive = header.getInt(0);
+			currentPart = header.getShort(4) & 0xFFFF;
+			nextSector = ((header.get(6) & 0xFF) << 16) | (header.getShort(7) & 0xFFFF);
+			currentIndex = header.get(9) & 0xFF;
+		}
+		else
+		{
+			currentArchive = header.getShort(0) & 0xFFFF;
+			currentPart = header.getShort(2) & 0xFFFF;
+			nextSector = ((header.get(4) & 0xFF) << 16) | (header.getShort(5) & 0xFFFF);
+			currentIndex = header.get(7) & 0xFF;
+		}
+
+		if (archiveId != currentArchive || currentPart != part || indexId != currentIndex)
+		{
+			return -1;
+		}
+
+		return nextSector;
+	}
+
+	/**
+	 * Read from the given position of the channel without moving the file
+	 * pointer, so that reads can happen concurrently
+	 *
+	 * @return the number of bytes read
+	 */
+	private static int readFully(FileChannel channel, ByteBuffer buffer, long position, int length) throws IOException
+	{
+		buffer.clear();
+		buffer.limit(length);
+
+		while (buffer.hasRemaining())
+		{
+			int i = channel.read(buffer, position + buffer.position());
+			if (i == -1)
+			{
+				break;
+			}
+		}
+
+		return buffer.position();
+	}
+
+	/**
+	 * Read the contents of an archive as a read only buffer. In mapped mode
+	 * an archive which fits within a single sector is returned as a view
+	 * directly into the mapping without copying, otherwise the sector chain
+	 * is copied once out of the mapping.
+	 *
+	 * @param indexId expected index of archive of contents being read
+	 * @param archiveId expected archive of contents being read
+	 * @param sector sector to start reading at
+	 * @param size size of file
+	 * @return
+	 * @throws IOException
+	 */
+	public ByteBuffer readBuffer(int indexId, int archiveId, int sector, int size) throws IOException
+	{
+		if (!mapped)
+		{
+			byte[] data = read(indexId, archiveId, sector, size);
+			return data != null ? ByteBuffer.wrap(data).asReadOnlyBuffer() : null;
+		}
+
+		Lock readLock = mapLock.readLock();
+		readLock.lock();
+		try
+		{
+			ByteBuffer[] sectors = readMappedSectors(indexId, archiveId, sector, size);
+			if (sectors == null)
+			{
+				return null;
+			}
+
+			if (sectors.length == 1)
+			{
+				return sectors[0];
+			}
+
+			ByteBuffer buffer = ByteBuffer.allocate(size);
+			for (ByteBuffer s : sectors)
+			{
+				buffer.put(s);
+			}
+			buffer.flip();
+			return buffer.asReadOnlyBuffer();
+		}
+		finally
+		{
+			readLock.unlock();
+		}
+	}
+
+	/**
+	 * Read the contents of an archive as the list of read only views of the
+	 * data in each of its sectors, in order. In mapped mode the views point
+	 * directly into the mapping so no data is copied, otherwise the contents
+	 * are read into a single buffer.
+	 *
+	 * @param indexId expected index of archive of contents being read
+	 * @param archiveId expected archive of contents being read
+	 * @param sector sector to start reading at
+	 * @param size size of file
+	 * @return the sector data, or null if the sector chain is invalid
+	 * @throws IOException
+	 */
+	public ByteBuffer[] readSectors(int indexId, int archiveId, int sector, int size) throws IOException
+	{
+		if (!mapped)
+		{
+			ByteBuffer buffer = readBuffer(indexId, archiveId, sector, size);
+			return buffer != null ? new ByteBuffer[]{ buffer } : null;
+		}
+
+		Lock readLock = mapLock.readLock();
+		readLock.lock();
+		try
+		{
+			return readMappedSectors(indexId, archiveId, sector, size);
+		}
+		finally
+		{
+			readLock.unlock();
+		}
+	}
+
+	private ByteBuffer[] readMappedSectors(int indexId, int archiveId, int sector, int size) throws IOException
+	{
+		MappedByteBuffer map = sector > 0 ? getMap((long) SECTOR_SIZE * sector) : null;
+		if (map == null)
+		{
+			logger.warn("bad read, requested sector {}", sector);
+			return null;
+		}
+
+		int headerSize = archiveId > 0xFFFF ? 10 : 8;
+		int dataSize = SECTOR_SIZE - headerSize;
+		ByteBuffer[] sectors = new ByteBuffer[(size + dataSize - 1) / dataSize];
+
+		for (int part = 0, readBytesCount = 0, nextSector;
+			size > readBytesCount;
+			sector = nextSector)
+		{
+			if (sector == 0)
+			{
+				logger.warn("Unexpected end of file");
+				return null;
+			}
+
+			int dataBlockSize = Math.min(size - readBytesCount, dataSize);
+			long end = (long) SECTOR_SIZE * sector + headerSize + dataBlockSize;
+			if (end > map.capacity())
+			{
+				// the chain runs past the mapping, the file may have grown since it was mapped
+				map = getMap(end);
+				if (map == null)
+				{
+					logger.warn("Short read when reading file data for {}/{}", indexId, archiveId);
+					return null;
+				}
+			}
+
+			int position = SECTOR_SIZE * sector;
+			nextSector = readHeader(map, position, indexId, archiveId, part);
+			if (nextSector == -1)
+			{
+				return null;
+			}
+
+			ByteBuffer view = map.duplicate();
+			view.position(position + headerSize);
+			view.limit(position + headerSize + dataBlockSize);
+			sectors[part] = view.slice().asReadOnlyBuffer();
+			readBytesCount += dataBlockSize;
+
+			++part;
+		}
+
+		return sectors;
+	}
+
+	private boolean readMapped(int indexId, int archiveId, int sector, int size, byte[] buffer) throws IOException
+	{
+		ByteBuffer[] sectors = readMappedSectors(indexId, archiveId, sector, size);
+		if (sectors == null)
+		{
+			return false;
+		}
+
+		int pos = 0;
+		for (ByteBuffer s : sectors)
+		{
+			int length = s.remaining();
+			s.get(buffer, pos, length);
+			pos += length;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Validate the header of the sector at the given position of the mapping
+	 *
+	 * @return the next sector in the chain, or -1 if the header is invalid
+	 */
+	private static int readHeader(MappedByteBuffer map, int position, int indexId, int archiveId, int part)
+	{
+		int currentArchive;
+		int currentPart;
+		int nextSector;
+		int currentIndex;
+
+		if (archiveId > 0xFFFF)
+		{
+			currentArchive = map.getInt(position);
+			currentPart = map.getShort(position + 4) & 0xFFFF;
+			nextSector = ((map.get(position + 6) & 0xFF) << 16)
+				| (map.getShort(position + 7) & 0xFFFF);
+			currentIndex = map.get(position + 9) & 0xFF;
+		}
+		else
+		{
+			currentArchive = map.getShort(position) & 0xFFFF;
+			currentPart = map.getShort(position + 2) & 0xFFFF;
+			nextSector = ((map.get(position + 4) & 0xFF) << 16)
+				| (map.getShort(position + 5) & 0xFFFF);
+			currentIndex = map.get(position + 7) & 0xFF;
+		}
+
+		if (archiveId != currentArchive || currentPart != part || indexId != currentIndex)
+		{
+			logger.warn("data mismatch {} != {}, {} != {}, {} != {}",
+				archiveId, currentArchive,
+				part, currentPart,
+				indexId, currentIndex);
+			return -1;
+		}
+
+		return nextSector;
+	}
+
+	/**
+	 * Get a mapping of the data file which extends to at least the given
+	 * offset, remapping the file if the current mapping is too small.
+	 *
+	 * @param end
+	 * @return the mapping, or null if the offset is past the end of the file
+	 * @throws IOException
+	 */
+	private MappedByteBuffer getMap(long end) throws IOException
+	{
+		MappedByteBuffer map = this.map;
+		if (map != null && end <= map.capacity())
+		{
+			return map;
+		}
+
+		synchronized (this)
+		{
+			map = this.map;
+			if (map != null && end <= map.capacity())
+			{
+				return map;
+			}
+
+			FileChannel channel = dat.getChannel();
+			long length = channel.size();
+			if (end > length)
+			{
+				return null;
+			}
+
+			if (length > Integer.MAX_VALUE)
+			{
+				throw new IOException("data file is too large to map: " + length);
+			}
+
+			map = channel.map(FileChannel.MapMode.READ_ONLY, 0L, length);
+			this.map = map;
+			return map;
+		}
+	}
+
 	public DataFileWriteResult write(int indexId, int archiveId, byte[] compressedData) throws IOException
+	{
+		return write(indexId, archiveId, compressedData, 0);
+	}
+
+	/**
+	 * Write an archive, reusing the sector chain of the archive it replaces
+	 * where possible. Sectors from the existing chain are overwritten in
+	 * order, and new sectors are appended to the end of the file once the
+	 * chain runs out or a sector in it no longer belongs to the archive.
+	 *
+	 * @param indexId index of the archive being written
+	 * @param archiveId archive being written
+	 * @param compressedData archive contents
+	 * @param existingSector first sector of the archive's existing chain, or
+	 * 0 to append
+	 * @return
+	 * @throws IOException
+	 */
+	public synchronized DataFileWriteResult write(int indexId, int archiveId, byte[] compressedData, int existingSector) throws IOException
 	{
 		int sector;
 		int startSector;
@@ -177,10 +598,19 @@ public class DataFile implements Closeable
 		byte[] writeBuffer = new byte[SECTOR_SIZE];
 		ByteBuffer data = ByteBuffer.wrap(compressedData);
 
-		sector = (int) ((dat.length() + (long) (SECTOR_SIZE - 1)) / (long) SECTOR_SIZE);
-		if (sector == 0)
+		boolean overwrite = existingSector > 0
+			&& readNextSector(indexId, archiveId, existingSector, 0) != -1;
+		if (overwrite)
 		{
-			sector = 1;
+			sector = existingSector;
+		}
+		else
+		{
+			sector = (int) ((dat.length() + (long) (SECTOR_SIZE - 1)) / (long) SECTOR_SIZE);
+			if (sector == 0)
+			{
+				sector = 1;
+			}
 		}
 		startSector = sector;
 
@@ -189,6 +619,23 @@ public class DataFile implements Closeable
 			int nextSector = 0;
 			int dataToWrite;
 
+			if (overwrite)
+			{
+				// the current sector is known to be part of the old chain, follow
+				// it if the sector after it is too
+				nextSector = readNextSector(indexId, archiveId, sector, part);
+				if (nextSector > 0 && readNextSector(indexId, archiveId, nextSector, part + 1) == -1)
+				{
+					nextSector = 0;
+				}
+
+				if (nextSector <= 0)
+				{
+					nextSector = 0;
+					overwrite = false;
+				}
+			}
+
 			if (nextSector == 0)
 			{
 				nextSector = (int) ((dat.length() + (long) (SECTOR_SIZE - 1)) / (long) SECTOR_SIZE);
@@ -28,8 +28,19 @@ import com.google.common.primitives.Ints;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import net.runelite.cache.fs.Archive;
 import net.runelite.cache.fs.Container;
 import net.runelite.cache.fs.Index;
@@ -41,24 +52,48 @@ import net.runelite.cache.util.Crc32;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Storage for the jagex disk cache format. Archive loads use positional
+ * reads and can run from many threads at once, while saves are serialized
+ * behind a single writer lock.
+ */
 public class DiskStorage implements Storage
 {
 	private static final Logger logger = LoggerFactory.getLogger(DiskStorage.class);
 
 	private static final String MAIN_FILE_CACHE_DAT = "main_file_cache.dat2";
 	private static final String MAIN_FILE_CACHE_IDX = "main_file_cache.idx";
+	private static final String COMPACT_JOURNAL = "main_file_cache.compact";
+	private static final String COMPACT_SUFFIX = ".tmp";
 
 	private final File folder;
 
-	private final DataFile data;
-	private final IndexFile index255;
-	private final List<IndexFile> indexFiles = new ArrayList<>();
+	private DataFile data;
+	private IndexFile index255;
+	private final Map<Integer, IndexFile> indexFiles = new ConcurrentHashMap<>();
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	// incremented on every write, only modified with the write lock held
+	private volatile long modCount;
 
 	public DiskStorage(File folder) throws IOException
+	{
+		this(folder, false);
+	}
+
+	/**
+	 * @param folder cache folder
+	 * @param mapped whether to read archive data from a memory mapping of
+	 * the data file
+	 * @throws IOException
+	 */
+	public DiskStorage(File folder, boolean mapped) throws IOException
 	{
 		this.folder = folder;
 
-		this.data = new DataFile(new File(folder, MAIN_FILE_CACHE_DAT));
+		recoverCompaction(folder);
+
+		this.data = new DataFile(new File(folder, MAIN_FILE_CACHE_DAT), mapped);
 		this.index255 = new IndexFile(255, new File(folder, MAIN_FILE_CACHE_IDX + "255"));
 	}
 
@@ -77,27 +112,41 @@ public class DiskStorage implements Storage
 	@Override
 	public void close() throws IOException
 	{
-		data.close();
-		index255.close();
-		for (IndexFile indexFile : indexFiles)
+		Lock writeLock = lock.writeLock();
+		writeLock.lock();
+		try
 		{
-			indexFile.close();
+			data.close();
+			index255.close();
+			for (IndexFile indexFile : indexFiles.values())
+			{
+				indexFile.close();
+			}
+		}
+		finally
+		{
+			writeLock.unlock();
 		}
 	}
 
 	private IndexFile getIndex(int i) throws FileNotFoundException
 	{
-		for (IndexFile indexFile : indexFiles)
+		IndexFile indexFile = indexFiles.get(i);
+		if (indexFile != null)
+		{
+			return indexFile;
+		}
+
+		synchronized (indexFiles)
 		{
-			if (indexFile.getIndexFileId() == i)
+			indexFile = indexFiles.get(i);
+			if (indexFile == null)
 			{
-				return indexFile;
+				indexFile = new IndexFile(i, new File(folder, MAIN_FILE_CACHE_IDX + i));
+				indexFiles.put(i, indexFile);
 			}
+			return indexFile;
 		}
-
-		IndexFile indexFile = new IndexFile(i, new File(folder, MAIN_FILE_CACHE_IDX + i));
-		indexFiles.add(indexFile);
-		return indexFile;
 	}
 
 	@Override
@@ -111,9 +160,18 @@ public class DiskStorage implements Storage
 
 	public byte[] readIndex(int indexId) throws IOException
 	{
-		IndexEntry entry = index255.read(indexId);
-		byte[] indexData = data.read(index255.getIndexFileId(), entry.getId(), entry.getSector(), entry.getLength());
-		return indexData;
+		Lock readLock = lock.readLock();
+		readLock.lock();
+		try
+		{
+			IndexEntry entry = index255.read(indexId);
+			byte[] indexData = data.read(index255.getIndexFileId(), entry.getId(), entry.getSector(), entry.getLength());
+			return indexData;
+		}
+		finally
+		{
+			readLock.unlock();
+		}
 	}
 
 	private void loadIndex(Index index) throws IOException
@@ -155,20 +213,80 @@ public class DiskStorage implements Storage
 
 		assert indexFile.getIndexFileId() == index.getId();
 
-		IndexEntry entry = indexFile.read(archive.getArchiveId());
-		if (entry == null)
+		Lock readLock = lock.readLock();
+		readLock.lock();
+		try
 		{
-			logger.debug("can't read archive " + archive.getArchiveId() + " from index " + index.getId());
-			return null;
+			IndexEntry entry = indexFile.read(archive.getArchiveId());
+			if (entry == null)
+			{
+				logger.debug("can't read archive " + archive.getArchiveId() + " from index " + index.getId());
+				return null;
+			}
+
+			assert entry.getId() == archive.getArchiveId();
+
+			logger.trace("Loading archive {} for index {} from sector {} length {}",
+				archive.getArchiveId(), index.getId(), entry.getSector(), entry.getLength());
+
+			byte[] archiveData = data.read(index.getId(), entry.getId(), entry.getSector(), entry.getLength());
+			return archiveData;
 		}
+		finally
+		{
+			readLock.unlock();
+		}
+	}
+
+	/**
+	 * Load the data of an archive as views of each of its sectors. When the
+	 * storage is mapped the views point directly into the mapped data file.
+	 *
+	 * @param archive
+	 * @return the sector data, or null if the archive can't be read
+	 * @throws IOException
+	 * @see DataFile#readSectors(int, int, int, int)
+	 */
+	public ByteBuffer[] loadArchiveSectors(Archive archive) throws IOException
+	{
+		Index index = archive.getIndex();
+		IndexFile indexFile = getIndex(index.getId());
 
-		assert entry.getId() == archive.getArchiveId();
+		Lock readLock = lock.readLock();
+		readLock.lock();
+		try
+		{
+			IndexEntry entry = indexFile.read(archive.getArchiveId());
+			if (entry == null)
+			{
+				logger.debug("can't read archive " + archive.getArchiveId() + " from index " + index.getId());
+				return null;
+			}
 
-		logger.trace("Loading archive {} for index {} from sector {} length {}",
-			archive.getArchiveId(), index.getId(), entry.getSector(), entry.getLength());
+			return data.readSectors(index.getId(), entry.getId(), entry.getSector(), entry.getLength());
+		}
+		finally
+		{
+			readLock.unlock();
+		}
+	}
 
-		byte[] archiveData = data.read(index.getId(), entry.getId(), entry.getSector(), entry.getLength());
-		return archiveData;
+	public boolean isMapped()
+	{
+		return data.isMapped();
+	}
+
+	/**
+	 * Get the modification count of the storage, which changes whenever
+	 * archive data is saved or moved. Views returned from
+	 * {@link #loadArchiveSectors(Archive)} before a change may no longer
+	 * hold the archive.
+	 *
+	 * @return the modification count
+	 */
+	public long getModCount()
+	{
+		return modCount;
 	}
 
 	@Override
@@ -176,9 +294,19 @@ public class DiskStorage implements Storage
 	{
 		logger.debug("Saving store");
 
-		for (Index i : store.getIndexes())
+		Lock writeLock = lock.writeLock();
+		writeLock.lock();
+		try
+		{
+			for (Index i : store.getIndexes())
+			{
+				saveIndex(i);
+			}
+			++modCount;
+		}
+		finally
 		{
-			saveIndex(i);
+			writeLock.unlock();
 		}
 	}
 
@@ -190,7 +318,9 @@ public class DiskStorage implements Storage
 		Container container = new Container(index.getCompression(), -1); // index data revision is always -1
 		container.compress(data, null);
 		byte[] compressedData = container.data;
-		DataFileWriteResult res = this.data.write(index255.getIndexFileId(), index.getId(), compressedData);
+		IndexEntry existing = index255.read(index.getId());
+		DataFileWriteResult res = this.data.write(index255.getIndexFileId(), index.getId(), compressedData,
+			existing != null ? existing.getSector() : 0);
 
 		index255.write(new IndexEntry(index255, index.getId(), res.sector, res.compressedLength));
 
@@ -206,8 +336,21 @@ public class DiskStorage implements Storage
 		IndexFile indexFile = getIndex(index.getId());
 		assert indexFile.getIndexFileId() == index.getId();
 
-		DataFileWriteResult res = data.write(index.getId(), a.getArchiveId(), archiveData);
-		indexFile.write(new IndexEntry(indexFile, a.getArchiveId(), res.sector, res.compressedLength));
+		DataFileWriteResult res;
+		Lock writeLock = lock.writeLock();
+		writeLock.lock();
+		try
+		{
+			IndexEntry existing = indexFile.read(a.getArchiveId());
+			res = data.write(index.getId(), a.getArchiveId(), archiveData,
+				existing != null ? existing.getSector() : 0);
+			indexFile.write(new IndexEntry(indexFile, a.getArchiveId(), res.sector, res.compressedLength));
+			++modCount;
+		}
+		finally
+		{
+			writeLock.unlock();
+		}
 
 		byte compression = archiveData[0];
 		int compressedSize = Ints.fromBytes(archiveData[1], archiveData[2],
@@ -226,4 +369,213 @@ public class DiskStorage implements Storage
 		logger.trace("Saved archive {}/{} at sector {}, compressed length {}",
 			index.getId(), a.getArchiveId(), res.sector, res.compressedLength);
 	}
+
+	/**
+	 * Rewrite the data file so that the sectors of every archive are stored
+	 * contiguously, ordered by index and archive id. Sectors which are no
+	 * longer referenced by any index are dropped. This is an offline
+	 * operation and the storage must not be in use by anything else while it
+	 * runs.
+	 * <p>
+	 * The compacted data and index files are written alongside the existing
+	 * ones and only swapped in once all of them are complete. The swap is
+	 * journaled, so if it is interrupted it is finished the next time the
+	 * storage is opened. If any archive can't be read the compaction is
+	 * aborted and the cache is left untouched.
+	 *
+	 * @return the number of bytes reclaimed
+	 * @throws IOException
+	 */
+	public long compact() throws IOException
+	{
+		Lock writeLock = lock.writeLock();
+		writeLock.lock();
+		try
+		{
+			long oldLength = new File(folder, MAIN_FILE_CACHE_DAT).length();
+
+			int archives = prepareCompaction();
+			try
+			{
+				commitCompaction();
+			}
+			finally
+			{
+				++modCount;
+			}
+
+			long reclaimed = oldLength - new File(folder, MAIN_FILE_CACHE_DAT).length();
+			logger.info("Compacted {} archives, reclaimed {} bytes", archives, reclaimed);
+			return reclaimed;
+		}
+		finally
+		{
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 * Write the compacted data and index files next to the existing ones,
+	 * and then the journal listing them
+	 *
+	 * @return the number of archives written
+	 * @throws IOException if an archive can't be read or the files can't be
+	 * written, in which case the compacted files are removed
+	 */
+	int prepareCompaction() throws IOException
+	{
+		List<IndexFile> files = new ArrayList<>();
+		for (int i = 0; i < index255.getIndexCount(); ++i)
+		{
+			// don't create index files for indexes which don't exist
+			if (indexFiles.containsKey(i) || new File(folder, MAIN_FILE_CACHE_IDX + i).exists())
+			{
+				files.add(getIndex(i));
+			}
+		}
+		files.add(index255);
+
+		List<File> compactedFiles = new ArrayList<>();
+		int archives = 0;
+		try
+		{
+			File compactedDataFile = new File(folder, MAIN_FILE_CACHE_DAT + COMPACT_SUFFIX);
+			compactedFiles.add(compactedDataFile);
+
+			try (DataFile compacted = new DataFile(compactedDataFile))
+			{
+				compacted.clear();
+
+				for (IndexFile indexFile : files)
+				{
+					File compactedIndexFile = new File(folder, MAIN_FILE_CACHE_IDX + indexFile.getIndexFileId() + COMPACT_SUFFIX);
+					compactedFiles.add(compactedIndexFile);
+
+					try (IndexFile compactedIndex = new IndexFile(indexFile.getIndexFileId(), compactedIndexFile))
+					{
+						int count = indexFile.getIndexCount();
+						compactedIndex.setIndexCount(0);
+						compactedIndex.setIndexCount(count);
+
+						for (int id = 0; id < count; ++id)
+						{
+							IndexEntry entry = indexFile.read(id);
+							if (entry == null)
+							{
+								continue;
+							}
+
+							byte[] archiveData = data.read(indexFile.getIndexFileId(), id, entry.getSector(), entry.getLength());
+							if (archiveData == null)
+							{
+								throw new IOException("Unable to read archive " + indexFile.getIndexFileId() + "/" + id + ", aborting compaction");
+							}
+
+							DataFileWriteResult res = compacted.write(indexFile.getIndexFileId(), id, archiveData);
+							compactedIndex.write(new IndexEntry(compactedIndex, id, res.sector, res.compressedLength));
+							++archives;
+						}
+					}
+				}
+			}
+
+			for (File file : compactedFiles)
+			{
+				sync(file);
+			}
+
+			// the journal is the commit point, once it exists the compacted files replace the originals
+			File journalTmp = new File(folder, COMPACT_JOURNAL + COMPACT_SUFFIX);
+			List<String> names = new ArrayList<>();
+			for (File file : compactedFiles)
+			{
+				names.add(file.getName());
+			}
+			Files.write(journalTmp.toPath(), names, StandardCharsets.UTF_8);
+			sync(journalTmp);
+			Files.move(journalTmp.toPath(), new File(folder, COMPACT_JOURNAL).toPath(), StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (IOException ex)
+		{
+			for (File file : compactedFiles)
+			{
+				Files.deleteIfExists(file.toPath());
+			}
+			throw ex;
+		}
+
+		return archives;
+	}
+
+	/**
+	 * Swap the compacted files written by {@link #prepareCompaction()} in
+	 * and reopen them
+	 *
+	 * @throws IOException
+	 */
+	void commitCompaction() throws IOException
+	{
+		boolean mapped = data.isMapped();
+		data.close();
+		index255.close();
+		for (IndexFile indexFile : indexFiles.values())
+		{
+			indexFile.close();
+		}
+
+		recoverCompaction(folder);
+
+		data = new DataFile(new File(folder, MAIN_FILE_CACHE_DAT), mapped);
+		index255 = new IndexFile(255, new File(folder, MAIN_FILE_CACHE_IDX + "255"));
+		for (Integer i : indexFiles.keySet())
+		{
+			indexFiles.put(i, new IndexFile(i, new File(folder, MAIN_FILE_CACHE_IDX + i)));
+		}
+	}
+
+	/**
+	 * Finish a compaction which was interrupted after it was committed, or
+	 * remove the files of one which was interrupted before it was
+	 *
+	 * @param folder cache folder
+	 * @throws IOException
+	 */
+	private static void recoverCompaction(File folder) throws IOException
+	{
+		File journal = new File(folder, COMPACT_JOURNAL);
+		if (journal.exists())
+		{
+			for (String name : Files.readAllLines(journal.toPath(), StandardCharsets.UTF_8))
+			{
+				File compactedFile = new File(folder, name);
+				if (compactedFile.exists())
+				{
+					File file = new File(folder, name.substring(0, name.length() - COMPACT_SUFFIX.length()));
+					Files.move(compactedFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+				}
+			}
+
+			Files.delete(journal.toPath());
+			return;
+		}
+
+		File[] leftover = folder.listFiles((dir, name) -> name.endsWith(COMPACT_SUFFIX)
+			&& (name.startsWith(MAIN_FILE_CACHE_DAT) || name.startsWith(MAIN_FILE_CACHE_IDX) || name.startsWith(COMPACT_JOURNAL)));
+		if (leftover != null)
+		{
+			for (File file : leftover)
+			{
+				logger.warn("Removing {} from an interrupted compaction", file);
+				Files.delete(file.toPath());
+			}
+		}
+	}
+
+	private static void sync(File file) throws IOException
+	{
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE))
+		{
+			channel.force(true);
+		}
+	}
 }
@@ -29,6 +29,8 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.Objects;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -42,6 +44,7 @@ public class IndexFile implements Closeable
 	private final int indexFileId;
 	private final File file;
 	private final RandomAccessFile idx;
+	private final FileChannel channel;
 	private final byte[] buffer = new byte[INDEX_ENTRY_LEN];
 
 	public IndexFile(int indexFileId, File file) throws FileNotFoundException
@@ -49,6 +52,7 @@ public class IndexFile implements Closeable
 		this.indexFileId = indexFileId;
 		this.file = file;
 		this.idx = new RandomAccessFile(file, "rw");
+		this.channel = idx.getChannel();
 	}
 
 	@Override
@@ -62,6 +66,17 @@ public class IndexFile implements Closeable
 		idx.setLength(0L);
 	}
 
+	/**
+	 * Grow or truncate the index file to hold the given number of entries
+	 *
+	 * @param count
+	 * @throws IOException
+	 */
+	public void setIndexCount(int count) throws IOException
+	{
+		idx.setLength((long) count * INDEX_ENTRY_LEN);
+	}
+
 	@Override
 	public int hashCode()
 	{
@@ -109,18 +124,35 @@ public class IndexFile implements Closeable
 		idx.write(buffer);
 	}
 
-	public synchronized IndexEntry read(int id) throws IOException
+	/**
+	 * Read the entry for the given archive. Reads do not share a file
+	 * pointer and may be called concurrently from multiple threads.
+	 *
+	 * @param id archive id
+	 * @return
+	 * @throws IOException
+	 */
+	public IndexEntry read(int id) throws IOException
 	{
-		idx.seek(id * INDEX_ENTRY_LEN);
-		int i = idx.read(buffer);
+		ByteBuffer buffer = ByteBuffer.allocate(INDEX_ENTRY_LEN);
+		long position = (long) id * INDEX_ENTRY_LEN;
+		while (buffer.hasRemaining())
+		{
+			if (channel.read(buffer, position + buffer.position()) == -1)
+			{
+				break;
+			}
+		}
+
+		int i = buffer.position();
 		if (i != INDEX_ENTRY_LEN)
 		{
 			logger.debug("short read for id {} on index {}: {}", id, indexFileId, i);
 			return null;
 		}
 
-		int length = ((buffer[0] & 0xFF) << 16) | ((buffer[1] & 0xFF) << 8) | (buffer[2] & 0xFF);
-		int sector = ((buffer[3] & 0xFF) << 16) | ((buffer[4] & 0xFF) << 8) | (buffer[5] & 0xFF);
+		int length = ((buffer.get(0) & 0xFF) << 16) | ((buffer.get(1) & 0xFF) << 8) | (buffer.get(2) & 0xFF);
+		int sector = ((buffer.get(3) & 0xFF) << 16) | ((buffer.get(4) & 0xFF) << 8) | (buffer.get(5) & 0xFF);
 
 		if (length <= 0 || sector <= 0)
 		{
@@ -131,8 +163,8 @@ public class IndexFile implements Closeable
 		return new IndexEntry(this, id, sector, length);
 	}
 
-	public synchronized int getIndexCount() throws IOException
+	public int getIndexCount() throws IOException
 	{
-		return (int) (idx.length() / INDEX_ENTRY_LEN);
+		return (int) (channel.size() / INDEX_ENTRY_LEN);
 	}
 }
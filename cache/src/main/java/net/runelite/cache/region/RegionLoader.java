@@ -25,9 +25,14 @@
 package net.runelite.cache.region;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import net.runelite.cache.IndexType;
 import net.runelite.cache.definitions.LocationsDefinition;
 import net.runelite.cache.definitions.MapDefinition;
@@ -65,9 +70,11 @@ public class RegionLoader
 
 	public void loadRegions() throws IOException
 	{
+		Archive[] archives = findRegionArchives();
+
 		for (int i = 0; i < MAX_REGION; ++i)
 		{
-			Region region = this.loadRegionFromArchive(i);
+			Region region = this.loadRegion(i, archives[i * 2], archives[i * 2 + 1]);
 			if (region != null)
 			{
 				regions.put(i, region);
@@ -75,15 +82,94 @@ public class RegionLoader
 		}
 	}
 
+	/**
+	 * Load all regions, decompressing and parsing them concurrently on the
+	 * given pool. The resulting region table is the same as that built by
+	 * {@link #loadRegions()}.
+	 *
+	 * @param pool
+	 * @throws IOException
+	 */
+	public void loadRegions(ForkJoinPool pool) throws IOException
+	{
+		Archive[] archives = findRegionArchives();
+
+		List<ForkJoinTask<Region>> tasks = new ArrayList<>();
+		for (int i = 0; i < MAX_REGION; ++i)
+		{
+			final int regionId = i;
+			final Archive map = archives[i * 2];
+			final Archive land = archives[i * 2 + 1];
+
+			if (map == null || land == null)
+			{
+				continue;
+			}
+
+			tasks.add(pool.submit(() -> loadRegion(regionId, map, land)));
+		}
+
+		// insert in region order, so the table iterates the same as when loaded sequentially
+		for (ForkJoinTask<Region> task : tasks)
+		{
+			Region region;
+			try
+			{
+				region = task.get();
+			}
+			catch (InterruptedException ex)
+			{
+				Thread.currentThread().interrupt();
+				throw new IOException("interrupted loading regions", ex);
+			}
+			catch (ExecutionException ex)
+			{
+				Throwable cause = ex.getCause();
+				if (cause instanceof IOException)
+				{
+					throw (IOException) cause;
+				}
+				throw new IOException("error loading regions", cause);
+			}
+
+			if (region != null)
+			{
+				regions.put(region.getRegionID(), region);
+			}
+		}
+	}
+
+	private Archive[] findRegionArchives()
+	{
+		// resolve the map and land archives of every region up front
+		String[] names = new String[MAX_REGION * 2];
+		for (int i = 0; i < MAX_REGION; ++i)
+		{
+			int x = i >> 8;
+			int y = i & 0xFF;
+			names[i * 2] = "m" + x + "_" + y;
+			names[i * 2 + 1] = "l" + x + "_" + y;
+		}
+
+		return index.findArchivesByName(names);
+	}
+
 	public Region loadRegionFromArchive(int i) throws IOException
 	{
 		int x = i >> 8;
 		int y = i & 0xFF;
 
-		Storage storage = store.getStorage();
 		Archive map = index.findArchiveByName("m" + x + "_" + y);
 		Archive land = index.findArchiveByName("l" + x + "_" + y);
 
+		return loadRegion(i, map, land);
+	}
+
+	private Region loadRegion(int i, Archive map, Archive land) throws IOException
+	{
+		int x = i >> 8;
+		int y = i & 0xFF;
+
 		assert (map == null) == (land == null);
 
 		if (map == null || land == null)
@@ -91,6 +177,7 @@ public class RegionLoader
 			return null;
 		}
 
+		Storage storage = store.getStorage();
 		byte[] data = map.decompress(storage.loadArchive(map));
 
 		MapDefinition mapDef = new MapLoader().load(x, y, data);
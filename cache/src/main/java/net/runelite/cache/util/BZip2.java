@@ -29,6 +29,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.SequenceInputStream;
 import java.util.Arrays;
 import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
 import org.apache.commons.compress.compressors.bzip2.BZip2CompressorOutputStream;
@@ -47,6 +48,13 @@ public class BZip2
 		'1'       // block size
 	};
 
+	/**
+	 * initial output size, relative to the compressed size, when
+	 * decompressing data of a known length
+	 */
+	private static final int INITIAL_RATIO = 8;
+	private static final int INITIAL_LENGTH = 4096;
+
 	public static byte[] compress(byte[] bytes) throws IOException
 	{
 		InputStream is = new ByteArrayInputStream(bytes);
@@ -67,12 +75,17 @@ public class BZip2
 	}
 
 	public static byte[] decompress(byte[] bytes, int len) throws IOException
+	{
+		return decompress(bytes, 0, len);
+	}
+
+	public static byte[] decompress(byte[] bytes, int offset, int len) throws IOException
 	{
 		byte[] data = new byte[len + BZIP_HEADER.length];
 
 		// add header
 		System.arraycopy(BZIP_HEADER, 0, data, 0, BZIP_HEADER.length);
-		System.arraycopy(bytes, 0, data, BZIP_HEADER.length, len);
+		System.arraycopy(bytes, offset, data, BZIP_HEADER.length, len);
 
 		ByteArrayOutputStream os = new ByteArrayOutputStream();
 
@@ -83,4 +96,91 @@ public class BZip2
 
 		return os.toByteArray();
 	}
+
+	/**
+	 * Decompress bzip2 data of a known decompressed length into an exactly
+	 * sized array. bzip2 has no bound on its compression ratio and no
+	 * trailer to check the length against, so the array starts small and
+	 * grows as data is decompressed. A corrupt length throws an IOException
+	 * rather than exhausting the heap.
+	 *
+	 * @param bytes
+	 * @param offset
+	 * @param len
+	 * @param decompressedLength
+	 * @return
+	 * @throws IOException
+	 */
+	public static byte[] decompress(byte[] bytes, int offset, int len, int decompressedLength) throws IOException
+	{
+		if (decompressedLength < 0)
+		{
+			throw new IOException("Invalid decompressed length " + decompressedLength);
+		}
+
+		InputStream in = new SequenceInputStream(new ByteArrayInputStream(BZIP_HEADER), new ByteArrayInputStream(bytes, offset, len));
+
+		byte[] out = new byte[(int) Math.min(decompressedLength, Math.max(INITIAL_LENGTH, (long) len * INITIAL_RATIO))];
+		int read = 0;
+		try (InputStream is = new BZip2CompressorInputStream(in))
+		{
+			while (read < decompressedLength)
+			{
+				if (read == out.length)
+				{
+					out = Arrays.copyOf(out, (int) Math.min(decompressedLength, out.length * 2L));
+				}
+
+				int i = is.read(out, read, out.length - read);
+				if (i == -1)
+				{
+					break;
+				}
+				read += i;
+			}
+
+			if (read != decompressedLength || is.read() != -1)
+			{
+				throw new IOException("Decompressed length mismatch, expected " + decompressedLength);
+			}
+		}
+		return out;
+	}
+
+	/**
+	 * Decompress bzip2 data of a known decompressed length into the given
+	 * buffer. The header is streamed in front of the data rather than
+	 * copied onto it.
+	 *
+	 * @param bytes
+	 * @param offset
+	 * @param len
+	 * @param out
+	 * @param outOffset
+	 * @param decompressedLength
+	 * @throws IOException
+	 */
+	public static void decompress(byte[] bytes, int offset, int len, byte[] out, int outOffset, int decompressedLength) throws IOException
+	{
+		InputStream in = new SequenceInputStream(new ByteArrayInputStream(BZIP_HEADER), new ByteArrayInputStream(bytes, offset, len));
+
+		int read = 0;
+		try (InputStream is = new BZip2CompressorInputStream(in))
+		{
+			while (read < decompressedLength)
+			{
+				int i = is.read(out, outOffset + read, decompressedLength - read);
+				if (i == -1)
+				{
+					break;
+				}
+				read += i;
+			}
+
+			if (read != decompressedLength || is.read() != -1)
+			{
+				throw new IOException("Decompressed length mismatch, expected " + decompressedLength);
+			}
+		}
+	}
 }
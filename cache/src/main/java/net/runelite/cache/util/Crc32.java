@@ -25,6 +25,7 @@
 
 package net.runelite.cache.util;
 
+import java.nio.ByteBuffer;
 import java.util.zip.CRC32;
 
 public class Crc32
@@ -36,6 +37,17 @@ public class Crc32
 		crc32.update(data, offset, length);
 	}
 
+	/**
+	 * Update with the remaining bytes of the buffer, without changing the
+	 * buffer's position
+	 *
+	 * @param buffer
+	 */
+	public void update(ByteBuffer buffer)
+	{
+		crc32.update(buffer.duplicate());
+	}
+
 	public int getHash()
 	{
 		return (int) crc32.getValue();
@@ -30,8 +30,11 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
 import org.apache.commons.compress.utils.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -40,6 +43,22 @@ public class GZip
 {
 	private static final Logger logger = LoggerFactory.getLogger(GZip.class);
 
+	private static final int FHCRC = 2;
+	private static final int FEXTRA = 4;
+	private static final int FNAME = 8;
+	private static final int FCOMMENT = 16;
+
+	/**
+	 * deflate can't compress better than this
+	 */
+	private static final int MAX_RATIO = 1032;
+
+	/**
+	 * inflaters are expensive to create and hold native memory until they
+	 * are finalized, so each thread reuses its own
+	 */
+	private static final ThreadLocal<Inflater> INFLATER = ThreadLocal.withInitial(() -> new Inflater(true));
+
 	public static byte[] compress(byte[] bytes) throws IOException
 	{
 		InputStream is = new ByteArrayInputStream(bytes);
@@ -54,14 +73,165 @@ public class GZip
 	}
 
 	public static byte[] decompress(byte[] bytes, int len) throws IOException
+	{
+		return decompress(bytes, 0, len);
+	}
+
+	public static byte[] decompress(byte[] bytes, int offset, int len) throws IOException
 	{
 		ByteArrayOutputStream os = new ByteArrayOutputStream();
 		
-		try (InputStream is = new GZIPInputStream(new ByteArrayInputStream(bytes, 0, len)))
+		try (InputStream is = new GZIPInputStream(new ByteArrayInputStream(bytes, offset, len)))
 		{
 			IOUtils.copy(is, os);
 		}
 
 		return os.toByteArray();
 	}
+
+	/**
+	 * Decompress gzip data of a known decompressed length into an exactly
+	 * sized array. The length is checked against the gzip trailer before
+	 * anything is allocated, so a corrupt length throws an IOException
+	 * rather than exhausting the heap.
+	 *
+	 * @param bytes
+	 * @param offset
+	 * @param len
+	 * @param decompressedLength
+	 * @return
+	 * @throws IOException
+	 */
+	public static byte[] decompress(byte[] bytes, int offset, int len, int decompressedLength) throws IOException
+	{
+		readHeader(bytes, offset, len);
+		int expectedSize = readInt(bytes, offset + len - 4);
+		if (decompressedLength < 0 || expectedSize != decompressedLength
+			|| decompressedLength > (long) len * MAX_RATIO)
+		{
+			throw new IOException("Invalid decompressed length " + decompressedLength + " for " + len + " bytes");
+		}
+
+		byte[] out = new byte[decompressedLength];
+		decompress(bytes, offset, len, out, 0, decompressedLength);
+		return out;
+	}
+
+	/**
+	 * Decompress gzip data of a known decompressed length into the given
+	 * buffer, using this thread's inflater
+	 *
+	 * @param bytes
+	 * @param offset
+	 * @param len
+	 * @param out
+	 * @param outOffset
+	 * @param decompressedLength
+	 * @throws IOException
+	 */
+	public static void decompress(byte[] bytes, int offset, int len, byte[] out, int outOffset, int decompressedLength) throws IOException
+	{
+		int headerLength = readHeader(bytes, offset, len);
+		int trailer = offset + len - 8;
+
+		Inflater inflater = INFLATER.get();
+		inflater.reset();
+		inflater.setInput(bytes, offset + headerLength, len - headerLength - 8);
+
+		int read = 0;
+		try
+		{
+			while (read < decompressedLength)
+			{
+				int i = inflater.inflate(out, outOffset + read, decompressedLength - read);
+				if (i == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary()))
+				{
+					break;
+				}
+				read += i;
+			}
+		}
+		catch (DataFormatException ex)
+		{
+			throw new IOException(ex);
+		}
+
+		int expectedCrc = readInt(bytes, trailer);
+		int expectedSize = readInt(bytes, trailer + 4);
+
+		if (read != decompressedLength || expectedSize != decompressedLength)
+		{
+			throw new IOException("Decompressed length mismatch: " + read + "/" + expectedSize + " != " + decompressedLength);
+		}
+
+		CRC32 crc = new CRC32();
+		crc.update(out, outOffset, decompressedLength);
+		if ((int) crc.getValue() != expectedCrc)
+		{
+			throw new IOException("Corrupt GZIP trailer");
+		}
+	}
+
+	/**
+	 * Read a little endian int
+	 */
+	private static int readInt(byte[] bytes, int pos)
+	{
+		return (bytes[pos] & 0xFF)
+			| (bytes[pos + 1] & 0xFF) << 8
+			| (bytes[pos + 2] & 0xFF) << 16
+			| (bytes[pos + 3] & 0xFF) << 24;
+	}
+
+	/**
+	 * Validate a gzip header
+	 *
+	 * @return the length of the header
+	 */
+	private static int readHeader(byte[] bytes, int offset, int len) throws IOException
+	{
+		if (len < 18 || bytes[offset] != (byte) 0x1F || bytes[offset + 1] != (byte) 0x8B || bytes[offset + 2] != 8)
+		{
+			throw new IOException("Not in GZIP format");
+		}
+
+		int flags = bytes[offset + 3] & 0xFF;
+		int end = offset + len - 8;
+		int pos = offset + 10;
+
+		if ((flags & FEXTRA) != 0)
+		{
+			pos += 2 + ((bytes[pos] & 0xFF) | (bytes[pos + 1] & 0xFF) << 8);
+		}
+
+		if ((flags & FNAME) != 0)
+		{
+			while (pos < end && bytes[pos] != 0)
+			{
+				++pos;
+			}
+			++pos; // null terminator
+		}
+
+		if ((flags & FCOMMENT) != 0)
+		{
+			while (pos < end && bytes[pos] != 0)
+			{
+				++pos;
+			}
+			++pos; // null terminator
+		}
+
+		if ((flags & FHCRC) != 0)
+		{
+			pos += 2;
+		}
+
+		if (pos > end)
+		{
+			throw new IOException("Corrupt GZIP header");
+		}
+
+		return pos - offset;
+	}
 }
@@ -24,8 +24,9 @@
  */
 package net.runelite.cache.util;
 
-import io.netty.buffer.ByteBuf;
-import io.netty.buffer.Unpooled;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
 
 public class Xtea
 {
@@ -42,13 +43,33 @@ public class Xtea
 
 	public byte[] encrypt(byte[] data, int len)
 	{
-		ByteBuf buf = Unpooled.wrappedBuffer(data, 0, len);
-		ByteBuf out = Unpooled.buffer(len);
+		byte[] out = Arrays.copyOf(data, len);
+		encrypt(out, 0, len);
+		return out;
+	}
+
+	public byte[] decrypt(byte[] data, int len)
+	{
+		byte[] out = Arrays.copyOf(data, len);
+		decrypt(out, 0, len);
+		return out;
+	}
+
+	/**
+	 * Encrypt a range of an array in place. Trailing bytes which do not
+	 * make up a whole block are left unencrypted.
+	 *
+	 * @param data
+	 * @param offset
+	 * @param len
+	 */
+	public void encrypt(byte[] data, int offset, int len)
+	{
 		int numBlocks = len / 8;
-		for (int block = 0; block < numBlocks; ++block)
+		for (int block = 0, pos = offset; block < numBlocks; ++block, pos += 8)
 		{
-			int v0 = buf.readInt();
-			int v1 = buf.readInt();
+			int v0 = getInt(data, pos);
+			int v1 = getInt(data, pos + 4);
 			int sum = 0;
 			for (int i = 0; i < ROUNDS; ++i)
 			{
@@ -56,22 +77,86 @@ public class Xtea
 				sum += GOLDEN_RATIO;
 				v1 += (((v0 << 4) ^ (v0 >>> 5)) + v0) ^ (sum + key[(sum >>> 11) & 3]);
 			}
-			out.writeInt(v0);
-			out.writeInt(v1);
+			putInt(data, pos, v0);
+			putInt(data, pos + 4, v1);
 		}
-		out.writeBytes(buf);
-		return out.array();
 	}
 
-	public byte[] decrypt(byte[] data, int len)
+	/**
+	 * Decrypt a range of an array in place. Trailing bytes which do not
+	 * make up a whole block are left as is.
+	 *
+	 * @param data
+	 * @param offset
+	 * @param len
+	 */
+	public void decrypt(byte[] data, int offset, int len)
+	{
+		int numBlocks = len / 8;
+		for (int block = 0, pos = offset; block < numBlocks; ++block, pos += 8)
+		{
+			int v0 = getInt(data, pos);
+			int v1 = getInt(data, pos + 4);
+			int sum = GOLDEN_RATIO * ROUNDS;
+			for (int i = 0; i < ROUNDS; ++i)
+			{
+				v1 -= (((v0 << 4) ^ (v0 >>> 5)) + v0) ^ (sum + key[(sum >>> 11) & 3]);
+				sum -= GOLDEN_RATIO;
+				v0 -= (((v1 << 4) ^ (v1 >>> 5)) + v1) ^ (sum + key[sum & 3]);
+			}
+			putInt(data, pos, v0);
+			putInt(data, pos + 4, v1);
+		}
+	}
+
+	/**
+	 * Encrypt a range of a buffer in place, using absolute positions. The
+	 * position, limit and byte order of the buffer are not changed, and do
+	 * not affect the result.
+	 *
+	 * @param buffer
+	 * @param offset
+	 * @param len
+	 */
+	public void encrypt(ByteBuffer buffer, int offset, int len)
+	{
+		// blocks are big endian regardless of the byte order of the caller's buffer
+		buffer = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+		int numBlocks = len / 8;
+		for (int block = 0, pos = offset; block < numBlocks; ++block, pos += 8)
+		{
+			int v0 = buffer.getInt(pos);
+			int v1 = buffer.getInt(pos + 4);
+			int sum = 0;
+			for (int i = 0; i < ROUNDS; ++i)
+			{
+				v0 += (((v1 << 4) ^ (v1 >>> 5)) + v1) ^ (sum + key[sum & 3]);
+				sum += GOLDEN_RATIO;
+				v1 += (((v0 << 4) ^ (v0 >>> 5)) + v0) ^ (sum + key[(sum >>> 11) & 3]);
+			}
+			buffer.putInt(pos, v0);
+			buffer.putInt(pos + 4, v1);
+		}
+	}
+
+	/**
+	 * Decrypt a range of a buffer in place, using absolute positions. The
+	 * position, limit and byte order of the buffer are not changed, and do
+	 * not affect the result.
+	 *
+	 * @param buffer
+	 * @param offset
+	 * @param len
+	 */
+	public void decrypt(ByteBuffer buffer, int offset, int len)
 	{
-		ByteBuf buf = Unpooled.wrappedBuffer(data, 0, len);
-		ByteBuf out = Unpooled.buffer(len);
+		// blocks are big endian regardless of the byte order of the caller's buffer
+		buffer = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
 		int numBlocks = len / 8;
-		for (int block = 0; block < numBlocks; ++block)
+		for (int block = 0, pos = offset; block < numBlocks; ++block, pos += 8)
 		{
-			int v0 = buf.readInt();
-			int v1 = buf.readInt();
+			int v0 = buffer.getInt(pos);
+			int v1 = buffer.getInt(pos + 4);
 			int sum = GOLDEN_RATIO * ROUNDS;
 			for (int i = 0; i < ROUNDS; ++i)
 			{
@@ -79,10 +164,24 @@ public class Xtea
 				sum -= GOLDEN_RATIO;
 				v0 -= (((v1 << 4) ^ (v1 >>> 5)) + v1) ^ (sum + key[sum & 3]);
 			}
-			out.writeInt(v0);
-			out.writeInt(v1);
+			buffer.putInt(pos, v0);
+			buffer.putInt(pos + 4, v1);
 		}
-		out.writeBytes(buf);
-		return out.array();
+	}
+
+	private static int getInt(byte[] data, int pos)
+	{
+		return ((data[pos] & 0xFF) << 24)
+			| ((data[pos + 1] & 0xFF) << 16)
+			| ((data[pos + 2] & 0xFF) << 8)
+			| (data[pos + 3] & 0xFF);
+	}
+
+	private static void putInt(byte[] data, int pos, int value)
+	{
+		data[pos] = (byte) (value >>> 24);
+		data[pos + 1] = (byte) (value >>> 16);
+		data[pos + 2] = (byte) (value >>> 8);
+		data[pos + 3] = (byte) value;
 	}
 }
@@ -27,10 +27,12 @@ package net.runelite.cache;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
 import javax.imageio.ImageIO;
 import net.runelite.cache.fs.Store;
 import net.runelite.cache.region.Region;
 import net.runelite.cache.region.RegionLoader;
+import org.junit.Assert;
 import org.junit.Ignore;
 import org.junit.Rule;
 import org.junit.Test;
@@ -97,4 +99,53 @@ public class MapImageDumperTest
 			}
 		}
 	}
+
+	@Test
+	@Ignore
+	public void benchmarkParallel() throws IOException
+	{
+		ForkJoinPool pool = new ForkJoinPool();
+
+		try (Store store = new Store(StoreLocation.LOCATION))
+		{
+			store.load();
+
+			long start = System.nanoTime();
+			MapImageDumper dumper = new MapImageDumper(store);
+			dumper.load();
+			long sequentialLoad = System.nanoTime() - start;
+
+			start = System.nanoTime();
+			MapImageDumper parallelDumper = new MapImageDumper(store);
+			parallelDumper.setForkJoinPool(pool);
+			parallelDumper.load();
+			long parallelLoad = System.nanoTime() - start;
+
+			logger.info("Load: sequential {}ms, parallel {}ms", sequentialLoad / 1_000_000L, parallelLoad / 1_000_000L);
+
+			for (int i = 0; i < Region.Z; ++i)
+			{
+				// use the same dumper for both so the randomized wall colors match
+				dumper.setForkJoinPool(null);
+				start = System.nanoTime();
+				BufferedImage sequential = dumper.drawMap(i);
+				long sequentialDraw = System.nanoTime() - start;
+
+				dumper.setForkJoinPool(pool);
+				start = System.nanoTime();
+				BufferedImage parallel = dumper.drawMap(i);
+				long parallelDraw = System.nanoTime() - start;
+
+				logger.info("Plane {}: sequential {}ms, parallel {}ms", i, sequentialDraw / 1_000_000L, parallelDraw / 1_000_000L);
+
+				int width = sequential.getWidth(), height = sequential.getHeight();
+				Assert.assertArrayEquals(sequential.getRGB(0, 0, width, height, null, 0, width),
+					parallel.getRGB(0, 0, width, height, null, 0, width));
+			}
+		}
+		finally
+		{
+			pool.shutdown();
+		}
+	}
 }
@@ -24,14 +24,29 @@
  */
 package net.runelite.cache.fs;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
 import java.util.Random;
+import java.util.zip.GZIPInputStream;
+import static net.runelite.cache.fs.jagex.CompressionType.BZ2;
 import static net.runelite.cache.fs.jagex.CompressionType.GZ;
+import static net.runelite.cache.fs.jagex.CompressionType.NONE;
+import net.runelite.cache.util.GZip;
+import org.apache.commons.compress.utils.IOUtils;
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import org.junit.Ignore;
 import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class ContainerTest
 {
+	private static final Logger logger = LoggerFactory.getLogger(ContainerTest.class);
 
 	@Test
 	public void testCompress() throws IOException
@@ -52,4 +67,150 @@ public class ContainerTest
 		assertArrayEquals(data, container.data);
 	}
 
+	@Test
+	public void testRoundTrip() throws IOException
+	{
+		int[] keys = new int[]
+		{
+			4, 8, 15, 16
+		};
+		Random random = new Random(42L);
+
+		for (int compression : new int[]{NONE, BZ2, GZ})
+		{
+			for (int size : new int[]{0, 1, 7, 100, 5000, 100_000})
+			{
+				byte[] data = new byte[size];
+				// partially random so that it compresses
+				for (int i = 0; i < size; ++i)
+				{
+					data[i] = (byte) (random.nextInt(4) == 0 ? random.nextInt() : i / 16);
+				}
+
+				for (int[] k : new int[][]{null, keys})
+				{
+					Container container = new Container(compression, 42);
+					container.compress(data, k);
+
+					Container decompressed = Container.decompress(container.data, k);
+					assertArrayEquals(data, decompressed.data);
+					assertEquals(42, decompressed.revision);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testWrongKeys() throws IOException
+	{
+		int[] keys = new int[]
+		{
+			4, 8, 15, 16
+		};
+		Random random = new Random(42L);
+		byte[] data = new byte[100_000];
+		for (int i = 0; i < data.length; ++i)
+		{
+			data[i] = (byte) (random.nextInt(4) == 0 ? random.nextInt() : i / 16);
+		}
+
+		for (int compression : new int[]{BZ2, GZ})
+		{
+			Container container = new Container(compression, -1);
+			container.compress(data, keys);
+
+			for (int i = 0; i < 200; ++i)
+			{
+				int[] wrongKeys = new int[]
+				{
+					random.nextInt(), random.nextInt(), random.nextInt(), random.nextInt()
+				};
+
+				try
+				{
+					Container.decompress(container.data, wrongKeys);
+					fail("decompressed with the wrong keys");
+				}
+				catch (IOException ex)
+				{
+					// expected, the decompressed length is garbage
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testGZipInto() throws IOException
+	{
+		byte[] data = "testtesttesttesttest".getBytes();
+		byte[] compressed = GZip.compress(data);
+
+		byte[] out = new byte[data.length + 10];
+		GZip.decompress(compressed, 0, compressed.length, out, 5, data.length);
+		for (int i = 0; i < data.length; ++i)
+		{
+			assertEquals(data[i], out[i + 5]);
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void testGZipLengthMismatch() throws IOException
+	{
+		byte[] data = "testtesttesttesttest".getBytes();
+		byte[] compressed = GZip.compress(data);
+
+		GZip.decompress(compressed, 0, compressed.length, data.length - 1);
+	}
+
+	@Test
+	@Ignore
+	public void benchmarkDecompress() throws IOException
+	{
+		com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long threadId = Thread.currentThread().getId();
+
+		Random random = new Random(42L);
+		byte[] data = new byte[65536];
+		for (int i = 0; i < data.length; ++i)
+		{
+			data[i] = (byte) (random.nextInt(4) == 0 ? random.nextInt() : i / 16);
+		}
+
+		Container container = new Container(GZ, -1);
+		container.compress(data, null);
+		byte[] packed = container.data;
+		byte[] gzip = GZip.compress(data);
+
+		for (int run = 0; run < 10; ++run)
+		{
+			long allocated = threadMXBean.getThreadAllocatedBytes(threadId);
+			long start = System.nanoTime();
+			for (int i = 0; i < 1000; ++i)
+			{
+				// the previous stream based path
+				ByteArrayOutputStream os = new ByteArrayOutputStream();
+				try (InputStream is = new GZIPInputStream(new ByteArrayInputStream(gzip)))
+				{
+					IOUtils.copy(is, os);
+				}
+				os.toByteArray();
+			}
+			long streamTime = System.nanoTime() - start;
+			long streamAllocated = threadMXBean.getThreadAllocatedBytes(threadId) - allocated;
+
+			allocated = threadMXBean.getThreadAllocatedBytes(threadId);
+			start = System.nanoTime();
+			for (int i = 0; i < 1000; ++i)
+			{
+				Container.decompress(packed, null);
+			}
+			long containerTime = System.nanoTime() - start;
+			long containerAllocated = threadMXBean.getThreadAllocatedBytes(threadId) - allocated;
+
+			logger.info("1000x{} bytes: stream {}ms {}KB allocated, container {}ms {}KB allocated",
+				data.length,
+				streamTime / 1_000_000L, streamAllocated / 1024L,
+				containerTime / 1_000_000L, containerAllocated / 1024L);
+		}
+	}
 }
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2018, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.fs;
+
+import java.io.IOException;
+import net.runelite.cache.IndexType;
+import net.runelite.cache.StoreLocation;
+import net.runelite.cache.util.Djb2;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class IndexTest
+{
+	private static final Logger logger = LoggerFactory.getLogger(IndexTest.class);
+
+	@Test
+	public void testGetArchive()
+	{
+		Index index = new Index(0);
+		Archive a1 = index.addArchive(1);
+		Archive a2 = index.addArchive(7);
+
+		assertSame(a1, index.getArchive(1));
+		assertSame(a2, index.getArchive(7));
+		assertNull(index.getArchive(2));
+
+		index.removeArchive(a1);
+		assertNull(index.getArchive(1));
+		assertSame(a2, index.getArchive(7));
+	}
+
+	@Test
+	public void testFindArchiveByName()
+	{
+		Index index = new Index(0);
+		Archive a1 = index.addArchive(1);
+		Archive a2 = index.addArchive(2);
+		Archive a3 = index.addArchive(3);
+
+		a1.setNameHash(Djb2.hash("m50_50"));
+		a2.setNameHash(Djb2.hash("l50_50"));
+
+		assertSame(a1, index.findArchiveByName("m50_50"));
+		assertSame(a2, index.findArchiveByName("l50_50"));
+		assertNull(index.findArchiveByName("m1_1"));
+		assertArrayEquals(new Archive[]{a2, null, a1}, index.findArchivesByName("l50_50", "m1_1", "m50_50"));
+
+		// renaming
+		a1.setNameHash(Djb2.hash("m1_1"));
+		assertNull(index.findArchiveByName("m50_50"));
+		assertSame(a1, index.findArchiveByName("m1_1"));
+
+		// duplicate names resolve to the first archive
+		a3.setNameHash(Djb2.hash("l50_50"));
+		assertSame(a2, index.findArchiveByName("l50_50"));
+
+		index.removeArchive(a2);
+		assertSame(a3, index.findArchiveByName("l50_50"));
+
+		index.removeArchive(a3);
+		assertNull(index.findArchiveByName("l50_50"));
+
+		// removed archives are no longer tracked
+		a3.setNameHash(Djb2.hash("m2_2"));
+		assertNull(index.findArchiveByName("m2_2"));
+	}
+
+	@Test
+	@Ignore
+	public void benchmarkResolveMapNames() throws IOException
+	{
+		try (Store store = new Store(StoreLocation.LOCATION))
+		{
+			store.load();
+
+			Index index = store.getIndex(IndexType.MAPS);
+
+			String[] names = new String[32768 * 2];
+			for (int i = 0; i < 32768; ++i)
+			{
+				int x = i >> 8;
+				int y = i & 0xFF;
+				names[i * 2] = "m" + x + "_" + y;
+				names[i * 2 + 1] = "l" + x + "_" + y;
+			}
+
+			for (int run = 0; run < 5; ++run)
+			{
+				long start = System.nanoTime();
+				int found = 0;
+				for (String name : names)
+				{
+					int hash = Djb2.hash(name);
+					for (Archive archive : index.getArchives())
+					{
+						if (archive.getNameHash() == hash)
+						{
+							++found;
+							break;
+						}
+					}
+				}
+				long scan = System.nanoTime() - start;
+
+				start = System.nanoTime();
+				Archive[] archives = index.findArchivesByName(names);
+				long lookup = System.nanoTime() - start;
+
+				logger.info("Resolved {} of {} map names in {} archives: linear scan {}ms, lookup {}ms",
+					found, names.length, index.getArchives().size(), scan / 1_000_000L, lookup / 1_000_000L);
+				assert archives.length == names.length;
+			}
+		}
+	}
+}
@@ -26,6 +26,13 @@ package net.runelite.cache.fs.jagex;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import net.runelite.cache.StoreLocation;
 import net.runelite.cache.fs.Container;
 import org.junit.Assert;
@@ -167,4 +174,163 @@ public class DataFileTest
 		Assert.assertEquals("testtesttesttest1", str);
 		Assert.assertEquals(42, res2.revision);
 	}
+
+	@Test
+	public void testMapped() throws IOException
+	{
+		Random random = new Random(42L);
+		File file = folder.newFile();
+
+		byte[] small = new byte[100];
+		byte[] large = new byte[4096];
+		random.nextBytes(small);
+		random.nextBytes(large);
+
+		DataFileWriteResult res1, res2, res3;
+		try (DataFile df = new DataFile(file))
+		{
+			res1 = df.write(2, 3, small);
+			res2 = df.write(2, 4, large);
+			res3 = df.write(7, 0x1FFFF, large);
+		}
+
+		try (DataFile df = new DataFile(file, true))
+		{
+			Assert.assertArrayEquals(small, df.read(2, 3, res1.sector, res1.compressedLength));
+			Assert.assertArrayEquals(large, df.read(2, 4, res2.sector, res2.compressedLength));
+			Assert.assertArrayEquals(large, df.read(7, 0x1FFFF, res3.sector, res3.compressedLength));
+
+			// mismatched archive
+			Assert.assertNull(df.read(2, 5, res2.sector, res2.compressedLength));
+
+			ByteBuffer view = df.readBuffer(2, 3, res1.sector, res1.compressedLength);
+			Assert.assertTrue(view.isReadOnly());
+			byte[] b = new byte[view.remaining()];
+			view.get(b);
+			Assert.assertArrayEquals(small, b);
+
+			view = df.readBuffer(2, 4, res2.sector, res2.compressedLength);
+			b = new byte[view.remaining()];
+			view.get(b);
+			Assert.assertArrayEquals(large, b);
+
+			// writes after the file has been mapped are visible
+			DataFileWriteResult res4 = df.write(2, 6, large);
+			Assert.assertArrayEquals(large, df.read(2, 6, res4.sector, res4.compressedLength));
+		}
+	}
+
+	@Test
+	public void testReadSectors() throws IOException
+	{
+		Random random = new Random(42L);
+		File file = folder.newFile();
+
+		byte[] large = new byte[4000];
+		random.nextBytes(large);
+
+		try (DataFile df = new DataFile(file, true))
+		{
+			DataFileWriteResult res = df.write(2, 4, large);
+
+			ByteBuffer[] sectors = df.readSectors(2, 4, res.sector, res.compressedLength);
+			Assert.assertEquals(8, sectors.length);
+
+			ByteBuffer buffer = ByteBuffer.allocate(large.length);
+			for (ByteBuffer sector : sectors)
+			{
+				// views of the mapping, not copies
+				Assert.assertTrue(sector.isDirect());
+				Assert.assertTrue(sector.isReadOnly());
+				buffer.put(sector);
+			}
+			Assert.assertArrayEquals(large, buffer.array());
+
+			Assert.assertNull(df.readSectors(2, 5, res.sector, res.compressedLength));
+		}
+	}
+
+	@Test
+	public void testOverwrite() throws IOException
+	{
+		Random random = new Random(42L);
+		File file = folder.newFile();
+
+		byte[] large = new byte[4096];
+		byte[] small = new byte[1024];
+		byte[] larger = new byte[8192];
+		random.nextBytes(large);
+		random.nextBytes(small);
+		random.nextBytes(larger);
+
+		try (DataFile df = new DataFile(file))
+		{
+			DataFileWriteResult res = df.write(2, 3, large);
+			DataFileWriteResult other = df.write(2, 4, large);
+			long length = file.length();
+
+			// replacing with smaller data reuses the existing chain
+			DataFileWriteResult res2 = df.write(2, 3, small, res.sector);
+			Assert.assertEquals(res.sector, res2.sector);
+			Assert.assertEquals(length, file.length());
+			Assert.assertArrayEquals(small, df.read(2, 3, res2.sector, res2.compressedLength));
+
+			// replacing with larger data reuses the chain and then appends
+			DataFileWriteResult res3 = df.write(2, 3, larger, res2.sector);
+			Assert.assertEquals(res.sector, res3.sector);
+			Assert.assertArrayEquals(larger, df.read(2, 3, res3.sector, res3.compressedLength));
+			Assert.assertArrayEquals(large, df.read(2, 4, other.sector, other.compressedLength));
+
+			// a sector which belongs to another archive is never overwritten
+			DataFileWriteResult res4 = df.write(2, 5, small, other.sector);
+			Assert.assertNotEquals(other.sector, res4.sector);
+			Assert.assertArrayEquals(small, df.read(2, 5, res4.sector, res4.compressedLength));
+			Assert.assertArrayEquals(large, df.read(2, 4, other.sector, other.compressedLength));
+		}
+	}
+
+	@Test
+	public void testMappedClear() throws Exception
+	{
+		Random random = new Random(42L);
+		byte[] large = new byte[4096];
+		random.nextBytes(large);
+
+		try (DataFile df = new DataFile(folder.newFile(), true))
+		{
+			DataFileWriteResult res = df.write(2, 4, large);
+
+			ExecutorService executor = Executors.newFixedThreadPool(4);
+			List<Future<?>> futures = new ArrayList<>();
+			for (int i = 0; i < 4; ++i)
+			{
+				futures.add(executor.submit(() ->
+				{
+					for (int j = 0; j < 1000; ++j)
+					{
+						byte[] b = df.read(2, 4, res.sector, res.compressedLength);
+						// reads either see the whole archive or nothing once it has been cleared
+						if (b != null)
+						{
+							Assert.assertArrayEquals(large, b);
+						}
+					}
+					return null;
+				}));
+			}
+
+			df.clear();
+
+			for (Future<?> future : futures)
+			{
+				future.get();
+			}
+			executor.shutdown();
+
+			Assert.assertNull(df.read(2, 4, res.sector, res.compressedLength));
+
+			DataFileWriteResult rewritten = df.write(2, 4, large);
+			Assert.assertArrayEquals(large, df.read(2, 4, rewritten.sector, rewritten.compressedLength));
+		}
+	}
 }
@@ -25,19 +25,35 @@
 package net.runelite.cache.fs.jagex;
 
 import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import net.runelite.cache.StoreLocation;
 import net.runelite.cache.fs.Archive;
 import net.runelite.cache.fs.Container;
 import net.runelite.cache.fs.Index;
+import net.runelite.cache.fs.Storage;
 import net.runelite.cache.fs.Store;
 import net.runelite.cache.index.FileData;
+import org.junit.Ignore;
 import org.junit.Test;
 import static org.junit.Assert.*;
 import org.junit.Rule;
 import org.junit.rules.TemporaryFolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class DiskStorageTest
 {
+	private static final Logger logger = LoggerFactory.getLogger(DiskStorageTest.class);
+
 	@Rule
 	public TemporaryFolder folder = StoreLocation.getTemporaryFolder();
 
@@ -99,4 +115,279 @@ public class DiskStorageTest
 		}
 	}
 
+	@Test
+	public void testConcurrentLoadArchive() throws Exception
+	{
+		File file = folder.newFolder();
+		Random random = new Random(42L);
+
+		try (Store store = new Store(new DiskStorage(file)))
+		{
+			Storage storage = store.getStorage();
+			for (int i = 0; i < 2; ++i)
+			{
+				Index index = store.addIndex(i);
+				for (int j = 0; j < 200; ++j)
+				{
+					Archive archive = index.addArchive(j);
+					FileData[] fileData = new FileData[1];
+					fileData[0] = new FileData();
+					archive.setFileData(fileData);
+
+					byte[] data = new byte[random.nextInt(4096) + 1];
+					random.nextBytes(data);
+
+					Container container = new Container(CompressionType.NONE, -1);
+					container.compress(data, null);
+					storage.saveArchive(archive, container.data);
+				}
+			}
+
+			store.save();
+		}
+
+		for (boolean mapped : new boolean[]{false, true})
+		{
+			DiskStorage storage = new DiskStorage(file, mapped);
+			try (Store store = new Store(storage))
+			{
+				store.load();
+
+				List<Archive> archives = new ArrayList<>();
+				Map<Archive, byte[]> expected = new IdentityHashMap<>();
+				for (Index index : store.getIndexes())
+				{
+					for (Archive archive : index.getArchives())
+					{
+						archives.add(archive);
+						expected.put(archive, storage.loadArchive(archive));
+					}
+				}
+
+				ExecutorService executor = Executors.newFixedThreadPool(8);
+				try
+				{
+					List<Future<?>> futures = new ArrayList<>();
+					for (int t = 0; t < 8; ++t)
+					{
+						List<Archive> shuffled = new ArrayList<>(archives);
+						Collections.shuffle(shuffled, new Random(t));
+
+						futures.add(executor.submit(() ->
+						{
+							for (int n = 0; n < 10; ++n)
+							{
+								for (Archive archive : shuffled)
+								{
+									assertArrayEquals(expected.get(archive), storage.loadArchive(archive));
+								}
+							}
+							return null;
+						}));
+					}
+
+					for (Future<?> future : futures)
+					{
+						future.get();
+					}
+				}
+				finally
+				{
+					executor.shutdown();
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testCompact() throws Exception
+	{
+		File file = folder.newFolder();
+		byte[][] contents = saveArchives(file, 10);
+
+		File dataFile = new File(file, "main_file_cache.dat2");
+		long length = dataFile.length();
+
+		DiskStorage storage = new DiskStorage(file);
+		try (Store store = new Store(storage))
+		{
+			long reclaimed = storage.compact();
+			assertTrue(reclaimed > 0);
+			assertEquals(length - reclaimed, dataFile.length());
+
+			store.load();
+			Index index = store.findIndex(0);
+			for (int i = 0; i < contents.length; ++i)
+			{
+				assertArrayEquals(contents[i], storage.loadArchive(index.getArchive(i)));
+			}
+		}
+
+		storage = new DiskStorage(file);
+		try (Store store = new Store(storage))
+		{
+			store.load();
+			Index index = store.findIndex(0);
+			for (int i = 0; i < contents.length; ++i)
+			{
+				assertArrayEquals(contents[i], storage.loadArchive(index.getArchive(i)));
+			}
+		}
+	}
+
+	@Test
+	public void testCompactUnreadableArchive() throws Exception
+	{
+		File file = folder.newFolder();
+		byte[][] contents = saveArchives(file, 2);
+
+		// point the second archive at the first archive's sectors
+		try (IndexFile indexFile = new IndexFile(0, new File(file, "main_file_cache.idx0")))
+		{
+			IndexEntry first = indexFile.read(0);
+			indexFile.write(new IndexEntry(indexFile, 1, first.getSector(), first.getLength()));
+		}
+
+		File dataFile = new File(file, "main_file_cache.dat2");
+		long length = dataFile.length();
+
+		DiskStorage storage = new DiskStorage(file);
+		try (Store store = new Store(storage))
+		{
+			try
+			{
+				storage.compact();
+				fail("compaction should fail on an unreadable archive");
+			}
+			catch (IOException ex)
+			{
+				// expected
+			}
+
+			assertEquals(length, dataFile.length());
+			assertFalse(new File(file, "main_file_cache.dat2.tmp").exists());
+			assertFalse(new File(file, "main_file_cache.compact").exists());
+
+			store.load();
+			Index index = store.findIndex(0);
+			assertArrayEquals(contents[0], storage.loadArchive(index.getArchive(0)));
+			assertNull(storage.loadArchive(index.getArchive(1)));
+		}
+	}
+
+	@Test
+	public void testCompactInterrupted() throws Exception
+	{
+		File file = folder.newFolder();
+		byte[][] contents = saveArchives(file, 10);
+
+		// write the compacted files but stop before swapping them in
+		DiskStorage storage = new DiskStorage(file);
+		try (Store store = new Store(storage))
+		{
+			storage.prepareCompaction();
+		}
+		assertTrue(new File(file, "main_file_cache.compact").exists());
+
+		File dataFile = new File(file, "main_file_cache.dat2");
+		long length = dataFile.length();
+
+		storage = new DiskStorage(file);
+		try (Store store = new Store(storage))
+		{
+			assertFalse(new File(file, "main_file_cache.compact").exists());
+			assertTrue(dataFile.length() < length);
+
+			store.load();
+			Index index = store.findIndex(0);
+			for (int i = 0; i < contents.length; ++i)
+			{
+				assertArrayEquals(contents[i], storage.loadArchive(index.getArchive(i)));
+			}
+		}
+
+		// compacted files without a journal are from a compaction which never committed
+		File leftover = new File(file, "main_file_cache.idx0.tmp");
+		assertTrue(leftover.createNewFile());
+		storage = new DiskStorage(file);
+		storage.close();
+		assertFalse(leftover.exists());
+	}
+
+	/**
+	 * Save archives to index 0, each saved once large and then again
+	 * smaller so that unused sectors are left behind
+	 *
+	 * @return the archive data
+	 */
+	private static byte[][] saveArchives(File file, int count) throws Exception
+	{
+		Random random = new Random(42L);
+		byte[][] contents = new byte[count][];
+		try (Store store = new Store(new DiskStorage(file)))
+		{
+			Storage storage = store.getStorage();
+			Index index = store.addIndex(0);
+			for (int i = 0; i < contents.length; ++i)
+			{
+				Archive archive = index.addArchive(i);
+				FileData[] fileData = new FileData[1];
+				fileData[0] = new FileData();
+				archive.setFileData(fileData);
+
+				for (int size : new int[]{8192, random.nextInt(2048) + 1})
+				{
+					byte[] data = new byte[size];
+					random.nextBytes(data);
+
+					Container container = new Container(CompressionType.NONE, -1);
+					container.compress(data, null);
+					storage.saveArchive(archive, container.data);
+					contents[i] = container.data;
+				}
+			}
+
+			store.save();
+		}
+		return contents;
+	}
+
+	@Test
+	@Ignore
+	public void benchmarkLoadArchives() throws Exception
+	{
+		for (int i = 0; i < 5; ++i)
+		{
+			long rafTime = loadAllArchives(false);
+			long mappedTime = loadAllArchives(true);
+			logger.info("Loaded all archives: RandomAccessFile {}ms, mapped {}ms", rafTime, mappedTime);
+		}
+	}
+
+	private static long loadAllArchives(boolean mapped) throws Exception
+	{
+		DiskStorage storage = new DiskStorage(StoreLocation.LOCATION, mapped);
+		try (Store store = new Store(storage))
+		{
+			store.load();
+
+			long start = System.nanoTime();
+			long bytes = 0;
+			for (Index index : store.getIndexes())
+			{
+				for (Archive archive : index.getArchives())
+				{
+					byte[] data = storage.loadArchive(archive);
+					if (data != null)
+					{
+						bytes += data.length;
+					}
+				}
+			}
+			long end = System.nanoTime();
+
+			logger.debug("Read {} bytes", bytes);
+			return (end - start) / 1_000_000L;
+		}
+	}
 }
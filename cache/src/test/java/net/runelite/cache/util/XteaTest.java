@@ -24,11 +24,28 @@
  */
 package net.runelite.cache.util;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Random;
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import org.junit.Ignore;
 import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class XteaTest
 {
+	private static final Logger logger = LoggerFactory.getLogger(XteaTest.class);
+
+	private static final int[] KEY = new int[]
+	{
+		4, 8, 15, 16
+	};
+
 	@Test
 	public void test()
 	{
@@ -52,4 +69,119 @@ public class XteaTest
 
 		assertArrayEquals(data, decData);
 	}
+
+	@Test
+	public void testInPlace()
+	{
+		Random random = new Random(42L);
+		Xtea xtea = new Xtea(KEY);
+
+		for (int len = 0; len < 100; ++len)
+		{
+			byte[] data = new byte[len];
+			random.nextBytes(data);
+
+			byte[] expected = referenceEncrypt(KEY, data, len);
+
+			// array, at an offset
+			byte[] buf = new byte[len + 3];
+			System.arraycopy(data, 0, buf, 3, len);
+			xtea.encrypt(buf, 3, len);
+			assertArrayEquals(expected, Arrays.copyOfRange(buf, 3, 3 + len));
+
+			xtea.decrypt(buf, 3, len);
+			assertArrayEquals(data, Arrays.copyOfRange(buf, 3, 3 + len));
+
+			// buffer, at an offset
+			ByteBuffer buffer = ByteBuffer.allocate(len + 5);
+			buffer.position(5);
+			buffer.put(data);
+			buffer.position(1);
+			xtea.encrypt(buffer, 5, len);
+			assertEquals(1, buffer.position());
+			assertArrayEquals(expected, Arrays.copyOfRange(buffer.array(), 5, 5 + len));
+
+			xtea.decrypt(buffer, 5, len);
+			assertArrayEquals(data, Arrays.copyOfRange(buffer.array(), 5, 5 + len));
+
+			assertArrayEquals(expected, xtea.encrypt(data, len));
+			assertArrayEquals(data, xtea.decrypt(expected, len));
+		}
+	}
+
+	@Test
+	public void testLittleEndianBuffer()
+	{
+		Random random = new Random(42L);
+		Xtea xtea = new Xtea(KEY);
+
+		byte[] data = new byte[64];
+		random.nextBytes(data);
+		byte[] expected = referenceEncrypt(KEY, data, data.length);
+
+		ByteBuffer buffer = ByteBuffer.wrap(data.clone()).order(ByteOrder.LITTLE_ENDIAN);
+		xtea.encrypt(buffer, 0, data.length);
+		assertEquals(ByteOrder.LITTLE_ENDIAN, buffer.order());
+		assertArrayEquals(expected, buffer.array());
+
+		xtea.decrypt(buffer, 0, data.length);
+		assertArrayEquals(data, buffer.array());
+	}
+
+	@Test
+	@Ignore
+	public void benchmark()
+	{
+		Random random = new Random(42L);
+		byte[] data = new byte[65536];
+		random.nextBytes(data);
+
+		Xtea xtea = new Xtea(KEY);
+
+		for (int run = 0; run < 10; ++run)
+		{
+			long start = System.nanoTime();
+			for (int i = 0; i < 100; ++i)
+			{
+				referenceEncrypt(KEY, data, data.length);
+			}
+			long reference = System.nanoTime() - start;
+
+			start = System.nanoTime();
+			for (int i = 0; i < 100; ++i)
+			{
+				xtea.encrypt(data, 0, data.length);
+			}
+			long inPlace = System.nanoTime() - start;
+
+			logger.info("Encrypting 100x{} bytes: ByteBuf copy {}us, in place {}us",
+				data.length, reference / 1000L, inPlace / 1000L);
+		}
+	}
+
+	/**
+	 * The original ByteBuf based implementation
+	 */
+	private static byte[] referenceEncrypt(int[] key, byte[] data, int len)
+	{
+		ByteBuf buf = Unpooled.wrappedBuffer(data, 0, len);
+		ByteBuf out = Unpooled.buffer(len);
+		int numBlocks = len / 8;
+		for (int block = 0; block < numBlocks; ++block)
+		{
+			int v0 = buf.readInt();
+			int v1 = buf.readInt();
+			int sum = 0;
+			for (int i = 0; i < 32; ++i)
+			{
+				v0 += (((v1 << 4) ^ (v1 >>> 5)) + v1) ^ (sum + key[sum & 3]);
+				sum += 0x9E3779B9;
+				v1 += (((v0 << 4) ^ (v0 >>> 5)) + v0) ^ (sum + key[(sum >>> 11) & 3]);
+			}
+			out.writeInt(v0);
+			out.writeInt(v1);
+		}
+		out.writeBytes(buf);
+		return out.array();
+	}
 }
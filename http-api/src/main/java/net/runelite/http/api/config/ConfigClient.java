@@ -28,6 +28,7 @@ import com.google.gson.JsonParseException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.util.List;
 import java.util.UUID;
 import net.runelite.http.api.RuneLiteAPI;
 import okhttp3.Call;
@@ -45,6 +46,7 @@ public class ConfigClient
 	private static final Logger logger = LoggerFactory.getLogger(ConfigClient.class);
 
 	private static final MediaType TEXT_PLAIN = MediaType.parse("text/plain");
+	private static final MediaType JSON = MediaType.parse("application/json");
 
 	private final UUID uuid;
 
@@ -140,4 +142,36 @@ public class ConfigClient
 			}
 		});
 	}
+
+	/**
+	 * Set and unset many configuration items in a single request. This blocks until the
+	 * server has stored the changes.
+	 *
+	 * @param entries entries to set, entries with a null value are unset
+	 * @throws IOException if the changes could not be stored
+	 */
+	public void patch(List<ConfigEntry> entries) throws IOException
+	{
+		HttpUrl url = RuneLiteAPI.getApiBase().newBuilder()
+			.addPathSegment("config")
+			.build();
+
+		logger.debug("Built URI: {}", url);
+
+		Request request = new Request.Builder()
+			.patch(RequestBody.create(JSON, RuneLiteAPI.GSON.toJson(entries)))
+			.header(RuneLiteAPI.RUNELITE_AUTH, uuid.toString())
+			.url(url)
+			.build();
+
+		try (Response response = RuneLiteAPI.CLIENT.newCall(request).execute())
+		{
+			if (!response.isSuccessful())
+			{
+				throw new IOException("Unable to synchronize configuration: " + response.code());
+			}
+
+			logger.debug("Synchronized {} configuration values", entries.size());
+		}
+	}
 }
@@ -26,6 +26,7 @@ package net.runelite.http.api.item;
 
 import com.google.gson.JsonParseException;
 import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -200,4 +201,37 @@ public class ItemClient
 			throw new IOException(ex);
 		}
 	}
+
+	/**
+	 * Get the prices which have changed since the given price version
+	 *
+	 * @param version version of the prices the caller has, or 0 for all prices
+	 * @return the changed prices, or null if the lookup failed
+	 */
+	public ItemPriceDelta getPriceDelta(long version) throws IOException
+	{
+		HttpUrl url = RuneLiteAPI.getApiBase().newBuilder()
+			.addPathSegment("item")
+			.addPathSegment("prices")
+			.addPathSegment("delta")
+			.addQueryParameter("version", Long.toString(version))
+			.build();
+
+		logger.debug("Built URI: {}", url);
+
+		Request request = new Request.Builder()
+			.url(url)
+			.build();
+
+		try (Response response = RuneLiteAPI.CLIENT.newCall(request).execute())
+		{
+			if (!response.isSuccessful())
+			{
+				logger.warn("Error looking up price delta: {}", response.message());
+				return null;
+			}
+
+			return ItemPriceDelta.read(new BufferedInputStream(response.body().byteStream()));
+		}
+	}
 }
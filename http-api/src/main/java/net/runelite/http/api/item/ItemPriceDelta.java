@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2018, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.api.item;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Instant;
+import lombok.Data;
+
+/**
+ * The prices which have changed or been removed since a given price version. The delta
+ * is encoded in a compact binary form instead of json, as it may contain every price.
+ */
+@Data
+public class ItemPriceDelta
+{
+	public static final String MEDIA_TYPE = "application/octet-stream";
+
+	/**
+	 * Upper bound on the number of prices in a delta, which is more than there are item ids
+	 */
+	private static final int MAX_PRICES = 65536;
+
+	/**
+	 * Version of the prices after applying this delta
+	 */
+	private long version;
+	/**
+	 * Whether the delta contains every price, so any price not in it has been removed
+	 */
+	private boolean full;
+	private ItemPrice[] prices;
+	/**
+	 * Ids of the items whose prices have been removed
+	 */
+	private int[] removed = new int[0];
+
+	public void write(OutputStream out) throws IOException
+	{
+		DataOutputStream dout = new DataOutputStream(out);
+		dout.writeLong(version);
+		dout.writeBoolean(full);
+		dout.writeInt(prices.length);
+
+		for (ItemPrice price : prices)
+		{
+			dout.writeInt(price.getId());
+			dout.writeUTF(price.getName());
+			dout.writeInt(price.getPrice());
+			dout.writeLong(price.getTime() == null ? 0L : price.getTime().toEpochMilli());
+		}
+
+		dout.writeInt(removed.length);
+		for (int id : removed)
+		{
+			dout.writeInt(id);
+		}
+
+		dout.flush();
+	}
+
+	public static ItemPriceDelta read(InputStream in) throws IOException
+	{
+		DataInputStream din = new DataInputStream(in);
+
+		ItemPriceDelta delta = new ItemPriceDelta();
+		delta.setVersion(din.readLong());
+		delta.setFull(din.readBoolean());
+
+		int count = din.readInt();
+		if (count < 0 || count > MAX_PRICES)
+		{
+			throw new IOException("invalid price count " + count);
+		}
+
+		ItemPrice[] prices = new ItemPrice[count];
+		for (int i = 0; i < prices.length; ++i)
+		{
+			ItemPrice price = new ItemPrice();
+			price.setId(din.readInt());
+			price.setName(din.readUTF());
+			price.setPrice(din.readInt());
+			price.setTime(Instant.ofEpochMilli(din.readLong()));
+			prices[i] = price;
+		}
+
+		delta.setPrices(prices);
+
+		count = din.readInt();
+		if (count < 0 || count > MAX_PRICES)
+		{
+			throw new IOException("invalid removed price count " + count);
+		}
+
+		int[] removed = new int[count];
+		for (int i = 0; i < removed.length; ++i)
+		{
+			removed[i] = din.readInt();
+		}
+
+		delta.setRemoved(removed);
+		return delta;
+	}
+}
@@ -38,9 +38,11 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import static org.springframework.web.bind.annotation.RequestMethod.DELETE;
+import static org.springframework.web.bind.annotation.RequestMethod.PATCH;
 import static org.springframework.web.bind.annotation.RequestMethod.PUT;
 import org.springframework.web.bind.annotation.RestController;
 import org.sql2o.Connection;
+import org.sql2o.Query;
 import org.sql2o.Sql2o;
 import org.sql2o.Sql2oException;
 
@@ -156,4 +158,51 @@ public class ConfigService
 				.executeUpdate();
 		}
 	}
+
+	/**
+	 * Set and unset many keys at once. Entries without a value are unset.
+	 */
+	@RequestMapping(method = PATCH)
+	public void patch(
+		HttpServletRequest request,
+		HttpServletResponse response,
+		@RequestBody List<ConfigEntry> entries
+	) throws IOException
+	{
+		SessionEntry session = auth.handle(request, response);
+
+		if (session == null)
+		{
+			return;
+		}
+
+		try (Connection con = sql2o.beginTransaction())
+		{
+			Query set = con.createQuery("insert into config (user, `key`, value) values (:user, :key, :value) on duplicate key update `key` = :key, value = :value");
+			Query unset = con.createQuery("delete from config where user = :user and `key` = :key");
+
+			for (ConfigEntry entry : entries)
+			{
+				if (entry.getValue() == null)
+				{
+					unset
+						.addParameter("user", session.getUser())
+						.addParameter("key", entry.getKey())
+						.addToBatch();
+				}
+				else
+				{
+					set
+						.addParameter("user", session.getUser())
+						.addParameter("key", entry.getKey())
+						.addParameter("value", entry.getValue())
+						.addToBatch();
+				}
+			}
+
+			set.executeBatch();
+			unset.executeBatch();
+			con.commit();
+		}
+	}
 }
@@ -36,6 +36,7 @@ import java.util.stream.Collectors;
 import javax.servlet.http.HttpServletResponse;
 import net.runelite.http.api.item.Item;
 import net.runelite.http.api.item.ItemPrice;
+import net.runelite.http.api.item.ItemPriceDelta;
 import net.runelite.http.api.item.SearchResult;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.CacheControl;
@@ -58,14 +59,20 @@ public class ItemController
 
 	private final ItemService itemService;
 
-	private final Supplier<ItemPrice[]> memorizedPrices;
+	private final Supplier<PriceSnapshot> memorizedPrices;
+	private PriceSnapshot priceSnapshot;
 
 	@Autowired
 	public ItemController(ItemService itemService)
 	{
 		this.itemService = itemService;
 
-		memorizedPrices = Suppliers.memoizeWithExpiration(() -> itemService.fetchPrices().stream()
+		memorizedPrices = Suppliers.memoizeWithExpiration(this::fetchPrices, 30, TimeUnit.MINUTES);
+	}
+
+	private PriceSnapshot fetchPrices()
+	{
+		ItemPrice[] prices = itemService.fetchPrices().stream()
 			.map(priceEntry ->
 			{
 				ItemPrice itemPrice = new ItemPrice();
@@ -75,7 +82,11 @@ public class ItemController
 				itemPrice.setTime(priceEntry.getTime());
 				return itemPrice;
 			})
-			.toArray(ItemPrice[]::new), 30, TimeUnit.MINUTES);
+			.toArray(ItemPrice[]::new);
+
+		// only called from the memoizing supplier, which is synchronized
+		priceSnapshot = PriceSnapshot.create(priceSnapshot, prices, System.currentTimeMillis());
+		return priceSnapshot;
 	}
 
 	@RequestMapping("/{itemId}")
@@ -221,6 +232,14 @@ public class ItemController
 	{
 		return ResponseEntity.ok()
 			.cacheControl(CacheControl.maxAge(30, TimeUnit.MINUTES).cachePublic())
-			.body(memorizedPrices.get());
+			.body(memorizedPrices.get().getPrices());
+	}
+
+	@RequestMapping(path = "/prices/delta", produces = ItemPriceDelta.MEDIA_TYPE)
+	public ResponseEntity<byte[]> priceDelta(@RequestParam(defaultValue = "0") long version)
+	{
+		return ResponseEntity.ok()
+			.cacheControl(CacheControl.maxAge(5, TimeUnit.MINUTES).cachePublic())
+			.body(memorizedPrices.get().getDelta(version));
 	}
 }
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2018, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.item;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import lombok.Getter;
+import net.runelite.http.api.item.ItemPrice;
+import net.runelite.http.api.item.ItemPriceDelta;
+
+/**
+ * A versioned snapshot of the latest item prices. Each price records the version of the
+ * snapshot it last changed in, and each removed price the version it was removed in, so
+ * that clients can fetch only the prices which changed since the version they have.
+ */
+class PriceSnapshot
+{
+	@Getter
+	private final long version;
+	@Getter
+	private final ItemPrice[] prices;
+	private final long[] changedVersions;
+	private final Map<Integer, Long> removedVersions;
+	private final TreeSet<Long> versions = new TreeSet<>();
+	private final ConcurrentMap<Long, byte[]> deltas = new ConcurrentHashMap<>();
+
+	private PriceSnapshot(long version, ItemPrice[] prices, long[] changedVersions, Map<Integer, Long> removedVersions)
+	{
+		this.version = version;
+		this.prices = prices;
+		this.changedVersions = changedVersions;
+		this.removedVersions = removedVersions;
+
+		for (long changedVersion : changedVersions)
+		{
+			versions.add(changedVersion);
+		}
+		versions.addAll(removedVersions.values());
+	}
+
+	/**
+	 * Create a snapshot of the given prices
+	 *
+	 * @param previous previous snapshot, or null
+	 * @param prices latest prices
+	 * @param now current time in milliseconds, used as the new version
+	 * @return the new snapshot
+	 */
+	static PriceSnapshot create(PriceSnapshot previous, ItemPrice[] prices, long now)
+	{
+		// versions are timestamps so they remain ordered across restarts and between servers
+		final long version = previous == null ? now : Math.max(now, previous.version + 1);
+
+		final Map<Integer, Integer> previousIndex = new HashMap<>();
+		if (previous != null)
+		{
+			for (int i = 0; i < previous.prices.length; ++i)
+			{
+				previousIndex.put(previous.prices[i].getId(), i);
+			}
+		}
+
+		final Map<Integer, Long> removedVersions = previous == null
+			? new HashMap<>()
+			: new HashMap<>(previous.removedVersions);
+		final long[] changedVersions = new long[prices.length];
+		for (int i = 0; i < prices.length; ++i)
+		{
+			final Integer idx = previousIndex.remove(prices[i].getId());
+			changedVersions[i] = idx != null && previous.prices[idx].equals(prices[i])
+				? previous.changedVersions[idx]
+				: version;
+			removedVersions.remove(prices[i].getId());
+		}
+
+		// whatever is left of the previous prices has been removed
+		for (Integer id : previousIndex.keySet())
+		{
+			removedVersions.put(id, version);
+		}
+
+		return new PriceSnapshot(version, prices, changedVersions, removedVersions);
+	}
+
+	/**
+	 * Get the encoded delta of prices which changed or were removed after the given version
+	 *
+	 * @param since version the client has
+	 * @return encoded {@link ItemPriceDelta}
+	 */
+	byte[] getDelta(long since)
+	{
+		// every price changed at the version of some snapshot, so only the
+		// latest such version at or before the client's determines the delta
+		final Long floor = versions.floor(since);
+		return deltas.computeIfAbsent(floor == null ? 0L : floor, this::encodeDelta);
+	}
+
+	private byte[] encodeDelta(long since)
+	{
+		final List<ItemPrice> changed = new ArrayList<>();
+		for (int i = 0; i < prices.length; ++i)
+		{
+			if (changedVersions[i] > since)
+			{
+				changed.add(prices[i]);
+			}
+		}
+
+		final ItemPriceDelta delta = new ItemPriceDelta();
+		delta.setVersion(version);
+		delta.setPrices(changed.toArray(new ItemPrice[changed.size()]));
+
+		if (since == 0L)
+		{
+			// the version is unknown, so the client has to drop any price not in the delta
+			delta.setFull(true);
+		}
+		else
+		{
+			delta.setRemoved(removedVersions.entrySet().stream()
+				.filter(e -> e.getValue() > since)
+				.mapToInt(Map.Entry::getKey)
+				.toArray());
+		}
+
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try
+		{
+			delta.write(out);
+		}
+		catch (IOException ex)
+		{
+			throw new UncheckedIOException(ex);
+		}
+		return out.toByteArray();
+	}
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2018, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.item;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Instant;
+import net.runelite.http.api.item.ItemPrice;
+import net.runelite.http.api.item.ItemPriceDelta;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class PriceSnapshotTest
+{
+	@Test
+	public void testDelta() throws IOException
+	{
+		PriceSnapshot first = PriceSnapshot.create(null, new ItemPrice[]{
+			price(1, 100), price(2, 200), price(3, 300)
+		}, 1000);
+		assertEquals(1000, first.getVersion());
+
+		ItemPriceDelta delta = read(first.getDelta(0));
+		assertEquals(1000, delta.getVersion());
+		assertArrayEquals(first.getPrices(), delta.getPrices());
+		assertEquals(0, read(first.getDelta(1000)).getPrices().length);
+
+		PriceSnapshot second = PriceSnapshot.create(first, new ItemPrice[]{
+			price(1, 100), price(2, 250), price(3, 300), price(4, 400)
+		}, 2000);
+
+		delta = read(second.getDelta(1000));
+		assertEquals(2000, delta.getVersion());
+		assertArrayEquals(new ItemPrice[]{price(2, 250), price(4, 400)}, delta.getPrices());
+
+		// a version between snapshots, eg. from another server
+		assertArrayEquals(delta.getPrices(), read(second.getDelta(1500)).getPrices());
+		assertSame(second.getDelta(1000), second.getDelta(1500));
+
+		// a version from before the server started gets everything
+		assertEquals(4, read(second.getDelta(500)).getPrices().length);
+		assertEquals(0, read(second.getDelta(2000)).getPrices().length);
+		assertEquals(0, read(second.getDelta(3000)).getPrices().length);
+	}
+
+	@Test
+	public void testRemoved() throws IOException
+	{
+		PriceSnapshot first = PriceSnapshot.create(null, new ItemPrice[]{
+			price(1, 100), price(2, 200), price(3, 300)
+		}, 1000);
+		PriceSnapshot second = PriceSnapshot.create(first, new ItemPrice[]{
+			price(1, 100), price(3, 300)
+		}, 2000);
+
+		ItemPriceDelta delta = read(second.getDelta(1000));
+		assertEquals(0, delta.getPrices().length);
+		assertArrayEquals(new int[]{2}, delta.getRemoved());
+		assertFalse(delta.isFull());
+
+		// a version the server doesn't know gets every price instead
+		delta = read(second.getDelta(500));
+		assertTrue(delta.isFull());
+		assertEquals(2, delta.getPrices().length);
+		assertEquals(0, delta.getRemoved().length);
+
+		PriceSnapshot third = PriceSnapshot.create(second, new ItemPrice[]{
+			price(1, 100), price(2, 200)
+		}, 3000);
+
+		// an item which comes back is no longer removed
+		delta = read(third.getDelta(1000));
+		assertArrayEquals(new ItemPrice[]{price(2, 200)}, delta.getPrices());
+		assertArrayEquals(new int[]{3}, delta.getRemoved());
+		assertArrayEquals(new int[]{3}, read(third.getDelta(2000)).getRemoved());
+		assertEquals(0, read(third.getDelta(3000)).getRemoved().length);
+	}
+
+	@Test
+	public void testVersionIncreases()
+	{
+		PriceSnapshot first = PriceSnapshot.create(null, new ItemPrice[0], 1000);
+		PriceSnapshot second = PriceSnapshot.create(first, new ItemPrice[0], 900);
+		assertEquals(1001, second.getVersion());
+	}
+
+	private static ItemPrice price(int id, int price)
+	{
+		ItemPrice itemPrice = new ItemPrice();
+		itemPrice.setId(id);
+		itemPrice.setName("Item " + id);
+		itemPrice.setPrice(price);
+		itemPrice.setTime(Instant.ofEpochMilli(id * 1000L));
+		return itemPrice;
+	}
+
+	private static ItemPriceDelta read(byte[] data) throws IOException
+	{
+		return ItemPriceDelta.read(new ByteArrayInputStream(data));
+	}
+}
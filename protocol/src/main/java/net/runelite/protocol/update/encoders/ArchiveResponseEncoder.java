@@ -25,7 +25,6 @@
 package net.runelite.protocol.update.encoders;
 
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToByteEncoder;
 import net.runelite.protocol.api.update.ArchiveResponsePacket;
@@ -36,34 +35,14 @@ public class ArchiveResponseEncoder extends MessageToByteEncoder<ArchiveResponse
 {
 	private static final Logger logger = LoggerFactory.getLogger(ArchiveResponseEncoder.class);
 
-	private static final int CHUNK_SIZE = 512;
+	public static final int CHUNK_SIZE = 512;
 
 	@Override
 	protected void encode(ChannelHandlerContext ctx, ArchiveResponsePacket archiveResponse, ByteBuf out) throws Exception
 	{
-		// archive file header
-		// 1 byte index
-		// 2 byte archive
-		out.writeByte(archiveResponse.getIndex());
-		out.writeShort(archiveResponse.getArchive());
-
 		int pos = out.readableBytes();
 
-		// next is the compressed data which starts with compression
-		// type and length
-		ByteBuf file = Unpooled.wrappedBuffer(archiveResponse.getData());
-		// - 3 for the header
-		int chunkSize = Math.min(file.readableBytes(), CHUNK_SIZE - 3);
-
-		writeChunk(file.readBytes(chunkSize), out);
-
-		while (file.isReadable())
-		{
-			out.writeByte(0xff);
-
-			chunkSize = Math.min(file.readableBytes(), CHUNK_SIZE - 1);
-			writeChunk(file.readBytes(chunkSize), out);
-		}
+		writeResponse(archiveResponse.getIndex(), archiveResponse.getArchive(), archiveResponse.getData(), out);
 
 		int size = out.readableBytes() - pos;
 		logger.debug("Wrote index {} archive {} (size {}) in {} bytes",
@@ -71,16 +50,53 @@ public class ArchiveResponseEncoder extends MessageToByteEncoder<ArchiveResponse
 			archiveResponse.getData().length, size);
 	}
 
-	private void writeChunk(ByteBuf chunk, ByteBuf out)
+	/**
+	 * Compute the size of an encoded archive response
+	 *
+	 * @param length length of the archive data
+	 * @return size of the response, including the header and block markers
+	 */
+	public static int responseSize(int length)
 	{
-		try
+		int size = 3 + length; // index and archive header
+		if (length > CHUNK_SIZE - 3)
 		{
-			out.writeBytes(chunk);
+			// a marker byte before each additional block
+			size += (length - (CHUNK_SIZE - 3) + CHUNK_SIZE - 2) / (CHUNK_SIZE - 1);
 		}
-		finally
+		return size;
+	}
+
+	/**
+	 * Write an encoded archive response, split into blocks
+	 *
+	 * @param index
+	 * @param archive
+	 * @param data compressed archive data
+	 * @param out
+	 */
+	public static void writeResponse(int index, int archive, byte[] data, ByteBuf out)
+	{
+		// archive file header
+		// 1 byte index
+		// 2 byte archive
+		out.writeByte(index);
+		out.writeShort(archive);
+
+		// next is the compressed data which starts with compression
+		// type and length
+		// - 3 for the header
+		int chunkSize = Math.min(data.length, CHUNK_SIZE - 3);
+		out.writeBytes(data, 0, chunkSize);
+
+		int pos = chunkSize;
+		while (pos < data.length)
 		{
-			chunk.release();
+			out.writeByte(0xff);
+
+			chunkSize = Math.min(data.length - pos, CHUNK_SIZE - 1);
+			out.writeBytes(data, pos, chunkSize);
+			pos += chunkSize;
 		}
 	}
-
 }
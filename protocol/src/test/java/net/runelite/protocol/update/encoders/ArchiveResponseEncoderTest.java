@@ -73,4 +73,14 @@ public class ArchiveResponseEncoderTest
 		Assert.assertArrayEquals(data, decompressedData);
 	}
 
+	@Test
+	public void testResponseSize()
+	{
+		for (int length : new int[]{ 0, 1, 508, 509, 510, 1020, 1021, 100_000 })
+		{
+			ByteBuf buf = Unpooled.buffer();
+			ArchiveResponseEncoder.writeResponse(0, 1, new byte[length], buf);
+			Assert.assertEquals(buf.readableBytes(), ArchiveResponseEncoder.responseSize(length));
+		}
+	}
 }
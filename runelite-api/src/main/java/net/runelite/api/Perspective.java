@@ -31,16 +31,19 @@ import java.awt.Rectangle;
 import java.awt.geom.Area;
 import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Objects;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import lombok.Value;
 import static net.runelite.api.Constants.TILE_FLAG_BRIDGE;
 import net.runelite.api.coords.LocalPoint;
 import net.runelite.api.model.Jarvis;
-import net.runelite.api.model.Triangle;
-import net.runelite.api.model.Vertex;
+import net.runelite.api.model.RectangleUnion;
 import net.runelite.api.widgets.Widget;
 import net.runelite.api.widgets.WidgetInfo;
 
@@ -69,6 +72,97 @@ public class Perspective
 		}
 	}
 
+	private static final int CLICKBOX_CACHE_SIZE = 512;
+
+	private static final Map<ClickboxKey, Area> CLICKBOX_CACHE = new LinkedHashMap<ClickboxKey, Area>(CLICKBOX_CACHE_SIZE, 0.75f, true)
+	{
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<ClickboxKey, Area> eldest)
+		{
+			return size() > CLICKBOX_CACHE_SIZE;
+		}
+	};
+
+	private static ClickboxCamera clickboxCamera;
+
+	/**
+	 * The camera and scene a cached clickbox was calculated for. Loading a
+	 * new region moves the scene base, which drops every cached clickbox.
+	 */
+	@Value
+	private static class ClickboxCamera
+	{
+		private final int x;
+		private final int y;
+		private final int z;
+		private final int pitch;
+		private final int yaw;
+		private final int scale;
+		private final int viewportWidth;
+		private final int viewportHeight;
+		private final int viewportXOffset;
+		private final int viewportYOffset;
+		private final int plane;
+		private final int baseX;
+		private final int baseY;
+	}
+
+	/**
+	 * Identifies a cached clickbox. The model is only weakly referenced so the
+	 * cache doesn't keep models of despawned objects alive, and is compared
+	 * by identity.
+	 */
+	private static class ClickboxKey
+	{
+		private final WeakReference<Model> model;
+		private final long vertexHash;
+		private final int orientation;
+		private final int x;
+		private final int y;
+		private final int tileHeight;
+		private final int hashCode;
+
+		ClickboxKey(Model model, long vertexHash, int orientation, int x, int y, int tileHeight)
+		{
+			this.model = new WeakReference<>(model);
+			this.vertexHash = vertexHash;
+			this.orientation = orientation;
+			this.x = x;
+			this.y = y;
+			this.tileHeight = tileHeight;
+			this.hashCode = Objects.hash(System.identityHashCode(model), vertexHash, orientation, x, y, tileHeight);
+		}
+
+		@Override
+		public boolean equals(Object o)
+		{
+			if (this == o)
+			{
+				return true;
+			}
+
+			if (!(o instanceof ClickboxKey))
+			{
+				return false;
+			}
+
+			final ClickboxKey other = (ClickboxKey) o;
+			final Model m = model.get();
+			return m != null && m == other.model.get()
+				&& vertexHash == other.vertexHash
+				&& orientation == other.orientation
+				&& x == other.x
+				&& y == other.y
+				&& tileHeight == other.tileHeight;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return hashCode;
+		}
+	}
+
 	/**
 	 * Translates two-dimensional ground coordinates within the 3D world to
 	 * their corresponding coordinates on the game screen.
@@ -148,6 +242,94 @@ public class Perspective
 
 	}
 
+	/**
+	 * Translates the vertices of a model within the 3D world to their
+	 * corresponding coordinates on the game screen. The model is rotated
+	 * to the given orientation and placed at the given location, and each
+	 * vertex is offset from the height of the ground beneath it.
+	 * <p>
+	 * This does not allocate, so it may be used for every model every frame.
+	 *
+	 * @param client the game client
+	 * @param end the number of vertices to project
+	 * @param localX ground coordinate of the model on the x axis
+	 * @param localY ground coordinate of the model on the y axis
+	 * @param plane ground plane of the model
+	 * @param orientation orientation of the model
+	 * @param x3dModel vertex coordinates on the x axis
+	 * @param y3dModel vertex heights
+	 * @param z3dModel vertex coordinates on the z axis
+	 * @param x2d receives the canvas x coordinate of each vertex, or
+	 * {@link Integer#MIN_VALUE} if the vertex is not on screen
+	 * @param y2d receives the canvas y coordinate of each vertex
+	 */
+	public static void modelToCanvas(@Nonnull Client client, int end, int localX, int localY, int plane, int orientation,
+		int[] x3dModel, int[] y3dModel, int[] z3dModel, int[] x2d, int[] y2d)
+	{
+		final byte[][][] tileSettings = client.getTileSettings();
+		final int[][][] tileHeights = client.getTileHeights();
+
+		final int cameraX = client.getCameraX();
+		final int cameraY = client.getCameraY();
+		final int cameraZ = client.getCameraZ();
+		final int pitchSin = SINE[client.getCameraPitch()];
+		final int pitchCos = COSINE[client.getCameraPitch()];
+		final int yawSin = SINE[client.getCameraYaw()];
+		final int yawCos = COSINE[client.getCameraYaw()];
+		final int scale = client.getScale();
+		final int centerX = client.getViewportWidth() / 2 + client.getViewportXOffset();
+		final int centerY = client.getViewportHeight() / 2 + client.getViewportYOffset();
+
+		// models are orientated north (1024) and there are 2048 angles total
+		orientation = (orientation + 1024) % 2048;
+		final int orientationSin = SINE[orientation];
+		final int orientationCos = COSINE[orientation];
+
+		for (int i = 0; i < end; i++)
+		{
+			int vx = x3dModel[i];
+			int vz = z3dModel[i];
+
+			if (orientation != 0)
+			{
+				int rotatedX = vx * orientationCos + vz * orientationSin >> 16;
+				vz = vz * orientationCos - vx * orientationSin >> 16;
+				vx = rotatedX;
+			}
+
+			int x = localX - vx;
+			int y = localY - vz;
+
+			if (x < 128 || y < 128 || x > 13056 || y > 13056)
+			{
+				x2d[i] = Integer.MIN_VALUE;
+				continue;
+			}
+
+			int z = getTileHeight(tileSettings, tileHeights, x, y, plane) + y3dModel[i];
+
+			x -= cameraX;
+			y -= cameraY;
+			z -= cameraZ;
+
+			int var8 = yawCos * x + y * yawSin >> 16;
+			y = yawCos * y - yawSin * x >> 16;
+			x = var8;
+			var8 = pitchCos * z - y * pitchSin >> 16;
+			y = z * pitchSin + y * pitchCos >> 16;
+
+			if (y >= 50)
+			{
+				x2d[i] = centerX + x * scale / y;
+				y2d[i] = centerY + var8 * scale / y;
+			}
+			else
+			{
+				x2d[i] = Integer.MIN_VALUE;
+			}
+		}
+	}
+
 	/**
 	 * Translates two-dimensional ground coordinates within the 3D world to
 	 * their corresponding coordinates on the Minimap.
@@ -232,21 +414,23 @@ public class Perspective
 	 */
 	public static int getTileHeight(@Nonnull Client client, @Nonnull LocalPoint point, int plane)
 	{
-		int sceneX = point.getSceneX();
-		int sceneY = point.getSceneY();
+		return getTileHeight(client.getTileSettings(), client.getTileHeights(), point.getX(), point.getY(), plane);
+	}
+
+	private static int getTileHeight(byte[][][] tileSettings, int[][][] tileHeights, int localX, int localY, int plane)
+	{
+		int sceneX = localX >>> LOCAL_COORD_BITS;
+		int sceneY = localY >>> LOCAL_COORD_BITS;
 		if (sceneX >= 0 && sceneY >= 0 && sceneX < SCENE_SIZE && sceneY < SCENE_SIZE)
 		{
-			byte[][][] tileSettings = client.getTileSettings();
-			int[][][] tileHeights = client.getTileHeights();
-
 			int z1 = plane;
 			if (plane < Constants.MAX_Z - 1 && (tileSettings[1][sceneX][sceneY] & TILE_FLAG_BRIDGE) == TILE_FLAG_BRIDGE)
 			{
 				z1 = plane + 1;
 			}
 
-			int x = point.getX() & (LOCAL_TILE_SIZE - 1);
-			int y = point.getY() & (LOCAL_TILE_SIZE - 1);
+			int x = localX & (LOCAL_TILE_SIZE - 1);
+			int y = localY & (LOCAL_TILE_SIZE - 1);
 			int var8 = x * tileHeights[z1][sceneX + 1][sceneY] + (LOCAL_TILE_SIZE - x) * tileHeights[z1][sceneX][sceneY] >> LOCAL_COORD_BITS;
 			int var9 = tileHeights[z1][sceneX][sceneY + 1] * (LOCAL_TILE_SIZE - x) + x * tileHeights[z1][sceneX + 1][sceneY + 1] >> LOCAL_COORD_BITS;
 			return (LOCAL_TILE_SIZE - y) * var8 + y * var9 >> LOCAL_COORD_BITS;
@@ -492,6 +676,10 @@ public class Perspective
 	 * Get the on-screen clickable area of {@code model} as though it's for the
 	 * object on the tile at ({@code localX}, {@code localY}) and rotated to
 	 * angle {@code orientation}.
+	 * <p>
+	 * Clickboxes are cached until the camera moves or a new region is
+	 * loaded, so repeated calls for the same model in the same position
+	 * are cheap.
 	 *
 	 * @param client the game client
 	 * @param model the model to calculate a clickbox for
@@ -506,18 +694,104 @@ public class Perspective
 			return null;
 		}
 
-		List<Triangle> triangles = model.getTriangles().stream()
-			.map(triangle -> triangle.rotate(orientation))
-			.collect(Collectors.toList());
+		final ClickboxCamera camera = new ClickboxCamera(
+			client.getCameraX(), client.getCameraY(), client.getCameraZ(),
+			client.getCameraPitch(), client.getCameraYaw(), client.getScale(),
+			client.getViewportWidth(), client.getViewportHeight(),
+			client.getViewportXOffset(), client.getViewportYOffset(),
+			client.getPlane(), client.getBaseX(), client.getBaseY());
+		// the height of the model's tile is part of the key, so changing it is never served a stale clickbox
+		final ClickboxKey key = new ClickboxKey(model, hashVertices(model), orientation, point.getX(), point.getY(),
+			getTileHeight(client, point, client.getPlane()));
+
+		synchronized (CLICKBOX_CACHE)
+		{
+			if (!camera.equals(clickboxCamera))
+			{
+				CLICKBOX_CACHE.clear();
+				clickboxCamera = camera;
+			}
+
+			if (CLICKBOX_CACHE.containsKey(key))
+			{
+				Area clickbox = CLICKBOX_CACHE.get(key);
+				return clickbox == null ? null : new Area(clickbox);
+			}
+		}
+
+		Area clickbox = calculateClickbox(client, model, orientation, point);
+
+		synchronized (CLICKBOX_CACHE)
+		{
+			if (camera.equals(clickboxCamera))
+			{
+				CLICKBOX_CACHE.put(key, clickbox);
+			}
+		}
+
+		return clickbox == null ? null : new Area(clickbox);
+	}
+
+	private static Area calculateClickbox(@Nonnull Client client, @Nonnull Model model, int orientation, @Nonnull LocalPoint point)
+	{
+		final int vertexCount = model.getVerticesCount();
+		final int[] verticesX = model.getVerticesX();
+		final int[] verticesY = model.getVerticesY();
+		final int[] verticesZ = model.getVerticesZ();
+
+		final int[] rotatedX = new int[vertexCount];
+		final int[] rotatedZ = new int[vertexCount];
+		final int[] x2d = new int[vertexCount];
+		final int[] y2d = new int[vertexCount];
+
+		// models are orientated north (1024) and there are 2048 angles total
+		final int rotation = (orientation + 1024) % 2048;
+		final int sin = SINE[rotation];
+		final int cos = COSINE[rotation];
+
+		final int viewportWidth = client.getViewportWidth();
+		final int viewportHeight = client.getViewportHeight();
+
+		int maxX = 0;
+		int minX = 0;
+		int maxY = 0;
+		int minY = 0;
+		int maxZ = 0;
+		int minZ = 0;
+
+		// the rotated vertices are needed for the bounding box, so rotate them once here
+		for (int i = 0; i < vertexCount; ++i)
+		{
+			int x = verticesX[i];
+			int y = verticesY[i];
+			int z = verticesZ[i];
+
+			if (rotation != 0)
+			{
+				int rotatedVertexX = x * cos + z * sin >> 16;
+				z = z * cos - x * sin >> 16;
+				x = rotatedVertexX;
+			}
+
+			rotatedX[i] = x;
+			rotatedZ[i] = z;
+
+			maxX = Math.max(maxX, x);
+			minX = Math.min(minX, x);
+			maxY = Math.max(maxY, y);
+			minY = Math.min(minY, y);
+			maxZ = Math.max(maxZ, z);
+			minZ = Math.min(minZ, z);
+		}
 
-		List<Vertex> vertices = model.getVertices().stream()
-				.map(v -> v.rotate(orientation))
-				.collect(Collectors.toList());
+		// and project them facing north, which modelToCanvas doesn't rotate
+		modelToCanvas(client, vertexCount, point.getX(), point.getY(), client.getPlane(), 1024,
+			rotatedX, verticesY, rotatedZ, x2d, y2d);
 
-		Area clickBox = get2DGeometry(client, triangles, point);
-		Area visibleAABB = getAABB(client, vertices, point);
+		Area clickBox = get2DGeometry(model, x2d, y2d, viewportWidth, viewportHeight);
+		Area visibleAABB = getAABB(client, minX, maxX, minY, maxY, minZ, maxZ, point);
 
-		if (visibleAABB == null || clickBox == null)
+		if (visibleAABB == null)
 		{
 			return null;
 		}
@@ -526,137 +800,95 @@ public class Perspective
 		return clickBox;
 	}
 
+	/**
+	 * Hashes the vertices of a model. Models may be reused by the client for
+	 * different animation frames, so the identity of the model alone is not
+	 * enough to reuse a cached clickbox.
+	 */
+	private static long hashVertices(Model model)
+	{
+		final int vertexCount = model.getVerticesCount();
+		final int[] verticesX = model.getVerticesX();
+		final int[] verticesY = model.getVerticesY();
+		final int[] verticesZ = model.getVerticesZ();
+
+		long hash = vertexCount;
+		for (int i = 0; i < vertexCount; ++i)
+		{
+			hash = hash * 31 + verticesX[i];
+			hash = hash * 31 + verticesY[i];
+			hash = hash * 31 + verticesZ[i];
+		}
+		return hash * 31 + model.getTrianglesCount();
+	}
+
 	/**
 	 * Determine if a given point is off-screen.
-	 *
-	 * @param client
-	 * @param point
-	 * @return
 	 */
-	private static boolean isOffscreen(@Nonnull Client client, @Nonnull Point point)
+	private static boolean isOffscreen(int x, int y, int viewportWidth, int viewportHeight)
 	{
-		return (point.getX() < 0 || point.getX() >= client.getViewportWidth())
-			&& (point.getY() < 0 || point.getY() >= client.getViewportHeight());
+		return (x < 0 || x >= viewportWidth)
+			&& (y < 0 || y >= viewportHeight);
 	}
 
 	private static Area get2DGeometry(
-		@Nonnull Client client,
-		@Nonnull List<Triangle> triangles,
-		@Nonnull LocalPoint point
+		@Nonnull Model model,
+		int[] x2d,
+		int[] y2d,
+		int viewportWidth,
+		int viewportHeight
 	)
 	{
 		int radius = 5;
-		Area geometry = new Area();
+		RectangleUnion geometry = new RectangleUnion();
 
-		final int tileHeight = getTileHeight(client, point, client.getPlane());
+		final int triangleCount = model.getTrianglesCount();
+		final int[] trianglesX = model.getTrianglesX();
+		final int[] trianglesY = model.getTrianglesY();
+		final int[] trianglesZ = model.getTrianglesZ();
 
-		for (Triangle triangle : triangles)
+		for (int i = 0; i < triangleCount; ++i)
 		{
-			Vertex _a = triangle.getA();
-			Point a = localToCanvas(client,
-				point.getX() - _a.getX(),
-				point.getY() - _a.getZ(),
-				tileHeight + _a.getY());
-			if (a == null)
-			{
-				continue;
-			}
+			final int a = trianglesX[i];
+			final int b = trianglesY[i];
+			final int c = trianglesZ[i];
 
-			Vertex _b = triangle.getB();
-			Point b = localToCanvas(client,
-				point.getX() - _b.getX(),
-				point.getY() - _b.getZ(),
-				tileHeight + _b.getY());
-			if (b == null)
+			if (x2d[a] == Integer.MIN_VALUE || x2d[b] == Integer.MIN_VALUE || x2d[c] == Integer.MIN_VALUE)
 			{
 				continue;
 			}
 
-			Vertex _c = triangle.getC();
-			Point c = localToCanvas(client,
-				point.getX() - _c.getX(),
-				point.getY() - _c.getZ(),
-				tileHeight + _c.getY());
-			if (c == null)
+			if (isOffscreen(x2d[a], y2d[a], viewportWidth, viewportHeight)
+				&& isOffscreen(x2d[b], y2d[b], viewportWidth, viewportHeight)
+				&& isOffscreen(x2d[c], y2d[c], viewportWidth, viewportHeight))
 			{
 				continue;
 			}
 
-			if (isOffscreen(client, a) && isOffscreen(client, b) && isOffscreen(client, c))
-			{
-				continue;
-			}
-
-			int minX = Math.min(Math.min(a.getX(), b.getX()), c.getX());
-			int minY = Math.min(Math.min(a.getY(), b.getY()), c.getY());
+			int minX = Math.min(Math.min(x2d[a], x2d[b]), x2d[c]);
+			int minY = Math.min(Math.min(y2d[a], y2d[b]), y2d[c]);
 
 			// For some reason, this calculation is always 4 pixels short of the actual in-client one
-			int maxX = Math.max(Math.max(a.getX(), b.getX()), c.getX()) + 4;
-			int maxY = Math.max(Math.max(a.getY(), b.getY()), c.getY()) + 4;
+			int maxX = Math.max(Math.max(x2d[a], x2d[b]), x2d[c]) + 4;
+			int maxY = Math.max(Math.max(y2d[a], y2d[b]), y2d[c]) + 4;
 
-			Rectangle clickableRect = new Rectangle(
+			geometry.add(
 				minX - radius, minY - radius,
 				maxX - minX + radius, maxY - minY + radius
 			);
-
-			if (geometry.contains(clickableRect))
-			{
-				continue;
-			}
-
-			geometry.add(new Area(clickableRect));
 		}
 
-		return geometry;
+		return geometry.toArea();
 	}
 
 	private static Area getAABB(
 		@Nonnull Client client,
-		@Nonnull List<Vertex> vertices,
+		int minX, int maxX,
+		int minY, int maxY,
+		int minZ, int maxZ,
 		@Nonnull LocalPoint point
 	)
 	{
-		int maxX = 0;
-		int minX = 0;
-		int maxY = 0;
-		int minY = 0;
-		int maxZ = 0;
-		int minZ = 0;
-
-		for (Vertex vertex : vertices)
-		{
-			int x = vertex.getX();
-			int y = vertex.getY();
-			int z = vertex.getZ();
-
-			if (x > maxX)
-			{
-				maxX = x;
-			}
-			if (x < minX)
-			{
-				minX = x;
-			}
-
-			if (y > maxY)
-			{
-				maxY = y;
-			}
-			if (y < minY)
-			{
-				minY = y;
-			}
-
-			if (z > maxZ)
-			{
-				maxZ = z;
-			}
-			if (z < minZ)
-			{
-				minZ = z;
-			}
-		}
-
 		int centerX = (minX + maxX) / 2;
 		int centerY = (minY + maxY) / 2;
 		int centerZ = (minZ + maxZ) / 2;
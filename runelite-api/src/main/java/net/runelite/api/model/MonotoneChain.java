@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2017, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.api.model;
+
+import java.awt.Polygon;
+import java.util.Arrays;
+
+/**
+ * Computes the convex hull of a set of points stored in primitive arrays.
+ * <p>
+ * The implementation uses Andrew's monotone chain algorithm and runs in
+ * O(n log n) time, independent of the number of points on the hull.
+ */
+public class MonotoneChain
+{
+	/**
+	 * Computes the convex hull of the passed points.
+	 * <p>
+	 * At least 3 points must be passed, otherwise this method will return
+	 * null. Collinear points on the edges of the hull are not included.
+	 *
+	 * @param xs x coordinates of the points
+	 * @param ys y coordinates of the points
+	 * @param count number of points
+	 * @return the convex hull, in clockwise order on screen
+	 */
+	public static Polygon convexHull(int[] xs, int[] ys, int count)
+	{
+		if (count < 3)
+		{
+			return null;
+		}
+
+		// sort by x, then by y, with each point packed into a long
+		final long[] points = new long[count];
+		for (int i = 0; i < count; i++)
+		{
+			points[i] = (long) xs[i] << 32 | (ys[i] ^ Integer.MIN_VALUE) & 0xFFFFFFFFL;
+		}
+		Arrays.sort(points);
+
+		final long[] hull = new long[count + 1];
+		int size = 0;
+
+		// lower hull
+		for (int i = 0; i < count; i++)
+		{
+			while (size >= 2 && crossProduct(hull[size - 2], hull[size - 1], points[i]) <= 0)
+			{
+				size--;
+			}
+			hull[size++] = points[i];
+		}
+
+		// upper hull
+		final int lower = size + 1;
+		for (int i = count - 2; i >= 0; i--)
+		{
+			while (size >= lower && crossProduct(hull[size - 2], hull[size - 1], points[i]) <= 0)
+			{
+				size--;
+			}
+			hull[size++] = points[i];
+		}
+
+		// the last point is the first point again
+		size--;
+
+		final int[] hullX = new int[size];
+		final int[] hullY = new int[size];
+		for (int i = 0; i < size; i++)
+		{
+			hullX[i] = x(hull[i]);
+			hullY[i] = y(hull[i]);
+		}
+
+		return new Polygon(hullX, hullY, size);
+	}
+
+	private static int x(long point)
+	{
+		return (int) (point >> 32);
+	}
+
+	private static int y(long point)
+	{
+		return (int) point ^ Integer.MIN_VALUE;
+	}
+
+	private static long crossProduct(long o, long a, long b)
+	{
+		return (long) (x(a) - x(o)) * (y(b) - y(o))
+			- (long) (y(a) - y(o)) * (x(b) - x(o));
+	}
+}
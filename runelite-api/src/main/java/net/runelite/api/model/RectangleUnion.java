@@ -0,0 +1,283 @@
+/*
+ * Copyright (c) 2018, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.api.model;
+
+import java.awt.Rectangle;
+import java.awt.geom.Area;
+import java.awt.geom.Path2D;
+import java.util.Arrays;
+
+/**
+ * Computes the union of many axis aligned rectangles.
+ * <p>
+ * Rather than adding each rectangle to an {@link Area}, which gets slower
+ * with every rectangle added, the rectangles are rasterized into a
+ * coverage mask over the distinct rectangle edges. Covered cells are then
+ * merged into a small set of disjoint rectangles which are converted into
+ * an {@link Area} at once. Unions that would need an excessively large
+ * mask fall back to adding rectangles to an {@link Area}.
+ */
+public class RectangleUnion
+{
+	/**
+	 * Largest coverage mask that will be allocated before falling back
+	 * to {@link Area} unions
+	 */
+	private static final int MAX_CELLS = 1 << 20;
+
+	private int[] x1 = new int[16];
+	private int[] y1 = new int[16];
+	private int[] x2 = new int[16];
+	private int[] y2 = new int[16];
+	private int count;
+
+	/**
+	 * Adds a rectangle to the union. Empty rectangles are ignored.
+	 *
+	 * @param x x coordinate of the upper left corner
+	 * @param y y coordinate of the upper left corner
+	 * @param width width of the rectangle
+	 * @param height height of the rectangle
+	 */
+	public void add(int x, int y, int width, int height)
+	{
+		if (width <= 0 || height <= 0)
+		{
+			return;
+		}
+
+		if (count == x1.length)
+		{
+			int size = count * 2;
+			x1 = Arrays.copyOf(x1, size);
+			y1 = Arrays.copyOf(y1, size);
+			x2 = Arrays.copyOf(x2, size);
+			y2 = Arrays.copyOf(y2, size);
+		}
+
+		x1[count] = x;
+		y1[count] = y;
+		x2[count] = x + width;
+		y2[count] = y + height;
+		++count;
+	}
+
+	/**
+	 * Gets the number of rectangles added to the union
+	 *
+	 * @return rectangle count
+	 */
+	public int size()
+	{
+		return count;
+	}
+
+	/**
+	 * Removes all rectangles from the union
+	 */
+	public void clear()
+	{
+		count = 0;
+	}
+
+	/**
+	 * Builds the area covered by all rectangles in the union
+	 *
+	 * @return the covered area
+	 */
+	public Area toArea()
+	{
+		if (count == 0)
+		{
+			return new Area();
+		}
+
+		final int[] xs = edges(x1, x2, count);
+		final int[] ys = edges(y1, y2, count);
+		final int columns = xs.length - 1;
+		final int rows = ys.length - 1;
+
+		if ((long) columns * rows > MAX_CELLS)
+		{
+			return toAreaSlow();
+		}
+
+		// mark the corners of each rectangle, then sum them up so each
+		// cell holds the number of rectangles covering it
+		final int stride = columns + 1;
+		final int[] coverage = new int[stride * (rows + 1)];
+		for (int i = 0; i < count; ++i)
+		{
+			int left = Arrays.binarySearch(xs, x1[i]);
+			int right = Arrays.binarySearch(xs, x2[i]);
+			int top = Arrays.binarySearch(ys, y1[i]) * stride;
+			int bottom = Arrays.binarySearch(ys, y2[i]) * stride;
+
+			++coverage[top + left];
+			--coverage[top + right];
+			--coverage[bottom + left];
+			++coverage[bottom + right];
+		}
+
+		for (int row = 0; row < rows; ++row)
+		{
+			final int offset = row * stride;
+			for (int column = 0; column < columns; ++column)
+			{
+				int sum = coverage[offset + column];
+				if (column > 0)
+				{
+					sum += coverage[offset + column - 1];
+				}
+				if (row > 0)
+				{
+					sum += coverage[offset - stride + column];
+					if (column > 0)
+					{
+						sum -= coverage[offset - stride + column - 1];
+					}
+				}
+				coverage[offset + column] = sum;
+			}
+		}
+
+		// runs of covered cells in a row which are identical to a run in the
+		// previous row are extended downwards instead of starting a new rectangle
+		final Path2D.Float path = new Path2D.Float(Path2D.WIND_NON_ZERO, count * 5);
+		int[] open = new int[columns + 1];
+		int[] openStart = new int[columns + 1];
+		int openCount = 0;
+		int[] next = new int[columns + 1];
+		int[] nextStart = new int[columns + 1];
+
+		for (int row = 0; row <= rows; ++row)
+		{
+			int nextCount = 0;
+			int previous = 0;
+			final int offset = row * stride;
+
+			int column = 0;
+			while (row < rows && column < columns)
+			{
+				if (coverage[offset + column] <= 0)
+				{
+					++column;
+					continue;
+				}
+
+				final int start = column;
+				while (column < columns && coverage[offset + column] > 0)
+				{
+					++column;
+				}
+
+				final int run = start * stride + column;
+
+				// close the runs of the previous row which ended before this one
+				while (previous < openCount && open[previous] < run)
+				{
+					close(path, xs, ys, open[previous], stride, openStart[previous], row);
+					++previous;
+				}
+
+				next[nextCount] = run;
+				if (previous < openCount && open[previous] == run)
+				{
+					nextStart[nextCount] = openStart[previous];
+					++previous;
+				}
+				else
+				{
+					nextStart[nextCount] = row;
+				}
+				++nextCount;
+			}
+
+			while (previous < openCount)
+			{
+				close(path, xs, ys, open[previous], stride, openStart[previous], row);
+				++previous;
+			}
+
+			int[] tmp = open;
+			open = next;
+			next = tmp;
+			tmp = openStart;
+			openStart = nextStart;
+			nextStart = tmp;
+			openCount = nextCount;
+		}
+
+		return new Area(path);
+	}
+
+	private Area toAreaSlow()
+	{
+		final Area area = new Area();
+		for (int i = 0; i < count; ++i)
+		{
+			final Rectangle rectangle = new Rectangle(x1[i], y1[i], x2[i] - x1[i], y2[i] - y1[i]);
+			if (area.contains(rectangle))
+			{
+				continue;
+			}
+
+			area.add(new Area(rectangle));
+		}
+		return area;
+	}
+
+	private static void close(Path2D path, int[] xs, int[] ys, int run, int stride, int top, int bottom)
+	{
+		final float left = xs[run / stride];
+		final float right = xs[run % stride];
+		path.moveTo(left, ys[top]);
+		path.lineTo(right, ys[top]);
+		path.lineTo(right, ys[bottom]);
+		path.lineTo(left, ys[bottom]);
+		path.closePath();
+	}
+
+	/**
+	 * Gets the sorted, distinct coordinates of the rectangle edges along one axis
+	 */
+	private static int[] edges(int[] a, int[] b, int count)
+	{
+		final int[] edges = new int[count * 2];
+		System.arraycopy(a, 0, edges, 0, count);
+		System.arraycopy(b, 0, edges, count, count);
+		Arrays.sort(edges);
+
+		int size = 1;
+		for (int i = 1; i < edges.length; ++i)
+		{
+			if (edges[i] != edges[size - 1])
+			{
+				edges[size++] = edges[i];
+			}
+		}
+		return Arrays.copyOf(edges, size);
+	}
+}
@@ -0,0 +1,605 @@
+/*
+ * Copyright (c) 2018, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.api;
+
+import java.awt.Polygon;
+import java.awt.Rectangle;
+import java.awt.geom.Area;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.coords.LocalPoint;
+import net.runelite.api.model.Jarvis;
+import net.runelite.api.model.MonotoneChain;
+import net.runelite.api.model.Vertex;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+
+@Slf4j
+public class PerspectiveTest
+{
+	private static final int ITERATIONS = 1000;
+
+	private final Random random = new Random(42);
+	private final byte[][][] tileSettings = new byte[Constants.MAX_Z][Constants.SCENE_SIZE][Constants.SCENE_SIZE];
+	private final int[][][] tileHeights = new int[Constants.MAX_Z][Constants.SCENE_SIZE + 1][Constants.SCENE_SIZE + 1];
+
+	private Client client;
+	private int cameraX;
+	private int cameraY;
+	private int cameraZ;
+	private int cameraPitch;
+	private int cameraYaw;
+	private int baseX;
+	private int baseY;
+
+	@Before
+	public void before()
+	{
+		for (int z = 0; z < Constants.MAX_Z; ++z)
+		{
+			for (int x = 0; x <= Constants.SCENE_SIZE; ++x)
+			{
+				for (int y = 0; y <= Constants.SCENE_SIZE; ++y)
+				{
+					tileHeights[z][x][y] = -random.nextInt(500);
+				}
+			}
+		}
+
+		client = (Client) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{Client.class}, (proxy, method, args) ->
+		{
+			switch (method.getName())
+			{
+				case "getTileSettings":
+					return tileSettings;
+				case "getTileHeights":
+					return tileHeights;
+				case "getCameraX":
+					return cameraX;
+				case "getCameraY":
+					return cameraY;
+				case "getCameraZ":
+					return cameraZ;
+				case "getCameraPitch":
+					return cameraPitch;
+				case "getCameraYaw":
+					return cameraYaw;
+				case "getScale":
+					return 512;
+				case "getViewportWidth":
+					return 765;
+				case "getViewportHeight":
+					return 503;
+				case "getViewportXOffset":
+				case "getViewportYOffset":
+					return 4;
+				case "getPlane":
+					return 0;
+				case "getBaseX":
+					return baseX;
+				case "getBaseY":
+					return baseY;
+				default:
+					throw new UnsupportedOperationException(method.getName());
+			}
+		});
+	}
+
+	/**
+	 * Projected vertices and hulls must match the previous per vertex projection and Jarvis march
+	 */
+	@Test
+	public void testModelToCanvas()
+	{
+		for (int i = 0; i < 500; ++i)
+		{
+			Model model = randomModel(50 + random.nextInt(500), 64 + random.nextInt(1024));
+			int localX = 128 + random.nextInt(13056 - 128);
+			int localY = 128 + random.nextInt(13056 - 128);
+			int orientation = random.nextInt(2048);
+			moveCamera(localX, localY);
+
+			int[] xs = new int[model.count];
+			int[] ys = new int[model.count];
+			Perspective.modelToCanvas(client, model.count, localX, localY, 0, orientation, model.x, model.y, model.z, xs, ys);
+
+			List<Point> points = new ArrayList<>();
+			int visible = 0;
+			for (int v = 0; v < model.count; ++v)
+			{
+				Vertex vertex = new Vertex(model.x[v], model.y[v], model.z[v]).rotate(orientation);
+				Point point = Perspective.localToCanvas(client,
+					new LocalPoint(localX - vertex.getX(), localY - vertex.getZ()), 0, -vertex.getY());
+
+				assertEquals(point, xs[v] == Integer.MIN_VALUE ? null : new Point(xs[v], ys[v]));
+
+				if (point != null)
+				{
+					points.add(point);
+					xs[visible] = xs[v];
+					ys[visible] = ys[v];
+					++visible;
+				}
+			}
+
+			List<Point> jarvis = Jarvis.convexHull(points);
+			Polygon hull = MonotoneChain.convexHull(xs, ys, visible);
+			assertEquals(jarvis == null ? null : new HashSet<>(jarvis), points(hull));
+		}
+	}
+
+	/**
+	 * Clickboxes must cover the same pixels as the previous {@link Area} union of triangle bounds
+	 */
+	@Test
+	public void testGetClickbox()
+	{
+		flattenTiles();
+
+		for (int i = 0; i < 100; ++i)
+		{
+			Model model = randomModel(20 + random.nextInt(300), 64 + random.nextInt(512));
+			LocalPoint point = new LocalPoint(128 + random.nextInt(13056 - 128), 128 + random.nextInt(13056 - 128));
+			int orientation = random.nextInt(2048);
+			moveCamera(point.getX(), point.getY());
+
+			Area expected = getClickboxArea(model, orientation, point);
+			Area actual = Perspective.getClickbox(client, model.toModel(), orientation, point);
+
+			if (expected == null)
+			{
+				assertNull(actual);
+				continue;
+			}
+
+			Rectangle bounds = expected.getBounds().union(actual.getBounds());
+			for (int x = bounds.x; x < bounds.x + bounds.width; ++x)
+			{
+				for (int y = bounds.y; y < bounds.y + bounds.height; ++y)
+				{
+					assertEquals(expected.contains(x + 0.5, y + 0.5), actual.contains(x + 0.5, y + 0.5));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testGetClickboxCache()
+	{
+		flattenTiles();
+
+		Model model = randomModel(200, 256);
+		net.runelite.api.Model rsModel = model.toModel();
+		LocalPoint point = new LocalPoint(6400, 6400);
+		moveCamera(point.getX(), point.getY());
+
+		Area clickbox = Perspective.getClickbox(client, rsModel, 0, point);
+		assertNotNull(clickbox);
+		assertTrue(clickbox.equals(Perspective.getClickbox(client, rsModel, 0, point)));
+
+		// a returned clickbox may be modified without affecting the cache
+		clickbox.reset();
+		assertFalse(Perspective.getClickbox(client, rsModel, 0, point).isEmpty());
+
+		// an animated model may reuse the same vertex arrays
+		model.y[0] -= 10000;
+		assertFalse(clickbox.equals(Perspective.getClickbox(client, rsModel, 0, point)));
+	}
+
+	@Test
+	public void testGetClickboxCacheScene()
+	{
+		flattenTiles();
+
+		Model model = randomModel(200, 256);
+		net.runelite.api.Model rsModel = model.toModel();
+		LocalPoint point = new LocalPoint(6400, 6400);
+		moveCamera(point.getX(), point.getY());
+		cameraYaw = 0;
+
+		Area clickbox = Perspective.getClickbox(client, rsModel, 0, point);
+		assertNotNull(clickbox);
+
+		// the tile the model is on is raised
+		for (int[][] plane : tileHeights)
+		{
+			for (int[] row : plane)
+			{
+				Arrays.fill(row, -600);
+			}
+		}
+		Area raised = Perspective.getClickbox(client, rsModel, 0, point);
+		assertFalse(clickbox.equals(raised));
+		assertTrue(getClickboxArea(model, 0, point).equals(raised));
+
+		// a new region is loaded with the same model in the same place
+		flattenTiles();
+		baseX += 64;
+		assertTrue(clickbox.equals(Perspective.getClickbox(client, rsModel, 0, point)));
+	}
+
+	@Test
+	public void testGetClickboxCacheWeak()
+	{
+		flattenTiles();
+
+		LocalPoint point = new LocalPoint(6400, 6400);
+		moveCamera(point.getX(), point.getY());
+		cameraYaw = 0;
+
+		net.runelite.api.Model rsModel = randomModel(200, 256).toModel();
+		assertNotNull(Perspective.getClickbox(client, rsModel, 0, point));
+
+		// the cache doesn't keep the model alive
+		WeakReference<net.runelite.api.Model> ref = new WeakReference<>(rsModel);
+		rsModel = null;
+		for (int i = 0; i < 10 && ref.get() != null; ++i)
+		{
+			System.gc();
+		}
+		assertTrue(ref.get() == null);
+	}
+
+	@Test
+	@Ignore
+	public void benchmarkGetClickbox()
+	{
+		flattenTiles();
+
+		// around the size of large scenery models
+		Model model = randomModel(1000, 600);
+		LocalPoint point = new LocalPoint(6400, 6400);
+		moveCamera(point.getX(), point.getY());
+
+		for (int run = 0; run < 5; ++run)
+		{
+			long start = System.nanoTime();
+			for (int i = 0; i < ITERATIONS / 10; ++i)
+			{
+				getClickboxArea(model, i, point);
+			}
+			long area = System.nanoTime();
+			for (int i = 0; i < ITERATIONS / 10; ++i)
+			{
+				// vary the orientation so the cache is not used
+				Perspective.getClickbox(client, model.toModel(), i, point);
+			}
+			long union = System.nanoTime();
+			net.runelite.api.Model rsModel = model.toModel();
+			for (int i = 0; i < ITERATIONS; ++i)
+			{
+				Perspective.getClickbox(client, rsModel, 0, point);
+			}
+			long end = System.nanoTime();
+
+			log.info("{} triangles: area unions {} us, rectangle union {} us, cached {} us",
+				model.triangles, (area - start) / (ITERATIONS / 10) / 1000, (union - area) / (ITERATIONS / 10) / 1000,
+				(end - union) / ITERATIONS / 1000);
+		}
+	}
+
+	@Test
+	@Ignore
+	public void benchmarkConvexHull()
+	{
+		// around the size of large boss models
+		Model model = randomModel(4000, 600);
+		int localX = 6400;
+		int localY = 6400;
+		moveCamera(localX, localY);
+
+		int[] xs = new int[model.count];
+		int[] ys = new int[model.count];
+
+		for (int run = 0; run < 5; ++run)
+		{
+			int hulls = 0;
+			long start = System.nanoTime();
+			for (int i = 0; i < ITERATIONS; ++i)
+			{
+				List<Vertex> vertices = new ArrayList<>();
+				for (int v = 0; v < model.count; ++v)
+				{
+					vertices.add(new Vertex(model.x[v], model.y[v], model.z[v]).rotate(i));
+				}
+
+				List<Point> points = new ArrayList<>();
+				for (Vertex vertex : vertices)
+				{
+					Point point = Perspective.localToCanvas(client,
+						new LocalPoint(localX - vertex.getX(), localY - vertex.getZ()), 0, -vertex.getY());
+					if (point != null)
+					{
+						points.add(point);
+					}
+				}
+
+				List<Point> hull = Jarvis.convexHull(points);
+				hulls += hull == null ? 0 : hull.size();
+			}
+			long jarvis = System.nanoTime();
+			for (int i = 0; i < ITERATIONS; ++i)
+			{
+				Perspective.modelToCanvas(client, model.count, localX, localY, 0, i, model.x, model.y, model.z, xs, ys);
+
+				int visible = 0;
+				for (int v = 0; v < model.count; ++v)
+				{
+					if (xs[v] != Integer.MIN_VALUE)
+					{
+						xs[visible] = xs[v];
+						ys[visible] = ys[v];
+						++visible;
+					}
+				}
+
+				Polygon hull = MonotoneChain.convexHull(xs, ys, visible);
+				hulls += hull == null ? 0 : hull.npoints;
+			}
+			long end = System.nanoTime();
+
+			log.info("{} vertices: per vertex + jarvis {} us, batch + monotone chain {} us ({})",
+				model.count, (jarvis - start) / ITERATIONS / 1000, (end - jarvis) / ITERATIONS / 1000, hulls);
+		}
+	}
+
+	/**
+	 * The previous clickbox implementation, which added the bounds of each
+	 * triangle to an {@link Area}
+	 */
+	private Area getClickboxArea(Model model, int orientation, LocalPoint point)
+	{
+		Area geometry = new Area();
+		for (int i = 0; i < model.triangles; ++i)
+		{
+			Point a = project(model, model.a[i], orientation, point);
+			Point b = project(model, model.b[i], orientation, point);
+			Point c = project(model, model.c[i], orientation, point);
+			if (a == null || b == null || c == null)
+			{
+				continue;
+			}
+
+			if (isOffscreen(a) && isOffscreen(b) && isOffscreen(c))
+			{
+				continue;
+			}
+
+			int minX = Math.min(Math.min(a.getX(), b.getX()), c.getX());
+			int minY = Math.min(Math.min(a.getY(), b.getY()), c.getY());
+			int maxX = Math.max(Math.max(a.getX(), b.getX()), c.getX()) + 4;
+			int maxY = Math.max(Math.max(a.getY(), b.getY()), c.getY()) + 4;
+
+			Rectangle clickableRect = new Rectangle(minX - 5, minY - 5, maxX - minX + 5, maxY - minY + 5);
+			if (!geometry.contains(clickableRect))
+			{
+				geometry.add(new Area(clickableRect));
+			}
+		}
+
+		int maxX = 0;
+		int minX = 0;
+		int maxY = 0;
+		int minY = 0;
+		int maxZ = 0;
+		int minZ = 0;
+		for (int i = 0; i < model.count; ++i)
+		{
+			Vertex v = new Vertex(model.x[i], model.y[i], model.z[i]).rotate(orientation);
+			maxX = Math.max(maxX, v.getX());
+			minX = Math.min(minX, v.getX());
+			maxY = Math.max(maxY, v.getY());
+			minY = Math.min(minY, v.getY());
+			maxZ = Math.max(maxZ, v.getZ());
+			minZ = Math.min(minZ, v.getZ());
+		}
+
+		int centerX = (minX + maxX) / 2;
+		int centerY = (minY + maxY) / 2;
+		int centerZ = (minZ + maxZ) / 2;
+		int extremeX = Math.max(32, (maxX - minX + 1) / 2);
+		int extremeY = (maxY - minY + 1) / 2;
+		int extremeZ = Math.max(32, (maxZ - minZ + 1) / 2);
+
+		int x1 = point.getX() - (centerX - extremeX);
+		int y1 = centerY - extremeY;
+		int z1 = point.getY() - (centerZ - extremeZ);
+		int x2 = point.getX() - (centerX + extremeX);
+		int y2 = centerY + extremeY;
+		int z2 = point.getY() - (centerZ + extremeZ);
+
+		List<Point> corners = Arrays.asList(
+			corner(x1, z1, y1), corner(x1, z2, y1), corner(x2, z2, y1), corner(x2, z1, y1),
+			corner(x1, z1, y2), corner(x1, z2, y2), corner(x2, z2, y2), corner(x2, z1, y2));
+
+		List<Point> hull;
+		try
+		{
+			hull = Jarvis.convexHull(corners);
+		}
+		catch (NullPointerException e)
+		{
+			return null;
+		}
+
+		if (hull == null)
+		{
+			return null;
+		}
+
+		Polygon polygon = new Polygon();
+		for (Point p : hull)
+		{
+			if (p != null)
+			{
+				polygon.addPoint(p.getX(), p.getY());
+			}
+		}
+
+		geometry.intersect(new Area(polygon));
+		return geometry;
+	}
+
+	private Point corner(int x, int y, int z)
+	{
+		return Perspective.localToCanvas(client, new LocalPoint(x, y), 0, -z);
+	}
+
+	private Point project(Model model, int vertex, int orientation, LocalPoint point)
+	{
+		Vertex v = new Vertex(model.x[vertex], model.y[vertex], model.z[vertex]).rotate(orientation);
+		return Perspective.localToCanvas(client, new LocalPoint(point.getX() - v.getX(), point.getY() - v.getZ()), 0, -v.getY());
+	}
+
+	private static boolean isOffscreen(Point point)
+	{
+		return (point.getX() < 0 || point.getX() >= 765)
+			&& (point.getY() < 0 || point.getY() >= 503);
+	}
+
+	/**
+	 * Only the height of the tile the model is on is part of the clickbox cache key, so tests
+	 * which change tile heights keep the tiles level
+	 */
+	private void flattenTiles()
+	{
+		for (int[][] plane : tileHeights)
+		{
+			for (int[] row : plane)
+			{
+				Arrays.fill(row, -200);
+			}
+		}
+	}
+
+	private void moveCamera(int localX, int localY)
+	{
+		cameraX = localX + random.nextInt(2000) - 1000;
+		cameraY = localY - 1500 - random.nextInt(1000);
+		cameraZ = -1000 - random.nextInt(1000);
+		cameraPitch = 128 + random.nextInt(256);
+		cameraYaw = random.nextInt(2048);
+	}
+
+	private Model randomModel(int count, int size)
+	{
+		Model model = new Model();
+		model.count = count;
+		model.x = new int[count];
+		model.y = new int[count];
+		model.z = new int[count];
+		for (int i = 0; i < count; ++i)
+		{
+			model.x[i] = random.nextInt(size) - size / 2;
+			model.y[i] = -random.nextInt(size * 2);
+			model.z[i] = random.nextInt(size) - size / 2;
+		}
+
+		model.triangles = count * 2;
+		model.a = new int[model.triangles];
+		model.b = new int[model.triangles];
+		model.c = new int[model.triangles];
+		for (int i = 0; i < model.triangles; ++i)
+		{
+			// triangles are mostly made of nearby vertices
+			model.a[i] = random.nextInt(count);
+			model.b[i] = Math.min(count - 1, model.a[i] + random.nextInt(8));
+			model.c[i] = Math.min(count - 1, model.a[i] + random.nextInt(8));
+		}
+		return model;
+	}
+
+	private static Set<Point> points(Polygon polygon)
+	{
+		if (polygon == null)
+		{
+			return null;
+		}
+
+		Set<Point> points = new HashSet<>();
+		for (int i = 0; i < polygon.npoints; i++)
+		{
+			points.add(new Point(polygon.xpoints[i], polygon.ypoints[i]));
+		}
+		return points;
+	}
+
+	private static class Model
+	{
+		private int count;
+		private int[] x;
+		private int[] y;
+		private int[] z;
+		private int triangles;
+		private int[] a;
+		private int[] b;
+		private int[] c;
+
+		private net.runelite.api.Model toModel()
+		{
+			return (net.runelite.api.Model) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{net.runelite.api.Model.class}, (proxy, method, args) ->
+			{
+				switch (method.getName())
+				{
+					case "getVerticesCount":
+						return count;
+					case "getVerticesX":
+						return x;
+					case "getVerticesY":
+						return y;
+					case "getVerticesZ":
+						return z;
+					case "getTrianglesCount":
+						return triangles;
+					case "getTrianglesX":
+						return a;
+					case "getTrianglesY":
+						return b;
+					case "getTrianglesZ":
+						return c;
+					case "equals":
+						return proxy == args[0];
+					case "hashCode":
+						return System.identityHashCode(proxy);
+					default:
+						throw new UnsupportedOperationException(method.getName());
+				}
+			});
+		}
+	}
+}
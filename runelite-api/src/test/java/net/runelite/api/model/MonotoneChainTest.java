@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2018, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.api.model;
+
+import java.awt.Polygon;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import net.runelite.api.Point;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import org.junit.Test;
+
+public class MonotoneChainTest
+{
+	@Test
+	public void test()
+	{
+		int[] xs = {0, 1, 2, 4, 0, 1, 3, 3};
+		int[] ys = {3, 1, 2, 4, 0, 2, 1, 3};
+
+		Polygon hull = MonotoneChain.convexHull(xs, ys, xs.length);
+		assertEquals(4, hull.npoints);
+		assertEquals(jarvis(xs, ys), points(hull));
+	}
+
+	@Test
+	public void testCollinear()
+	{
+		int[] xs = {0, 1, 2, 3, 3, 3, 0, 0};
+		int[] ys = {0, 0, 0, 0, 1, 2, 2, 1};
+
+		Polygon hull = MonotoneChain.convexHull(xs, ys, xs.length);
+		assertEquals(4, hull.npoints);
+		assertEquals(jarvis(xs, ys), points(hull));
+	}
+
+	@Test
+	public void testTooFewPoints()
+	{
+		assertNull(MonotoneChain.convexHull(new int[]{0, 1}, new int[]{0, 1}, 2));
+		assertNull(MonotoneChain.convexHull(new int[]{0, 1, 2}, new int[]{0, 1, 2}, 2));
+	}
+
+	@Test
+	public void testNegative()
+	{
+		int[] xs = {-5, 5, 0, 0, 0};
+		int[] ys = {0, 0, -5, 5, 0};
+
+		Polygon hull = MonotoneChain.convexHull(xs, ys, xs.length);
+		assertEquals(4, hull.npoints);
+		assertEquals(jarvis(xs, ys), points(hull));
+	}
+
+	static Set<Point> jarvis(int[] xs, int[] ys)
+	{
+		Point[] points = new Point[xs.length];
+		for (int i = 0; i < xs.length; i++)
+		{
+			points[i] = new Point(xs[i], ys[i]);
+		}
+
+		List<Point> hull = Jarvis.convexHull(Arrays.asList(points));
+		return hull == null ? null : new HashSet<>(hull);
+	}
+
+	static Set<Point> points(Polygon polygon)
+	{
+		if (polygon == null)
+		{
+			return null;
+		}
+
+		Set<Point> points = new HashSet<>();
+		for (int i = 0; i < polygon.npoints; i++)
+		{
+			points.add(new Point(polygon.xpoints[i], polygon.ypoints[i]));
+		}
+		return points;
+	}
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2018, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.api.model;
+
+import java.awt.Rectangle;
+import java.awt.geom.Area;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import lombok.extern.slf4j.Slf4j;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Ignore;
+import org.junit.Test;
+
+@Slf4j
+public class RectangleUnionTest
+{
+	private static final int ITERATIONS = 100;
+
+	private final Random random = new Random(42);
+
+	@Test
+	public void testEmpty()
+	{
+		RectangleUnion union = new RectangleUnion();
+		assertTrue(union.toArea().isEmpty());
+
+		union.add(0, 0, 0, 10);
+		assertEquals(0, union.size());
+		assertTrue(union.toArea().isEmpty());
+	}
+
+	@Test
+	public void testDisjoint()
+	{
+		RectangleUnion union = new RectangleUnion();
+		union.add(0, 0, 10, 10);
+		union.add(20, 0, 10, 10);
+
+		Area area = union.toArea();
+		assertTrue(area.contains(5, 5));
+		assertTrue(area.contains(25, 5));
+		assertFalse(area.contains(15, 5));
+		assertEquals(new Rectangle(0, 0, 30, 10), area.getBounds());
+	}
+
+	@Test
+	public void testRandom()
+	{
+		for (int i = 0; i < 1000; ++i)
+		{
+			List<Rectangle> rectangles = randomRectangles(1 + random.nextInt(50), 100);
+			assertAreaEquals(areaUnion(rectangles), union(rectangles).toArea());
+		}
+	}
+
+	@Test
+	public void testLarge()
+	{
+		// too many distinct edges for a coverage mask
+		List<Rectangle> rectangles = randomRectangles(1100, 100000);
+		assertAreaEquals(areaUnion(rectangles), union(rectangles).toArea());
+	}
+
+	@Test
+	@Ignore
+	public void benchmarkToArea()
+	{
+		// around as many triangles as a large object
+		List<Rectangle> rectangles = randomRectangles(2000, 200);
+
+		for (int run = 0; run < 5; ++run)
+		{
+			long start = System.nanoTime();
+			for (int i = 0; i < ITERATIONS; ++i)
+			{
+				areaUnion(rectangles);
+			}
+			long areas = System.nanoTime();
+			for (int i = 0; i < ITERATIONS; ++i)
+			{
+				union(rectangles).toArea();
+			}
+			long end = System.nanoTime();
+
+			log.info("{} rectangles: area unions {} us, coverage mask {} us",
+				rectangles.size(), (areas - start) / ITERATIONS / 1000, (end - areas) / ITERATIONS / 1000);
+		}
+	}
+
+	private List<Rectangle> randomRectangles(int count, int size)
+	{
+		List<Rectangle> rectangles = new ArrayList<>(count);
+		for (int i = 0; i < count; ++i)
+		{
+			rectangles.add(new Rectangle(random.nextInt(size) - size / 2, random.nextInt(size) - size / 2,
+				1 + random.nextInt(size / 4), 1 + random.nextInt(size / 4)));
+		}
+		return rectangles;
+	}
+
+	private static RectangleUnion union(List<Rectangle> rectangles)
+	{
+		RectangleUnion union = new RectangleUnion();
+		for (Rectangle rectangle : rectangles)
+		{
+			union.add(rectangle.x, rectangle.y, rectangle.width, rectangle.height);
+		}
+		return union;
+	}
+
+	private static void assertAreaEquals(Area expected, Area actual)
+	{
+		// Area only overloads equals
+		assertTrue(expected.equals(actual));
+	}
+
+	private static Area areaUnion(List<Rectangle> rectangles)
+	{
+		Area area = new Area();
+		for (Rectangle rectangle : rectangles)
+		{
+			area.add(new Area(rectangle));
+		}
+		return area;
+	}
+}
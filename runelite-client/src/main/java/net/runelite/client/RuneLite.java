@@ -45,6 +45,7 @@ import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.Client;
 import net.runelite.client.account.SessionManager;
+import net.runelite.client.chat.ChatClassifier;
 import net.runelite.client.chat.ChatMessageManager;
 import net.runelite.client.chat.CommandManager;
 import net.runelite.client.config.ConfigManager;
@@ -130,6 +131,9 @@ public class RuneLite
 	@Inject
 	private Provider<CommandManager> commandManager;
 
+	@Inject
+	private Provider<ChatClassifier> chatClassifier;
+
 	@Inject
 	private Provider<InfoBoxOverlay> infoBoxOverlay;
 
@@ -281,6 +285,7 @@ public class RuneLite
 			eventBus.register(menuManager.get());
 			eventBus.register(chatMessageManager.get());
 			eventBus.register(commandManager.get());
+			eventBus.register(chatClassifier.get());
 			eventBus.register(lootManager.get());
 			eventBus.register(chatboxPanelManager.get());
 
@@ -297,6 +302,7 @@ public class RuneLite
 
 	public void shutdown()
 	{
+		configManager.sendConfig();
 		clientSessionManager.shutdown();
 		discordService.close();
 	}
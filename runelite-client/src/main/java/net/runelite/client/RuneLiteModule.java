@@ -28,7 +28,6 @@ import com.google.inject.AbstractModule;
 import com.google.inject.Provides;
 import com.google.inject.name.Names;
 import java.applet.Applet;
-import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import javax.annotation.Nullable;
 import javax.inject.Singleton;
@@ -47,9 +46,10 @@ import net.runelite.client.menus.MenuManager;
 import net.runelite.client.plugins.PluginManager;
 import net.runelite.client.rs.ClientLoader;
 import net.runelite.client.rs.ClientUpdateCheckMode;
+import net.runelite.client.task.ExecutorLane;
+import net.runelite.client.task.ExecutorLanes;
 import net.runelite.client.task.Scheduler;
 import net.runelite.client.util.DeferredEventBus;
-import net.runelite.client.util.ExecutorServiceExceptionLogger;
 import net.runelite.client.util.QueryRunner;
 import net.runelite.http.api.RuneLiteAPI;
 import okhttp3.OkHttpClient;
@@ -73,7 +73,17 @@ public class RuneLiteModule extends AbstractModule
 	{
 		bindConstant().annotatedWith(Names.named("updateCheckMode")).to(updateCheckMode);
 		bindConstant().annotatedWith(Names.named("developerMode")).to(developerMode);
-		bind(ScheduledExecutorService.class).toInstance(new ExecutorServiceExceptionLogger(Executors.newSingleThreadScheduledExecutor()));
+
+		final ExecutorLanes executorLanes = new ExecutorLanes();
+		bind(ExecutorLanes.class).toInstance(executorLanes);
+		bind(ScheduledExecutorService.class).toInstance(executorLanes.getExecutor(ExecutorLane.SCHEDULED));
+		for (ExecutorLane lane : ExecutorLane.values())
+		{
+			bind(ScheduledExecutorService.class)
+				.annotatedWith(Names.named(lane.getBindingName()))
+				.toInstance(executorLanes.getExecutor(lane));
+		}
+
 		bind(OkHttpClient.class).toInstance(RuneLiteAPI.CLIENT);
 		bind(QueryRunner.class);
 		bind(MenuManager.class);
@@ -151,6 +151,16 @@ public class Hooks implements Callbacks
 
 		clientThread.invoke();
 
+		try
+		{
+			// run scheduled tasks which are due, this is cheap when none are
+			scheduler.tick();
+		}
+		catch (Exception ex)
+		{
+			log.warn("error during scheduled tasks", ex);
+		}
+
 		long now = System.currentTimeMillis();
 
 		if (now - lastCheck < CHECK)
@@ -162,9 +172,6 @@ public class Hooks implements Callbacks
 
 		try
 		{
-			// tick pending scheduled tasks
-			scheduler.tick();
-
 			// cull infoboxes
 			infoBoxManager.cull();
 
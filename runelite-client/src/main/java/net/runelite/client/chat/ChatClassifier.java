@@ -0,0 +1,428 @@
+/*
+ * Copyright (c) 2018, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.chat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.inject.Singleton;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.ChatMessageType;
+import net.runelite.api.events.ChatMessage;
+import net.runelite.client.eventbus.Subscribe;
+import net.runelite.client.util.Text;
+
+/**
+ * Classifies chat messages against patterns registered by plugins, so each message
+ * is only inspected once instead of once per subscribing plugin.
+ * <p>
+ * Patterns are matched against the message with its tags removed, starting at the
+ * beginning of the message as with {@link Matcher#lookingAt()}. Patterns which can match
+ * in the middle of a message should begin with {@code .*}. The literal text at the start
+ * of each pattern is indexed in a prefix trie, and the pattern is only run if the rest of
+ * its literal text is also in the message.
+ */
+@Slf4j
+@Singleton
+public class ChatClassifier
+{
+	private static final int UNINDEXED_FLAGS = Pattern.CASE_INSENSITIVE | Pattern.COMMENTS | Pattern.LITERAL;
+	private static final String CLASS_ESCAPES = "dDsSwWbB";
+	private static final Comparator<Entry> REGISTRATION_ORDER = Comparator.comparingInt(Entry::getSequence);
+
+	private final List<Entry> entries = new ArrayList<>();
+	private volatile Node root = new Node();
+	private int sequence;
+
+	/**
+	 * Registers a pattern. The handler is called with the message and the successful
+	 * matcher for each message of the given types that the pattern matches.
+	 * <p>
+	 * The pattern is matched with {@link Matcher#lookingAt()} rather than
+	 * {@link Matcher#find()}, so it must match from the start of the message. A pattern
+	 * which may match anywhere in the message should begin with {@code .*}, and one
+	 * which must match the whole message should end with {@code $}.
+	 *
+	 * @param owner   the owner of the registration, used to unregister it
+	 * @param pattern the pattern to match against the tag-free message
+	 * @param types   the message types to match
+	 * @param handler the handler to call on a match
+	 */
+	public synchronized void register(Object owner, Pattern pattern, Set<ChatMessageType> types, BiConsumer<ChatMessage, Matcher> handler)
+	{
+		List<String> literals = requiredLiterals(pattern);
+		entries.add(new Entry(owner, pattern, EnumSet.copyOf(types), handler, sequence++,
+			literals.get(0), literals.subList(1, literals.size()).toArray(new String[0])));
+		rebuild();
+	}
+
+	/**
+	 * Removes all patterns registered by the given owner.
+	 *
+	 * @param owner the owner passed to {@link #register}
+	 */
+	public synchronized void unregister(Object owner)
+	{
+		if (entries.removeIf(entry -> entry.getOwner() == owner))
+		{
+			rebuild();
+		}
+	}
+
+	@Subscribe
+	public void onChatMessage(ChatMessage chatMessage)
+	{
+		Node node = root;
+		if (!node.types.contains(chatMessage.getType()))
+		{
+			return;
+		}
+
+		String message = chatMessage.getMessage();
+		if (message.indexOf('<') != -1)
+		{
+			message = Text.removeTags(message);
+		}
+
+		List<Entry> candidates = new ArrayList<>(node.entries);
+		for (int i = 0; i < message.length() && !node.children.isEmpty(); ++i)
+		{
+			node = node.children.get(message.charAt(i));
+			if (node == null)
+			{
+				break;
+			}
+
+			candidates.addAll(node.entries);
+		}
+
+		candidates.sort(REGISTRATION_ORDER);
+
+		for (Entry entry : candidates)
+		{
+			if (!entry.getTypes().contains(chatMessage.getType()) || !containsLiterals(message, entry))
+			{
+				continue;
+			}
+
+			Matcher matcher = entry.getPattern().matcher(message);
+			if (!matcher.lookingAt())
+			{
+				continue;
+			}
+
+			try
+			{
+				entry.getHandler().accept(chatMessage, matcher);
+			}
+			catch (Exception ex)
+			{
+				log.warn("Uncaught exception in chat pattern handler for {}", entry.getPattern(), ex);
+			}
+		}
+	}
+
+	/**
+	 * Escapes text so it is matched literally. Unlike {@link Pattern#quote(String)}, the
+	 * escaped text can still be indexed by its literal prefix.
+	 *
+	 * @param text the text to escape
+	 * @return a regular expression matching the text
+	 */
+	public static String quote(String text)
+	{
+		StringBuilder sb = new StringBuilder(text.length() + 8);
+		for (char c : text.toCharArray())
+		{
+			if (!Character.isLetterOrDigit(c) && c != ' ')
+			{
+				sb.append('\\');
+			}
+			sb.append(c);
+		}
+		return sb.toString();
+	}
+
+	private static boolean containsLiterals(String message, Entry entry)
+	{
+		int from = entry.getPrefix().length();
+		for (String literal : entry.getLiterals())
+		{
+			from = message.indexOf(literal, from);
+			if (from == -1)
+			{
+				return false;
+			}
+
+			from += literal.length();
+		}
+		return true;
+	}
+
+	private void rebuild()
+	{
+		Node newRoot = new Node();
+		for (Entry entry : entries)
+		{
+			Node node = newRoot;
+			for (char c : entry.getPrefix().toCharArray())
+			{
+				node = node.children.computeIfAbsent(c, k -> new Node());
+			}
+			node.entries.add(entry);
+			newRoot.types.addAll(entry.getTypes());
+		}
+		root = newRoot;
+	}
+
+	/**
+	 * Gets the literal text every match of the pattern must start with
+	 */
+	static String literalPrefix(Pattern pattern)
+	{
+		return requiredLiterals(pattern).get(0);
+	}
+
+	/**
+	 * Gets the runs of literal text every match of the pattern must contain, in the order
+	 * they appear. The first run is the literal prefix of the pattern, and is empty if the
+	 * pattern does not start with literal text.
+	 */
+	static List<String> requiredLiterals(Pattern pattern)
+	{
+		String regex = pattern.pattern();
+		if ((pattern.flags() & UNINDEXED_FLAGS) != 0 || hasTopLevelAlternation(regex))
+		{
+			return Collections.singletonList("");
+		}
+
+		List<String> literals = new ArrayList<>();
+		StringBuilder run = new StringBuilder();
+		int i = regex.startsWith("^") ? 1 : 0;
+		while (i < regex.length())
+		{
+			char c = regex.charAt(i);
+			boolean literal = false;
+			int next;
+			if (c == '\\')
+			{
+				if (i + 1 >= regex.length())
+				{
+					break;
+				}
+
+				c = regex.charAt(i + 1);
+				if (Character.isLetterOrDigit(c) && CLASS_ESCAPES.indexOf(c) == -1)
+				{
+					// quoting, octal, hex and unicode escapes are not worth parsing
+					break;
+				}
+
+				literal = !Character.isLetterOrDigit(c);
+				next = i + 2;
+			}
+			else if (c == '[')
+			{
+				next = skipClass(regex, i);
+			}
+			else if (c == '(')
+			{
+				if (regex.startsWith("(?", i) && i + 2 < regex.length()
+					&& (Character.isLetter(regex.charAt(i + 2)) || regex.charAt(i + 2) == '-'))
+				{
+					// inline flags may change how the rest of the pattern matches
+					break;
+				}
+
+				next = skipGroup(regex, i);
+			}
+			else
+			{
+				literal = ".^$".indexOf(c) == -1;
+				next = i + 1;
+			}
+
+			boolean optional = false;
+			boolean repeated = false;
+			if (next < regex.length())
+			{
+				char quantifier = regex.charAt(next);
+				if (quantifier == '?' || quantifier == '*')
+				{
+					optional = true;
+					++next;
+				}
+				else if (quantifier == '+')
+				{
+					repeated = true;
+					++next;
+				}
+				else if (quantifier == '{')
+				{
+					optional = true;
+					next = regex.indexOf('}', next) + 1;
+				}
+
+				// lazy and possessive quantifiers
+				if ((optional || repeated) && next < regex.length()
+					&& (regex.charAt(next) == '?' || regex.charAt(next) == '+'))
+				{
+					++next;
+				}
+			}
+
+			if (literal && !optional)
+			{
+				run.append(c);
+			}
+
+			if (!literal || optional || repeated)
+			{
+				addRun(literals, run);
+			}
+
+			i = next;
+		}
+
+		addRun(literals, run);
+		return literals;
+	}
+
+	private static void addRun(List<String> literals, StringBuilder run)
+	{
+		if (literals.isEmpty() || run.length() > 0)
+		{
+			literals.add(run.toString());
+			run.setLength(0);
+		}
+	}
+
+	private static int skipClass(String regex, int start)
+	{
+		int depth = 0;
+		for (int i = start; i < regex.length(); ++i)
+		{
+			char c = regex.charAt(i);
+			if (c == '\\')
+			{
+				++i;
+			}
+			else if (c == '[')
+			{
+				++depth;
+			}
+			else if (c == ']' && i > start + 1 && --depth == 0)
+			{
+				return i + 1;
+			}
+		}
+		return regex.length();
+	}
+
+	private static int skipGroup(String regex, int start)
+	{
+		int depth = 0;
+		for (int i = start; i < regex.length(); ++i)
+		{
+			char c = regex.charAt(i);
+			if (c == '\\')
+			{
+				++i;
+			}
+			else if (c == '[')
+			{
+				i = skipClass(regex, i) - 1;
+			}
+			else if (c == '(')
+			{
+				++depth;
+			}
+			else if (c == ')' && --depth == 0)
+			{
+				return i + 1;
+			}
+		}
+		return regex.length();
+	}
+
+	private static boolean hasTopLevelAlternation(String regex)
+	{
+		for (int i = 0; i < regex.length(); ++i)
+		{
+			char c = regex.charAt(i);
+			if (c == '\\')
+			{
+				++i;
+			}
+			else if (c == '[')
+			{
+				i = skipClass(regex, i) - 1;
+			}
+			else if (c == '(')
+			{
+				i = skipGroup(regex, i) - 1;
+			}
+			else if (c == '|')
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Value
+	private static class Entry
+	{
+		private final Object owner;
+		private final Pattern pattern;
+		private final Set<ChatMessageType> types;
+		private final BiConsumer<ChatMessage, Matcher> handler;
+		private final int sequence;
+		private final String prefix;
+		/**
+		 * Literal text following the prefix which the message must contain, in order
+		 */
+		private final String[] literals;
+	}
+
+	private static class Node
+	{
+		private final Map<Character, Node> children = new HashMap<>();
+		private final List<Entry> entries = new ArrayList<>();
+		/**
+		 * Types of all registered patterns, only populated on the root
+		 */
+		private final Set<ChatMessageType> types = EnumSet.noneOf(ChatMessageType.class);
+	}
+}
@@ -24,17 +24,20 @@
  */
 package net.runelite.client.chat;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.MoreObjects;
 import com.google.common.base.Strings;
 import com.google.common.collect.HashMultimap;
+import com.google.common.collect.MapMaker;
 import com.google.common.collect.Multimap;
 import java.awt.Color;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.atomic.AtomicReference;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import net.runelite.api.ChatLineBuffer;
@@ -57,6 +60,11 @@ import net.runelite.client.util.ColorUtil;
 public class ChatMessageManager
 {
 	private final Multimap<ChatMessageType, ChatColor> colorCache = HashMultimap.create();
+	/**
+	 * Color tags for each message type, indexed by transparency and then {@link ChatColorType#ordinal()}
+	 */
+	private volatile Map<ChatMessageType, String[][]> colorTags = new EnumMap<>(ChatMessageType.class);
+	private final Map<MessageNode, ChatMessageTemplate> templates = new MapMaker().weakKeys().makeMap();
 	private final Client client;
 	private final ChatColorConfig chatColorConfig;
 	private final ClientThread clientThread;
@@ -522,6 +530,20 @@ public class ChatMessageManager
 			cacheColor(new ChatColor(ChatColorType.HIGHLIGHT, chatColorConfig.transparentFilteredHighlight(), true),
 				ChatMessageType.FILTERED);
 		}
+
+		cacheColorTags();
+	}
+
+	private void cacheColorTags()
+	{
+		final Map<ChatMessageType, String[][]> tags = new EnumMap<>(ChatMessageType.class);
+		for (Map.Entry<ChatMessageType, ChatColor> entry : colorCache.entries())
+		{
+			final ChatColor chatColor = entry.getValue();
+			final String[][] typeTags = tags.computeIfAbsent(entry.getKey(), k -> new String[2][ChatColorType.values().length]);
+			typeTags[chatColor.isTransparent() ? 1 : 0][chatColor.getType().ordinal()] = ColorUtil.colorTag(chatColor.getColor());
+		}
+		colorTags = tags;
 	}
 
 	private void cacheColor(final ChatColor chatColor, final ChatMessageType... types)
@@ -569,47 +591,46 @@ public class ChatMessageManager
 
 	public void update(final MessageNode target)
 	{
-		if (Strings.isNullOrEmpty(target.getRuneLiteFormatMessage()))
+		update(target, client.isResized() && transparencyVarbit != 0);
+	}
+
+	private void update(final MessageNode target, final boolean transparent)
+	{
+		final String format = target.getRuneLiteFormatMessage();
+		if (Strings.isNullOrEmpty(format))
 		{
 			return;
 		}
 
-		final boolean transparent = client.isResized() && transparencyVarbit != 0;
-		final Collection<ChatColor> chatColors = colorCache.get(target.getType());
+		final String[][] typeTags = colorTags.get(target.getType());
 
 		// If we do not have any colors cached, simply set clean message
-		if (chatColors == null || chatColors.isEmpty())
+		if (typeTags == null)
 		{
-			target.setValue(target.getRuneLiteFormatMessage());
+			target.setValue(format);
 			return;
 		}
 
-		target.setValue(recolorMessage(transparent, target.getRuneLiteFormatMessage(), target.getType()));
-	}
+		// Message nodes are reused, so the format may have changed since it was parsed
+		ChatMessageTemplate template = templates.get(target);
+		if (template == null || !template.getFormat().equals(format))
+		{
+			template = ChatMessageTemplate.parse(format);
+			templates.put(target, template);
+		}
 
-	private String recolorMessage(boolean transparent, String message, ChatMessageType messageType)
-	{
-		final Collection<ChatColor> chatColors = colorCache.get(messageType);
-		final AtomicReference<String> resultMessage = new AtomicReference<>(message);
-
-		// Replace custom formatting with actual colors
-		chatColors.stream()
-			.filter(chatColor -> chatColor.isTransparent() == transparent)
-			.forEach(chatColor ->
-				resultMessage.getAndUpdate(oldMessage -> oldMessage.replaceAll(
-					"<col" + chatColor.getType().name() + ">",
-					ColorUtil.colorTag(chatColor.getColor()))));
-
-		return resultMessage.get();
+		target.setValue(template.render(typeTags[transparent ? 1 : 0]));
 	}
 
-	private void refreshAll()
+	@VisibleForTesting
+	void refreshAll()
 	{
+		final boolean transparent = client.isResized() && transparencyVarbit != 0;
 		client.getChatLineMap().values().stream()
 			.filter(Objects::nonNull)
 			.flatMap(clb -> Arrays.stream(clb.getLines()))
 			.filter(Objects::nonNull)
-			.forEach(this::update);
+			.forEach(line -> update(line, transparent));
 
 		client.refreshChat();
 	}
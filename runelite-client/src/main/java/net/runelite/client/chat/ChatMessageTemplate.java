@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2018, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.chat;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+
+/**
+ * A RuneLite formatted message split into text and {@link ChatColorType} slots,
+ * so it can be rendered with new colors without reparsing it.
+ */
+class ChatMessageTemplate
+{
+	private static final ChatColorType[] COLOR_TYPES = ChatColorType.values();
+	private static final String[] COLOR_TOKENS = new String[COLOR_TYPES.length];
+
+	static
+	{
+		for (ChatColorType type : COLOR_TYPES)
+		{
+			COLOR_TOKENS[type.ordinal()] = new ChatMessageBuilder().append(type).build();
+		}
+	}
+
+	@Getter
+	private final String format;
+	/**
+	 * The text around the slots, one longer than the slots
+	 */
+	private final String[] text;
+	private final ChatColorType[] slots;
+	private final int textLength;
+
+	private ChatMessageTemplate(String format, String[] text, ChatColorType[] slots)
+	{
+		this.format = format;
+		this.text = text;
+		this.slots = slots;
+
+		int length = 0;
+		for (String t : text)
+		{
+			length += t.length();
+		}
+		this.textLength = length;
+	}
+
+	static ChatMessageTemplate parse(String format)
+	{
+		List<String> text = new ArrayList<>();
+		List<ChatColorType> slots = new ArrayList<>();
+
+		int start = 0;
+		int tag = format.indexOf('<');
+		while (tag != -1)
+		{
+			ChatColorType type = colorTypeAt(format, tag);
+			if (type == null)
+			{
+				tag = format.indexOf('<', tag + 1);
+				continue;
+			}
+
+			text.add(format.substring(start, tag));
+			slots.add(type);
+			start = tag + COLOR_TOKENS[type.ordinal()].length();
+			tag = format.indexOf('<', start);
+		}
+		text.add(format.substring(start));
+
+		return new ChatMessageTemplate(format, text.toArray(new String[0]), slots.toArray(new ChatColorType[0]));
+	}
+
+	private static ChatColorType colorTypeAt(String format, int index)
+	{
+		for (ChatColorType type : COLOR_TYPES)
+		{
+			if (format.startsWith(COLOR_TOKENS[type.ordinal()], index))
+			{
+				return type;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Renders the message with the given color tags
+	 *
+	 * @param colorTags color tags indexed by {@link ChatColorType#ordinal()}. Slots with no
+	 *                  tag are left as they are in the format.
+	 * @return the rendered message
+	 */
+	String render(String[] colorTags)
+	{
+		if (slots.length == 0)
+		{
+			return format;
+		}
+
+		StringBuilder sb = new StringBuilder(textLength + slots.length * 12);
+		for (int i = 0; i < slots.length; ++i)
+		{
+			sb.append(text[i]);
+
+			String tag = colorTags[slots[i].ordinal()];
+			sb.append(tag != null ? tag : COLOR_TOKENS[slots[i].ordinal()]);
+		}
+		sb.append(text[slots.length]);
+		return sb.toString();
+	}
+}
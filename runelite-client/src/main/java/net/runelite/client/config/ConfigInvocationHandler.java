@@ -24,17 +24,47 @@
  */
 package net.runelite.client.config;
 
+import java.awt.Dimension;
+import java.awt.Point;
+import java.awt.Rectangle;
 import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 class ConfigInvocationHandler implements InvocationHandler
 {
+	/**
+	 * Marks an item whose value has not been read since it was last invalidated
+	 */
+	private static final Object UNSET = new Object();
+
+	/**
+	 * Annotation data of a config getter, and the parsed value of its item. The value is dropped
+	 * by {@link #invalidate(String)} whenever the configuration of the group changes.
+	 */
+	@RequiredArgsConstructor
+	private static class CachedItem
+	{
+		private final String group;
+		private final String key;
+		private final Class<?> type;
+		private final boolean isDefault;
+		private volatile Object value = UNSET;
+	}
+
 	private final ConfigManager manager;
+	private final ConcurrentMap<Method, CachedItem> items = new ConcurrentHashMap<>();
+	/**
+	 * Incremented on every invalidation, so values read before a change are never cached after it
+	 */
+	private int generation;
 
 	public ConfigInvocationHandler(ConfigManager manager)
 	{
@@ -44,6 +74,23 @@ class ConfigInvocationHandler implements InvocationHandler
 	@Override
 	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
 	{
+		if (args == null)
+		{
+			final CachedItem item = items.get(method);
+
+			if (item != null)
+			{
+				final Object value = item.value;
+
+				if (value != UNSET)
+				{
+					return copy(value);
+				}
+
+				return copy(getValue(proxy, method, item));
+			}
+		}
+
 		Class<?> iface = proxy.getClass().getInterfaces()[0];
 
 		ConfigGroup group = iface.getAnnotation(ConfigGroup.class);
@@ -64,34 +111,15 @@ class ConfigInvocationHandler implements InvocationHandler
 		if (args == null)
 		{
 			// Getting configuration item
-			String value = manager.getConfiguration(group.value(), item.keyName());
+			final CachedItem cachedItem = new CachedItem(group.value(), item.keyName(), method.getReturnType(), method.isDefault());
 
-			if (value == null)
+			// methods inherited from another interface could belong to more than one group
+			if (method.getDeclaringClass() != iface)
 			{
-				if (method.isDefault())
-				{
-					return callDefaultMethod(proxy, method, null);
-				}
-
-				return null;
+				return getValue(proxy, method, cachedItem);
 			}
 
-			// Convert value to return type
-			Class<?> returnType = method.getReturnType();
-			
-			try
-			{
-				return ConfigManager.stringToObject(value, returnType);
-			}
-			catch (Exception e)
-			{
-				log.warn("Unable to unmarshal {}.{} ", group.value(), item.keyName(), e);
-				if (method.isDefault())
-				{
-					return callDefaultMethod(proxy, method, null);
-				}
-				return null;
-			}
+			return copy(getValue(proxy, method, items.computeIfAbsent(method, k -> cachedItem)));
 		}
 		else
 		{
@@ -138,6 +166,96 @@ class ConfigInvocationHandler implements InvocationHandler
 		}
 	}
 
+	/**
+	 * Drop the cached values of every item in a group. Default values may be derived from other
+	 * items of the same group, so the whole group is invalidated rather than the changed key.
+	 *
+	 * @param group config group, or null to invalidate every group
+	 */
+	synchronized void invalidate(String group)
+	{
+		++generation;
+
+		for (CachedItem item : items.values())
+		{
+			if (group == null || group.equals(item.group))
+			{
+				item.value = UNSET;
+			}
+		}
+	}
+
+	private Object getValue(Object proxy, Method method, CachedItem item) throws Throwable
+	{
+		final int gen;
+		synchronized (this)
+		{
+			gen = generation;
+		}
+
+		final Object value = readValue(proxy, method, item);
+
+		synchronized (this)
+		{
+			if (gen == generation)
+			{
+				item.value = value;
+			}
+		}
+
+		return value;
+	}
+
+	private Object readValue(Object proxy, Method method, CachedItem item) throws Throwable
+	{
+		String value = manager.getConfiguration(item.group, item.key);
+
+		if (value == null)
+		{
+			if (item.isDefault)
+			{
+				return callDefaultMethod(proxy, method, null);
+			}
+
+			return null;
+		}
+
+		// Convert value to return type
+		try
+		{
+			return ConfigManager.stringToObject(value, item.type);
+		}
+		catch (Exception e)
+		{
+			log.warn("Unable to unmarshal {}.{} ", item.group, item.key, e);
+			if (item.isDefault)
+			{
+				return callDefaultMethod(proxy, method, null);
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Copy mutable values, so that callers modifying them can not change the cached value
+	 */
+	private static Object copy(Object value)
+	{
+		if (value instanceof Dimension)
+		{
+			return new Dimension((Dimension) value);
+		}
+		if (value instanceof Point)
+		{
+			return new Point((Point) value);
+		}
+		if (value instanceof Rectangle)
+		{
+			return new Rectangle((Rectangle) value);
+		}
+		return value;
+	}
+
 	static Object callDefaultMethod(Object proxy, Method method, Object[] args) throws Throwable
 	{
 		// Call the default method implementation - https://rmannibucau.wordpress.com/2014/03/27/java-8-default-interface-methods-and-jdk-dynamic-proxies/
@@ -24,6 +24,7 @@
  */
 package net.runelite.client.config;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Strings;
 import com.google.common.collect.ComparisonChain;
 import com.google.common.collect.ImmutableMap;
@@ -41,15 +42,20 @@ import java.io.OutputStreamWriter;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Proxy;
-import java.nio.channels.FileLock;
 import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -58,6 +64,8 @@ import net.runelite.api.events.ConfigChanged;
 import net.runelite.client.RuneLite;
 import net.runelite.client.account.AccountSession;
 import net.runelite.client.eventbus.EventBus;
+import net.runelite.client.task.ExecutorLane;
+import net.runelite.client.task.ExecutorLanes;
 import net.runelite.http.api.config.ConfigClient;
 import net.runelite.http.api.config.ConfigEntry;
 import net.runelite.http.api.config.Configuration;
@@ -67,36 +75,75 @@ import net.runelite.http.api.config.Configuration;
 public class ConfigManager
 {
 	private static final String SETTINGS_FILE_NAME = "settings.properties";
+	private static final int SAVE_DELAY = 5; // seconds
+	private static final int RETRY_DELAY = 30; // seconds
 
 	@Inject
 	EventBus eventBus;
 
-	@Inject
-	ScheduledExecutorService executor;
+	ScheduledExecutorService diskExecutor;
+	ScheduledExecutorService networkExecutor;
 
 	private AccountSession session;
-	private ConfigClient client;
+	private volatile ConfigClient client;
 	private File propertiesFile;
 
 	private final ConfigInvocationHandler handler = new ConfigInvocationHandler(this);
 	private final Properties properties = new Properties();
 
+	/**
+	 * Changes not yet sent to the server, by group and key. Unset keys map to null.
+	 */
+	private final Map<String, String> pendingChanges = new HashMap<>();
+	private boolean saveScheduled;
+	private boolean syncScheduled;
+	/**
+	 * Held while changes are sent, so they reach the server in the order they were made
+	 */
+	private final Object syncLock = new Object();
+
 	public ConfigManager()
 	{
 		this.propertiesFile = getPropertiesFile();
 	}
 
+	@VisibleForTesting
+	ConfigManager(File propertiesFile, ConfigClient client)
+	{
+		this.propertiesFile = propertiesFile;
+		this.client = client;
+	}
+
+	@Inject
+	void setExecutorLanes(ExecutorLanes executorLanes)
+	{
+		// saves go to disk first, so they must not wait behind slow network requests
+		this.diskExecutor = executorLanes.getExecutor(ExecutorLane.DISK, "ConfigManager");
+		this.networkExecutor = executorLanes.getExecutor(ExecutorLane.NETWORK, "ConfigManager");
+	}
+
 	public final void switchSession(AccountSession session)
 	{
-		if (session == null)
-		{
-			this.session = null;
-			this.client = null;
-		}
-		else
+		switchSession(session, session != null ? new ConfigClient(session.getUuid()) : null);
+	}
+
+	@VisibleForTesting
+	void switchSession(AccountSession session, ConfigClient client)
+	{
+		// pending changes belong to the previous session
+		sendConfig();
+
+		synchronized (pendingChanges)
 		{
+			// changes which failed to sync must not be sent to the new session's account
+			if (!pendingChanges.isEmpty())
+			{
+				log.warn("Discarding {} configuration changes which could not be synchronized", pendingChanges.size());
+				pendingChanges.clear();
+			}
+
 			this.session = session;
-			this.client = new ConfigClient(session.getUuid());
+			this.client = client;
 		}
 
 		this.propertiesFile = getPropertiesFile();
@@ -147,6 +194,7 @@ public class ConfigManager
 		}
 
 		properties.clear();
+		handler.invalidate(null);
 
 		for (ConfigEntry entry : configuration.getConfig())
 		{
@@ -156,6 +204,7 @@ public class ConfigManager
 			final String key = split[1];
 			final String value = entry.getValue();
 			final String oldValue = (String) properties.setProperty(entry.getKey(), value);
+			handler.invalidate(groupName);
 
 			ConfigChanged configChanged = new ConfigChanged();
 			configChanged.setGroup(groupName);
@@ -194,6 +243,8 @@ public class ConfigManager
 			log.warn("Unable to load settings", ex);
 		}
 
+		handler.invalidate(null);
+
 		try
 		{
 			Map<String, String> copy = (Map) ImmutableMap.copyOf(properties);
@@ -226,20 +277,158 @@ public class ConfigManager
 
 	private synchronized void saveToFile() throws IOException
 	{
-		propertiesFile.getParentFile().mkdirs();
+		final File dir = propertiesFile.getParentFile();
+		dir.mkdirs();
 
-		try (FileOutputStream out = new FileOutputStream(propertiesFile))
+		// write a new file and then move it over the old one, so a crash while saving
+		// leaves either the old or the new configuration but never a partial one
+		final File tempFile = File.createTempFile("runelite", null, dir);
+
+		try
 		{
-			final FileLock lock = out.getChannel().lock();
+			try (FileOutputStream out = new FileOutputStream(tempFile))
+			{
+				properties.store(new OutputStreamWriter(out, Charset.forName("UTF-8")), "RuneLite configuration");
+				out.getFD().sync();
+			}
 
 			try
 			{
-				properties.store(new OutputStreamWriter(out, Charset.forName("UTF-8")), "RuneLite configuration");
+				Files.move(tempFile.toPath(), propertiesFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			}
+			catch (AtomicMoveNotSupportedException ex)
+			{
+				log.debug("atomic move not supported", ex);
+				Files.move(tempFile.toPath(), propertiesFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
 			}
-			finally
+		}
+		finally
+		{
+			tempFile.delete();
+		}
+	}
+
+	/**
+	 * Writes the configuration to disk and sends all changes made since the last call to the
+	 * server in one request. Changes are sent automatically a few seconds after they are made,
+	 * this only needs to be called to make sure nothing is lost, such as before exiting.
+	 */
+	public void sendConfig()
+	{
+		saveConfig();
+		syncConfig();
+	}
+
+	/**
+	 * Writes the configuration to disk, if it has changed since it was last written
+	 */
+	private void saveConfig()
+	{
+		synchronized (pendingChanges)
+		{
+			if (!saveScheduled)
 			{
-				lock.release();
+				return;
 			}
+
+			saveScheduled = false;
+		}
+
+		try
+		{
+			saveToFile();
+		}
+		catch (IOException ex)
+		{
+			log.warn("unable to save configuration file", ex);
+		}
+	}
+
+	/**
+	 * Sends the changes made since the last call to the server
+	 */
+	private void syncConfig()
+	{
+		synchronized (syncLock)
+		{
+			final Map<String, String> changes;
+			final ConfigClient client;
+
+			synchronized (pendingChanges)
+			{
+				syncScheduled = false;
+
+				if (pendingChanges.isEmpty())
+				{
+					return;
+				}
+
+				changes = new HashMap<>(pendingChanges);
+				pendingChanges.clear();
+				client = this.client;
+			}
+
+			if (client == null)
+			{
+				return;
+			}
+
+			final List<ConfigEntry> entries = new ArrayList<>(changes.size());
+			for (Map.Entry<String, String> change : changes.entrySet())
+			{
+				final ConfigEntry entry = new ConfigEntry();
+				entry.setKey(change.getKey());
+				entry.setValue(change.getValue());
+				entries.add(entry);
+			}
+
+			try
+			{
+				client.patch(entries);
+			}
+			catch (IOException ex)
+			{
+				log.warn("unable to synchronize configuration", ex);
+
+				synchronized (pendingChanges)
+				{
+					// the changes belong to the account of this client, so they are dropped
+					// if the session has been switched since
+					if (this.client == client)
+					{
+						// retry later, unless the keys have been changed again since
+						changes.forEach(pendingChanges::putIfAbsent);
+						scheduleSync(RETRY_DELAY);
+					}
+				}
+			}
+		}
+	}
+
+	private void queueChange(String groupAndKey, String value)
+	{
+		synchronized (pendingChanges)
+		{
+			pendingChanges.put(groupAndKey, value);
+
+			if (!saveScheduled)
+			{
+				saveScheduled = true;
+				diskExecutor.schedule(this::saveConfig, SAVE_DELAY, TimeUnit.SECONDS);
+			}
+
+			scheduleSync(SAVE_DELAY);
+		}
+	}
+
+	private void scheduleSync(int delay)
+	{
+		assert Thread.holdsLock(pendingChanges);
+
+		if (!syncScheduled)
+		{
+			syncScheduled = true;
+			networkExecutor.schedule(this::syncConfig, delay, TimeUnit.SECONDS);
 		}
 	}
 
@@ -296,23 +485,8 @@ public class ConfigManager
 			return;
 		}
 
-		if (client != null)
-		{
-			client.set(groupName + "." + key, value);
-		}
-
-		Runnable task = () ->
-		{
-			try
-			{
-				saveToFile();
-			}
-			catch (IOException ex)
-			{
-				log.warn("unable to save configuration file", ex);
-			}
-		};
-		executor.execute(task);
+		queueChange(groupName + "." + key, value);
+		handler.invalidate(groupName);
 
 		ConfigChanged configChanged = new ConfigChanged();
 		configChanged.setGroup(groupName);
@@ -339,23 +513,8 @@ public class ConfigManager
 			return;
 		}
 
-		if (client != null)
-		{
-			client.unset(groupName + "." + key);
-		}
-
-		Runnable task = () ->
-		{
-			try
-			{
-				saveToFile();
-			}
-			catch (IOException ex)
-			{
-				log.warn("unable to save configuration file", ex);
-			}
-		};
-		executor.execute(task);
+		queueChange(groupName + "." + key, null);
+		handler.invalidate(groupName);
 
 		ConfigChanged configChanged = new ConfigChanged();
 		configChanged.setGroup(groupName);
@@ -26,25 +26,31 @@
 package net.runelite.client.eventbus;
 
 import com.google.common.base.Preconditions;
-import com.google.common.collect.HashMultimap;
-import com.google.common.collect.ImmutableMultimap;
-import com.google.common.collect.Multimap;
+import com.google.common.collect.ImmutableMap;
 import java.lang.invoke.CallSite;
 import java.lang.invoke.LambdaMetafactory;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
-import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.function.Consumer;
 import javax.annotation.Nonnull;
 import javax.annotation.concurrent.ThreadSafe;
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import lombok.ToString;
 import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.util.ReflectUtil;
 
 @Slf4j
 @RequiredArgsConstructor
@@ -62,8 +68,12 @@ public class EventBus
 	{
 		private final Object object;
 		private final Method method;
+		private final float priority;
 		@EqualsAndHashCode.Exclude
 		private final SubscriberMethod lamda;
+		@EqualsAndHashCode.Exclude
+		@ToString.Exclude
+		private final LatencyHistogram histogram = new LatencyHistogram();
 
 		void invoke(final Object arg) throws Exception
 		{
@@ -79,7 +89,20 @@ public class EventBus
 	}
 
 	private final Consumer<Throwable> exceptionHandler;
-	private ImmutableMultimap<Class, Subscriber> subscribers = ImmutableMultimap.of();
+
+	/**
+	 * Dispatch table of subscribers for each event class, in priority and then registration order.
+	 * The map and the arrays are never modified once published, registering and unregistering
+	 * replace them instead, so that posting needs neither locking nor copying.
+	 */
+	private volatile Map<Class<?>, Subscriber[]> subscribers = ImmutableMap.of();
+
+	/**
+	 * Whether subscriber invocations are timed. Only read once per posted event, so leaving it
+	 * disabled costs nothing measurable.
+	 */
+	@Getter
+	private volatile boolean profiling;
 
 	/**
 	 * Instantiates EventBus with default exception handler
@@ -98,12 +121,7 @@ public class EventBus
 	 */
 	public synchronized void register(@Nonnull final Object object)
 	{
-		final ImmutableMultimap.Builder<Class, Subscriber> builder = ImmutableMultimap.builder();
-
-		if (subscribers != null)
-		{
-			builder.putAll(subscribers);
-		}
+		final Map<Class<?>, List<Subscriber>> added = new LinkedHashMap<>();
 
 		for (Class<?> clazz = object.getClass(); clazz != null; clazz = clazz.getSuperclass())
 		{
@@ -141,7 +159,7 @@ public class EventBus
 
 				try
 				{
-					final MethodHandles.Lookup caller = privateLookupIn(clazz);
+					final MethodHandles.Lookup caller = ReflectUtil.privateLookupIn(clazz);
 					final MethodType subscription = MethodType.methodType(void.class, parameterClazz);
 					final MethodHandle target = caller.findVirtual(clazz, method.getName(), subscription);
 					final CallSite site = LambdaMetafactory.metafactory(
@@ -160,13 +178,41 @@ public class EventBus
 					log.warn("Unable to create lambda for method {}", method, e);
 				}
 
-				final Subscriber subscriber = new Subscriber(object, method, lambda);
-				builder.put(parameterClazz, subscriber);
+				final Subscriber subscriber = new Subscriber(object, method, sub.priority(), lambda);
+				added.computeIfAbsent(parameterClazz, k -> new ArrayList<>()).add(subscriber);
 				log.debug("Registering {} - {}", parameterClazz, subscriber);
 			}
 		}
 
-		subscribers = builder.build();
+		if (added.isEmpty())
+		{
+			return;
+		}
+
+		// only the tables of the subscribed event classes are rebuilt
+		final Map<Class<?>, Subscriber[]> map = new HashMap<>(subscribers);
+
+		for (Map.Entry<Class<?>, List<Subscriber>> entry : added.entrySet())
+		{
+			final Subscriber[] existing = map.get(entry.getKey());
+			final List<Subscriber> table = existing == null ? new ArrayList<>() : new ArrayList<>(Arrays.asList(existing));
+
+			for (final Subscriber subscriber : entry.getValue())
+			{
+				// insert after every subscriber of greater or equal priority
+				int idx = table.size();
+				while (idx > 0 && table.get(idx - 1).getPriority() < subscriber.getPriority())
+				{
+					--idx;
+				}
+
+				table.add(idx, subscriber);
+			}
+
+			map.put(entry.getKey(), table.toArray(new Subscriber[table.size()]));
+		}
+
+		subscribers = ImmutableMap.copyOf(map);
 	}
 
 	/**
@@ -176,13 +222,8 @@ public class EventBus
 	 */
 	public synchronized void unregister(@Nonnull final Object object)
 	{
-		if (subscribers == null)
-		{
-			return;
-		}
-
-		final Multimap<Class, Subscriber> map = HashMultimap.create();
-		map.putAll(subscribers);
+		final Map<Class<?>, Subscriber[]> map = new HashMap<>(subscribers);
+		boolean changed = false;
 
 		for (Class<?> clazz = object.getClass(); clazz != null; clazz = clazz.getSuperclass())
 		{
@@ -196,23 +237,81 @@ public class EventBus
 				}
 
 				final Class<?> parameterClazz = method.getParameterTypes()[0];
-				map.remove(parameterClazz, new Subscriber(object, method, null));
+				final Subscriber[] table = map.get(parameterClazz);
+
+				if (table == null)
+				{
+					continue;
+				}
+
+				final Subscriber[] removed = Arrays.stream(table)
+					.filter(s -> s.getObject() != object || !s.getMethod().equals(method))
+					.toArray(Subscriber[]::new);
+
+				if (removed.length == table.length)
+				{
+					continue;
+				}
+
+				if (removed.length == 0)
+				{
+					map.remove(parameterClazz);
+				}
+				else
+				{
+					map.put(parameterClazz, removed);
+				}
+
+				changed = true;
 			}
 		}
 
-		subscribers = ImmutableMultimap.copyOf(map);
+		if (changed)
+		{
+			subscribers = ImmutableMap.copyOf(map);
+		}
 	}
 
 	/**
 	 * Posts provided event to all registered subscribers. Subscriber calls are invoked immediately and in order
-	 * in which subscribers were registered.
+	 * of their priority, and then in order in which subscribers were registered.
 	 *
 	 * @param event event to post
 	 */
 	public void post(@Nonnull final Object event)
 	{
-		for (final Subscriber subscriber : subscribers.get(event.getClass()))
+		final Subscriber[] table = subscribers.get(event.getClass());
+
+		if (table == null)
+		{
+			return;
+		}
+
+		if (profiling)
+		{
+			postTimed(table, event);
+			return;
+		}
+
+		for (final Subscriber subscriber : table)
+		{
+			try
+			{
+				subscriber.invoke(event);
+			}
+			catch (Exception e)
+			{
+				exceptionHandler.accept(e);
+			}
+		}
+	}
+
+	private void postTimed(final Subscriber[] table, final Object event)
+	{
+		for (final Subscriber subscriber : table)
 		{
+			final long start = System.nanoTime();
+
 			try
 			{
 				subscriber.invoke(event);
@@ -221,29 +320,72 @@ public class EventBus
 			{
 				exceptionHandler.accept(e);
 			}
+			finally
+			{
+				subscriber.getHistogram().record(System.nanoTime() - start);
+			}
 		}
 	}
 
-	private static MethodHandles.Lookup privateLookupIn(Class clazz) throws IllegalAccessException, NoSuchFieldException, InvocationTargetException
+	/**
+	 * Enables or disables timing of subscriber invocations. Timings recorded previously are kept
+	 * until {@link #resetTimings()} is called.
+	 *
+	 * @param profiling whether to time subscribers
+	 */
+	public void setProfiling(boolean profiling)
+	{
+		this.profiling = profiling;
+	}
+
+	/**
+	 * Get the recorded timings of every currently registered subscriber which has been invoked
+	 * while profiling was enabled
+	 *
+	 * @return timings, most total time spent first
+	 */
+	public List<SubscriberTiming> getTimings()
 	{
-		try
+		final List<SubscriberTiming> timings = new ArrayList<>();
+
+		for (Map.Entry<Class<?>, Subscriber[]> entry : subscribers.entrySet())
 		{
-			// Java 9+ has privateLookupIn method on MethodHandles, but since we are shipping and using Java 8
-			// we need to access it via reflection. This is preferred way because it's Java 9+ public api and is
-			// likely to not change
-			final Method privateLookupIn = MethodHandles.class.getMethod("privateLookupIn", Class.class, MethodHandles.Lookup.class);
-			return (MethodHandles.Lookup) privateLookupIn.invoke(null, clazz, MethodHandles.lookup());
+			for (final Subscriber subscriber : entry.getValue())
+			{
+				final LatencyHistogram histogram = subscriber.getHistogram();
+
+				if (histogram.getCount() == 0)
+				{
+					continue;
+				}
+
+				final Method method = subscriber.getMethod();
+				timings.add(new SubscriberTiming(
+					entry.getKey(),
+					method.getDeclaringClass().getSimpleName() + "." + method.getName(),
+					histogram.getCount(),
+					histogram.getTotal(),
+					histogram.getQuantile(0.5),
+					histogram.getQuantile(0.99),
+					histogram.getMax()));
+			}
 		}
-		catch (NoSuchMethodException e)
+
+		timings.sort(Comparator.comparingLong(SubscriberTiming::getTotal).reversed());
+		return timings;
+	}
+
+	/**
+	 * Discards the recorded timings of all registered subscribers
+	 */
+	public void resetTimings()
+	{
+		for (final Subscriber[] table : subscribers.values())
 		{
-			// In Java 8 we first do standard lookupIn class
-			final MethodHandles.Lookup lookupIn = MethodHandles.lookup().in(clazz);
-
-			// and then we mark it as trusted for private lookup via reflection on private field
-			final Field modes = MethodHandles.Lookup.class.getDeclaredField("allowedModes");
-			modes.setAccessible(true);
-			modes.setInt(lookupIn, -1); // -1 == TRUSTED
-			return lookupIn;
+			for (final Subscriber subscriber : table)
+			{
+				subscriber.getHistogram().reset();
+			}
 		}
 	}
 }
@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2018, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.eventbus;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Log-linear histogram of nanosecond latencies. Values below 16ns have their own bucket, above
+ * that every power of two is split into 8 buckets, so quantiles are accurate to within 12.5%.
+ */
+class LatencyHistogram
+{
+	private static final int LINEAR_BUCKETS = 16;
+	private static final int SUB_BUCKET_BITS = 3;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int BUCKETS = LINEAR_BUCKETS + (63 - 4) * SUB_BUCKETS;
+
+	private final AtomicLong count = new AtomicLong();
+	private final AtomicLong total = new AtomicLong();
+	private final AtomicLong max = new AtomicLong();
+	// allocated on first use, most subscribers are never timed
+	private volatile AtomicLongArray buckets;
+
+	void record(long nanos)
+	{
+		if (nanos < 0)
+		{
+			nanos = 0;
+		}
+
+		AtomicLongArray b = buckets;
+		if (b == null)
+		{
+			synchronized (this)
+			{
+				b = buckets;
+				if (b == null)
+				{
+					buckets = b = new AtomicLongArray(BUCKETS);
+				}
+			}
+		}
+
+		b.incrementAndGet(bucket(nanos));
+		count.incrementAndGet();
+		total.addAndGet(nanos);
+		max.accumulateAndGet(nanos, Math::max);
+	}
+
+	long getCount()
+	{
+		return count.get();
+	}
+
+	long getTotal()
+	{
+		return total.get();
+	}
+
+	long getMax()
+	{
+		return max.get();
+	}
+
+	/**
+	 * Get the upper bound of the bucket containing the given quantile
+	 *
+	 * @param quantile quantile in the range [0, 1]
+	 * @return latency in nanoseconds, never more than the maximum recorded
+	 */
+	long getQuantile(double quantile)
+	{
+		final AtomicLongArray b = buckets;
+		if (b == null)
+		{
+			return 0;
+		}
+
+		long n = 0;
+		for (int i = 0; i < BUCKETS; ++i)
+		{
+			n += b.get(i);
+		}
+
+		if (n == 0)
+		{
+			return 0;
+		}
+
+		final long rank = Math.max(1, (long) Math.ceil(quantile * n));
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; ++i)
+		{
+			seen += b.get(i);
+			if (seen >= rank)
+			{
+				return Math.min(upperBound(i), getMax());
+			}
+		}
+
+		return getMax();
+	}
+
+	synchronized void reset()
+	{
+		buckets = null;
+		count.set(0);
+		total.set(0);
+		max.set(0);
+	}
+
+	static int bucket(long nanos)
+	{
+		if (nanos < LINEAR_BUCKETS)
+		{
+			return (int) nanos;
+		}
+
+		final int exp = 63 - Long.numberOfLeadingZeros(nanos);
+		final int sub = (int) (nanos >>> (exp - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+		return LINEAR_BUCKETS + (exp - 4) * SUB_BUCKETS + sub;
+	}
+
+	static long upperBound(int bucket)
+	{
+		if (bucket < LINEAR_BUCKETS)
+		{
+			return bucket;
+		}
+
+		final int exp = (bucket - LINEAR_BUCKETS) / SUB_BUCKETS + 4;
+		final int sub = (bucket - LINEAR_BUCKETS) % SUB_BUCKETS;
+		final long width = 1L << (exp - SUB_BUCKET_BITS);
+		return ((SUB_BUCKETS + sub) * width) + width - 1;
+	}
+}
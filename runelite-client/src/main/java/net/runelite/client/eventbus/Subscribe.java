@@ -38,4 +38,9 @@ import java.lang.annotation.Target;
 @Documented
 public @interface Subscribe
 {
+	/**
+	 * Subscribers with a higher priority are called first. Subscribers of equal priority are
+	 * called in the order they were registered.
+	 */
+	float priority() default 0;
 }
@@ -27,7 +27,6 @@ package net.runelite.client.game;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.LoadingCache;
 import java.io.IOException;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -35,6 +34,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import net.runelite.api.Client;
 import net.runelite.client.callback.ClientThread;
+import net.runelite.client.task.ExecutorLane;
+import net.runelite.client.task.ExecutorLanes;
 import net.runelite.http.api.hiscore.HiscoreClient;
 import net.runelite.http.api.hiscore.HiscoreEndpoint;
 import net.runelite.http.api.hiscore.HiscoreResult;
@@ -57,12 +58,12 @@ public class HiscoreManager
 	private final LoadingCache<HiscoreKey, HiscoreResult> hiscoreCache;
 
 	@Inject
-	public HiscoreManager(Client client, ScheduledExecutorService executor, ClientThread clientThread)
+	public HiscoreManager(Client client, ExecutorLanes executorLanes, ClientThread clientThread)
 	{
 		hiscoreCache = CacheBuilder.newBuilder()
 			.maximumSize(128L)
 			.expireAfterWrite(1, TimeUnit.HOURS)
-			.build(new HiscoreLoader(executor, hiscoreClient));
+			.build(new HiscoreLoader(executorLanes.getExecutor(ExecutorLane.NETWORK, "HiscoreLoader"), hiscoreClient));
 	}
 
 	/**
@@ -30,6 +30,8 @@ import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.task.ExecutorLane;
+import net.runelite.client.task.ExecutorLanes;
 import net.runelite.http.api.item.ItemInfo;
 import net.runelite.http.api.item.Item;
 import net.runelite.http.api.item.ItemClient;
@@ -39,7 +41,6 @@ import net.runelite.http.api.osrsbox.OSRSBoxClient;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ScheduledExecutorService;
 
 /**
  * @author Ben Dol
@@ -62,14 +63,14 @@ public class ItemInfoManager
 	private List<String> unsuitableTerms = new ArrayList<>();
 
 	@Inject
-	public ItemInfoManager(ScheduledExecutorService executor, ItemClient itemClient)
+	public ItemInfoManager(ExecutorLanes executorLanes, ItemClient itemClient)
 	{
-		this.itemInfoLoader = new ItemInfoLoader(executor);
+		this.itemInfoLoader = new ItemInfoLoader(executorLanes.getExecutor(ExecutorLane.NETWORK, "ItemInfoLoader"));
 		this.itemInfoSearches = CacheBuilder.newBuilder()
 			.maximumSize(512L)
 			.build(itemInfoLoader);
 
-		this.itemSearchLoader = new ItemSearchLoader(itemClient, executor);
+		this.itemSearchLoader = new ItemSearchLoader(itemClient, executorLanes.getExecutor(ExecutorLane.NETWORK, "ItemSearchLoader"));
 		this.itemSearches = CacheBuilder.newBuilder()
 			.maximumSize(512L)
 			.build(itemSearchLoader);
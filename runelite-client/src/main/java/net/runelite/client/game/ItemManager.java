@@ -24,17 +24,29 @@
  */
 package net.runelite.client.game;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ImmutableMap;
 import java.awt.Color;
 import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Collections;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -46,20 +58,25 @@ import net.runelite.api.Client;
 import static net.runelite.api.Constants.CLIENT_DEFAULT_ZOOM;
 import net.runelite.api.GameState;
 import net.runelite.api.ItemComposition;
-import net.runelite.api.ItemID;
 import static net.runelite.api.ItemID.*;
 import net.runelite.api.SpritePixels;
 import net.runelite.api.events.GameStateChanged;
 import net.runelite.api.events.PostItemComposition;
+import net.runelite.client.RuneLite;
 import net.runelite.client.callback.ClientThread;
 import net.runelite.client.eventbus.Subscribe;
+import net.runelite.client.task.ExecutorLane;
+import net.runelite.client.task.ExecutorLanes;
 import net.runelite.http.api.item.ItemClient;
 import net.runelite.http.api.item.ItemPrice;
+import net.runelite.http.api.item.ItemPriceDelta;
 
 @Singleton
 @Slf4j
 public class ItemManager
 {
+	private static final File PRICES_FILE = new File(RuneLite.RUNELITE_DIR, "prices.bin");
+
 	@Value
 	private static class ImageKey
 	{
@@ -77,11 +94,17 @@ public class ItemManager
 	}
 
 	private final Client client;
-	private final ScheduledExecutorService scheduledExecutorService;
+	private final ScheduledExecutorService networkExecutor;
+	private final ScheduledExecutorService diskExecutor;
 	private final ClientThread clientThread;
 
-	private final ItemClient itemClient = new ItemClient();
-	private Map<Integer, ItemPrice> itemPrices = Collections.emptyMap();
+	private final ItemClient itemClient;
+	private final File pricesFile;
+	// prices are loaded from disk before the first refresh is scheduled, and then only updated by the refresh
+	private final Map<Integer, ItemPrice> prices = new LinkedHashMap<>();
+	private long priceVersion;
+	private volatile ItemPriceTable itemPrices = ItemPriceTable.EMPTY;
+	private volatile ItemSearchIndex itemSearchIndex = ItemSearchIndex.EMPTY;
 	private final LoadingCache<ImageKey, AsyncBufferedImage> itemImages;
 	private final LoadingCache<Integer, ItemComposition> itemCompositions;
 	private final LoadingCache<OutlineKey, BufferedImage> itemOutlines;
@@ -150,13 +173,27 @@ public class ItemManager
 		build();
 
 	@Inject
-	public ItemManager(Client client, ScheduledExecutorService executor, ClientThread clientThread)
+	public ItemManager(Client client, ExecutorLanes executorLanes, ClientThread clientThread)
+	{
+		this(client, executorLanes, clientThread, new ItemClient(), PRICES_FILE);
+	}
+
+	@VisibleForTesting
+	ItemManager(Client client, ExecutorLanes executorLanes, ClientThread clientThread, ItemClient itemClient, File pricesFile)
 	{
 		this.client = client;
-		this.scheduledExecutorService = executor;
+		this.networkExecutor = executorLanes.getExecutor(ExecutorLane.NETWORK, "ItemManager");
+		this.diskExecutor = executorLanes.getExecutor(ExecutorLane.DISK, "ItemManager");
 		this.clientThread = clientThread;
+		this.itemClient = itemClient;
+		this.pricesFile = pricesFile;
 
-		scheduledExecutorService.scheduleWithFixedDelay(this::loadPrices, 0, 30, TimeUnit.MINUTES);
+		// start from the prices saved last session, so prices are available without the network
+		diskExecutor.execute(() ->
+		{
+			loadPriceSnapshot();
+			networkExecutor.scheduleWithFixedDelay(this::refreshPrices, 0, 30, TimeUnit.MINUTES);
+		});
 
 		itemImages = CacheBuilder.newBuilder()
 			.maximumSize(128L)
@@ -195,78 +232,161 @@ public class ItemManager
 			});
 	}
 
-	private void loadPrices()
+	@VisibleForTesting
+	void refreshPrices()
 	{
 		try
 		{
-			ItemPrice[] prices = itemClient.getPrices();
-			if (prices != null)
+			ItemPriceDelta delta = itemClient.getPriceDelta(priceVersion);
+			if (delta != null && applyPriceDelta(delta))
 			{
-				ImmutableMap.Builder<Integer, ItemPrice> map = ImmutableMap.builderWithExpectedSize(prices.length);
-				for (ItemPrice price : prices)
-				{
-					map.put(price.getId(), price);
-				}
-				itemPrices = map.build();
+				ItemPriceDelta snapshot = new ItemPriceDelta();
+				snapshot.setVersion(priceVersion);
+				snapshot.setFull(true);
+				snapshot.setPrices(prices.values().toArray(new ItemPrice[prices.size()]));
+				diskExecutor.execute(() -> savePriceSnapshot(snapshot));
 			}
-
-			log.debug("Loaded {} prices", itemPrices.size());
 		}
-		catch (IOException e)
+		catch (IOException | RuntimeException e)
 		{
+			// anything thrown from here would cancel the periodic refresh
 			log.warn("error loading prices!", e);
 		}
 	}
 
-	@Subscribe
-	public void onGameStateChanged(final GameStateChanged event)
+	private void loadPriceSnapshot()
 	{
-		if (event.getGameState() == GameState.HOPPING || event.getGameState() == GameState.LOGIN_SCREEN)
+		if (!pricesFile.exists())
 		{
-			itemCompositions.invalidateAll();
+			return;
+		}
+
+		try (InputStream in = new BufferedInputStream(new FileInputStream(pricesFile)))
+		{
+			applyPriceDelta(ItemPriceDelta.read(in));
+		}
+		catch (IOException | RuntimeException e)
+		{
+			// a damaged snapshot must not stop the prices from being refreshed
+			log.warn("error loading saved prices", e);
 		}
 	}
 
-	@Subscribe
-	public void onPostItemComposition(PostItemComposition event)
+	private void savePriceSnapshot(ItemPriceDelta snapshot)
 	{
-		itemCompositions.put(event.getItemComposition().getId(), event.getItemComposition());
+		try
+		{
+			File tempFile = File.createTempFile("prices", null, pricesFile.getParentFile());
+
+			try
+			{
+				try (OutputStream out = new BufferedOutputStream(new FileOutputStream(tempFile)))
+				{
+					snapshot.write(out);
+				}
+
+				try
+				{
+					Files.move(tempFile.toPath(), pricesFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+				}
+				catch (AtomicMoveNotSupportedException ex)
+				{
+					Files.move(tempFile.toPath(), pricesFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+				}
+			}
+			finally
+			{
+				tempFile.delete();
+			}
+		}
+		catch (IOException e)
+		{
+			log.warn("error saving prices", e);
+		}
 	}
 
 	/**
-	 * Look up an item's price
+	 * Apply changed and removed prices to the current prices. The published prices are never
+	 * modified, changed prices replace them, and the search index is only rebuilt when items
+	 * are added, renamed or removed.
 	 *
-	 * @param itemID item id
-	 * @return item price
+	 * @return whether any price changed
 	 */
-	public int getItemPrice(int itemID)
+	@VisibleForTesting
+	boolean applyPriceDelta(ItemPriceDelta delta)
 	{
-		if (itemID == ItemID.COINS_995)
+		boolean namesChanged = false;
+
+		if (delta.isFull())
 		{
-			return 1;
+			Set<Integer> ids = new HashSet<>();
+			for (ItemPrice price : delta.getPrices())
+			{
+				ids.add(price.getId());
+			}
+			namesChanged = prices.keySet().retainAll(ids);
 		}
-		if (itemID == ItemID.PLATINUM_TOKEN)
+
+		for (int id : delta.getRemoved())
 		{
-			return 1000;
+			if (prices.remove(id) != null)
+			{
+				namesChanged = true;
+			}
 		}
 
-		UntradeableItemMapping p = UntradeableItemMapping.map(ItemVariationMapping.map(itemID));
-		if (p != null)
+		for (ItemPrice price : delta.getPrices())
 		{
-			return getItemPrice(p.getPriceID()) * p.getQuantity();
+			ItemPrice existing = prices.put(price.getId(), price);
+
+			if (existing == null || !existing.getName().equals(price.getName()))
+			{
+				namesChanged = true;
+			}
 		}
 
-		int price = 0;
-		for (int mappedID : ItemMapping.map(itemID))
+		priceVersion = delta.getVersion();
+
+		boolean changed = delta.getPrices().length > 0 || namesChanged;
+		if (changed)
 		{
-			ItemPrice ip = itemPrices.get(mappedID);
-			if (ip != null)
+			ImmutableMap<Integer, ItemPrice> itemPriceMap = ImmutableMap.copyOf(prices);
+			itemPrices = new ItemPriceTable(itemPriceMap);
+
+			if (namesChanged)
 			{
-				price += ip.getPrice();
+				itemSearchIndex = new ItemSearchIndex(itemPriceMap.values());
 			}
 		}
 
-		return price;
+		log.debug("Applied {} price changes, {} prices at version {}", delta.getPrices().length, prices.size(), priceVersion);
+		return changed;
+	}
+
+	@Subscribe(priority = 100)
+	public void onGameStateChanged(final GameStateChanged event)
+	{
+		if (event.getGameState() == GameState.HOPPING || event.getGameState() == GameState.LOGIN_SCREEN)
+		{
+			itemCompositions.invalidateAll();
+		}
+	}
+
+	@Subscribe(priority = 100)
+	public void onPostItemComposition(PostItemComposition event)
+	{
+		itemCompositions.put(event.getItemComposition().getId(), event.getItemComposition());
+	}
+
+	/**
+	 * Look up an item's price
+	 *
+	 * @param itemID item id
+	 * @return item price
+	 */
+	public int getItemPrice(int itemID)
+	{
+		return itemPrices.getPrice(itemID);
 	}
 
 	/**
@@ -277,17 +397,19 @@ public class ItemManager
 	 */
 	public List<ItemPrice> search(String itemName)
 	{
-		itemName = itemName.toLowerCase();
+		final ItemPriceTable table = itemPrices;
+		final List<ItemPrice> result = itemSearchIndex.search(itemName);
 
-		List<ItemPrice> result = new ArrayList<>();
-		for (ItemPrice itemPrice : itemPrices.values())
+		// the index is not rebuilt for price changes, so give the current price of each item
+		for (int i = 0; i < result.size(); ++i)
 		{
-			final String name = itemPrice.getName();
-			if (name.toLowerCase().contains(itemName))
+			final ItemPrice current = table.getItemPrice(result.get(i).getId());
+			if (current != null)
 			{
-				result.add(itemPrice);
+				result.set(i, current);
 			}
 		}
+
 		return result;
 	}
 
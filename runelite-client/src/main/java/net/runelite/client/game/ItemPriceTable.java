@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2018, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.game;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.Map;
+import net.runelite.api.ItemID;
+import net.runelite.http.api.item.ItemPrice;
+
+/**
+ * An immutable table of item prices. The price of every item id up to the highest priced id,
+ * including the prices of mapped and untradeable items, is computed once when the table is built
+ * so lookups are a single array access.
+ */
+class ItemPriceTable
+{
+	static final ItemPriceTable EMPTY = new ItemPriceTable(ImmutableMap.of());
+
+	private final Map<Integer, ItemPrice> itemPrices;
+	private final int[] prices;
+
+	ItemPriceTable(Map<Integer, ItemPrice> itemPrices)
+	{
+		this.itemPrices = itemPrices;
+
+		int maxId = ItemID.PLATINUM_TOKEN;
+		for (int id : itemPrices.keySet())
+		{
+			maxId = Math.max(maxId, id);
+		}
+
+		prices = new int[maxId + 1];
+		for (int id = 0; id < prices.length; ++id)
+		{
+			prices[id] = computePrice(id);
+		}
+	}
+
+	int size()
+	{
+		return itemPrices.size();
+	}
+
+	/**
+	 * Get the price entry of an item
+	 *
+	 * @param itemID item id
+	 * @return the price entry, or null if the item has none
+	 */
+	ItemPrice getItemPrice(int itemID)
+	{
+		return itemPrices.get(itemID);
+	}
+
+	/**
+	 * Look up an item's price
+	 *
+	 * @param itemID item id
+	 * @return item price
+	 */
+	int getPrice(int itemID)
+	{
+		if (itemID >= 0 && itemID < prices.length)
+		{
+			return prices[itemID];
+		}
+
+		return computePrice(itemID);
+	}
+
+	int computePrice(int itemID)
+	{
+		if (itemID == ItemID.COINS_995)
+		{
+			return 1;
+		}
+		if (itemID == ItemID.PLATINUM_TOKEN)
+		{
+			return 1000;
+		}
+
+		UntradeableItemMapping p = UntradeableItemMapping.map(ItemVariationMapping.map(itemID));
+		if (p != null)
+		{
+			return computePrice(p.getPriceID()) * p.getQuantity();
+		}
+
+		int price = 0;
+		for (int mappedID : ItemMapping.map(itemID))
+		{
+			ItemPrice ip = itemPrices.get(mappedID);
+			if (ip != null)
+			{
+				price += ip.getPrice();
+			}
+		}
+
+		return price;
+	}
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2018, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.game;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import net.runelite.http.api.item.ItemPrice;
+
+/**
+ * An immutable substring index over item names. Every 1, 2 and 3 character substring of each
+ * lower-cased name maps to a sorted posting list of the items containing it. A search only
+ * checks the items in the shortest posting list of the query's substrings.
+ */
+class ItemSearchIndex
+{
+	static final ItemSearchIndex EMPTY = new ItemSearchIndex(Collections.emptyList());
+
+	private static final int GRAM_LENGTH = 3;
+	private static final int[] NO_ITEMS = new int[0];
+
+	private final ItemPrice[] items;
+	private final String[] names;
+	private final Map<String, int[]> postings;
+
+	ItemSearchIndex(Collection<ItemPrice> itemPrices)
+	{
+		items = itemPrices.toArray(new ItemPrice[itemPrices.size()]);
+		names = new String[items.length];
+
+		final Map<String, Posting> grams = new HashMap<>();
+		for (int i = 0; i < items.length; ++i)
+		{
+			final String name = items[i].getName().toLowerCase();
+			names[i] = name;
+
+			for (int start = 0; start < name.length(); ++start)
+			{
+				for (int end = start + 1; end <= Math.min(name.length(), start + GRAM_LENGTH); ++end)
+				{
+					grams.computeIfAbsent(name.substring(start, end), k -> new Posting()).add(i);
+				}
+			}
+		}
+
+		postings = new HashMap<>(grams.size());
+		for (Map.Entry<String, Posting> entry : grams.entrySet())
+		{
+			final Posting posting = entry.getValue();
+			postings.put(entry.getKey(), Arrays.copyOf(posting.items, posting.size));
+		}
+	}
+
+	/**
+	 * Search for items with names containing the given string, ignoring case
+	 *
+	 * @param itemName item name
+	 * @return matching items, in the order they were indexed
+	 */
+	List<ItemPrice> search(String itemName)
+	{
+		itemName = itemName.toLowerCase();
+
+		final List<ItemPrice> result = new ArrayList<>();
+
+		if (itemName.isEmpty())
+		{
+			Collections.addAll(result, items);
+			return result;
+		}
+
+		if (itemName.length() <= GRAM_LENGTH)
+		{
+			for (int i : postings.getOrDefault(itemName, NO_ITEMS))
+			{
+				result.add(items[i]);
+			}
+			return result;
+		}
+
+		int[] candidates = null;
+		for (int start = 0; start + GRAM_LENGTH <= itemName.length(); ++start)
+		{
+			final int[] posting = postings.getOrDefault(itemName.substring(start, start + GRAM_LENGTH), NO_ITEMS);
+			if (candidates == null || posting.length < candidates.length)
+			{
+				candidates = posting;
+			}
+		}
+
+		for (int i : candidates)
+		{
+			if (names[i].contains(itemName))
+			{
+				result.add(items[i]);
+			}
+		}
+		return result;
+	}
+
+	private static class Posting
+	{
+		private int[] items = new int[4];
+		private int size;
+
+		void add(int item)
+		{
+			// items are indexed in order, so a repeated substring is always at the end
+			if (size > 0 && items[size - 1] == item)
+			{
+				return;
+			}
+
+			if (size == items.length)
+			{
+				items = Arrays.copyOf(items, size * 2);
+			}
+
+			items[size++] = item;
+		}
+	}
+}
@@ -33,22 +33,38 @@ import com.google.common.graph.Graphs;
 import com.google.common.graph.MutableGraph;
 import com.google.common.reflect.ClassPath;
 import com.google.common.reflect.ClassPath.ClassInfo;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.Binder;
 import com.google.inject.CreationException;
 import com.google.inject.Injector;
 import com.google.inject.Key;
 import com.google.inject.Module;
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -81,6 +97,11 @@ public class PluginManager
 	 */
 	private static final String PLUGIN_PACKAGE = "net.runelite.client.plugins";
 
+	/**
+	 * Index of the core plugins, written by the plugin annotation processor
+	 */
+	private static final String PLUGIN_INDEX = "META-INF/runelite-plugins";
+
 	private final boolean developerMode;
 	private final EventBus eventBus;
 	private final Scheduler scheduler;
@@ -89,6 +110,8 @@ public class PluginManager
 	private final Provider<GameEventManager> sceneTileManager;
 	private final List<Plugin> plugins = new CopyOnWriteArrayList<>();
 	private final List<Plugin> activePlugins = new CopyOnWriteArrayList<>();
+	private final Map<Class<? extends Plugin>, Long> instantiateTimes = new ConcurrentHashMap<>();
+	private final Map<Class<? extends Plugin>, Long> startTimes = new ConcurrentHashMap<>();
 	private final String runeliteGroupName = RuneLiteConfig.class
 			.getAnnotation(ConfigGroup.class).value();
 
@@ -194,33 +217,225 @@ public class PluginManager
 
 	public void loadCorePlugins() throws IOException
 	{
-		plugins.addAll(scanAndInstantiate(getClass().getClassLoader(), PLUGIN_PACKAGE));
+		final long start = System.nanoTime();
+		final ClassLoader classLoader = getClass().getClassLoader();
+
+		// developer builds are often incremental builds from an IDE, which may not run the
+		// annotation processor, so their index can be missing plugins
+		MutableGraph<Class<? extends Plugin>> graph = developerMode ? null : readPluginIndex(classLoader);
+		if (graph == null)
+		{
+			log.debug("No plugin index used, scanning for plugins");
+			graph = scanPlugins(classLoader, PLUGIN_PACKAGE);
+		}
+
+		plugins.addAll(instantiatePlugins(graph));
+		log.info("Loaded {} plugins in {}ms", plugins.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
 	}
 
-	public void startCorePlugins()
+	public synchronized void startCorePlugins()
 	{
-		List<Plugin> scannedPlugins = new ArrayList<>(plugins);
-		for (Plugin plugin : scannedPlugins)
+		final long start = System.nanoTime();
+		final List<Plugin> toStart = new ArrayList<>();
+
+		for (Plugin plugin : plugins)
 		{
-			try
+			if (!activePlugins.contains(plugin) && isPluginEnabled(plugin))
 			{
-				startPlugin(plugin);
+				toStart.add(plugin);
 			}
-			catch (PluginInstantiationException ex)
+		}
+
+		final AtomicInteger started = new AtomicInteger();
+
+		try
+		{
+			// start all of the plugins in a single trip to the event thread
+			SwingUtilities.invokeAndWait(() ->
 			{
-				log.warn("Unable to start plugin {}. {}", plugin.getClass().getSimpleName(), ex);
-				plugins.remove(plugin);
+				for (Plugin plugin : toStart)
+				{
+					if (startCorePlugin(plugin))
+					{
+						started.incrementAndGet();
+					}
+				}
+			});
+		}
+		catch (InterruptedException | InvocationTargetException ex)
+		{
+			log.warn("Unable to start plugins", ex);
+			return;
+		}
+
+		log.info("Started {} plugins in {}ms", started.get(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+		if (log.isDebugEnabled())
+		{
+			for (PluginTiming timing : getStartupTimings())
+			{
+				log.debug("{} instantiated in {}ms, started in {}ms", timing.getName(),
+					TimeUnit.NANOSECONDS.toMillis(timing.getInstantiateTime()), TimeUnit.NANOSECONDS.toMillis(timing.getStartTime()));
 			}
 		}
 	}
 
-	List<Plugin> scanAndInstantiate(ClassLoader classLoader, String packageName) throws IOException
+	/**
+	 * Start up a core plugin and register it as soon as it is up, as
+	 * {@link #startPlugin(Plugin)} does. A plugin which fails to start,
+	 * including with an {@link Error}, is removed without affecting the
+	 * plugins started after it. Must be called on the event thread.
+	 *
+	 * @param plugin the plugin to start
+	 * @return whether the plugin started
+	 */
+	private boolean startCorePlugin(Plugin plugin)
+	{
+		final long start = System.nanoTime();
+		activePlugins.add(plugin);
+
+		try
+		{
+			plugin.startUp();
+			startTimes.put(plugin.getClass(), System.nanoTime() - start);
+			pluginStarted(plugin);
+			return true;
+		}
+		catch (Throwable ex)
+		{
+			log.warn("Unable to start plugin {}. {}", plugin.getClass().getSimpleName(), ex);
+			activePlugins.remove(plugin);
+			plugins.remove(plugin);
+			return false;
+		}
+	}
+
+	/**
+	 * Get how long each loaded plugin took to instantiate and to start up
+	 *
+	 * @return timings, slowest plugin first
+	 */
+	public List<PluginTiming> getStartupTimings()
+	{
+		final List<PluginTiming> timings = new ArrayList<>();
+
+		for (Plugin plugin : plugins)
+		{
+			final Class<? extends Plugin> clazz = plugin.getClass();
+			timings.add(new PluginTiming(clazz.getSimpleName(),
+				instantiateTimes.getOrDefault(clazz, 0L),
+				startTimes.getOrDefault(clazz, 0L)));
+		}
+
+		timings.sort(Comparator.comparingLong((PluginTiming t) -> t.getInstantiateTime() + t.getStartTime()).reversed());
+		return timings;
+	}
+
+	/**
+	 * Read the plugin index written by the plugin annotation processor at build time
+	 *
+	 * @param classLoader class loader to load the index and plugins from
+	 * @return plugin dependency graph, or null if there is no index
+	 */
+	MutableGraph<Class<? extends Plugin>> readPluginIndex(ClassLoader classLoader) throws IOException
+	{
+		final List<URL> indexes = Collections.list(classLoader.getResources(PLUGIN_INDEX));
+
+		if (indexes.isEmpty())
+		{
+			return null;
+		}
+
+		final MutableGraph<Class<? extends Plugin>> graph = GraphBuilder
+			.directed()
+			.build();
+		final Map<Class<? extends Plugin>, String> dependencies = new HashMap<>();
+
+		for (URL index : indexes)
+		{
+			try (BufferedReader in = new BufferedReader(new InputStreamReader(index.openStream(), StandardCharsets.UTF_8)))
+			{
+				String line;
+				while ((line = in.readLine()) != null)
+				{
+					// class, developer plugin, load when outdated, dependencies
+					final String[] fields = line.split("\t", -1);
+
+					if (fields.length != 4)
+					{
+						log.warn("Malformed plugin index entry: {}", line);
+						continue;
+					}
+
+					// the index of every jar on the classpath is read, only load core plugins from them
+					if (!fields[0].startsWith(PLUGIN_PACKAGE + "."))
+					{
+						log.debug("Ignoring plugin {} outside of the core plugin package", fields[0]);
+						continue;
+					}
+
+					if (!Boolean.parseBoolean(fields[2]) && isOutdated)
+					{
+						continue;
+					}
+
+					if (Boolean.parseBoolean(fields[1]) && !developerMode)
+					{
+						continue;
+					}
+
+					final Class<? extends Plugin> pluginClass = loadPluginClass(classLoader, fields[0]);
+
+					if (pluginClass != null)
+					{
+						graph.addNode(pluginClass);
+						dependencies.put(pluginClass, fields[3]);
+					}
+				}
+			}
+		}
+
+		for (Map.Entry<Class<? extends Plugin>, String> entry : dependencies.entrySet())
+		{
+			if (entry.getValue().isEmpty())
+			{
+				continue;
+			}
+
+			for (String dependency : entry.getValue().split(","))
+			{
+				final Class<? extends Plugin> dependencyClass = loadPluginClass(classLoader, dependency);
+
+				if (dependencyClass != null)
+				{
+					graph.putEdge(entry.getKey(), dependencyClass);
+				}
+			}
+		}
+
+		return graph;
+	}
+
+	private static Class<? extends Plugin> loadPluginClass(ClassLoader classLoader, String name)
+	{
+		try
+		{
+			// plugins are initialized as they are instantiated
+			return Class.forName(name, false, classLoader).asSubclass(Plugin.class);
+		}
+		catch (ClassNotFoundException | ClassCastException ex)
+		{
+			log.warn("Plugin index contains unknown plugin {}", name, ex);
+			return null;
+		}
+	}
+
+	MutableGraph<Class<? extends Plugin>> scanPlugins(ClassLoader classLoader, String packageName) throws IOException
 	{
 		MutableGraph<Class<? extends Plugin>> graph = GraphBuilder
 			.directed()
 			.build();
 
-		List<Plugin> scannedPlugins = new ArrayList<>();
 		ClassPath classPath = ClassPath.from(classLoader);
 
 		ImmutableSet<ClassInfo> classes = packageName == null ? classPath.getAllClasses()
@@ -262,7 +477,7 @@ public class PluginManager
 		}
 
 		// Build plugin graph
-		for (Class<? extends Plugin> pluginClazz : graph.nodes())
+		for (Class<? extends Plugin> pluginClazz : ImmutableSet.copyOf(graph.nodes()))
 		{
 			PluginDependency[] pluginDependencies = pluginClazz.getAnnotationsByType(PluginDependency.class);
 
@@ -272,6 +487,18 @@ public class PluginManager
 			}
 		}
 
+		return graph;
+	}
+
+	/**
+	 * Instantiate the plugins of a dependency graph. A plugin is instantiated as soon as all of its
+	 * dependencies have been, so independent plugins are instantiated in parallel.
+	 *
+	 * @param graph plugin dependency graph, with edges from plugins to their dependencies
+	 * @return the plugins which could be instantiated, dependencies first
+	 */
+	List<Plugin> instantiatePlugins(Graph<Class<? extends Plugin>> graph)
+	{
 		if (Graphs.hasCycle(graph))
 		{
 			throw new RuntimeException("Plugin dependency graph contains a cycle!");
@@ -280,23 +507,65 @@ public class PluginManager
 		List<Class<? extends Plugin>> sortedPlugins = topologicalSort(graph);
 		sortedPlugins = Lists.reverse(sortedPlugins);
 
-		for (Class<? extends Plugin> pluginClazz : sortedPlugins)
+		final ExecutorService pool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(),
+			new ThreadFactoryBuilder().setNameFormat("plugin-loader-%d").setDaemon(true).build());
+		final Map<Class<? extends Plugin>, CompletableFuture<Plugin>> futures = new HashMap<>();
+
+		try
 		{
-			Plugin plugin;
-			try
+			// dependencies are sorted first, so their futures already exist
+			for (Class<? extends Plugin> pluginClazz : sortedPlugins)
 			{
-				plugin = instantiate(scannedPlugins, (Class<Plugin>) pluginClazz);
+				final List<CompletableFuture<Plugin>> dependencies = graph.successors(pluginClazz).stream()
+					.map(futures::get)
+					.collect(Collectors.toList());
+
+				final CompletableFuture<Plugin> future = CompletableFuture.allOf(dependencies.toArray(new CompletableFuture[dependencies.size()]))
+					.thenApplyAsync(v ->
+					{
+						final List<Plugin> loaded = dependencies.stream()
+							.map(CompletableFuture::join)
+							.filter(Objects::nonNull)
+							.collect(Collectors.toList());
+
+						final long start = System.nanoTime();
+
+						try
+						{
+							return instantiate(loaded, (Class<Plugin>) pluginClazz);
+						}
+						catch (PluginInstantiationException ex)
+						{
+							log.warn("Error instantiating plugin!", ex);
+							return null;
+						}
+						finally
+						{
+							instantiateTimes.put(pluginClazz, System.nanoTime() - start);
+						}
+					}, pool);
+
+				futures.put(pluginClazz, future);
 			}
-			catch (PluginInstantiationException ex)
+
+			final List<Plugin> scannedPlugins = new ArrayList<>();
+
+			for (Class<? extends Plugin> pluginClazz : sortedPlugins)
 			{
-				log.warn("Error instantiating plugin!", ex);
-				continue;
+				final Plugin plugin = futures.get(pluginClazz).join();
+
+				if (plugin != null)
+				{
+					scannedPlugins.add(plugin);
+				}
 			}
 
-			scannedPlugins.add(plugin);
+			return scannedPlugins;
+		}
+		finally
+		{
+			pool.shutdown();
 		}
-
-		return scannedPlugins;
 	}
 
 	public synchronized boolean startPlugin(Plugin plugin) throws PluginInstantiationException
@@ -313,6 +582,8 @@ public class PluginManager
 			// plugins always start in the event thread
 			SwingUtilities.invokeAndWait(() ->
 			{
+				final long start = System.nanoTime();
+
 				try
 				{
 					plugin.startUp();
@@ -321,21 +592,11 @@ public class PluginManager
 				{
 					throw new RuntimeException(ex);
 				}
-			});
 
-			log.debug("Plugin {} is now running", plugin.getClass().getSimpleName());
-			if (!isOutdated && sceneTileManager != null)
-			{
-				final GameEventManager gameEventManager = this.sceneTileManager.get();
-				if (gameEventManager != null)
-				{
-					gameEventManager.simulateGameEvents(plugin);
-				}
-			}
+				startTimes.put(plugin.getClass(), System.nanoTime() - start);
+			});
 
-			eventBus.register(plugin);
-			schedule(plugin);
-			eventBus.post(new PluginChanged(plugin, true));
+			pluginStarted(plugin);
 		}
 		catch (InterruptedException | InvocationTargetException | IllegalArgumentException ex)
 		{
@@ -345,6 +606,23 @@ public class PluginManager
 		return true;
 	}
 
+	private void pluginStarted(Plugin plugin)
+	{
+		log.debug("Plugin {} is now running", plugin.getClass().getSimpleName());
+		if (!isOutdated && sceneTileManager != null)
+		{
+			final GameEventManager gameEventManager = this.sceneTileManager.get();
+			if (gameEventManager != null)
+			{
+				gameEventManager.simulateGameEvents(plugin);
+			}
+		}
+
+		eventBus.register(plugin);
+		schedule(plugin);
+		eventBus.post(new PluginChanged(plugin, true));
+	}
+
 	public synchronized boolean stopPlugin(Plugin plugin) throws PluginInstantiationException
 	{
 		if (!activePlugins.contains(plugin) || isPluginEnabled(plugin))
@@ -28,6 +28,9 @@ package net.runelite.client.plugins.barbarianassault;
 import com.google.inject.Provides;
 import java.awt.Font;
 import java.awt.Image;
+import java.util.EnumSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import javax.inject.Inject;
 import net.runelite.api.ChatMessageType;
 import net.runelite.api.Client;
@@ -41,6 +44,7 @@ import net.runelite.api.kit.KitType;
 import net.runelite.api.widgets.Widget;
 import net.runelite.api.widgets.WidgetID;
 import net.runelite.api.widgets.WidgetInfo;
+import net.runelite.client.chat.ChatClassifier;
 import net.runelite.client.chat.ChatColorType;
 import net.runelite.client.chat.ChatMessageBuilder;
 import net.runelite.client.chat.ChatMessageManager;
@@ -60,8 +64,8 @@ import net.runelite.client.util.ImageUtil;
 )
 public class BarbarianAssaultPlugin extends Plugin
 {
-	private static final int BA_WAVE_NUM_INDEX = 2;
 	private static final String START_WAVE = "1";
+	private static final Pattern WAVE_MESSAGE = Pattern.compile("---- Wave: ([^ ]+)");
 	private static final String ENDGAME_REWARD_NEEDLE_TEXT = "<br>5";
 
 	private Font font;
@@ -85,6 +89,9 @@ public class BarbarianAssaultPlugin extends Plugin
 	@Inject
 	private BarbarianAssaultOverlay overlay;
 
+	@Inject
+	private ChatClassifier chatClassifier;
+
 	@Provides
 	BarbarianAssaultConfig provideConfig(ConfigManager configManager)
 	{
@@ -99,11 +106,13 @@ public class BarbarianAssaultPlugin extends Plugin
 			.deriveFont(Font.BOLD, 24);
 
 		clockImage = ImageUtil.getResourceStreamFromClass(getClass(), "clock.png");
+		chatClassifier.register(this, WAVE_MESSAGE, EnumSet.of(ChatMessageType.SERVER), this::onWaveStart);
 	}
 
 	@Override
 	protected void shutDown() throws Exception
 	{
+		chatClassifier.unregister(this);
 		overlayManager.remove(overlay);
 		gameTime = null;
 		currentWave = START_WAVE;
@@ -124,23 +133,17 @@ public class BarbarianAssaultPlugin extends Plugin
 		}
 	}
 
-	@Subscribe
-	public void onChatMessage(ChatMessage event)
+	private void onWaveStart(ChatMessage event, Matcher matcher)
 	{
-		if (event.getType() == ChatMessageType.SERVER
-			&& event.getMessage().startsWith("---- Wave:"))
-		{
-			String[] message = event.getMessage().split(" ");
-			currentWave = message[BA_WAVE_NUM_INDEX];
+		currentWave = matcher.group(1);
 
-			if (currentWave.equals(START_WAVE))
-			{
-				gameTime = new GameTimer();
-			}
-			else if (gameTime != null)
-			{
-				gameTime.setWaveStartTime();
-			}
+		if (currentWave.equals(START_WAVE))
+		{
+			gameTime = new GameTimer();
+		}
+		else if (gameTime != null)
+		{
+			gameTime.setWaveStartTime();
 		}
 	}
 
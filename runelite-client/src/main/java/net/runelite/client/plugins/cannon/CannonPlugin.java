@@ -28,7 +28,9 @@ import com.google.inject.Provides;
 import java.awt.Color;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import javax.inject.Inject;
@@ -54,6 +56,7 @@ import net.runelite.api.events.ItemContainerChanged;
 import net.runelite.api.events.ProjectileMoved;
 import net.runelite.client.Notifier;
 import net.runelite.client.callback.ClientThread;
+import net.runelite.client.chat.ChatClassifier;
 import net.runelite.client.config.ConfigManager;
 import net.runelite.client.eventbus.Subscribe;
 import net.runelite.client.game.ItemManager;
@@ -72,6 +75,12 @@ public class CannonPlugin extends Plugin
 {
 	private static final Pattern NUMBER_PATTERN = Pattern.compile("([0-9]+)");
 	private static final int MAX_CBALLS = 30;
+	private static final Set<ChatMessageType> GAME_MESSAGE_TYPES = EnumSet.of(ChatMessageType.SERVER, ChatMessageType.FILTERED);
+	private static final Pattern FURNACE_ADDED_MESSAGE = Pattern.compile(ChatClassifier.quote("You add the furnace.") + "$");
+	private static final Pattern CANNON_PICKED_UP_MESSAGE = Pattern.compile(".*You pick up the cannon");
+	private static final Pattern CANNON_LOADED_MESSAGE = Pattern.compile("You load the cannon with (.*)");
+	private static final Pattern OUT_OF_AMMO_MESSAGE = Pattern.compile(".*Your cannon is out of ammo!");
+	private static final Pattern CANNON_UNLOADED_MESSAGE = Pattern.compile("You unload your cannon and receive (Cannonball|Granite cannonball)");
 
 	private CannonCounter counter;
 	private boolean skipProjectileCheckThisTick;
@@ -118,6 +127,9 @@ public class CannonPlugin extends Plugin
 	@Inject
 	private ClientThread clientThread;
 
+	@Inject
+	private ChatClassifier chatClassifier;
+
 	@Provides
 	CannonConfig provideConfig(ConfigManager configManager)
 	{
@@ -129,11 +141,17 @@ public class CannonPlugin extends Plugin
 	{
 		overlayManager.add(cannonOverlay);
 		overlayManager.add(cannonSpotOverlay);
+		chatClassifier.register(this, FURNACE_ADDED_MESSAGE, GAME_MESSAGE_TYPES, this::onFurnaceAdded);
+		chatClassifier.register(this, CANNON_PICKED_UP_MESSAGE, GAME_MESSAGE_TYPES, this::onCannonPickedUp);
+		chatClassifier.register(this, CANNON_LOADED_MESSAGE, GAME_MESSAGE_TYPES, this::onCannonLoaded);
+		chatClassifier.register(this, OUT_OF_AMMO_MESSAGE, GAME_MESSAGE_TYPES, this::onCannonOutOfAmmo);
+		chatClassifier.register(this, CANNON_UNLOADED_MESSAGE, GAME_MESSAGE_TYPES, this::onCannonUnloaded);
 	}
 
 	@Override
 	protected void shutDown() throws Exception
 	{
+		chatClassifier.unregister(this);
 		cannonSpotOverlay.setHidden(true);
 		overlayManager.remove(cannonOverlay);
 		overlayManager.remove(cannonSpotOverlay);
@@ -280,87 +298,77 @@ public class CannonPlugin extends Plugin
 		}
 	}
 
-	@Subscribe
-	public void onChatMessage(ChatMessage event)
+	private void onFurnaceAdded(ChatMessage event, Matcher matcher)
 	{
-		if (event.getType() != ChatMessageType.FILTERED && event.getType() != ChatMessageType.SERVER)
-		{
-			return;
-		}
+		cannonPlaced = true;
+		addCounter();
+		cballsLeft = 0;
+	}
 
-		if (event.getMessage().equals("You add the furnace."))
-		{
-			cannonPlaced = true;
-			addCounter();
-			cballsLeft = 0;
-		}
+	private void onCannonPickedUp(ChatMessage event, Matcher matcher)
+	{
+		cannonPlaced = false;
+		cballsLeft = 0;
+		removeCounter();
+	}
 
-		if (event.getMessage().contains("You pick up the cannon"))
+	private void onCannonLoaded(ChatMessage event, Matcher matcher)
+	{
+		Matcher m = NUMBER_PATTERN.matcher(matcher.group(1));
+		if (m.find())
 		{
-			cannonPlaced = false;
-			cballsLeft = 0;
-			removeCounter();
+			// The cannon will usually refill to MAX_CBALLS, but if the
+			// player didn't have enough cannonballs in their inventory,
+			// it could fill up less than that. Filling the cannon to
+			// cballsLeft + amt is not always accurate though because our
+			// counter doesn't decrease if the player has been too far away
+			// from the cannon due to the projectiels not being in memory,
+			// so our counter can be higher than it is supposed to be.
+			int amt = Integer.valueOf(m.group());
+			if (cballsLeft + amt >= MAX_CBALLS)
+			{
+				skipProjectileCheckThisTick = true;
+				cballsLeft = MAX_CBALLS;
+			}
+			else
+			{
+				cballsLeft += amt;
+			}
 		}
-
-		if (event.getMessage().startsWith("You load the cannon with"))
+		else if (matcher.group(1).equals("one cannonball."))
 		{
-			Matcher m = NUMBER_PATTERN.matcher(event.getMessage());
-			if (m.find())
+			if (cballsLeft + 1 >= MAX_CBALLS)
 			{
-				// The cannon will usually refill to MAX_CBALLS, but if the
-				// player didn't have enough cannonballs in their inventory,
-				// it could fill up less than that. Filling the cannon to
-				// cballsLeft + amt is not always accurate though because our
-				// counter doesn't decrease if the player has been too far away
-				// from the cannon due to the projectiels not being in memory,
-				// so our counter can be higher than it is supposed to be.
-				int amt = Integer.valueOf(m.group());
-				if (cballsLeft + amt >= MAX_CBALLS)
-				{
-					skipProjectileCheckThisTick = true;
-					cballsLeft = MAX_CBALLS;
-				}
-				else
-				{
-					cballsLeft += amt;
-				}
+				skipProjectileCheckThisTick = true;
+				cballsLeft = MAX_CBALLS;
 			}
-			else if (event.getMessage().equals("You load the cannon with one cannonball."))
+			else
 			{
-				if (cballsLeft + 1 >= MAX_CBALLS)
-				{
-					skipProjectileCheckThisTick = true;
-					cballsLeft = MAX_CBALLS;
-				}
-				else
-				{
-					cballsLeft++;
-				}
+				cballsLeft++;
 			}
 		}
+	}
 
-		if (event.getMessage().contains("Your cannon is out of ammo!"))
-		{
-			skipProjectileCheckThisTick = true;
+	private void onCannonOutOfAmmo(ChatMessage event, Matcher matcher)
+	{
+		skipProjectileCheckThisTick = true;
 
-			// If the player was out of range of the cannon, some cannonballs
-			// may have been used without the client knowing, so having this
-			// extra check is a good idea.
-			cballsLeft = 0;
+		// If the player was out of range of the cannon, some cannonballs
+		// may have been used without the client knowing, so having this
+		// extra check is a good idea.
+		cballsLeft = 0;
 
-			if (config.showEmptyCannonNotification())
-			{
-				notifier.notify("Your cannon is out of ammo!");
-			}
+		if (config.showEmptyCannonNotification())
+		{
+			notifier.notify("Your cannon is out of ammo!");
 		}
+	}
 
-		if (event.getMessage().startsWith("You unload your cannon and receive Cannonball")
-			|| event.getMessage().startsWith("You unload your cannon and receive Granite cannonball"))
-		{
-			skipProjectileCheckThisTick = true;
+	private void onCannonUnloaded(ChatMessage event, Matcher matcher)
+	{
+		skipProjectileCheckThisTick = true;
 
-			cballsLeft = 0;
-		}
+		cballsLeft = 0;
 	}
 
 	@Subscribe
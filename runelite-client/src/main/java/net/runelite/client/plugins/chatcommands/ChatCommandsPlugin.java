@@ -27,11 +27,13 @@ package net.runelite.client.plugins.chatcommands;
 
 import com.google.inject.Provides;
 import java.io.IOException;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import javax.inject.Inject;
+import javax.inject.Named;
 import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.ChatMessageType;
@@ -41,7 +43,6 @@ import net.runelite.api.GameState;
 import net.runelite.api.IconID;
 import net.runelite.api.ItemComposition;
 import net.runelite.api.MessageNode;
-import net.runelite.api.events.ChatMessage;
 import net.runelite.api.events.GameTick;
 import net.runelite.api.events.SetMessage;
 import net.runelite.api.events.WidgetLoaded;
@@ -49,6 +50,7 @@ import net.runelite.api.vars.AccountType;
 import net.runelite.api.widgets.Widget;
 import static net.runelite.api.widgets.WidgetID.KILL_LOGS_GROUP_ID;
 import net.runelite.api.widgets.WidgetInfo;
+import net.runelite.client.chat.ChatClassifier;
 import net.runelite.client.chat.ChatColorType;
 import net.runelite.client.chat.ChatMessageBuilder;
 import net.runelite.client.chat.ChatMessageManager;
@@ -81,10 +83,11 @@ import net.runelite.http.api.kc.KillCountClient;
 public class ChatCommandsPlugin extends Plugin implements ChatboxInputListener
 {
 	private static final float HIGH_ALCHEMY_CONSTANT = 0.6f;
-	private static final Pattern KILLCOUNT_PATTERN = Pattern.compile("Your (.+) kill count is: <col=ff0000>(\\d+)</col>.");
-	private static final Pattern RAIDS_PATTERN = Pattern.compile("Your completed (.+) count is: <col=ff0000>(\\d+)</col>.");
-	private static final Pattern WINTERTODT_PATTERN = Pattern.compile("Your subdued Wintertodt count is: <col=ff0000>(\\d+)</col>.");
-	private static final Pattern BARROWS_PATTERN = Pattern.compile("Your Barrows chest count is: <col=ff0000>(\\d+)</col>.");
+	private static final Set<ChatMessageType> KILLCOUNT_MESSAGE_TYPES = EnumSet.of(ChatMessageType.SERVER, ChatMessageType.FILTERED);
+	private static final Pattern KILLCOUNT_PATTERN = Pattern.compile("Your (.+) kill count is: (\\d+)\\.");
+	private static final Pattern RAIDS_PATTERN = Pattern.compile("Your completed (.+) count is: (\\d+)\\.");
+	private static final Pattern WINTERTODT_PATTERN = Pattern.compile("Your subdued Wintertodt count is: (\\d+)\\.");
+	private static final Pattern BARROWS_PATTERN = Pattern.compile("Your Barrows chest count is: (\\d+)\\.");
 	private static final String TOTAL_LEVEL_COMMAND_STRING = "!total";
 	private static final String PRICE_COMMAND_STRING = "!price";
 	private static final String LEVEL_COMMAND_STRING = "!lvl";
@@ -113,6 +116,7 @@ public class ChatCommandsPlugin extends Plugin implements ChatboxInputListener
 	private ChatMessageManager chatMessageManager;
 
 	@Inject
+	@Named("Network Executor")
 	private ScheduledExecutorService executor;
 
 	@Inject
@@ -124,11 +128,22 @@ public class ChatCommandsPlugin extends Plugin implements ChatboxInputListener
 	@Inject
 	private CommandManager commandManager;
 
+	@Inject
+	private ChatClassifier chatClassifier;
+
 	@Override
 	public void startUp()
 	{
 		keyManager.registerKeyListener(chatKeyboardListener);
 		commandManager.register(this);
+		chatClassifier.register(this, KILLCOUNT_PATTERN, KILLCOUNT_MESSAGE_TYPES, (chatMessage, matcher) ->
+			setKc(matcher.group(1), Integer.parseInt(matcher.group(2))));
+		chatClassifier.register(this, WINTERTODT_PATTERN, KILLCOUNT_MESSAGE_TYPES, (chatMessage, matcher) ->
+			setKc("Wintertodt", Integer.parseInt(matcher.group(1))));
+		chatClassifier.register(this, RAIDS_PATTERN, KILLCOUNT_MESSAGE_TYPES, (chatMessage, matcher) ->
+			setKc(matcher.group(1), Integer.parseInt(matcher.group(2))));
+		chatClassifier.register(this, BARROWS_PATTERN, KILLCOUNT_MESSAGE_TYPES, (chatMessage, matcher) ->
+			setKc("Barrows Chests", Integer.parseInt(matcher.group(1))));
 	}
 
 	@Override
@@ -136,6 +151,7 @@ public class ChatCommandsPlugin extends Plugin implements ChatboxInputListener
 	{
 		keyManager.unregisterKeyListener(chatKeyboardListener);
 		commandManager.unregister(this);
+		chatClassifier.unregister(this);
 	}
 
 	@Provides
@@ -235,50 +251,6 @@ public class ChatCommandsPlugin extends Plugin implements ChatboxInputListener
 		}
 	}
 
-	@Subscribe
-	public void onChatMessage(ChatMessage chatMessage)
-	{
-		if (chatMessage.getType() != ChatMessageType.SERVER && chatMessage.getType() != ChatMessageType.FILTERED)
-		{
-			return;
-		}
-
-		String message = chatMessage.getMessage();
-		Matcher matcher = KILLCOUNT_PATTERN.matcher(message);
-		if (matcher.find())
-		{
-			String boss = matcher.group(1);
-			int kc = Integer.parseInt(matcher.group(2));
-
-			setKc(boss, kc);
-		}
-
-		matcher = WINTERTODT_PATTERN.matcher(message);
-		if (matcher.find())
-		{
-			int kc = Integer.parseInt(matcher.group(1));
-
-			setKc("Wintertodt", kc);
-		}
-
-		matcher = RAIDS_PATTERN.matcher(message);
-		if (matcher.find())
-		{
-			String boss = matcher.group(1);
-			int kc = Integer.parseInt(matcher.group(2));
-
-			setKc(boss, kc);
-		}
-
-		matcher = BARROWS_PATTERN.matcher(message);
-		if (matcher.find())
-		{
-			int kc = Integer.parseInt(matcher.group(1));
-
-			setKc("Barrows Chests", kc);
-		}
-	}
-
 	@Subscribe
 	public void onGameTick(GameTick event)
 	{
@@ -26,14 +26,19 @@
  */
 package net.runelite.client.plugins.cluescrolls;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.inject.Binder;
 import com.google.inject.Provides;
 import java.awt.image.BufferedImage;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Stream;
 import javax.inject.Inject;
 import lombok.Getter;
@@ -63,6 +68,7 @@ import net.runelite.api.events.NpcDespawned;
 import net.runelite.api.events.NpcSpawned;
 import net.runelite.api.widgets.Widget;
 import net.runelite.api.widgets.WidgetInfo;
+import net.runelite.client.chat.ChatClassifier;
 import net.runelite.client.config.ConfigManager;
 import net.runelite.client.eventbus.Subscribe;
 import net.runelite.client.game.ItemManager;
@@ -97,6 +103,10 @@ import net.runelite.client.util.Text;
 public class ClueScrollPlugin extends Plugin
 {
 	private static final Duration WAIT_DURATION = Duration.ofMinutes(4);
+	private static final Set<ChatMessageType> GAME_MESSAGE_TYPES = EnumSet.of(ChatMessageType.SERVER, ChatMessageType.FILTERED);
+	private static final Pattern STRANGE_DEVICE_MESSAGE = Pattern.compile("The device is .*");
+	private static final Pattern TREASURE_DEVICE_MESSAGE = Pattern.compile("The strange device cools as you find your treasure\\.$");
+	private static final Pattern TREASURE_TRAIL_MESSAGE = Pattern.compile("Well done, you've completed the Treasure Trail!$");
 
 	@Getter
 	private ClueScroll clue;
@@ -138,6 +148,9 @@ public class ClueScrollPlugin extends Plugin
 	@Inject
 	private WorldMapPointManager worldMapPointManager;
 
+	@Inject
+	private ChatClassifier chatClassifier;
+
 	private BufferedImage emoteImage;
 	private BufferedImage mapArrow;
 	private Integer clueItemId;
@@ -161,6 +174,9 @@ public class ClueScrollPlugin extends Plugin
 		overlayManager.add(clueScrollOverlay);
 		overlayManager.add(clueScrollEmoteOverlay);
 		overlayManager.add(clueScrollWorldOverlay);
+		chatClassifier.register(this, STRANGE_DEVICE_MESSAGE, GAME_MESSAGE_TYPES, this::onStrangeDevice);
+		chatClassifier.register(this, TREASURE_DEVICE_MESSAGE, GAME_MESSAGE_TYPES, this::onTreasureFound);
+		chatClassifier.register(this, TREASURE_TRAIL_MESSAGE, GAME_MESSAGE_TYPES, this::onTreasureFound);
 	}
 
 	@Override
@@ -169,34 +185,26 @@ public class ClueScrollPlugin extends Plugin
 		overlayManager.remove(clueScrollOverlay);
 		overlayManager.remove(clueScrollEmoteOverlay);
 		overlayManager.remove(clueScrollWorldOverlay);
+		chatClassifier.unregister(this);
 		npcsToMark.clear();
 		inventoryItems = null;
 		equippedItems = null;
 		resetClue(true);
 	}
 
-	@Subscribe
-	public void onChatMessage(ChatMessage event)
+	private void onStrangeDevice(ChatMessage event, Matcher matcher)
 	{
-		if (event.getType() != ChatMessageType.SERVER && event.getType() != ChatMessageType.FILTERED)
-		{
-			return;
-		}
-
 		if (clue instanceof HotColdClue)
 		{
-			if (((HotColdClue) clue).update(event.getMessage(), this))
+			if (((HotColdClue) clue).update(matcher.group(), this))
 			{
 				worldMapPointsSet = false;
 			}
 		}
+	}
 
-		if (!event.getMessage().equals("The strange device cools as you find your treasure.")
-			&& !event.getMessage().equals("Well done, you've completed the Treasure Trail!"))
-		{
-			return;
-		}
-
+	private void onTreasureFound(ChatMessage event, Matcher matcher)
+	{
 		resetClue(true);
 	}
 
@@ -657,7 +665,8 @@ public class ClueScrollPlugin extends Plugin
 		}
 	}
 
-	private void updateClue(final ClueScroll clue)
+	@VisibleForTesting
+	void updateClue(final ClueScroll clue)
 	{
 		if (clue == null || clue == this.clue)
 		{
@@ -39,15 +39,20 @@ class DevToolsPanel extends PluginPanel
 
 	private final WidgetInspector widgetInspector;
 	private final VarInspector varInspector;
+	private final EventProfiler eventProfiler;
+	private final ExecutorInspector executorInspector;
 
 	@Inject
-	private DevToolsPanel(Client client, DevToolsPlugin plugin, WidgetInspector widgetInspector, VarInspector varInspector)
+	private DevToolsPanel(Client client, DevToolsPlugin plugin, WidgetInspector widgetInspector, VarInspector varInspector,
+		EventProfiler eventProfiler, ExecutorInspector executorInspector)
 	{
 		super();
 		this.client = client;
 		this.plugin = plugin;
 		this.widgetInspector = widgetInspector;
 		this.varInspector = varInspector;
+		this.eventProfiler = eventProfiler;
+		this.executorInspector = executorInspector;
 
 		setBackground(ColorScheme.DARK_GRAY_COLOR);
 
@@ -119,6 +124,32 @@ class DevToolsPanel extends PluginPanel
 			}
 		});
 
+		container.add(plugin.getEventProfiler());
+		plugin.getEventProfiler().addActionListener((ev) ->
+		{
+			if (plugin.getEventProfiler().isActive())
+			{
+				eventProfiler.close();
+			}
+			else
+			{
+				eventProfiler.open();
+			}
+		});
+
+		container.add(plugin.getExecutorInspector());
+		plugin.getExecutorInspector().addActionListener((ev) ->
+		{
+			if (plugin.getExecutorInspector().isActive())
+			{
+				executorInspector.close();
+			}
+			else
+			{
+				executorInspector.open();
+			}
+		});
+
 		return container;
 	}
 }
@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2018, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.devtools;
+
+import com.google.inject.Inject;
+import java.awt.BorderLayout;
+import java.awt.Dimension;
+import java.awt.FlowLayout;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.Collections;
+import java.util.List;
+import javax.swing.JButton;
+import javax.swing.JFrame;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.Timer;
+import javax.swing.table.AbstractTableModel;
+import net.runelite.client.eventbus.EventBus;
+import net.runelite.client.eventbus.SubscriberTiming;
+import net.runelite.client.ui.ClientUI;
+
+class EventProfiler extends JFrame
+{
+	private static final int REFRESH_INTERVAL = 1000;
+	private static final String[] COLUMNS = {"Event", "Subscriber", "Count", "Total (ms)", "p50 (µs)", "p99 (µs)", "Max (µs)"};
+
+	private final EventBus eventBus;
+	private final TimingTableModel model = new TimingTableModel();
+	private final Timer timer = new Timer(REFRESH_INTERVAL, e -> refresh());
+
+	@Inject
+	EventProfiler(EventBus eventBus, DevToolsPlugin plugin)
+	{
+		this.eventBus = eventBus;
+
+		setTitle("RuneLite Event Profiler");
+		setIconImage(ClientUI.ICON);
+
+		setLayout(new BorderLayout());
+
+		setDefaultCloseOperation(JFrame.DO_NOTHING_ON_CLOSE);
+		addWindowListener(new WindowAdapter()
+		{
+			@Override
+			public void windowClosing(WindowEvent e)
+			{
+				close();
+				plugin.getEventProfiler().setActive(false);
+			}
+		});
+
+		final JTable table = new JTable(model);
+		table.setAutoCreateRowSorter(true);
+
+		final JScrollPane scroller = new JScrollPane(table);
+		scroller.setPreferredSize(new Dimension(700, 400));
+		add(scroller, BorderLayout.CENTER);
+
+		final JPanel opts = new JPanel();
+		opts.setLayout(new FlowLayout());
+
+		final JButton resetBtn = new JButton("Reset");
+		resetBtn.addActionListener(e ->
+		{
+			eventBus.resetTimings();
+			refresh();
+		});
+		opts.add(resetBtn);
+
+		add(opts, BorderLayout.SOUTH);
+
+		pack();
+	}
+
+	private void refresh()
+	{
+		model.setTimings(eventBus.getTimings());
+	}
+
+	public void open()
+	{
+		eventBus.setProfiling(true);
+		timer.start();
+		refresh();
+		setVisible(true);
+		toFront();
+		repaint();
+	}
+
+	public void close()
+	{
+		timer.stop();
+		eventBus.setProfiling(false);
+		eventBus.resetTimings();
+		setVisible(false);
+	}
+
+	private static class TimingTableModel extends AbstractTableModel
+	{
+		private List<SubscriberTiming> timings = Collections.emptyList();
+
+		void setTimings(List<SubscriberTiming> timings)
+		{
+			this.timings = timings;
+			fireTableDataChanged();
+		}
+
+		@Override
+		public String getColumnName(int col)
+		{
+			return COLUMNS[col];
+		}
+
+		@Override
+		public Class<?> getColumnClass(int col)
+		{
+			return col < 2 ? String.class : Double.class;
+		}
+
+		@Override
+		public int getRowCount()
+		{
+			return timings.size();
+		}
+
+		@Override
+		public int getColumnCount()
+		{
+			return COLUMNS.length;
+		}
+
+		@Override
+		public Object getValueAt(int row, int col)
+		{
+			final SubscriberTiming timing = timings.get(row);
+			switch (col)
+			{
+				case 0:
+					return timing.getEventType().getSimpleName();
+				case 1:
+					return timing.getSubscriber();
+				case 2:
+					return (double) timing.getCount();
+				case 3:
+					return timing.getTotal() / 1_000_000d;
+				case 4:
+					return timing.getP50() / 1_000d;
+				case 5:
+					return timing.getP99() / 1_000d;
+				case 6:
+					return timing.getMax() / 1_000d;
+				default:
+					return null;
+			}
+		}
+	}
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2018, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.devtools;
+
+import com.google.inject.Inject;
+import java.awt.BorderLayout;
+import java.awt.Dimension;
+import java.awt.FlowLayout;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.Collections;
+import java.util.List;
+import javax.swing.JButton;
+import javax.swing.JFrame;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.Timer;
+import javax.swing.table.AbstractTableModel;
+import net.runelite.client.task.ExecutorLanes;
+import net.runelite.client.task.TaskTiming;
+import net.runelite.client.ui.ClientUI;
+
+class ExecutorInspector extends JFrame
+{
+	private static final int REFRESH_INTERVAL = 1000;
+	private static final String[] COLUMNS = {"Lane", "Source", "Queued", "Count", "Rejected", "Avg wait (ms)", "Max wait (ms)", "Avg run (ms)", "Max run (ms)"};
+
+	private final ExecutorLanes executorLanes;
+	private final TimingTableModel model = new TimingTableModel();
+	private final Timer timer = new Timer(REFRESH_INTERVAL, e -> refresh());
+
+	@Inject
+	ExecutorInspector(ExecutorLanes executorLanes, DevToolsPlugin plugin)
+	{
+		this.executorLanes = executorLanes;
+
+		setTitle("RuneLite Executors");
+		setIconImage(ClientUI.ICON);
+
+		setLayout(new BorderLayout());
+
+		setDefaultCloseOperation(JFrame.DO_NOTHING_ON_CLOSE);
+		addWindowListener(new WindowAdapter()
+		{
+			@Override
+			public void windowClosing(WindowEvent e)
+			{
+				close();
+				plugin.getExecutorInspector().setActive(false);
+			}
+		});
+
+		final JTable table = new JTable(model);
+		table.setAutoCreateRowSorter(true);
+
+		final JScrollPane scroller = new JScrollPane(table);
+		scroller.setPreferredSize(new Dimension(800, 400));
+		add(scroller, BorderLayout.CENTER);
+
+		final JPanel opts = new JPanel();
+		opts.setLayout(new FlowLayout());
+
+		final JButton resetBtn = new JButton("Reset");
+		resetBtn.addActionListener(e ->
+		{
+			executorLanes.resetTimings();
+			refresh();
+		});
+		opts.add(resetBtn);
+
+		add(opts, BorderLayout.SOUTH);
+
+		pack();
+	}
+
+	private void refresh()
+	{
+		model.setTimings(executorLanes.getTimings());
+	}
+
+	public void open()
+	{
+		timer.start();
+		refresh();
+		setVisible(true);
+		toFront();
+		repaint();
+	}
+
+	public void close()
+	{
+		timer.stop();
+		setVisible(false);
+	}
+
+	private static class TimingTableModel extends AbstractTableModel
+	{
+		private List<TaskTiming> timings = Collections.emptyList();
+
+		void setTimings(List<TaskTiming> timings)
+		{
+			this.timings = timings;
+			fireTableDataChanged();
+		}
+
+		@Override
+		public String getColumnName(int col)
+		{
+			return COLUMNS[col];
+		}
+
+		@Override
+		public Class<?> getColumnClass(int col)
+		{
+			return col < 2 ? String.class : Double.class;
+		}
+
+		@Override
+		public int getRowCount()
+		{
+			return timings.size();
+		}
+
+		@Override
+		public int getColumnCount()
+		{
+			return COLUMNS.length;
+		}
+
+		@Override
+		public Object getValueAt(int row, int col)
+		{
+			final TaskTiming timing = timings.get(row);
+			final long count = Math.max(1, timing.getCount());
+			switch (col)
+			{
+				case 0:
+					return timing.getLane().getName();
+				case 1:
+					return timing.getSource();
+				case 2:
+					return (double) timing.getQueued();
+				case 3:
+					return (double) timing.getCount();
+				case 4:
+					return (double) timing.getRejected();
+				case 5:
+					return timing.getTotalWait() / count / 1_000_000d;
+				case 6:
+					return timing.getMaxWait() / 1_000_000d;
+				case 7:
+					return timing.getTotalRun() / count / 1_000_000d;
+				case 8:
+					return timing.getMaxRun() / 1_000_000d;
+				default:
+					return null;
+			}
+		}
+	}
+}
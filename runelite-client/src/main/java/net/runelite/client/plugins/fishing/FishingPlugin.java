@@ -31,8 +31,11 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import lombok.AccessLevel;
@@ -57,6 +60,7 @@ import net.runelite.api.events.NpcDespawned;
 import net.runelite.api.events.VarbitChanged;
 import net.runelite.api.queries.NPCQuery;
 import net.runelite.client.Notifier;
+import net.runelite.client.chat.ChatClassifier;
 import net.runelite.client.config.ConfigManager;
 import net.runelite.client.eventbus.Subscribe;
 import net.runelite.client.plugins.Plugin;
@@ -80,6 +84,7 @@ public class FishingPlugin extends Plugin
 	private static final int TRAWLER_SHIP_REGION_SINKING = 8011;
 
 	private static final int TRAWLER_ACTIVITY_THRESHOLD = Math.round(0.15f * 255);
+	private static final Pattern FISH_CAUGHT_MESSAGE = Pattern.compile(".*You catch (a|some)");
 
 	@Getter(AccessLevel.PACKAGE)
 	private final FishingSession session = new FishingSession();
@@ -117,6 +122,9 @@ public class FishingPlugin extends Plugin
 	@Inject
 	private FishingSpotMinimapOverlay fishingSpotMinimapOverlay;
 
+	@Inject
+	private ChatClassifier chatClassifier;
+
 	private boolean trawlerNotificationSent;
 
 	@Provides
@@ -131,11 +139,13 @@ public class FishingPlugin extends Plugin
 		overlayManager.add(overlay);
 		overlayManager.add(spotOverlay);
 		overlayManager.add(fishingSpotMinimapOverlay);
+		chatClassifier.register(this, FISH_CAUGHT_MESSAGE, EnumSet.of(ChatMessageType.FILTERED), this::onFishCaught);
 	}
 
 	@Override
 	protected void shutDown() throws Exception
 	{
+		chatClassifier.unregister(this);
 		spotOverlay.setHidden(true);
 		fishingSpotMinimapOverlay.setHidden(true);
 		overlayManager.remove(overlay);
@@ -168,20 +178,11 @@ public class FishingPlugin extends Plugin
 		fishingSpotMinimapOverlay.setHidden(!showOverlays);
 	}
 
-	@Subscribe
-	public void onChatMessage(ChatMessage event)
+	private void onFishCaught(ChatMessage event, Matcher matcher)
 	{
-		if (event.getType() != ChatMessageType.FILTERED)
-		{
-			return;
-		}
-
-		if (event.getMessage().contains("You catch a") || event.getMessage().contains("You catch some"))
-		{
-			session.setLastFishCaught(Instant.now());
-			spotOverlay.setHidden(false);
-			fishingSpotMinimapOverlay.setHidden(false);
-		}
+		session.setLastFishCaught(Instant.now());
+		spotOverlay.setHidden(false);
+		fishingSpotMinimapOverlay.setHidden(false);
 	}
 
 	@Subscribe
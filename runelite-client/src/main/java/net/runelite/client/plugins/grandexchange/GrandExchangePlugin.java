@@ -34,8 +34,11 @@ import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.util.EnumSet;
 import java.util.Map;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import javax.inject.Inject;
 import javax.swing.SwingUtilities;
 import lombok.AccessLevel;
@@ -61,6 +64,7 @@ import net.runelite.api.widgets.Widget;
 import net.runelite.api.widgets.WidgetID;
 import net.runelite.api.widgets.WidgetInfo;
 import net.runelite.client.Notifier;
+import net.runelite.client.chat.ChatClassifier;
 import net.runelite.client.config.ConfigManager;
 import net.runelite.client.eventbus.Subscribe;
 import net.runelite.client.game.ItemManager;
@@ -72,7 +76,6 @@ import net.runelite.client.ui.ClientToolbar;
 import net.runelite.client.ui.NavigationButton;
 import net.runelite.client.util.ImageUtil;
 import net.runelite.client.util.StackFormatter;
-import net.runelite.client.util.Text;
 import net.runelite.http.api.osbuddy.GrandExchangeClient;
 import net.runelite.http.api.osbuddy.GrandExchangeResult;
 
@@ -90,6 +93,7 @@ public class GrandExchangePlugin extends Plugin
 	private static final String OSB_GE_TEXT = "<br>OSBuddy Actively traded price: ";
 
 	private static final String BUY_LIMIT_GE_TEXT = "<br>Buy limit: ";
+	private static final Pattern OFFER_MESSAGE = Pattern.compile("Grand Exchange:.*");
 	private static final Gson GSON = new Gson();
 	private static final TypeToken<Map<Integer, Integer>> BUY_LIMIT_TOKEN = new TypeToken<Map<Integer, Integer>>()
 	{
@@ -134,6 +138,9 @@ public class GrandExchangePlugin extends Plugin
 	@Inject
 	private ScheduledExecutorService executorService;
 
+	@Inject
+	private ChatClassifier chatClassifier;
+
 	private Widget grandExchangeText;
 	private Widget grandExchangeItem;
 	private Map<Integer, Integer> itemGELimits;
@@ -167,11 +174,14 @@ public class GrandExchangePlugin extends Plugin
 			mouseManager.registerMouseListener(inputListener);
 			keyManager.registerKeyListener(inputListener);
 		}
+
+		chatClassifier.register(this, OFFER_MESSAGE, EnumSet.of(ChatMessageType.SERVER), this::onOfferMessage);
 	}
 
 	@Override
 	protected void shutDown()
 	{
+		chatClassifier.unregister(this);
 		clientToolbar.removeNavigation(button);
 		mouseManager.unregisterMouseListener(inputListener);
 		keyManager.unregisterKeyListener(inputListener);
@@ -211,19 +221,11 @@ public class GrandExchangePlugin extends Plugin
 		SwingUtilities.invokeLater(() -> panel.getOffersPanel().updateOffer(offerItem, itemImage, offerEvent.getOffer(), offerEvent.getSlot()));
 	}
 
-	@Subscribe
-	public void onChatMessage(ChatMessage event)
+	private void onOfferMessage(ChatMessage event, Matcher matcher)
 	{
-		if (!this.config.enableNotifications() || event.getType() != ChatMessageType.SERVER)
-		{
-			return;
-		}
-
-		String message = Text.removeTags(event.getMessage());
-
-		if (message.startsWith("Grand Exchange:"))
+		if (this.config.enableNotifications())
 		{
-			this.notifier.notify(message);
+			this.notifier.notify(matcher.group());
 		}
 	}
 
@@ -28,15 +28,15 @@ import com.google.common.base.Strings;
 import com.google.common.cache.CacheLoader;
 import java.util.List;
 import javax.annotation.Nonnull;
-import net.runelite.client.util.WildcardMatcher;
+import net.runelite.client.util.WildcardSet;
 
 class WildcardMatchLoader extends CacheLoader<String, Boolean>
 {
-	private final List<String> nameFilters;
+	private final WildcardSet nameFilters;
 
 	WildcardMatchLoader(List<String> nameFilters)
 	{
-		this.nameFilters = nameFilters;
+		this.nameFilters = WildcardSet.compile(nameFilters);
 	}
 
 	@Override
@@ -47,16 +47,6 @@ class WildcardMatchLoader extends CacheLoader<String, Boolean>
 			return false;
 		}
 
-		final String filteredName = key.trim();
-
-		for (final String filter : nameFilters)
-		{
-			if (WildcardMatcher.matches(filter, filteredName))
-			{
-				return true;
-			}
-		}
-
-		return false;
+		return nameFilters.matches(key.trim());
 	}
 }
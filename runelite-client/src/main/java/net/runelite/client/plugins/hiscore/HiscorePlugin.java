@@ -29,6 +29,7 @@ import com.google.common.collect.ObjectArrays;
 import com.google.inject.Provides;
 import java.awt.image.BufferedImage;
 import java.lang.reflect.InvocationTargetException;
+import java.util.EnumSet;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -45,6 +46,7 @@ import net.runelite.api.events.ConfigChanged;
 import net.runelite.api.events.MenuEntryAdded;
 import net.runelite.api.events.PlayerMenuOptionClicked;
 import net.runelite.api.widgets.WidgetInfo;
+import net.runelite.client.chat.ChatClassifier;
 import net.runelite.client.config.ConfigManager;
 import net.runelite.client.eventbus.Subscribe;
 import net.runelite.client.menus.MenuManager;
@@ -67,7 +69,7 @@ public class HiscorePlugin extends Plugin
 	private static final String LOOKUP = "Lookup";
 	private static final String KICK_OPTION = "Kick";
 	private static final ImmutableList<String> AFTER_OPTIONS = ImmutableList.of("Message", "Add ignore", "Remove friend", KICK_OPTION);
-	private static final Pattern BOUNTY_PATTERN = Pattern.compile("<col=ff0000>You've been assigned a target: (.*)</col>");
+	private static final Pattern BOUNTY_PATTERN = Pattern.compile("You've been assigned a target: (.*)$");
 
 	@Inject
 	@Nullable
@@ -91,6 +93,9 @@ public class HiscorePlugin extends Plugin
 	@Inject
 	private NameAutocompleter autocompleter;
 
+	@Inject
+	private ChatClassifier chatClassifier;
+
 	@Provides
 	HiscoreConfig provideConfig(ConfigManager configManager)
 	{
@@ -121,11 +126,14 @@ public class HiscorePlugin extends Plugin
 		{
 			hiscorePanel.addInputKeyListener(autocompleter);
 		}
+
+		chatClassifier.register(this, BOUNTY_PATTERN, EnumSet.of(ChatMessageType.SERVER), this::onBountyTarget);
 	}
 
 	@Override
 	protected void shutDown() throws Exception
 	{
+		chatClassifier.unregister(this);
 		hiscorePanel.removeInputKeyListener(autocompleter);
 		clientToolbar.removeNavigation(navButton);
 
@@ -207,19 +215,11 @@ public class HiscorePlugin extends Plugin
 		}
 	}
 
-	@Subscribe
-	public void onChatMessage(ChatMessage event)
+	private void onBountyTarget(ChatMessage event, Matcher matcher)
 	{
-		if (!config.bountylookup() || !event.getType().equals(ChatMessageType.SERVER))
-		{
-			return;
-		}
-
-		String message = event.getMessage();
-		Matcher m = BOUNTY_PATTERN.matcher(message);
-		if (m.matches())
+		if (config.bountylookup())
 		{
-			lookupPlayer(m.group(1));
+			lookupPlayer(matcher.group(1));
 		}
 	}
 
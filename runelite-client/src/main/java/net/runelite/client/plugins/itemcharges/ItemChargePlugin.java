@@ -25,6 +25,8 @@
 package net.runelite.client.plugins.itemcharges;
 
 import com.google.inject.Provides;
+import java.util.EnumSet;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import javax.inject.Inject;
@@ -33,8 +35,8 @@ import lombok.Getter;
 import net.runelite.api.ChatMessageType;
 import net.runelite.api.events.ChatMessage;
 import net.runelite.client.Notifier;
+import net.runelite.client.chat.ChatClassifier;
 import net.runelite.client.config.ConfigManager;
-import net.runelite.client.eventbus.Subscribe;
 import net.runelite.client.plugins.Plugin;
 import net.runelite.client.plugins.PluginDescriptor;
 import net.runelite.client.ui.overlay.OverlayManager;
@@ -46,13 +48,15 @@ import net.runelite.client.ui.overlay.OverlayManager;
 )
 public class ItemChargePlugin extends Plugin
 {
+	private static final Set<ChatMessageType> GAME_MESSAGE_TYPES = EnumSet.of(ChatMessageType.SERVER, ChatMessageType.FILTERED);
 	private static final Pattern DODGY_CHECK_PATTERN = Pattern.compile(
 		"Your dodgy necklace has (\\d+) charges? left\\.");
 	private static final Pattern DODGY_PROTECT_PATTERN = Pattern.compile(
 		"Your dodgy necklace protects you\\..*It has (\\d+) charges? left\\.");
 	private static final Pattern DODGY_BREAK_PATTERN = Pattern.compile(
 		"Your dodgy necklace protects you\\..*It then crumbles to dust\\.");
-	private static final String RING_OF_RECOIL_BREAK_MESSAGE = "<col=7f007f>Your Ring of Recoil has shattered.</col>";
+	private static final Pattern RING_OF_RECOIL_BREAK_PATTERN = Pattern.compile(
+		"Your Ring of Recoil has shattered\\.");
 
 	private static final int MAX_DODGY_CHARGES = 10;
 
@@ -68,6 +72,9 @@ public class ItemChargePlugin extends Plugin
 	@Inject
 	private ItemChargeConfig config;
 
+	@Inject
+	private ChatClassifier chatClassifier;
+
 	@Getter(AccessLevel.PACKAGE)
 	private int dodgyCharges;
 
@@ -82,47 +89,42 @@ public class ItemChargePlugin extends Plugin
 	{
 		overlayManager.add(overlay);
 		dodgyCharges = config.dodgyNecklace();
+		chatClassifier.register(this, RING_OF_RECOIL_BREAK_PATTERN, GAME_MESSAGE_TYPES, this::onRecoilBreak);
+		chatClassifier.register(this, DODGY_BREAK_PATTERN, GAME_MESSAGE_TYPES, this::onDodgyBreak);
+		chatClassifier.register(this, DODGY_CHECK_PATTERN, GAME_MESSAGE_TYPES, this::onDodgyCharges);
+		chatClassifier.register(this, DODGY_PROTECT_PATTERN, GAME_MESSAGE_TYPES, this::onDodgyCharges);
 	}
 
 	@Override
 	protected void shutDown() throws Exception
 	{
 		overlayManager.remove(overlay);
+		chatClassifier.unregister(this);
 	}
 
-	@Subscribe
-	public void onChatMessage(ChatMessage event)
+	private void onRecoilBreak(ChatMessage event, Matcher matcher)
 	{
-		String message = event.getMessage();
-		Matcher dodgyCheckMatcher = DODGY_CHECK_PATTERN.matcher(message);
-		Matcher dodgyProtectMatcher = DODGY_PROTECT_PATTERN.matcher(message);
-		Matcher dodgyBreakMatcher = DODGY_BREAK_PATTERN.matcher(message);
-		if (event.getType() == ChatMessageType.SERVER || event.getType() == ChatMessageType.FILTERED)
+		if (config.recoilNotification())
 		{
-			if (config.recoilNotification() && message.contains(RING_OF_RECOIL_BREAK_MESSAGE))
-			{
-				notifier.notify("Your Ring of Recoil has shattered");
-			}
-			else if (dodgyBreakMatcher.find())
-			{
-				if (config.dodgyNotification())
-				{
-					notifier.notify("Your dodgy necklace has crumbled to dust.");
-				}
-
-				setDodgyCharges(MAX_DODGY_CHARGES);
-			}
-			else if (dodgyCheckMatcher.find())
-			{
-				setDodgyCharges(Integer.parseInt(dodgyCheckMatcher.group(1)));
-			}
-			else if (dodgyProtectMatcher.find())
-			{
-				setDodgyCharges(Integer.parseInt(dodgyProtectMatcher.group(1)));
-			}
+			notifier.notify("Your Ring of Recoil has shattered");
 		}
 	}
 
+	private void onDodgyBreak(ChatMessage event, Matcher matcher)
+	{
+		if (config.dodgyNotification())
+		{
+			notifier.notify("Your dodgy necklace has crumbled to dust.");
+		}
+
+		setDodgyCharges(MAX_DODGY_CHARGES);
+	}
+
+	private void onDodgyCharges(ChatMessage event, Matcher matcher)
+	{
+		setDodgyCharges(Integer.parseInt(matcher.group(1)));
+	}
+
 	private void setDodgyCharges(int dodgyCharges)
 	{
 		this.dodgyCharges = dodgyCharges;
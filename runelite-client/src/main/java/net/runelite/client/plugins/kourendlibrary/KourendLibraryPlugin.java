@@ -26,6 +26,7 @@ package net.runelite.client.plugins.kourendlibrary;
 
 import com.google.inject.Provides;
 import java.awt.image.BufferedImage;
+import java.util.EnumSet;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import javax.inject.Inject;
@@ -44,6 +45,7 @@ import net.runelite.api.events.GameTick;
 import net.runelite.api.events.MenuOptionClicked;
 import net.runelite.api.widgets.Widget;
 import net.runelite.api.widgets.WidgetInfo;
+import net.runelite.client.chat.ChatClassifier;
 import net.runelite.client.config.ConfigManager;
 import net.runelite.client.eventbus.Subscribe;
 import net.runelite.client.game.ItemManager;
@@ -64,6 +66,7 @@ public class KourendLibraryPlugin extends Plugin
 {
 	private static final Pattern BOOK_EXTRACTOR = Pattern.compile("'<col=0000ff>(.*)</col>'");
 	private static final Pattern TAG_MATCHER = Pattern.compile("(<[^>]*>)");
+	private static final Pattern BOOKCASE_EMPTY_MESSAGE = Pattern.compile(ChatClassifier.quote("You don't find anything useful here.") + "$");
 	final static int REGION = 6459;
 
 	final static boolean debug = false;
@@ -89,6 +92,9 @@ public class KourendLibraryPlugin extends Plugin
 	@Inject
 	private ItemManager itemManager;
 
+	@Inject
+	private ChatClassifier chatClassifier;
+
 	private KourendLibraryPanel panel;
 	private NavigationButton navButton;
 	private boolean buttonAttached = false;
@@ -124,11 +130,14 @@ public class KourendLibraryPlugin extends Plugin
 		{
 			clientToolbar.addNavigation(navButton);
 		}
+
+		chatClassifier.register(this, BOOKCASE_EMPTY_MESSAGE, EnumSet.of(ChatMessageType.SERVER), this::onBookcaseEmpty);
 	}
 
 	@Override
 	protected void shutDown()
 	{
+		chatClassifier.unregister(this);
 		overlay.setHidden(true);
 		overlayManager.remove(overlay);
 		clientToolbar.removeNavigation(navButton);
@@ -186,17 +195,13 @@ public class KourendLibraryPlugin extends Plugin
 		}
 	}
 
-	@Subscribe
-	public void onChatMessage(ChatMessage event)
+	private void onBookcaseEmpty(ChatMessage event, Matcher matcher)
 	{
-		if (lastBookcaseAnimatedOn != null && event.getType() == ChatMessageType.SERVER)
+		if (lastBookcaseAnimatedOn != null)
 		{
-			if (event.getMessage().equals("You don't find anything useful here."))
-			{
-				library.mark(lastBookcaseAnimatedOn, null);
-				panel.update();
-				lastBookcaseAnimatedOn = null;
-			}
+			library.mark(lastBookcaseAnimatedOn, null);
+			panel.update();
+			lastBookcaseAnimatedOn = null;
 		}
 	}
 
@@ -32,6 +32,7 @@ import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -54,6 +55,7 @@ import net.runelite.api.events.ChatMessage;
 import net.runelite.api.events.ConfigChanged;
 import net.runelite.api.events.WidgetLoaded;
 import net.runelite.api.widgets.WidgetID;
+import net.runelite.client.chat.ChatClassifier;
 import net.runelite.client.config.ConfigManager;
 import net.runelite.client.eventbus.Subscribe;
 import net.runelite.client.events.NpcLootReceived;
@@ -66,7 +68,6 @@ import net.runelite.client.plugins.PluginDescriptor;
 import net.runelite.client.ui.ClientToolbar;
 import net.runelite.client.ui.NavigationButton;
 import net.runelite.client.util.ImageUtil;
-import net.runelite.client.util.Text;
 
 @PluginDescriptor(
 	name = "Loot Tracker",
@@ -78,7 +79,7 @@ import net.runelite.client.util.Text;
 public class LootTrackerPlugin extends Plugin
 {
 	// Activity/Event loot handling
-	private static final Pattern CLUE_SCROLL_PATTERN = Pattern.compile("You have completed [0-9]+ ([a-z]+) Treasure Trails.");
+	private static final Pattern CLUE_SCROLL_PATTERN = Pattern.compile(".*You have completed [0-9]+ ([a-z]+) Treasure Trails.");
 	private static final int THEATRE_OF_BLOOD_REGION = 12867;
 
 	private static final Splitter COMMA_SPLITTER = Splitter
@@ -103,6 +104,9 @@ public class LootTrackerPlugin extends Plugin
 	@Inject
 	private Client client;
 
+	@Inject
+	private ChatClassifier chatClassifier;
+
 	private LootTrackerPanel panel;
 	private NavigationButton navButton;
 	private String eventType;
@@ -171,11 +175,13 @@ public class LootTrackerPlugin extends Plugin
 			.build();
 
 		clientToolbar.addNavigation(navButton);
+		chatClassifier.register(this, CLUE_SCROLL_PATTERN, EnumSet.of(ChatMessageType.SERVER, ChatMessageType.FILTERED), this::onClueScrollCompleted);
 	}
 
 	@Override
 	protected void shutDown()
 	{
+		chatClassifier.unregister(this);
 		clientToolbar.removeNavigation(navButton);
 	}
 
@@ -255,37 +261,26 @@ public class LootTrackerPlugin extends Plugin
 		}
 	}
 
-	@Subscribe
-	public void onChatMessage(ChatMessage event)
+	private void onClueScrollCompleted(ChatMessage event, Matcher matcher)
 	{
-		if (event.getType() != ChatMessageType.SERVER && event.getType() != ChatMessageType.FILTERED)
-		{
-			return;
-		}
-
-		// Check if message is for a clue scroll reward
-		final Matcher m = CLUE_SCROLL_PATTERN.matcher(Text.removeTags(event.getMessage()));
-		if (m.find())
+		final String type = matcher.group(1).toLowerCase();
+		switch (type)
 		{
-			final String type = m.group(1).toLowerCase();
-			switch (type)
-			{
-				case "easy":
-					eventType = "Clue Scroll (Easy)";
-					break;
-				case "medium":
-					eventType = "Clue Scroll (Medium)";
-					break;
-				case "hard":
-					eventType = "Clue Scroll (Hard)";
-					break;
-				case "elite":
-					eventType = "Clue Scroll (Elite)";
-					break;
-				case "master":
-					eventType = "Clue Scroll (Master)";
-					break;
-			}
+			case "easy":
+				eventType = "Clue Scroll (Easy)";
+				break;
+			case "medium":
+				eventType = "Clue Scroll (Medium)";
+				break;
+			case "hard":
+				eventType = "Clue Scroll (Hard)";
+				break;
+			case "elite":
+				eventType = "Clue Scroll (Elite)";
+				break;
+			case "master":
+				eventType = "Clue Scroll (Master)";
+				break;
 		}
 	}
 
@@ -31,8 +31,11 @@ import com.google.inject.Provides;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import javax.inject.Inject;
 import lombok.AccessLevel;
 import lombok.Getter;
@@ -66,6 +69,7 @@ import net.runelite.api.events.WallObjectSpawned;
 import net.runelite.api.widgets.Widget;
 import net.runelite.api.widgets.WidgetInfo;
 import net.runelite.client.callback.ClientThread;
+import net.runelite.client.chat.ChatClassifier;
 import net.runelite.client.config.ConfigManager;
 import net.runelite.client.eventbus.Subscribe;
 import net.runelite.client.plugins.Plugin;
@@ -94,6 +98,9 @@ public class MotherlodePlugin extends Plugin
 
 	private static final int UPPER_FLOOR_HEIGHT = -500;
 
+	private static final Pattern PAY_DIRT_MESSAGE = Pattern.compile(ChatClassifier.quote("You manage to mine some pay-dirt.") + "$");
+	private static final Pattern GEM_FOUND_MESSAGE = Pattern.compile("You just found an? (Diamond|Ruby|Emerald|Sapphire)!$");
+
 	@Inject
 	private OverlayManager overlayManager;
 
@@ -118,6 +125,9 @@ public class MotherlodePlugin extends Plugin
 	@Inject
 	private ClientThread clientThread;
 
+	@Inject
+	private ChatClassifier chatClassifier;
+
 	@Getter(AccessLevel.PACKAGE)
 	private boolean inMlm;
 
@@ -156,11 +166,15 @@ public class MotherlodePlugin extends Plugin
 		{
 			clientThread.invokeLater(this::refreshSackValues);
 		}
+
+		chatClassifier.register(this, PAY_DIRT_MESSAGE, EnumSet.of(ChatMessageType.FILTERED), this::onPayDirtMined);
+		chatClassifier.register(this, GEM_FOUND_MESSAGE, EnumSet.of(ChatMessageType.FILTERED), this::onGemFound);
 	}
 
 	@Override
 	protected void shutDown() throws Exception
 	{
+		chatClassifier.unregister(this);
 		overlayManager.remove(overlay);
 		overlayManager.remove(rocksOverlay);
 		overlayManager.remove(motherlodeGemOverlay);
@@ -194,35 +208,36 @@ public class MotherlodePlugin extends Plugin
 		}
 	}
 
-	@Subscribe
-	public void onChatMessage(ChatMessage event)
+	private void onPayDirtMined(ChatMessage event, Matcher matcher)
 	{
-		if (!inMlm || event.getType() != ChatMessageType.FILTERED)
+		if (inMlm)
 		{
-			return;
+			session.incrementPayDirtMined();
 		}
+	}
 
-		String chatMessage = event.getMessage();
-
-		switch (chatMessage)
+	private void onGemFound(ChatMessage event, Matcher matcher)
+	{
+		if (!inMlm)
 		{
-			case "You manage to mine some pay-dirt.":
-				session.incrementPayDirtMined();
-				break;
+			return;
+		}
 
-			case "You just found a Diamond!":
+		switch (matcher.group(1))
+		{
+			case "Diamond":
 				session.incrementGemFound(ItemID.UNCUT_DIAMOND);
 				break;
 
-			case "You just found a Ruby!":
+			case "Ruby":
 				session.incrementGemFound(ItemID.UNCUT_RUBY);
 				break;
 
-			case "You just found an Emerald!":
+			case "Emerald":
 				session.incrementGemFound(ItemID.UNCUT_EMERALD);
 				break;
 
-			case "You just found a Sapphire!":
+			case "Sapphire":
 				session.incrementGemFound(ItemID.UNCUT_SAPPHIRE);
 				break;
 		}
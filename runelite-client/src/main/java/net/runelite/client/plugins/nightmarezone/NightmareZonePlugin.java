@@ -26,6 +26,9 @@ package net.runelite.client.plugins.nightmarezone;
 
 import com.google.inject.Provides;
 import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import javax.inject.Inject;
 import net.runelite.api.ChatMessageType;
 import net.runelite.api.Client;
@@ -34,12 +37,12 @@ import net.runelite.api.events.ChatMessage;
 import net.runelite.api.events.ConfigChanged;
 import net.runelite.api.events.GameTick;
 import net.runelite.client.Notifier;
+import net.runelite.client.chat.ChatClassifier;
 import net.runelite.client.config.ConfigManager;
 import net.runelite.client.eventbus.Subscribe;
 import net.runelite.client.plugins.Plugin;
 import net.runelite.client.plugins.PluginDescriptor;
 import net.runelite.client.ui.overlay.OverlayManager;
-import net.runelite.client.util.Text;
 
 @PluginDescriptor(
 	name = "Nightmare Zone",
@@ -49,6 +52,8 @@ import net.runelite.client.util.Text;
 public class NightmareZonePlugin extends Plugin
 {
 	private static final int[] NMZ_MAP_REGION = {9033};
+	private static final Pattern OVERLOAD_WORN_OFF_MESSAGE = Pattern.compile(".*" + ChatClassifier.quote("The effects of overload have worn off, and you feel normal again."));
+	private static final Pattern POWER_UP_MESSAGE = Pattern.compile(".*A power-up has spawned:.*");
 
 	@Inject
 	private Notifier notifier;
@@ -65,6 +70,9 @@ public class NightmareZonePlugin extends Plugin
 	@Inject
 	private NightmareZoneOverlay overlay;
 
+	@Inject
+	private ChatClassifier chatClassifier;
+
 	// This starts as true since you need to get
 	// above the threshold before sending notifications
 	private boolean absorptionNotificationSend = true;
@@ -74,11 +82,14 @@ public class NightmareZonePlugin extends Plugin
 	{
 		overlayManager.add(overlay);
 		overlay.removeAbsorptionCounter();
+		chatClassifier.register(this, OVERLOAD_WORN_OFF_MESSAGE, EnumSet.of(ChatMessageType.SERVER), this::onOverloadWornOff);
+		chatClassifier.register(this, POWER_UP_MESSAGE, EnumSet.of(ChatMessageType.SERVER), this::onPowerUpSpawned);
 	}
 
 	@Override
 	protected void shutDown() throws Exception
 	{
+		chatClassifier.unregister(this);
 		overlayManager.remove(overlay);
 		overlay.removeAbsorptionCounter();
 	}
@@ -113,52 +124,48 @@ public class NightmareZonePlugin extends Plugin
 		}
 	}
 
-	@Subscribe
-	public void onChatMessage(ChatMessage event)
+	private void onOverloadWornOff(ChatMessage event, Matcher matcher)
 	{
-		if (event.getType() != ChatMessageType.SERVER
-				|| !isInNightmareZone())
+		if (isInNightmareZone() && config.overloadNotification())
+		{
+			notifier.notify("Your overload has worn off");
+		}
+	}
+
+	private void onPowerUpSpawned(ChatMessage event, Matcher matcher)
+	{
+		if (!isInNightmareZone())
 		{
 			return;
 		}
 
-		String msg = Text.removeTags(event.getMessage()); //remove color
-		if (msg.contains("The effects of overload have worn off, and you feel normal again."))
+		String msg = matcher.group();
+		if (msg.contains("Power surge"))
 		{
-			if (config.overloadNotification())
+			if (config.powerSurgeNotification())
 			{
-				notifier.notify("Your overload has worn off");
+				notifier.notify(msg);
 			}
 		}
-		else if (msg.contains("A power-up has spawned:"))
+		else if (msg.contains("Recurrent damage"))
 		{
-			if (msg.contains("Power surge"))
-			{
-				if (config.powerSurgeNotification())
-				{
-					notifier.notify(msg);
-				}
-			}
-			else if (msg.contains("Recurrent damage"))
+			if (config.recurrentDamageNotification())
 			{
-				if (config.recurrentDamageNotification())
-				{
-					notifier.notify(msg);
-				}
+				notifier.notify(msg);
 			}
-			else if (msg.contains("Zapper"))
+		}
+		else if (msg.contains("Zapper"))
+		{
+			if (config.zapperNotification())
 			{
-				if (config.zapperNotification())
-				{
-					notifier.notify(msg);
-				}
+				notifier.notify(msg);
 			}
-			else if (msg.contains("Ultimate force"))
+		}
+		else if (msg.contains("Ultimate force"))
+		{
+			if (config.ultimateForceNotification())
 			{
-				if (config.ultimateForceNotification())
-				{
-					notifier.notify(msg);
-				}
+				notifier.notify(msg);
 			}
 		}
 	}
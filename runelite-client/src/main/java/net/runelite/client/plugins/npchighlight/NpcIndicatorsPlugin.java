@@ -64,7 +64,7 @@ import net.runelite.client.menus.MenuManager;
 import net.runelite.client.plugins.Plugin;
 import net.runelite.client.plugins.PluginDescriptor;
 import net.runelite.client.ui.overlay.OverlayManager;
-import net.runelite.client.util.WildcardMatcher;
+import net.runelite.client.util.WildcardSet;
 
 @PluginDescriptor(
 	name = "NPC Indicators",
@@ -139,7 +139,7 @@ public class NpcIndicatorsPlugin extends Plugin
 	/**
 	 * Highlight strings from the configuration
 	 */
-	private List<String> highlights = new ArrayList<>();
+	private WildcardSet highlights = WildcardSet.compile(Collections.emptyList());
 
 	/**
 	 * NPC ids marked with the Tag option
@@ -189,7 +189,7 @@ public class NpcIndicatorsPlugin extends Plugin
 		overlayManager.add(npcSceneOverlay);
 		overlayManager.add(npcMinimapOverlay);
 		keyManager.registerKeyListener(inputListener);
-		highlights = getHighlights();
+		highlights = WildcardSet.compile(getHighlights());
 		clientThread.invoke(() ->
 		{
 			skipNextSpawnCheck = true;
@@ -234,7 +234,7 @@ public class NpcIndicatorsPlugin extends Plugin
 			return;
 		}
 
-		highlights = getHighlights();
+		highlights = WildcardSet.compile(getHighlights());
 		rebuildAllNpcs();
 	}
 
@@ -298,15 +298,11 @@ public class NpcIndicatorsPlugin extends Plugin
 				return;
 			}
 
-			for (String highlight : highlights)
+			if (highlights.matches(npcName))
 			{
-				if (WildcardMatcher.matches(highlight, npcName))
-				{
-					memorizeNpc(npc);
-					highlightedNpcs.add(npc);
-					spawnedNpcsThisTick.add(npc);
-					break;
-				}
+				memorizeNpc(npc);
+				highlightedNpcs.add(npc);
+				spawnedNpcsThisTick.add(npc);
 			}
 		}
 	}
@@ -446,7 +442,6 @@ public class NpcIndicatorsPlugin extends Plugin
 			return;
 		}
 
-		outer:
 		for (NPC npc : client.getNpcs())
 		{
 			final String npcName = npc.getName();
@@ -462,14 +457,11 @@ public class NpcIndicatorsPlugin extends Plugin
 				continue;
 			}
 
-			for (String highlight : highlights)
+			if (highlights.matches(npcName))
 			{
-				if (WildcardMatcher.matches(highlight, npcName))
-				{
-					memorizeNpc(npc);
-					highlightedNpcs.add(npc);
-					continue outer;
-				}
+				memorizeNpc(npc);
+				highlightedNpcs.add(npc);
+				continue;
 			}
 
 			// NPC is not highlighted
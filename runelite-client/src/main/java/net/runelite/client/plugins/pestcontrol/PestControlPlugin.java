@@ -24,13 +24,14 @@
  */
 package net.runelite.client.plugins.pestcontrol;
 
+import java.util.EnumSet;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import javax.inject.Inject;
 import net.runelite.api.ChatMessageType;
 import net.runelite.api.Client;
 import net.runelite.api.events.ChatMessage;
-import net.runelite.client.eventbus.Subscribe;
+import net.runelite.client.chat.ChatClassifier;
 import net.runelite.client.plugins.Plugin;
 import net.runelite.client.plugins.PluginDescriptor;
 import net.runelite.client.ui.overlay.OverlayManager;
@@ -53,28 +54,28 @@ public class PestControlPlugin extends Plugin
 	@Inject
 	private PestControlOverlay overlay;
 
+	@Inject
+	private ChatClassifier chatClassifier;
+
 	@Override
 	protected void startUp() throws Exception
 	{
 		overlayManager.add(overlay);
+		chatClassifier.register(this, SHIELD_DROP, EnumSet.of(ChatMessageType.SERVER), this::onShieldDropped);
 	}
 
 	@Override
 	protected void shutDown() throws Exception
 	{
+		chatClassifier.unregister(this);
 		overlayManager.remove(overlay);
 	}
 
-	@Subscribe
-	public void onChatMessage(ChatMessage chatMessage)
+	private void onShieldDropped(ChatMessage chatMessage, Matcher matcher)
 	{
-		if (overlay.getGame() != null && chatMessage.getType() == ChatMessageType.SERVER)
+		if (overlay.getGame() != null)
 		{
-			Matcher matcher = SHIELD_DROP.matcher(chatMessage.getMessage());
-			if (matcher.lookingAt())
-			{
-				overlay.getGame().fall(matcher.group(1));
-			}
+			overlay.getGame().fall(matcher.group(1));
 		}
 	}
 }
@@ -34,9 +34,11 @@ import java.text.DecimalFormat;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -63,6 +65,7 @@ import net.runelite.api.events.WidgetHiddenChanged;
 import net.runelite.api.widgets.Widget;
 import net.runelite.api.widgets.WidgetInfo;
 import net.runelite.client.callback.ClientThread;
+import net.runelite.client.chat.ChatClassifier;
 import net.runelite.client.chat.ChatColorType;
 import net.runelite.client.chat.ChatMessageBuilder;
 import net.runelite.client.chat.ChatMessageManager;
@@ -82,7 +85,6 @@ import net.runelite.client.ui.FontManager;
 import net.runelite.client.ui.overlay.OverlayManager;
 import net.runelite.client.ui.overlay.infobox.InfoBoxManager;
 import net.runelite.client.util.ScreenCapture;
-import net.runelite.client.util.Text;
 import net.runelite.client.util.HotkeyListener;
 
 @PluginDescriptor(
@@ -97,6 +99,10 @@ public class RaidsPlugin extends Plugin
 	private static final String RAID_START_MESSAGE = "The raid has begun!";
 	private static final String LEVEL_COMPLETE_MESSAGE = "level complete!";
 	private static final String RAID_COMPLETE_MESSAGE = "Congratulations - your raid is complete!";
+	private static final Set<ChatMessageType> RAID_MESSAGE_TYPES = EnumSet.of(ChatMessageType.CLANCHAT_INFO);
+	private static final Pattern RAID_START_PATTERN = Pattern.compile(ChatClassifier.quote(RAID_START_MESSAGE));
+	private static final Pattern LEVEL_COMPLETE_PATTERN = Pattern.compile(".*" + ChatClassifier.quote(LEVEL_COMPLETE_MESSAGE));
+	private static final Pattern RAID_COMPLETE_PATTERN = Pattern.compile(ChatClassifier.quote(RAID_COMPLETE_MESSAGE));
 	private static final DecimalFormat DECIMAL_FORMAT = new DecimalFormat("###.##");
 	static final DecimalFormat POINTS_FORMAT = new DecimalFormat("#,###");
 	private static final String SPLIT_REGEX = "\\s*,\\s*";
@@ -148,6 +154,9 @@ public class RaidsPlugin extends Plugin
 	@Inject
 	private ScreenCapture screenCapture;
 
+	@Inject
+	private ChatClassifier chatClassifier;
+
 	@Getter
 	private final ArrayList<String> roomWhitelist = new ArrayList<>();
 
@@ -191,11 +200,15 @@ public class RaidsPlugin extends Plugin
 		updateLists();
 		clientThread.invokeLater(() -> checkRaidPresence(true));
 		keyManager.registerKeyListener(hotkeyListener);
+		chatClassifier.register(this, RAID_START_PATTERN, RAID_MESSAGE_TYPES, this::onRaidStart);
+		chatClassifier.register(this, LEVEL_COMPLETE_PATTERN, RAID_MESSAGE_TYPES, this::onLevelComplete);
+		chatClassifier.register(this, RAID_COMPLETE_PATTERN, RAID_MESSAGE_TYPES, this::onRaidComplete);
 	}
 
 	@Override
 	protected void shutDown() throws Exception
 	{
+		chatClassifier.unregister(this);
 		overlayManager.remove(overlay);
 		overlayManager.remove(pointsOverlay);
 		infoBoxManager.removeInfoBox(timer);
@@ -245,62 +258,64 @@ public class RaidsPlugin extends Plugin
 		checkRaidPresence(false);
 	}
 
-	@Subscribe
-	public void onChatMessage(ChatMessage event)
+	private void onRaidStart(ChatMessage event, Matcher matcher)
 	{
-		if (inRaidChambers && event.getType() == ChatMessageType.CLANCHAT_INFO)
+		if (inRaidChambers && config.raidsTimer())
 		{
-			String message = Text.removeTags(event.getMessage());
+			timer = new RaidsTimer(spriteManager.getSprite(TAB_QUESTS_BROWN_RAIDING_PARTY, 0), this, Instant.now());
+			infoBoxManager.addInfoBox(timer);
+		}
+	}
 
-			if (config.raidsTimer() && message.startsWith(RAID_START_MESSAGE))
-			{
-				timer = new RaidsTimer(spriteManager.getSprite(TAB_QUESTS_BROWN_RAIDING_PARTY, 0), this, Instant.now());
-				infoBoxManager.addInfoBox(timer);
-			}
+	private void onLevelComplete(ChatMessage event, Matcher matcher)
+	{
+		if (inRaidChambers && timer != null)
+		{
+			timer.timeFloor();
+		}
+	}
 
-			if (timer != null && message.contains(LEVEL_COMPLETE_MESSAGE))
-			{
-				timer.timeFloor();
-			}
+	private void onRaidComplete(ChatMessage event, Matcher matcher)
+	{
+		if (!inRaidChambers)
+		{
+			return;
+		}
 
-			if (message.startsWith(RAID_COMPLETE_MESSAGE))
-			{
-				if (timer != null)
-				{
-					timer.timeFloor();
-					timer.setStopped(true);
-				}
+		if (timer != null)
+		{
+			timer.timeFloor();
+			timer.setStopped(true);
+		}
 
-				if (config.pointsMessage())
-				{
-					int totalPoints = client.getVar(Varbits.TOTAL_POINTS);
-					int personalPoints = client.getVar(Varbits.PERSONAL_POINTS);
-
-					double percentage = personalPoints / (totalPoints / 100.0);
-
-					String chatMessage = new ChatMessageBuilder()
-						.append(ChatColorType.NORMAL)
-						.append("Total points: ")
-						.append(ChatColorType.HIGHLIGHT)
-						.append(POINTS_FORMAT.format(totalPoints))
-						.append(ChatColorType.NORMAL)
-						.append(", Personal points: ")
-						.append(ChatColorType.HIGHLIGHT)
-						.append(POINTS_FORMAT.format(personalPoints))
-						.append(ChatColorType.NORMAL)
-						.append(" (")
-						.append(ChatColorType.HIGHLIGHT)
-						.append(DECIMAL_FORMAT.format(percentage))
-						.append(ChatColorType.NORMAL)
-						.append("%)")
-						.build();
-
-					chatMessageManager.queue(QueuedMessage.builder()
-						.type(ChatMessageType.CLANCHAT_INFO)
-						.runeLiteFormattedMessage(chatMessage)
-						.build());
-				}
-			}
+		if (config.pointsMessage())
+		{
+			int totalPoints = client.getVar(Varbits.TOTAL_POINTS);
+			int personalPoints = client.getVar(Varbits.PERSONAL_POINTS);
+
+			double percentage = personalPoints / (totalPoints / 100.0);
+
+			String chatMessage = new ChatMessageBuilder()
+				.append(ChatColorType.NORMAL)
+				.append("Total points: ")
+				.append(ChatColorType.HIGHLIGHT)
+				.append(POINTS_FORMAT.format(totalPoints))
+				.append(ChatColorType.NORMAL)
+				.append(", Personal points: ")
+				.append(ChatColorType.HIGHLIGHT)
+				.append(POINTS_FORMAT.format(personalPoints))
+				.append(ChatColorType.NORMAL)
+				.append(" (")
+				.append(ChatColorType.HIGHLIGHT)
+				.append(DECIMAL_FORMAT.format(percentage))
+				.append(ChatColorType.NORMAL)
+				.append("%)")
+				.build();
+
+			chatMessageManager.queue(QueuedMessage.builder()
+				.type(ChatMessageType.CLANCHAT_INFO)
+				.runeLiteFormattedMessage(chatMessage)
+				.build());
 		}
 	}
 
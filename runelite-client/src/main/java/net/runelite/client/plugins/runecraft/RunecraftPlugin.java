@@ -25,6 +25,7 @@
 package net.runelite.client.plugins.runecraft;
 
 import com.google.inject.Provides;
+import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.regex.Matcher;
@@ -54,6 +55,7 @@ import net.runelite.api.queries.NPCQuery;
 import net.runelite.api.widgets.Widget;
 import net.runelite.api.widgets.WidgetInfo;
 import net.runelite.client.Notifier;
+import net.runelite.client.chat.ChatClassifier;
 import net.runelite.client.config.ConfigManager;
 import net.runelite.client.eventbus.Subscribe;
 import net.runelite.client.plugins.Plugin;
@@ -68,9 +70,12 @@ import net.runelite.client.util.QueryRunner;
 )
 public class RunecraftPlugin extends Plugin
 {
-	private static Pattern bindNeckString = Pattern.compile("You have ([0-9]+|one) charges? left before your Binding necklace disintegrates.");
+	private static final Pattern BINDING_CHARGES_MESSAGE = Pattern.compile(".*You have ([0-9]+|one) charges? left before your Binding necklace disintegrates.");
 	private static final String POUCH_DECAYED_NOTIFICATION_MESSAGE = "Your rune pouch has decayed.";
 	private static final String POUCH_DECAYED_MESSAGE = "Your pouch has decayed through use.";
+	private static final Pattern BINDING_USED_MESSAGE = Pattern.compile(".*You bind the temple's power.*(mud|lava|steam|dust|smoke|mist)");
+	private static final Pattern BINDING_DISINTEGRATED_MESSAGE = Pattern.compile(".*" + ChatClassifier.quote("Your Binding necklace has disintegrated."));
+	private static final Pattern POUCH_DECAYED_PATTERN = Pattern.compile(".*" + ChatClassifier.quote(POUCH_DECAYED_MESSAGE));
 	private static final int DESTROY_ITEM_WIDGET_ID = WidgetInfo.DESTROY_ITEM_YES.getId();
 
 	@Getter(AccessLevel.PACKAGE)
@@ -103,6 +108,9 @@ public class RunecraftPlugin extends Plugin
 	@Inject
 	private Notifier notifier;
 
+	@Inject
+	private ChatClassifier chatClassifier;
+
 	@Provides
 	RunecraftConfig getConfig(ConfigManager configManager)
 	{
@@ -115,11 +123,16 @@ public class RunecraftPlugin extends Plugin
 		overlayManager.add(bindNeckOverlay);
 		overlayManager.add(abyssOverlay);
 		abyssOverlay.updateConfig();
+		chatClassifier.register(this, BINDING_CHARGES_MESSAGE, EnumSet.of(ChatMessageType.SERVER), this::onBindingCharges);
+		chatClassifier.register(this, BINDING_USED_MESSAGE, EnumSet.of(ChatMessageType.SERVER), this::onBindingUsed);
+		chatClassifier.register(this, BINDING_DISINTEGRATED_MESSAGE, EnumSet.of(ChatMessageType.SERVER), this::onBindingDisintegrated);
+		chatClassifier.register(this, POUCH_DECAYED_PATTERN, EnumSet.of(ChatMessageType.SERVER), this::onPouchDecayed);
 	}
 
 	@Override
 	protected void shutDown() throws Exception
 	{
+		chatClassifier.unregister(this);
 		overlayManager.remove(bindNeckOverlay);
 		overlayManager.remove(abyssOverlay);
 		abyssObjects.clear();
@@ -133,59 +146,45 @@ public class RunecraftPlugin extends Plugin
 		abyssOverlay.updateConfig();
 	}
 
-	@Subscribe
-	public void onChatMessage(ChatMessage event)
+	private void onBindingCharges(ChatMessage event, Matcher matcher)
 	{
-		if (event.getType() != ChatMessageType.SERVER)
+		if (!config.showBindNeck())
 		{
 			return;
 		}
 
+		if (matcher.group(1).equals("one"))
+		{
+			bindNeckOverlay.bindingCharges = 1;
+		}
+		else
+		{
+			bindNeckOverlay.bindingCharges = Integer.parseInt(matcher.group(1));
+		}
+	}
+
+	private void onBindingUsed(ChatMessage event, Matcher matcher)
+	{
 		if (config.showBindNeck())
 		{
-			Matcher match = bindNeckString.matcher(event.getMessage());
-			if (match.find())
-			{
-				if (match.group(1).equals("one"))
-				{
-					bindNeckOverlay.bindingCharges = 1;
-				}
-				else
-				{
-					bindNeckOverlay.bindingCharges = Integer.parseInt(match.group(1));
-				}
-
-				return;
-			}
-
-			if (event.getMessage().contains("You bind the temple's power"))
-			{
-				if (event.getMessage().contains("mud")
-					|| event.getMessage().contains("lava")
-					|| event.getMessage().contains("steam")
-					|| event.getMessage().contains("dust")
-					|| event.getMessage().contains("smoke")
-					|| event.getMessage().contains("mist"))
-				{
-					bindNeckOverlay.bindingCharges -= 1;
-					return;
-				}
-			}
-
-			if (event.getMessage().contains("Your Binding necklace has disintegrated."))
-			{
-				//set it to 17 because this message is triggered first before the above chat event
-				bindNeckOverlay.bindingCharges = 17;
-				return;
-			}
+			bindNeckOverlay.bindingCharges -= 1;
 		}
+	}
+
+	private void onBindingDisintegrated(ChatMessage event, Matcher matcher)
+	{
+		if (config.showBindNeck())
+		{
+			//set it to 17 because this message is triggered first before the above chat event
+			bindNeckOverlay.bindingCharges = 17;
+		}
+	}
+
+	private void onPouchDecayed(ChatMessage event, Matcher matcher)
+	{
 		if (config.degradingNotification())
 		{
-			if (event.getMessage().contains(POUCH_DECAYED_MESSAGE))
-			{
-				notifier.notify(POUCH_DECAYED_NOTIFICATION_MESSAGE);
-				return;
-			}
+			notifier.notify(POUCH_DECAYED_NOTIFICATION_MESSAGE);
 		}
 	}
 
@@ -33,7 +33,9 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import javax.inject.Inject;
@@ -62,6 +64,7 @@ import net.runelite.api.widgets.Widget;
 import net.runelite.api.widgets.WidgetInfo;
 import net.runelite.client.Notifier;
 import net.runelite.client.callback.ClientThread;
+import net.runelite.client.chat.ChatClassifier;
 import net.runelite.client.config.ConfigManager;
 import net.runelite.client.eventbus.Subscribe;
 import net.runelite.client.game.ItemManager;
@@ -83,17 +86,14 @@ public class SlayerPlugin extends Plugin
 	//Chat messages
 	private static final Pattern CHAT_GEM_PROGRESS_MESSAGE = Pattern.compile("^(?:You're assigned to kill|You have received a new Slayer assignment from .*:) (?:the )?(.*?)(?: in the Wilderness)?(?:; only | \\()(\\d*)(?: more to go\\.|\\))$");
 	private static final String CHAT_GEM_COMPLETE_MESSAGE = "You need something new to hunt.";
+	private static final Pattern CHAT_TASK_COMPLETE_MESSAGE = Pattern.compile(".*; return to a Slayer master\\.$");
 	private static final Pattern CHAT_COMPLETE_MESSAGE = Pattern.compile("(?:\\d+,)*\\d+");
 	private static final String CHAT_CANCEL_MESSAGE = "Your task has been cancelled.";
 	private static final String CHAT_CANCEL_MESSAGE_JAD = "You no longer have a slayer task as you left the fight cave.";
 	private static final String CHAT_SUPERIOR_MESSAGE = "A superior foe has appeared...";
-	private static final String CHAT_BRACELET_SLAUGHTER = "Your bracelet of slaughter prevents your slayer";
-	private static final Pattern CHAT_BRACELET_SLAUGHTER_REGEX = Pattern.compile("Your bracelet of slaughter prevents your slayer count decreasing. It has (\\d{1,2}) charge[s]? left.");
-	private static final String CHAT_BRACELET_EXPEDITIOUS = "Your expeditious bracelet helps you progress your";
-	private static final Pattern CHAT_BRACELET_EXPEDITIOUS_REGEX = Pattern.compile("Your expeditious bracelet helps you progress your slayer (?:task )?faster. It has (\\d{1,2}) charge[s]? left.");
-	private static final String CHAT_BRACELET_SLAUGHTER_CHARGE = "Your bracelet of slaughter has ";
+	private static final Pattern CHAT_BRACELET_SLAUGHTER_REGEX = Pattern.compile("Your bracelet of slaughter prevents your slayer(?: count decreasing. It has (\\d{1,2}) charge[s]? left.)?");
+	private static final Pattern CHAT_BRACELET_EXPEDITIOUS_REGEX = Pattern.compile("Your expeditious bracelet helps you progress your(?: slayer (?:task )?faster. It has (\\d{1,2}) charge[s]? left.)?");
 	private static final Pattern CHAT_BRACELET_SLAUGHTER_CHARGE_REGEX = Pattern.compile("Your bracelet of slaughter has (\\d{1,2}) charge[s]? left.");
-	private static final String CHAT_BRACELET_EXPEDITIOUS_CHARGE = "Your expeditious bracelet has ";
 	private static final Pattern CHAT_BRACELET_EXPEDITIOUS_CHARGE_REGEX = Pattern.compile("Your expeditious bracelet has (\\d{1,2}) charge[s]? left.");
 	private static final Pattern COMBAT_BRACELET_TASK_UPDATE_MESSAGE = Pattern.compile("^You still need to kill (\\d+) monsters to complete your current Slayer assignment");
 
@@ -106,6 +106,8 @@ public class SlayerPlugin extends Plugin
 	//Reward UI
 	private static final Pattern REWARD_POINTS = Pattern.compile("Reward points: ((?:\\d+,)*\\d+)");
 
+	private static final Set<ChatMessageType> GAME_MESSAGE_TYPES = EnumSet.of(ChatMessageType.SERVER, ChatMessageType.FILTERED);
+
 	private static final int GROTESQUE_GUARDIANS_REGION = 6727;
 
 	private static final int EXPEDITIOUS_CHARGE = 30;
@@ -138,6 +140,9 @@ public class SlayerPlugin extends Plugin
 	@Inject
 	private TargetClickboxOverlay targetClickboxOverlay;
 
+	@Inject
+	private ChatClassifier chatClassifier;
+
 	@Inject
 	private TargetMinimapOverlay targetMinimapOverlay;
 
@@ -183,6 +188,18 @@ public class SlayerPlugin extends Plugin
 		overlayManager.add(targetClickboxOverlay);
 		overlayManager.add(targetMinimapOverlay);
 
+		chatClassifier.register(this, CHAT_BRACELET_SLAUGHTER_REGEX, GAME_MESSAGE_TYPES, this::onBraceletOfSlaughter);
+		chatClassifier.register(this, CHAT_BRACELET_EXPEDITIOUS_REGEX, GAME_MESSAGE_TYPES, this::onExpeditiousBracelet);
+		chatClassifier.register(this, CHAT_BRACELET_EXPEDITIOUS_CHARGE_REGEX, GAME_MESSAGE_TYPES, this::onExpeditiousCharges);
+		chatClassifier.register(this, CHAT_BRACELET_SLAUGHTER_CHARGE_REGEX, GAME_MESSAGE_TYPES, this::onSlaughterCharges);
+		chatClassifier.register(this, CHAT_TASK_COMPLETE_MESSAGE, GAME_MESSAGE_TYPES, this::onTaskComplete);
+		chatClassifier.register(this, message(CHAT_GEM_COMPLETE_MESSAGE), GAME_MESSAGE_TYPES, this::onTaskEnded);
+		chatClassifier.register(this, message(CHAT_CANCEL_MESSAGE), GAME_MESSAGE_TYPES, this::onTaskEnded);
+		chatClassifier.register(this, message(CHAT_CANCEL_MESSAGE_JAD), GAME_MESSAGE_TYPES, this::onTaskEnded);
+		chatClassifier.register(this, message(CHAT_SUPERIOR_MESSAGE), GAME_MESSAGE_TYPES, this::onSuperior);
+		chatClassifier.register(this, CHAT_GEM_PROGRESS_MESSAGE, GAME_MESSAGE_TYPES, this::onGemProgress);
+		chatClassifier.register(this, COMBAT_BRACELET_TASK_UPDATE_MESSAGE, GAME_MESSAGE_TYPES, this::onCombatBraceletProgress);
+
 		if (client.getGameState() == GameState.LOGGED_IN
 			&& config.amount() != -1
 			&& !config.taskName().isEmpty())
@@ -201,6 +218,7 @@ public class SlayerPlugin extends Plugin
 		overlayManager.remove(overlay);
 		overlayManager.remove(targetClickboxOverlay);
 		overlayManager.remove(targetMinimapOverlay);
+		chatClassifier.unregister(this);
 		removeCounter();
 		highlightedTargets.clear();
 	}
@@ -345,119 +363,95 @@ public class SlayerPlugin extends Plugin
 		}
 	}
 
-	@Subscribe
-	public void onChatMessage(ChatMessage event)
+	/**
+	 * Creates a pattern matching exactly the given chat message
+	 */
+	private static Pattern message(String message)
 	{
-		if (event.getType() != ChatMessageType.SERVER && event.getType() != ChatMessageType.FILTERED)
-		{
-			return;
-		}
+		return Pattern.compile(ChatClassifier.quote(message) + "$");
+	}
 
-		String chatMsg = Text.removeTags(event.getMessage()); //remove color and linebreaks
+	private void onBraceletOfSlaughter(ChatMessage event, Matcher matcher)
+	{
+		amount++;
+		slaughterChargeCount = matcher.group(1) != null ? Integer.parseInt(matcher.group(1)) : SLAUGHTER_CHARGE;
+		config.slaughter(slaughterChargeCount);
+	}
 
-		if (chatMsg.startsWith(CHAT_BRACELET_SLAUGHTER))
-		{
-			Matcher mSlaughter = CHAT_BRACELET_SLAUGHTER_REGEX.matcher(chatMsg);
+	private void onExpeditiousBracelet(ChatMessage event, Matcher matcher)
+	{
+		amount--;
+		expeditiousChargeCount = matcher.group(1) != null ? Integer.parseInt(matcher.group(1)) : EXPEDITIOUS_CHARGE;
+		config.expeditious(expeditiousChargeCount);
+	}
 
-			amount++;
-			slaughterChargeCount = mSlaughter.find() ? Integer.parseInt(mSlaughter.group(1)) : SLAUGHTER_CHARGE;
-			config.slaughter(slaughterChargeCount);
-		}
+	private void onExpeditiousCharges(ChatMessage event, Matcher matcher)
+	{
+		expeditiousChargeCount = Integer.parseInt(matcher.group(1));
+		config.expeditious(expeditiousChargeCount);
+	}
 
-		if (chatMsg.startsWith(CHAT_BRACELET_EXPEDITIOUS))
-		{
-			Matcher mExpeditious = CHAT_BRACELET_EXPEDITIOUS_REGEX.matcher(chatMsg);
+	private void onSlaughterCharges(ChatMessage event, Matcher matcher)
+	{
+		slaughterChargeCount = Integer.parseInt(matcher.group(1));
+		config.slaughter(slaughterChargeCount);
+	}
 
-			amount--;
-			expeditiousChargeCount = mExpeditious.find() ? Integer.parseInt(mExpeditious.group(1)) : EXPEDITIOUS_CHARGE;
-			config.expeditious(expeditiousChargeCount);
-		}
+	private void onTaskComplete(ChatMessage event, Matcher matcher)
+	{
+		Matcher mComplete = CHAT_COMPLETE_MESSAGE.matcher(matcher.group());
 
-		if (chatMsg.startsWith(CHAT_BRACELET_EXPEDITIOUS_CHARGE))
+		List<String> matches = new ArrayList<>();
+		while (mComplete.find())
 		{
-			Matcher mExpeditious = CHAT_BRACELET_EXPEDITIOUS_CHARGE_REGEX.matcher(chatMsg);
-
-			if (!mExpeditious.find())
-			{
-				return;
-			}
-
-			expeditiousChargeCount = Integer.parseInt(mExpeditious.group(1));
-			config.expeditious(expeditiousChargeCount);
+			matches.add(mComplete.group(0).replaceAll(",", ""));
 		}
-		if (chatMsg.startsWith(CHAT_BRACELET_SLAUGHTER_CHARGE))
-		{
-			Matcher mSlaughter = CHAT_BRACELET_SLAUGHTER_CHARGE_REGEX.matcher(chatMsg);
-			if (!mSlaughter.find())
-			{
-				return;
-			}
 
-			slaughterChargeCount = Integer.parseInt(mSlaughter.group(1));
-			config.slaughter(slaughterChargeCount);
-		}
-
-		if (chatMsg.endsWith("; return to a Slayer master."))
+		switch (matches.size())
 		{
-			Matcher mComplete = CHAT_COMPLETE_MESSAGE.matcher(chatMsg);
-
-			List<String> matches = new ArrayList<>();
-			while (mComplete.find())
-			{
-				matches.add(mComplete.group(0).replaceAll(",", ""));
-			}
-
-			switch (matches.size())
-			{
-				case 0:
-					streak = 1;
-					break;
-				case 1:
-					streak = Integer.parseInt(matches.get(0));
-					break;
-				case 3:
-					streak = Integer.parseInt(matches.get(0));
-					points = Integer.parseInt(matches.get(2));
-					break;
-				default:
-					log.warn("Unreachable default case for message ending in '; return to Slayer master'");
-			}
-			setTask("", 0, 0);
-			return;
+			case 0:
+				streak = 1;
+				break;
+			case 1:
+				streak = Integer.parseInt(matches.get(0));
+				break;
+			case 3:
+				streak = Integer.parseInt(matches.get(0));
+				points = Integer.parseInt(matches.get(2));
+				break;
+			default:
+				log.warn("Unreachable default case for message ending in '; return to Slayer master'");
 		}
+		setTask("", 0, 0);
+	}
 
-		if (chatMsg.equals(CHAT_GEM_COMPLETE_MESSAGE) || chatMsg.equals(CHAT_CANCEL_MESSAGE) || chatMsg.equals(CHAT_CANCEL_MESSAGE_JAD))
-		{
-			setTask("", 0, 0);
-			return;
-		}
+	private void onTaskEnded(ChatMessage event, Matcher matcher)
+	{
+		setTask("", 0, 0);
+	}
 
-		if (config.showSuperiorNotification() && chatMsg.equals(CHAT_SUPERIOR_MESSAGE))
+	private void onSuperior(ChatMessage event, Matcher matcher)
+	{
+		if (config.showSuperiorNotification())
 		{
 			notifier.notify(CHAT_SUPERIOR_MESSAGE);
-			return;
-		}
-
-		Matcher mProgress = CHAT_GEM_PROGRESS_MESSAGE.matcher(chatMsg);
-
-		if (mProgress.find())
-		{
-			String gemTaskName = mProgress.group(1);
-			int gemAmount = Integer.parseInt(mProgress.group(2));
-			setTask(gemTaskName, gemAmount, initialAmount);
-			return;
 		}
+	}
 
-		final Matcher bracerProgress = COMBAT_BRACELET_TASK_UPDATE_MESSAGE.matcher(chatMsg);
+	private void onGemProgress(ChatMessage event, Matcher matcher)
+	{
+		String gemTaskName = matcher.group(1);
+		int gemAmount = Integer.parseInt(matcher.group(2));
+		setTask(gemTaskName, gemAmount, initialAmount);
+	}
 
-		if (bracerProgress.find())
-		{
-			final int taskAmount = Integer.parseInt(bracerProgress.group(1));
-			setTask(taskName, taskAmount, initialAmount);
+	private void onCombatBraceletProgress(ChatMessage event, Matcher matcher)
+	{
+		final int taskAmount = Integer.parseInt(matcher.group(1));
+		setTask(taskName, taskAmount, initialAmount);
 
-			// Avoid race condition (combat brace message goes through first before XP drop)
-			amount++;
-		}
+		// Avoid race condition (combat brace message goes through first before XP drop)
+		amount++;
 	}
 
 	@Subscribe
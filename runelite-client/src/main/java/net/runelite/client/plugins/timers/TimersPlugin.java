@@ -27,6 +27,10 @@ package net.runelite.client.plugins.timers;
 
 import com.google.inject.Provides;
 import java.awt.image.BufferedImage;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+import java.util.regex.Pattern;
 import javax.inject.Inject;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.Actor;
@@ -47,7 +51,6 @@ import net.runelite.api.Varbits;
 import net.runelite.api.WorldType;
 import net.runelite.api.coords.WorldPoint;
 import net.runelite.api.events.AnimationChanged;
-import net.runelite.api.events.ChatMessage;
 import net.runelite.api.events.ConfigChanged;
 import net.runelite.api.events.GameStateChanged;
 import net.runelite.api.events.GameTick;
@@ -61,6 +64,7 @@ import net.runelite.api.events.WidgetHiddenChanged;
 import net.runelite.api.widgets.Widget;
 import net.runelite.api.widgets.WidgetInfo;
 import static net.runelite.api.widgets.WidgetInfo.PVP_WORLD_SAFE_ZONE;
+import net.runelite.client.chat.ChatClassifier;
 import net.runelite.client.config.ConfigManager;
 import net.runelite.client.eventbus.Subscribe;
 import net.runelite.client.game.ItemManager;
@@ -79,21 +83,21 @@ import net.runelite.client.ui.overlay.infobox.InfoBoxManager;
 public class TimersPlugin extends Plugin
 {
 	private static final String ANTIFIRE_DRINK_MESSAGE = "You drink some of your antifire potion.";
-	private static final String ANTIFIRE_EXPIRED_MESSAGE = "<col=7f007f>Your antifire potion has expired.</col>";
+	private static final String ANTIFIRE_EXPIRED_MESSAGE = "Your antifire potion has expired.";
 	private static final String ANTIVENOM_DRINK_MESSAGE = "You drink some of your antivenom potion";
 	private static final String CANNON_FURNACE_MESSAGE = "You add the furnace.";
 	private static final String CANNON_PICKUP_MESSAGE = "You pick up the cannon. It's really heavy.";
 	private static final String CANNON_REPAIR_MESSAGE = "You repair your cannon, restoring it to working order.";
-	private static final String CHARGE_EXPIRED_MESSAGE = "<col=ef1020>Your magical charge fades away.</col>";
-	private static final String CHARGE_MESSAGE = "<col=ef1020>You feel charged with magic power.</col>";
-	private static final String DEADMAN_HALF_TELEBLOCK_MESSAGE = "<col=4f006f>A teleblock spell has been cast on you. It will expire in 1 minute, 15 seconds.</col>";
+	private static final String CHARGE_EXPIRED_MESSAGE = "Your magical charge fades away.";
+	private static final String CHARGE_MESSAGE = "You feel charged with magic power.";
+	private static final String DEADMAN_HALF_TELEBLOCK_MESSAGE = "A teleblock spell has been cast on you. It will expire in 1 minute, 15 seconds.";
 	private static final String EXTENDED_ANTIFIRE_DRINK_MESSAGE = "You drink some of your extended antifire potion.";
 	private static final String EXTENDED_SUPER_ANTIFIRE_DRINK_MESSAGE = "You drink some of your extended super antifire potion.";
-	private static final String FROZEN_MESSAGE = "<col=ef1020>You have been frozen!</col>";
-	private static final String FULL_TELEBLOCK_MESSAGE = "<col=4f006f>A teleblock spell has been cast on you. It will expire in 5 minutes, 0 seconds.</col>";
+	private static final String FROZEN_MESSAGE = "You have been frozen!";
+	private static final String FULL_TELEBLOCK_MESSAGE = "A teleblock spell has been cast on you. It will expire in 5 minutes, 0 seconds.";
 	private static final String GOD_WARS_ALTAR_MESSAGE = "you recharge your prayer.";
-	private static final String HALF_TELEBLOCK_MESSAGE = "<col=4f006f>A teleblock spell has been cast on you. It will expire in 2 minutes, 30 seconds.</col>";
-	private static final String IMBUED_HEART_READY_MESSAGE = "<col=ef1020>Your imbued heart has regained its magical power.</col>";
+	private static final String HALF_TELEBLOCK_MESSAGE = "A teleblock spell has been cast on you. It will expire in 2 minutes, 30 seconds.";
+	private static final String IMBUED_HEART_READY_MESSAGE = "Your imbued heart has regained its magical power.";
 	private static final String MAGIC_IMBUE_EXPIRED_MESSAGE = "Your Magic Imbue charge has ended.";
 	private static final String MAGIC_IMBUE_MESSAGE = "You are charged to combine runes!";
 	private static final String SANFEW_SERUM_DRINK_MESSAGE = "You drink some of your Sanfew Serum.";
@@ -101,10 +105,13 @@ public class TimersPlugin extends Plugin
 	private static final String STAFF_OF_THE_DEAD_SPEC_MESSAGE = "Spirits of deceased evildoers offer you their protection";
 	private static final String STAMINA_DRINK_MESSAGE = "You drink some of your stamina potion.";
 	private static final String STAMINA_SHARED_DRINK_MESSAGE = "You have received a shared dose of stamina potion.";
-	private static final String STAMINA_EXPIRED_MESSAGE = "<col=8f4808>Your stamina potion has expired.</col>";
+	private static final String STAMINA_EXPIRED_MESSAGE = "Your stamina potion has expired.";
 	private static final String SUPER_ANTIFIRE_DRINK_MESSAGE = "You drink some of your super antifire potion";
-	private static final String SUPER_ANTIFIRE_EXPIRED_MESSAGE = "<col=7f007f>Your super antifire potion has expired.</col>";
+	private static final String SUPER_ANTIFIRE_EXPIRED_MESSAGE = "Your super antifire potion has expired.";
 	private static final String SUPER_ANTIVENOM_DRINK_MESSAGE = "You drink some of your super antivenom potion";
+	private static final Pattern OVERLOAD_DRINK_MESSAGE = Pattern.compile("You drink some of your.*overload");
+	private static final Pattern PRAYER_ENHANCE_DRINK_MESSAGE = Pattern.compile("You drink some of your.*prayer enhance");
+	private static final Set<ChatMessageType> GAME_MESSAGE_TYPES = EnumSet.of(ChatMessageType.SERVER, ChatMessageType.FILTERED);
 
 	private TimerTimer freezeTimer;
 	private int freezeTime = -1; // time frozen, in game ticks
@@ -132,15 +139,59 @@ public class TimersPlugin extends Plugin
 	@Inject
 	private InfoBoxManager infoBoxManager;
 
+	@Inject
+	private ChatClassifier chatClassifier;
+
 	@Provides
 	TimersConfig getConfig(ConfigManager configManager)
 	{
 		return configManager.getConfig(TimersConfig.class);
 	}
 
+	@Override
+	protected void startUp() throws Exception
+	{
+		onMessage(message(STAMINA_DRINK_MESSAGE), config::showStamina, () -> createGameTimer(STAMINA));
+		onMessage(message(STAMINA_SHARED_DRINK_MESSAGE), config::showStamina, () -> createGameTimer(STAMINA));
+		onMessage(message(STAMINA_EXPIRED_MESSAGE), config::showStamina, () -> removeGameTimer(STAMINA));
+		onMessage(message(ANTIFIRE_DRINK_MESSAGE), config::showAntiFire, () -> createGameTimer(ANTIFIRE));
+		onMessage(message(EXTENDED_ANTIFIRE_DRINK_MESSAGE), config::showAntiFire, () -> createGameTimer(EXANTIFIRE));
+		//Normal altars are "You recharge your Prayer points." while gwd is "You recharge your Prayer."
+		onMessage(Pattern.compile(ChatClassifier.quote(GOD_WARS_ALTAR_MESSAGE) + "$", Pattern.CASE_INSENSITIVE), config::showGodWarsAltar, () -> createGameTimer(GOD_WARS_ALTAR));
+		onMessage(message(EXTENDED_SUPER_ANTIFIRE_DRINK_MESSAGE), config::showAntiFire, () -> createGameTimer(EXSUPERANTIFIRE));
+		onMessage(message(ANTIFIRE_EXPIRED_MESSAGE), config::showAntiFire, () ->
+		{
+			//they have the same expired message
+			removeGameTimer(ANTIFIRE);
+			removeGameTimer(EXANTIFIRE);
+		});
+		onMessage(OVERLOAD_DRINK_MESSAGE, config::showOverload, this::createOverloadTimer);
+		onMessage(message(CANNON_FURNACE_MESSAGE), config::showCannon, () -> createGameTimer(CANNON));
+		onMessage(containing(CANNON_REPAIR_MESSAGE), config::showCannon, () -> createGameTimer(CANNON));
+		onMessage(message(CANNON_PICKUP_MESSAGE), config::showCannon, () -> removeGameTimer(CANNON));
+		onMessage(containing(SUPER_ANTIVENOM_DRINK_MESSAGE), config::showAntiPoison, () -> createGameTimer(ANTIVENOMPLUS));
+		onMessage(message(MAGIC_IMBUE_MESSAGE), config::showMagicImbue, () -> createGameTimer(MAGICIMBUE));
+		onMessage(message(MAGIC_IMBUE_EXPIRED_MESSAGE), () -> true, () -> removeGameTimer(MAGICIMBUE));
+		onMessage(message(FULL_TELEBLOCK_MESSAGE), config::showTeleblock, () -> createGameTimer(FULLTB));
+		onMessage(message(HALF_TELEBLOCK_MESSAGE), config::showTeleblock, this::createHalfTeleblockTimer);
+		onMessage(message(DEADMAN_HALF_TELEBLOCK_MESSAGE), config::showTeleblock, () -> createGameTimer(DMM_HALFTB));
+		onMessage(containing(SUPER_ANTIFIRE_DRINK_MESSAGE), config::showAntiFire, () -> createGameTimer(SUPERANTIFIRE));
+		onMessage(message(SUPER_ANTIFIRE_EXPIRED_MESSAGE), config::showAntiFire, () -> removeGameTimer(SUPERANTIFIRE));
+		onMessage(message(IMBUED_HEART_READY_MESSAGE), config::showImbuedHeart, () -> removeGameTimer(IMBUEDHEART));
+		onMessage(containing(ANTIVENOM_DRINK_MESSAGE), config::showAntiPoison, () -> createGameTimer(ANTIVENOM));
+		onMessage(containing(SANFEW_SERUM_DRINK_MESSAGE), config::showAntiPoison, () -> createGameTimer(SANFEW));
+		onMessage(PRAYER_ENHANCE_DRINK_MESSAGE, config::showPrayerEnhance, () -> createGameTimer(PRAYER_ENHANCE));
+		onMessage(message(CHARGE_MESSAGE), config::showCharge, () -> createGameTimer(CHARGE));
+		onMessage(message(CHARGE_EXPIRED_MESSAGE), config::showCharge, () -> removeGameTimer(CHARGE));
+		onMessage(containing(STAFF_OF_THE_DEAD_SPEC_MESSAGE), config::showStaffOfTheDead, () -> createGameTimer(STAFF_OF_THE_DEAD));
+		onMessage(containing(STAFF_OF_THE_DEAD_SPEC_EXPIRED_MESSAGE), config::showStaffOfTheDead, () -> removeGameTimer(STAFF_OF_THE_DEAD));
+		onMessage(message(FROZEN_MESSAGE), config::showFreezes, this::createFreezeTimer);
+	}
+
 	@Override
 	protected void shutDown() throws Exception
 	{
+		chatClassifier.unregister(this);
 		infoBoxManager.removeIf(t -> t instanceof TimerTimer);
 		lastRaidVarb = -1;
 		lastPoint = null;
@@ -347,167 +398,64 @@ public class TimersPlugin extends Plugin
 		}
 	}
 
-	@Subscribe
-	public void onChatMessage(ChatMessage event)
+	private void createOverloadTimer()
 	{
-
-		if (event.getType() != ChatMessageType.FILTERED && event.getType() != ChatMessageType.SERVER)
-		{
-			return;
-		}
-
-		if (config.showStamina() && (event.getMessage().equals(STAMINA_DRINK_MESSAGE) || event.getMessage().equals(STAMINA_SHARED_DRINK_MESSAGE)))
-		{
-			createGameTimer(STAMINA);
-		}
-
-		if (config.showStamina() && event.getMessage().equals(STAMINA_EXPIRED_MESSAGE))
-		{
-			removeGameTimer(STAMINA);
-		}
-
-		if (config.showAntiFire() && event.getMessage().equals(ANTIFIRE_DRINK_MESSAGE))
-		{
-			createGameTimer(ANTIFIRE);
-		}
-
-		if (config.showAntiFire() && event.getMessage().equals(EXTENDED_ANTIFIRE_DRINK_MESSAGE))
-		{
-			createGameTimer(EXANTIFIRE);
-		}
-
-		if (config.showGodWarsAltar() && event.getMessage().equalsIgnoreCase(GOD_WARS_ALTAR_MESSAGE))//Normal altars are "You recharge your Prayer points." while gwd is "You recharge your Prayer."
-		{
-			createGameTimer(GOD_WARS_ALTAR);
-		}
-
-		if (config.showAntiFire() && event.getMessage().equals(EXTENDED_SUPER_ANTIFIRE_DRINK_MESSAGE))
+		if (client.getVar(Varbits.IN_RAID) == 1)
 		{
-			createGameTimer(EXSUPERANTIFIRE);
+			createGameTimer(OVERLOAD_RAID);
 		}
-
-		if (config.showAntiFire() && event.getMessage().equals(ANTIFIRE_EXPIRED_MESSAGE))
+		else
 		{
-			//they have the same expired message
-			removeGameTimer(ANTIFIRE);
-			removeGameTimer(EXANTIFIRE);
-		}
-
-		if (config.showOverload() && event.getMessage().startsWith("You drink some of your") && event.getMessage().contains("overload"))
-		{
-			if (client.getVar(Varbits.IN_RAID) == 1)
-			{
-				createGameTimer(OVERLOAD_RAID);
-			}
-			else
-			{
-				createGameTimer(OVERLOAD);
-			}
-
-		}
-
-		if (config.showCannon() && (event.getMessage().equals(CANNON_FURNACE_MESSAGE) || event.getMessage().contains(CANNON_REPAIR_MESSAGE)))
-		{
-			createGameTimer(CANNON);
-		}
-
-		if (config.showCannon() && event.getMessage().equals(CANNON_PICKUP_MESSAGE))
-		{
-			removeGameTimer(CANNON);
-		}
-
-		if (config.showAntiPoison() && event.getMessage().contains(SUPER_ANTIVENOM_DRINK_MESSAGE))
-		{
-			createGameTimer(ANTIVENOMPLUS);
+			createGameTimer(OVERLOAD);
 		}
+	}
 
-		if (config.showMagicImbue() && event.getMessage().equals(MAGIC_IMBUE_MESSAGE))
+	private void createHalfTeleblockTimer()
+	{
+		if (client.getWorldType().contains(WorldType.DEADMAN))
 		{
-			createGameTimer(MAGICIMBUE);
+			createGameTimer(DMM_FULLTB);
 		}
-
-		if (event.getMessage().equals(MAGIC_IMBUE_EXPIRED_MESSAGE))
+		else
 		{
-			removeGameTimer(MAGICIMBUE);
+			createGameTimer(HALFTB);
 		}
+	}
 
-		if (config.showTeleblock() && event.getMessage().equals(FULL_TELEBLOCK_MESSAGE))
-		{
-			createGameTimer(FULLTB);
-		}
+	private void createFreezeTimer()
+	{
+		freezeTimer = createGameTimer(ICEBARRAGE);
+		freezeTime = client.getTickCount();
+	}
 
-		if (config.showTeleblock() && event.getMessage().equals(HALF_TELEBLOCK_MESSAGE))
+	/**
+	 * Registers an action to run for each game message matching the pattern while the timer is enabled
+	 */
+	private void onMessage(Pattern pattern, BooleanSupplier enabled, Runnable action)
+	{
+		chatClassifier.register(this, pattern, GAME_MESSAGE_TYPES, (chatMessage, matcher) ->
 		{
-			if (client.getWorldType().contains(WorldType.DEADMAN))
-			{
-				createGameTimer(DMM_FULLTB);
-			}
-			else
+			if (enabled.getAsBoolean())
 			{
-				createGameTimer(HALFTB);
+				action.run();
 			}
-		}
-
-		if (config.showTeleblock() && event.getMessage().equals(DEADMAN_HALF_TELEBLOCK_MESSAGE))
-		{
-			createGameTimer(DMM_HALFTB);
-		}
-
-		if (config.showAntiFire() && event.getMessage().contains(SUPER_ANTIFIRE_DRINK_MESSAGE))
-		{
-			createGameTimer(SUPERANTIFIRE);
-		}
-
-		if (config.showAntiFire() && event.getMessage().equals(SUPER_ANTIFIRE_EXPIRED_MESSAGE))
-		{
-			removeGameTimer(SUPERANTIFIRE);
-		}
-
-		if (config.showImbuedHeart() && event.getMessage().equals(IMBUED_HEART_READY_MESSAGE))
-		{
-			removeGameTimer(IMBUEDHEART);
-		}
-
-		if (config.showAntiPoison() && event.getMessage().contains(ANTIVENOM_DRINK_MESSAGE))
-		{
-			createGameTimer(ANTIVENOM);
-		}
-
-		if (config.showAntiPoison() && event.getMessage().contains(SANFEW_SERUM_DRINK_MESSAGE))
-		{
-			createGameTimer(SANFEW);
-		}
-
-		if (config.showPrayerEnhance() && event.getMessage().startsWith("You drink some of your") && event.getMessage().contains("prayer enhance"))
-		{
-			createGameTimer(PRAYER_ENHANCE);
-		}
-
-		if (config.showCharge() && event.getMessage().equals(CHARGE_MESSAGE))
-		{
-			createGameTimer(CHARGE);
-		}
-
-		if (config.showCharge() && event.getMessage().equals(CHARGE_EXPIRED_MESSAGE))
-		{
-			removeGameTimer(CHARGE);
-		}
-
-		if (config.showStaffOfTheDead() && event.getMessage().contains(STAFF_OF_THE_DEAD_SPEC_MESSAGE))
-		{
-			createGameTimer(STAFF_OF_THE_DEAD);
-		}
+		});
+	}
 
-		if (config.showStaffOfTheDead() && event.getMessage().contains(STAFF_OF_THE_DEAD_SPEC_EXPIRED_MESSAGE))
-		{
-			removeGameTimer(STAFF_OF_THE_DEAD);
-		}
+	/**
+	 * Creates a pattern matching exactly the given chat message
+	 */
+	private static Pattern message(String message)
+	{
+		return Pattern.compile(ChatClassifier.quote(message) + "$");
+	}
 
-		if (config.showFreezes() && event.getMessage().equals(FROZEN_MESSAGE))
-		{
-			freezeTimer = createGameTimer(ICEBARRAGE);
-			freezeTime = client.getTickCount();
-		}
+	/**
+	 * Creates a pattern matching chat messages containing the given text
+	 */
+	private static Pattern containing(String text)
+	{
+		return Pattern.compile(".*" + ChatClassifier.quote(text));
 	}
 
 	@Subscribe
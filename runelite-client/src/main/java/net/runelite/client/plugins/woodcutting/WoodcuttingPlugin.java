@@ -27,8 +27,11 @@ package net.runelite.client.plugins.woodcutting;
 import com.google.inject.Provides;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import javax.inject.Inject;
 import lombok.Getter;
 import net.runelite.api.ChatMessageType;
@@ -44,6 +47,7 @@ import net.runelite.api.events.GameObjectSpawned;
 import net.runelite.api.events.GameStateChanged;
 import net.runelite.api.events.GameTick;
 import net.runelite.client.Notifier;
+import net.runelite.client.chat.ChatClassifier;
 import net.runelite.client.config.ConfigManager;
 import net.runelite.client.eventbus.Subscribe;
 import net.runelite.client.plugins.Plugin;
@@ -60,6 +64,10 @@ import net.runelite.client.ui.overlay.OverlayManager;
 @PluginDependency(XpTrackerPlugin.class)
 public class WoodcuttingPlugin extends Plugin
 {
+	private static final Set<ChatMessageType> GAME_MESSAGE_TYPES = EnumSet.of(ChatMessageType.SERVER, ChatMessageType.FILTERED);
+	private static final Pattern LOG_CUT_MESSAGE = Pattern.compile("You get some.*(logs|mushrooms)\\.$");
+	private static final Pattern BIRD_NEST_MESSAGE = Pattern.compile(".*A bird's nest falls out of the tree");
+
 	@Inject
 	private Notifier notifier;
 
@@ -78,6 +86,9 @@ public class WoodcuttingPlugin extends Plugin
 	@Inject
 	private WoodcuttingConfig config;
 
+	@Inject
+	private ChatClassifier chatClassifier;
+
 	@Getter
 	private WoodcuttingSession session;
 
@@ -98,11 +109,14 @@ public class WoodcuttingPlugin extends Plugin
 	{
 		overlayManager.add(overlay);
 		overlayManager.add(treesOverlay);
+		chatClassifier.register(this, LOG_CUT_MESSAGE, GAME_MESSAGE_TYPES, this::onLogCut);
+		chatClassifier.register(this, BIRD_NEST_MESSAGE, GAME_MESSAGE_TYPES, this::onBirdNest);
 	}
 
 	@Override
 	protected void shutDown() throws Exception
 	{
+		chatClassifier.unregister(this);
 		overlayManager.remove(overlay);
 		overlayManager.remove(treesOverlay);
 		treeObjects.clear();
@@ -128,25 +142,21 @@ public class WoodcuttingPlugin extends Plugin
 		}
 	}
 
-	@Subscribe
-	public void onChatMessage(ChatMessage event)
+	private void onLogCut(ChatMessage event, Matcher matcher)
+	{
+		if (session == null)
+		{
+			session = new WoodcuttingSession();
+		}
+
+		session.setLastLogCut();
+	}
+
+	private void onBirdNest(ChatMessage event, Matcher matcher)
 	{
-		if (event.getType() == ChatMessageType.FILTERED || event.getType() == ChatMessageType.SERVER)
+		if (config.showNestNotification())
 		{
-			if (event.getMessage().startsWith("You get some") && (event.getMessage().endsWith("logs.") || event.getMessage().endsWith("mushrooms.")))
-			{
-				if (session == null)
-				{
-					session = new WoodcuttingSession();
-				}
-
-				session.setLastLogCut();
-			}
-
-			if (event.getMessage().contains("A bird's nest falls out of the tree") && config.showNestNotification())
-			{
-				notifier.notify("A bird nest has spawned!");
-			}
+			notifier.notify("A bird nest has spawned!");
 		}
 	}
 
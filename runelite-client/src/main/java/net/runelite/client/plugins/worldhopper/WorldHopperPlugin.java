@@ -42,6 +42,8 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import javax.imageio.ImageIO;
 import javax.inject.Inject;
 import javax.swing.SwingUtilities;
@@ -66,6 +68,7 @@ import net.runelite.api.events.VarbitChanged;
 import net.runelite.api.events.WorldListLoad;
 import net.runelite.api.widgets.WidgetInfo;
 import net.runelite.client.callback.ClientThread;
+import net.runelite.client.chat.ChatClassifier;
 import net.runelite.client.chat.ChatColorType;
 import net.runelite.client.chat.ChatMessageBuilder;
 import net.runelite.client.chat.ChatMessageManager;
@@ -106,6 +109,7 @@ public class WorldHopperPlugin extends Plugin
 	private static final String KICK_OPTION = "Kick";
 	private static final ImmutableList<String> BEFORE_OPTIONS = ImmutableList.of("Add friend", "Remove friend", KICK_OPTION);
 	private static final ImmutableList<String> AFTER_OPTIONS = ImmutableList.of("Message");
+	private static final Pattern HOP_BLOCKED_MESSAGE = Pattern.compile(ChatClassifier.quote("Please finish what you're doing before using the World Switcher.") + "$");
 
 	@Inject
 	private Client client;
@@ -131,6 +135,9 @@ public class WorldHopperPlugin extends Plugin
 	@Inject
 	private WorldHopperConfig config;
 
+	@Inject
+	private ChatClassifier chatClassifier;
+
 	private final ScheduledExecutorService hopperExecutorService = new ExecutorServiceExceptionLogger(Executors.newSingleThreadScheduledExecutor());
 
 	private NavigationButton navButton;
@@ -202,11 +209,13 @@ public class WorldHopperPlugin extends Plugin
 
 		worldResultFuture = executorService.scheduleAtFixedRate(this::tick, 0, WORLD_FETCH_TIMER, TimeUnit.MINUTES);
 		pingFuture = hopperExecutorService.scheduleAtFixedRate(this::pingWorlds, WORLD_PING_TIMER, WORLD_PING_TIMER, TimeUnit.MINUTES);
+		chatClassifier.register(this, HOP_BLOCKED_MESSAGE, EnumSet.of(ChatMessageType.SERVER), this::onHopBlocked);
 	}
 
 	@Override
 	protected void shutDown() throws Exception
 	{
+		chatClassifier.unregister(this);
 		pingFuture.cancel(true);
 		pingFuture = null;
 
@@ -674,18 +683,9 @@ public class WorldHopperPlugin extends Plugin
 		}
 	}
 
-	@Subscribe
-	public void onChatMessage(ChatMessage event)
+	private void onHopBlocked(ChatMessage event, Matcher matcher)
 	{
-		if (event.getType() != ChatMessageType.SERVER)
-		{
-			return;
-		}
-
-		if (event.getMessage().equals("Please finish what you're doing before using the World Switcher."))
-		{
-			resetQuickHopper();
-		}
+		resetQuickHopper();
 	}
 
 	private void resetQuickHopper()
@@ -26,6 +26,8 @@
  */
 package net.runelite.client.rs;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.hash.Hasher;
 import com.google.common.hash.Hashing;
 import com.google.common.io.ByteStreams;
 import com.google.common.reflect.TypeToken;
@@ -33,19 +35,34 @@ import com.google.gson.Gson;
 import io.sigpipe.jbsdiff.InvalidHeaderException;
 import io.sigpipe.jbsdiff.Patch;
 import java.applet.Applet;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.jar.JarEntry;
 import java.util.jar.JarInputStream;
+import java.util.jar.JarOutputStream;
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.RuneLite;
 import static net.runelite.client.rs.ClientUpdateCheckMode.*;
 import net.runelite.http.api.RuneLiteAPI;
 import okhttp3.Request;
@@ -56,16 +73,36 @@ import org.apache.commons.compress.compressors.CompressorException;
 @Singleton
 public class ClientLoader
 {
+	private static final File GAMEPACK_DIR = new File(RuneLite.RUNELITE_DIR, "gamepack");
+	private static final String GAMEPACK_INFO = "gamepack.properties";
+
 	private final ClientConfigLoader clientConfigLoader;
+	private final File gamepackDir;
+	private final ClassLoader patchLoader;
 	private ClientUpdateCheckMode updateCheckMode;
 
 	@Inject
 	private ClientLoader(
 		@Named("updateCheckMode") final ClientUpdateCheckMode updateCheckMode,
 		final ClientConfigLoader clientConfigLoader)
+	{
+		this(updateCheckMode, clientConfigLoader, GAMEPACK_DIR, ClientLoader.class.getClassLoader());
+	}
+
+	/**
+	 * @param patchLoader class loader to load the patch/ resources from
+	 */
+	@VisibleForTesting
+	ClientLoader(
+		final ClientUpdateCheckMode updateCheckMode,
+		final ClientConfigLoader clientConfigLoader,
+		final File gamepackDir,
+		final ClassLoader patchLoader)
 	{
 		this.updateCheckMode = updateCheckMode;
 		this.clientConfigLoader = clientConfigLoader;
+		this.gamepackDir = gamepackDir;
+		this.patchLoader = patchLoader;
 	}
 
 	public Applet load()
@@ -78,141 +115,397 @@ public class ClientLoader
 		try
 		{
 			RSConfig config = clientConfigLoader.fetch();
+			Map<String, byte[]> zipFile = loadClasses(config);
 
-			Map<String, byte[]> zipFile = new HashMap<>();
-			{
-				String codebase = config.getCodeBase();
-				String initialJar = config.getInitialJar();
-				URL url = new URL(codebase + initialJar);
-				Request request = new Request.Builder()
-					.url(url)
-					.build();
+			String initialClass = config.getInitialClass();
 
-				try (Response response = RuneLiteAPI.CLIENT.newCall(request).execute())
+			ClassLoader rsClassLoader = new ClassLoader(ClientLoader.class.getClassLoader())
+			{
+				@Override
+				protected Class<?> findClass(String name) throws ClassNotFoundException
 				{
-					JarInputStream jis = new JarInputStream(response.body().byteStream());
-
-					byte[] tmp = new byte[4096];
-					ByteArrayOutputStream buffer = new ByteArrayOutputStream(756 * 1024);
-					for (; ; )
+					String path = name.replace('.', '/').concat(".class");
+					byte[] data = zipFile.get(path);
+					if (data == null)
 					{
-						JarEntry metadata = jis.getNextJarEntry();
-						if (metadata == null)
-						{
-							break;
-						}
+						throw new ClassNotFoundException(name);
+					}
 
-						buffer.reset();
-						for (; ; )
-						{
-							int n = jis.read(tmp);
-							if (n <= -1)
-							{
-								break;
-							}
-							buffer.write(tmp, 0, n);
-						}
+					return defineClass(name, data, 0, data.length);
+				}
+			};
 
-						zipFile.put(metadata.getName(), buffer.toByteArray());
+			Class<?> clientClass = rsClassLoader.loadClass(initialClass);
+
+			Applet rs = (Applet) clientClass.newInstance();
+			rs.setStub(new RSAppletStub(config));
+			return rs;
+		}
+		catch (IOException | ClassNotFoundException | InstantiationException | IllegalAccessException e)
+		{
+			if (e instanceof ClassNotFoundException)
+			{
+				log.error("Unable to load client - class not found. This means you"
+					+ " are not running RuneLite with Maven as the client patch"
+					+ " is not in your classpath.");
+			}
+
+			log.error("Error loading RS!", e);
+			System.exit(-1);
+			return null;
+		}
+	}
+
+	/**
+	 * Load the gamepack classes, patching them if the client is up to date
+	 *
+	 * @param config client config describing the gamepack to load
+	 * @return classes, keyed by their path in the gamepack
+	 */
+	@VisibleForTesting
+	Map<String, byte[]> loadClasses(RSConfig config) throws IOException
+	{
+		final Gamepack gamepack = fetchGamepack(new URL(config.getCodeBase() + config.getInitialJar()));
+		final Map<String, byte[]> zipFile = readJar(gamepack.getData());
+
+		if (updateCheckMode == AUTO)
+		{
+			final byte[] hashesJson;
+			try (InputStream is = patchLoader.getResourceAsStream("patch/hashes.json"))
+			{
+				hashesJson = ByteStreams.toByteArray(is);
+			}
+
+			final Map<String, byte[]> patches = new TreeMap<>();
+			for (String file : zipFile.keySet())
+			{
+				try (InputStream is = patchLoader.getResourceAsStream("patch/" + file + ".bs"))
+				{
+					if (is != null)
+					{
+						patches.put(file, ByteStreams.toByteArray(is));
 					}
 				}
 			}
 
-			if (updateCheckMode == AUTO)
+			// the patched classes are only valid for this exact gamepack and set of patches
+			final Hasher hasher = Hashing.sha256().newHasher()
+				.putBytes(hashesJson);
+			for (Map.Entry<String, byte[]> patch : patches.entrySet())
 			{
-				Map<String, String> hashes;
-				try (InputStream is = ClientLoader.class.getResourceAsStream("/patch/hashes.json"))
+				hasher.putString(patch.getKey(), StandardCharsets.UTF_8)
+					.putBytes(patch.getValue());
+			}
+
+			final File patchedFile = new File(gamepackDir, gamepack.getHash() + "-" + hasher.hash() + ".patched");
+			Map<String, byte[]> patched = null;
+
+			if (patchedFile.exists())
+			{
+				try
+				{
+					patched = readJar(Files.readAllBytes(patchedFile.toPath()));
+					log.debug("Loaded {} patched classes from {}", patched.size(), patchedFile);
+				}
+				catch (IOException ex)
 				{
-					hashes = new Gson().fromJson(new InputStreamReader(is), new TypeToken<HashMap<String, String>>()
+					log.warn("Unable to read patched classes", ex);
+				}
+			}
+
+			if (patched == null)
+			{
+				final Map<String, String> hashes = new Gson().fromJson(
+					new InputStreamReader(new ByteArrayInputStream(hashesJson), StandardCharsets.UTF_8),
+					new TypeToken<HashMap<String, String>>()
 					{
 					}.getType());
-				}
 
-				for (Map.Entry<String, String> file : hashes.entrySet())
+				if (verify(zipFile, hashes))
 				{
-					byte[] bytes = zipFile.get(file.getKey());
+					patched = patch(zipFile, patches);
 
-					String ourHash = null;
-					if (bytes != null)
+					try
 					{
-						ourHash = Hashing.sha512().hashBytes(bytes).toString();
+						writeFile(patchedFile, writeJar(patched));
 					}
-
-					if (!file.getValue().equals(ourHash))
+					catch (IOException ex)
 					{
-						log.debug("{} had a hash mismatch; falling back to vanilla. {} != {}", file.getKey(), file.getValue(), ourHash);
-						log.info("Client is outdated!");
-						updateCheckMode = VANILLA;
-						break;
+						log.warn("Unable to save patched classes", ex);
 					}
 				}
+				else
+				{
+					log.info("Client is outdated!");
+					updateCheckMode = VANILLA;
+				}
 			}
 
-			if (updateCheckMode == AUTO)
+			if (patched != null)
 			{
-				ByteArrayOutputStream patchOs = new ByteArrayOutputStream(756 * 1024);
-				int patchCount = 0;
+				zipFile.putAll(patched);
+				log.debug("Patched {} classes", patched.size());
+			}
+		}
 
-				for (Map.Entry<String, byte[]> file : zipFile.entrySet())
-				{
-					byte[] bytes;
-					try (InputStream is = ClientLoader.class.getResourceAsStream("/patch/" + file.getKey() + ".bs"))
-					{
-						if (is == null)
-						{
-							continue;
-						}
+		return zipFile;
+	}
 
-						bytes = ByteStreams.toByteArray(is);
-					}
+	/**
+	 * Get the gamepack at the given url, revalidating the cached copy if there is one
+	 */
+	private Gamepack fetchGamepack(URL url) throws IOException
+	{
+		final File infoFile = new File(gamepackDir, GAMEPACK_INFO);
+		final Properties info = new Properties();
+		Gamepack cached = null;
+
+		if (infoFile.exists())
+		{
+			try (InputStream in = new FileInputStream(infoFile))
+			{
+				info.load(in);
+			}
 
-					patchOs.reset();
-					Patch.patch(file.getValue(), bytes, patchOs);
-					file.setValue(patchOs.toByteArray());
+			final String hash = info.getProperty("hash");
+			final File jar = new File(gamepackDir, hash + ".jar");
 
-					++patchCount;
+			if (url.toString().equals(info.getProperty("url")) && jar.exists())
+			{
+				final byte[] data = Files.readAllBytes(jar.toPath());
+
+				if (Hashing.sha256().hashBytes(data).toString().equals(hash))
+				{
+					cached = new Gamepack(hash, data);
 				}
+				else
+				{
+					log.warn("Cached gamepack {} is corrupt", jar);
+				}
+			}
+		}
 
-				log.debug("Patched {} classes", patchCount);
+		final Request.Builder request = new Request.Builder()
+			.url(url);
+
+		if (cached != null)
+		{
+			if (info.getProperty("etag") != null)
+			{
+				request.header("If-None-Match", info.getProperty("etag"));
 			}
 
-			String initialClass = config.getInitialClass();
+			if (info.getProperty("lastModified") != null)
+			{
+				request.header("If-Modified-Since", info.getProperty("lastModified"));
+			}
+		}
 
-			ClassLoader rsClassLoader = new ClassLoader(ClientLoader.class.getClassLoader())
+		try (Response response = RuneLiteAPI.CLIENT.newCall(request.build()).execute())
+		{
+			if (cached != null && response.code() == 304)
 			{
-				@Override
-				protected Class<?> findClass(String name) throws ClassNotFoundException
+				log.debug("Gamepack {} is unchanged", url);
+				return cached;
+			}
+
+			if (!response.isSuccessful())
+			{
+				throw new IOException("Unable to download gamepack: " + response.code());
+			}
+
+			final byte[] data = response.body().bytes();
+			final String hash = Hashing.sha256().hashBytes(data).toString();
+			log.debug("Downloaded gamepack {} ({} bytes)", url, data.length);
+
+			try
+			{
+				gamepackDir.mkdirs();
+				writeFile(new File(gamepackDir, hash + ".jar"), data);
+
+				info.clear();
+				info.setProperty("url", url.toString());
+				info.setProperty("hash", hash);
+				if (response.header("ETag") != null)
 				{
-					String path = name.replace('.', '/').concat(".class");
-					byte[] data = zipFile.get(path);
-					if (data == null)
+					info.setProperty("etag", response.header("ETag"));
+				}
+				if (response.header("Last-Modified") != null)
+				{
+					info.setProperty("lastModified", response.header("Last-Modified"));
+				}
+
+				final ByteArrayOutputStream out = new ByteArrayOutputStream();
+				info.store(out, "RuneLite gamepack cache");
+				writeFile(infoFile, out.toByteArray());
+
+				// remove old gamepacks and their patched classes
+				final File[] files = gamepackDir.listFiles();
+				if (files != null)
+				{
+					for (File file : files)
 					{
-						throw new ClassNotFoundException(name);
+						if (!file.getName().equals(GAMEPACK_INFO) && !file.getName().startsWith(hash))
+						{
+							file.delete();
+						}
 					}
+				}
+			}
+			catch (IOException ex)
+			{
+				log.warn("Unable to cache gamepack", ex);
+			}
 
-					return defineClass(name, data, 0, data.length);
+			return new Gamepack(hash, data);
+		}
+		catch (IOException ex)
+		{
+			if (cached == null)
+			{
+				throw ex;
+			}
+
+			log.warn("Unable to revalidate gamepack, using cached copy", ex);
+			return cached;
+		}
+	}
+
+	/**
+	 * Check the hashes of the gamepack classes match the ones the patches were made against
+	 */
+	@VisibleForTesting
+	static boolean verify(Map<String, byte[]> zipFile, Map<String, String> hashes)
+	{
+		return hashes.entrySet().parallelStream().allMatch(file ->
+		{
+			byte[] bytes = zipFile.get(file.getKey());
+
+			String ourHash = null;
+			if (bytes != null)
+			{
+				ourHash = Hashing.sha512().hashBytes(bytes).toString();
+			}
+
+			if (!file.getValue().equals(ourHash))
+			{
+				log.debug("{} had a hash mismatch; falling back to vanilla. {} != {}", file.getKey(), file.getValue(), ourHash);
+				return false;
+			}
+
+			return true;
+		});
+	}
+
+	/**
+	 * Apply patches to the gamepack classes, in parallel
+	 *
+	 * @param zipFile gamepack classes
+	 * @param patches patches, keyed by the path of the class they apply to
+	 * @return the patched classes
+	 */
+	@VisibleForTesting
+	static Map<String, byte[]> patch(Map<String, byte[]> zipFile, Map<String, byte[]> patches) throws IOException
+	{
+		final Map<String, byte[]> patched = new ConcurrentHashMap<>();
+
+		try
+		{
+			patches.entrySet().parallelStream().forEach(patch ->
+			{
+				final ByteArrayOutputStream patchOs = new ByteArrayOutputStream(16 * 1024);
+
+				try
+				{
+					Patch.patch(zipFile.get(patch.getKey()), patch.getValue(), patchOs);
+				}
+				catch (IOException | CompressorException | InvalidHeaderException ex)
+				{
+					throw new PatchException(patch.getKey(), ex);
 				}
-			};
 
-			Class<?> clientClass = rsClassLoader.loadClass(initialClass);
+				patched.put(patch.getKey(), patchOs.toByteArray());
+			});
+		}
+		catch (PatchException ex)
+		{
+			throw new IOException("Unable to patch " + ex.getMessage(), ex.getCause());
+		}
 
-			Applet rs = (Applet) clientClass.newInstance();
-			rs.setStub(new RSAppletStub(config));
-			return rs;
+		return patched;
+	}
+
+	private static Map<String, byte[]> readJar(byte[] data) throws IOException
+	{
+		final Map<String, byte[]> zipFile = new HashMap<>();
+
+		try (JarInputStream jis = new JarInputStream(new ByteArrayInputStream(data)))
+		{
+			for (JarEntry metadata = jis.getNextJarEntry(); metadata != null; metadata = jis.getNextJarEntry())
+			{
+				zipFile.put(metadata.getName(), ByteStreams.toByteArray(jis));
+			}
 		}
-		catch (IOException | ClassNotFoundException | InstantiationException | IllegalAccessException
-			| CompressorException | InvalidHeaderException e)
+
+		return zipFile;
+	}
+
+	private static byte[] writeJar(Map<String, byte[]> zipFile) throws IOException
+	{
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		try (JarOutputStream jos = new JarOutputStream(out))
 		{
-			if (e instanceof ClassNotFoundException)
+			for (Map.Entry<String, byte[]> file : zipFile.entrySet())
 			{
-				log.error("Unable to load client - class not found. This means you"
-					+ " are not running RuneLite with Maven as the client patch"
-					+ " is not in your classpath.");
+				jos.putNextEntry(new JarEntry(file.getKey()));
+				jos.write(file.getValue());
+				jos.closeEntry();
 			}
+		}
 
-			log.error("Error loading RS!", e);
-			System.exit(-1);
-			return null;
+		return out.toByteArray();
+	}
+
+	private static void writeFile(File file, byte[] data) throws IOException
+	{
+		// write to a temporary file first so a partially written file is never used
+		final File tempFile = File.createTempFile("gamepack", null, file.getParentFile());
+
+		try
+		{
+			try (OutputStream out = new FileOutputStream(tempFile))
+			{
+				out.write(data);
+			}
+
+			try
+			{
+				Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			}
+			catch (AtomicMoveNotSupportedException ex)
+			{
+				Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+		}
+		finally
+		{
+			tempFile.delete();
+		}
+	}
+
+	@Value
+	private static class Gamepack
+	{
+		private final String hash;
+		private final byte[] data;
+	}
+
+	private static class PatchException extends RuntimeException
+	{
+		private PatchException(String file, Throwable cause)
+		{
+			super(file, cause);
 		}
 	}
 }
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2018, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.task;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Background executors, separated by the kind of work they run so that
+ * slow work of one kind can not hold up work of another.
+ */
+@Getter
+@AllArgsConstructor
+public enum ExecutorLane
+{
+	/**
+	 * Reading and writing files. A single thread keeps writes to the
+	 * same file in order, so the queue is unbounded: running a write on
+	 * the submitting thread could reorder it, and dropping it loses data.
+	 */
+	DISK("Disk", 1, Integer.MAX_VALUE, new ThreadPoolExecutor.AbortPolicy()),
+	/**
+	 * Requests to the RuneLite and game web services. A full queue
+	 * rejects new requests.
+	 */
+	NETWORK("Network", 4, 256, new ThreadPoolExecutor.AbortPolicy()),
+	/**
+	 * Work which only needs cpu time
+	 */
+	COMPUTE("Compute", Math.max(1, Runtime.getRuntime().availableProcessors() - 1), 256, new ThreadPoolExecutor.CallerRunsPolicy()),
+	/**
+	 * The shared executor for plugins and scheduled tasks, which runs
+	 * everything on one thread
+	 */
+	SCHEDULED("Scheduled", 1, Integer.MAX_VALUE, new ThreadPoolExecutor.AbortPolicy());
+
+	private final String name;
+	/**
+	 * Maximum number of tasks which are run at the same time
+	 */
+	private final int threads;
+	/**
+	 * Maximum number of immediate tasks waiting to be run. Delayed and
+	 * periodic tasks are not counted.
+	 */
+	private final int queueSize;
+	/**
+	 * What to do with a task submitted while the queue is full
+	 */
+	private final RejectedExecutionHandler rejectionPolicy;
+
+	/**
+	 * Get the name the executor of this lane is bound with
+	 *
+	 * @return binding name
+	 */
+	public String getBindingName()
+	{
+		return name + " Executor";
+	}
+}
@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) 2018, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.task;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import javax.inject.Singleton;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.util.CallableExceptionLogger;
+
+/**
+ * Owns the executor of each {@link ExecutorLane} and records how long the
+ * tasks submitted to them wait and run, grouped by the source of the task.
+ */
+@Slf4j
+@Singleton
+public class ExecutorLanes
+{
+	private final Map<ExecutorLane, Lane> lanes = new EnumMap<>(ExecutorLane.class);
+
+	public ExecutorLanes()
+	{
+		for (ExecutorLane lane : ExecutorLane.values())
+		{
+			lanes.put(lane, new Lane(lane));
+		}
+	}
+
+	/**
+	 * Get the executor of a lane. Tasks are attributed to the class which
+	 * created them.
+	 *
+	 * @param lane the lane
+	 * @return the executor
+	 */
+	public ScheduledExecutorService getExecutor(ExecutorLane lane)
+	{
+		return new LaneExecutorService(lanes.get(lane), null);
+	}
+
+	/**
+	 * Get the executor of a lane which attributes all tasks to {@code source}.
+	 * This is useful for tasks which are wrapped before being submitted,
+	 * such as by a {@link com.google.common.util.concurrent.ListeningExecutorService}.
+	 *
+	 * @param lane the lane
+	 * @param source the name tasks are recorded under
+	 * @return the executor
+	 */
+	public ScheduledExecutorService getExecutor(ExecutorLane lane, String source)
+	{
+		return new LaneExecutorService(lanes.get(lane), source);
+	}
+
+	/**
+	 * Get the recorded timings of every source which has submitted a task
+	 *
+	 * @return timings, most total time spent running first
+	 */
+	public List<TaskTiming> getTimings()
+	{
+		final List<TaskTiming> timings = new ArrayList<>();
+		for (Lane lane : lanes.values())
+		{
+			final int queued = lane.getQueued();
+			for (Map.Entry<String, TaskMetrics> entry : lane.getMetrics().entrySet())
+			{
+				final TaskMetrics metrics = entry.getValue();
+				timings.add(new TaskTiming(
+					lane.getLane(),
+					entry.getKey(),
+					queued,
+					metrics.count.sum(),
+					metrics.rejected.sum(),
+					metrics.totalWait.sum(),
+					metrics.maxWait.get(),
+					metrics.totalRun.sum(),
+					metrics.maxRun.get()));
+			}
+		}
+
+		timings.sort(Comparator.comparingLong(TaskTiming::getTotalRun).reversed());
+		return timings;
+	}
+
+	/**
+	 * Discards the recorded timings of all lanes
+	 */
+	public void resetTimings()
+	{
+		for (Lane lane : lanes.values())
+		{
+			lane.getMetrics().clear();
+		}
+	}
+
+	static class Lane
+	{
+		@Getter
+		private final ExecutorLane lane;
+		@Getter
+		private final ScheduledThreadPoolExecutor executor;
+		@Getter
+		private final Map<String, TaskMetrics> metrics = new ConcurrentHashMap<>();
+		/**
+		 * Immediate tasks submitted which have not started running yet
+		 */
+		private final AtomicInteger queued = new AtomicInteger();
+
+		private Lane(ExecutorLane lane)
+		{
+			this.lane = lane;
+			this.executor = new ScheduledThreadPoolExecutor(lane.getThreads(),
+				new ThreadFactoryBuilder().setNameFormat("RuneLite " + lane.getName() + " %d").build());
+			this.executor.setRemoveOnCancelPolicy(true);
+		}
+
+		TaskMetrics metrics(String source)
+		{
+			return metrics.computeIfAbsent(source, s -> new TaskMetrics());
+		}
+
+		/**
+		 * Runs a task as soon as a thread of the lane is free, or applies the
+		 * rejection policy of the lane if too many tasks are already waiting.
+		 */
+		void execute(String source, Runnable task)
+		{
+			// take the place in the queue before submitting, so concurrent submissions can't overfill it
+			if (queued.incrementAndGet() > lane.getQueueSize())
+			{
+				queued.decrementAndGet();
+				metrics(source).rejected.increment();
+				log.debug("{} executor queue is full, rejecting task from {}", lane.getName(), source);
+				lane.getRejectionPolicy().rejectedExecution(task, executor);
+				return;
+			}
+
+			try
+			{
+				executor.execute(() ->
+				{
+					queued.decrementAndGet();
+					task.run();
+				});
+			}
+			catch (RejectedExecutionException ex)
+			{
+				queued.decrementAndGet();
+				throw ex;
+			}
+		}
+
+		int getQueued()
+		{
+			return queued.get();
+		}
+	}
+
+	static class TaskMetrics
+	{
+		private final LongAdder count = new LongAdder();
+		private final LongAdder rejected = new LongAdder();
+		private final LongAdder totalWait = new LongAdder();
+		private final LongAccumulator maxWait = new LongAccumulator(Math::max, 0L);
+		private final LongAdder totalRun = new LongAdder();
+		private final LongAccumulator maxRun = new LongAccumulator(Math::max, 0L);
+
+		void record(long wait, long run)
+		{
+			count.increment();
+			totalWait.add(wait);
+			maxWait.accumulate(wait);
+			totalRun.add(run);
+			maxRun.accumulate(run);
+		}
+	}
+
+	/**
+	 * A task which records its timings when run and logs uncaught exceptions,
+	 * which the executor would otherwise keep in a future nobody looks at
+	 */
+	static class LaneTask implements Runnable
+	{
+		/**
+		 * Due time of periodic tasks, whose wait time is not recorded
+		 */
+		static final long PERIODIC = Long.MIN_VALUE;
+
+		private final TaskMetrics metrics;
+		private final Runnable runnable;
+		/**
+		 * When the task is expected to run, from {@link System#nanoTime()}
+		 */
+		private final long due;
+
+		LaneTask(TaskMetrics metrics, Runnable runnable, long due)
+		{
+			this.metrics = metrics;
+			this.runnable = runnable;
+			this.due = due;
+		}
+
+		@Override
+		public void run()
+		{
+			final long start = System.nanoTime();
+			try
+			{
+				runnable.run();
+			}
+			catch (Throwable ex)
+			{
+				log.warn("Uncaught exception in runnable {}", runnable, ex);
+				throw ex;
+			}
+			finally
+			{
+				metrics.record(due == PERIODIC ? 0 : Math.max(0, start - due), System.nanoTime() - start);
+			}
+		}
+
+		static <V> Callable<V> timed(TaskMetrics metrics, Callable<V> callable, long due)
+		{
+			final Callable<V> logged = CallableExceptionLogger.wrap(callable);
+			return () ->
+			{
+				final long start = System.nanoTime();
+				try
+				{
+					return logged.call();
+				}
+				finally
+				{
+					metrics.record(Math.max(0, start - due), System.nanoTime() - start);
+				}
+			};
+		}
+	}
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2018, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.task;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A view of the executor of an {@link ExecutorLane} which records the
+ * source of each task submitted through it.
+ * <p>
+ * Immediate tasks are subject to the queue size and rejection policy of
+ * the lane. Delayed and periodic tasks are always accepted.
+ */
+class LaneExecutorService implements ScheduledExecutorService
+{
+	private final ExecutorLanes.Lane lane;
+	/**
+	 * The source all tasks are recorded under, or null to use the class of each task
+	 */
+	private final String source;
+
+	LaneExecutorService(ExecutorLanes.Lane lane, String source)
+	{
+		this.lane = lane;
+		this.source = source;
+	}
+
+	/**
+	 * Get the name of the class a task was created in. Lambdas and method
+	 * references are named after the class which contains them.
+	 */
+	static String getSource(Object task)
+	{
+		String name = task.getClass().getName();
+
+		final int lambda = name.indexOf("$$Lambda$");
+		if (lambda != -1)
+		{
+			name = name.substring(0, lambda);
+		}
+
+		return name.substring(name.lastIndexOf('.') + 1);
+	}
+
+	private String source(Object task)
+	{
+		return source != null ? source : getSource(task);
+	}
+
+	private ExecutorLanes.LaneTask delayedTask(Runnable runnable, long delay, TimeUnit unit)
+	{
+		return new ExecutorLanes.LaneTask(lane.metrics(source(runnable)), runnable, System.nanoTime() + unit.toNanos(delay));
+	}
+
+	private ExecutorLanes.LaneTask periodicTask(Runnable runnable)
+	{
+		return new ExecutorLanes.LaneTask(lane.metrics(source(runnable)), runnable, ExecutorLanes.LaneTask.PERIODIC);
+	}
+
+	@Override
+	public void execute(Runnable command)
+	{
+		final String source = source(command);
+		lane.execute(source, new ExecutorLanes.LaneTask(lane.metrics(source), command, System.nanoTime()));
+	}
+
+	@Override
+	public <T> Future<T> submit(Callable<T> task)
+	{
+		return submitTimed(source(task), task);
+	}
+
+	@Override
+	public <T> Future<T> submit(Runnable task, T result)
+	{
+		return submitTimed(source(task), Executors.callable(task, result));
+	}
+
+	private <T> Future<T> submitTimed(String source, Callable<T> task)
+	{
+		// the task is timed inside of the future so the timings are recorded once it completes
+		final FutureTask<T> future = new FutureTask<>(ExecutorLanes.LaneTask.timed(lane.metrics(source), task, System.nanoTime()));
+		lane.execute(source, future);
+		return future;
+	}
+
+	@Override
+	public Future<?> submit(Runnable task)
+	{
+		return submit(task, null);
+	}
+
+	@Override
+	public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit)
+	{
+		return lane.getExecutor().schedule(delayedTask(command, delay, unit), delay, unit);
+	}
+
+	@Override
+	public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit)
+	{
+		final ExecutorLanes.TaskMetrics metrics = lane.metrics(source(callable));
+		final long due = System.nanoTime() + unit.toNanos(delay);
+		return lane.getExecutor().schedule(ExecutorLanes.LaneTask.timed(metrics, callable, due), delay, unit);
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit)
+	{
+		return lane.getExecutor().scheduleAtFixedRate(periodicTask(command), initialDelay, period, unit);
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit)
+	{
+		return lane.getExecutor().scheduleWithFixedDelay(periodicTask(command), initialDelay, delay, unit);
+	}
+
+	// Everything below is direct proxy to the executor of the lane
+
+	@Override
+	public void shutdown()
+	{
+		lane.getExecutor().shutdown();
+	}
+
+	@Override
+	public List<Runnable> shutdownNow()
+	{
+		return lane.getExecutor().shutdownNow();
+	}
+
+	@Override
+	public boolean isShutdown()
+	{
+		return lane.getExecutor().isShutdown();
+	}
+
+	@Override
+	public boolean isTerminated()
+	{
+		return lane.getExecutor().isTerminated();
+	}
+
+	@Override
+	public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException
+	{
+		return lane.getExecutor().awaitTermination(timeout, unit);
+	}
+
+	@Override
+	public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks) throws InterruptedException
+	{
+		return lane.getExecutor().invokeAll(tasks);
+	}
+
+	@Override
+	public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit) throws InterruptedException
+	{
+		return lane.getExecutor().invokeAll(tasks, timeout, unit);
+	}
+
+	@Override
+	public <T> T invokeAny(Collection<? extends Callable<T>> tasks) throws InterruptedException, ExecutionException
+	{
+		return lane.getExecutor().invokeAny(tasks);
+	}
+
+	@Override
+	public <T> T invokeAny(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException
+	{
+		return lane.getExecutor().invokeAny(tasks, timeout, unit);
+	}
+}
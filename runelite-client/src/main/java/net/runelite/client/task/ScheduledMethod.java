@@ -24,21 +24,77 @@
  */
 package net.runelite.client.task;
 
+import com.google.common.base.Preconditions;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
-import java.time.Instant;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.util.ReflectUtil;
 
+@Slf4j
 public class ScheduledMethod
 {
 	private final Schedule schedule;
 	private final Method method;
 	private final Object object;
-	private Instant last = Instant.now();
+	private final Runnable invoker;
+	private final long period;
+	private final AtomicBoolean running = new AtomicBoolean();
+
+	// guarded by the scheduler
+	long deadline;
+	int slot = -1;
+	private int overruns;
 
 	public ScheduledMethod(Schedule schedule, Method method, Object object)
 	{
 		this.schedule = schedule;
 		this.method = method;
 		this.object = object;
+		this.invoker = createInvoker(method, object);
+		this.period = Duration.of(schedule.period(), schedule.unit()).toNanos();
+		Preconditions.checkArgument(period > 0, "@Schedule method \"" + method + "\" must have a positive period");
+	}
+
+	private static Runnable createInvoker(Method method, Object object)
+	{
+		try
+		{
+			final Class<?> clazz = method.getDeclaringClass();
+			final MethodHandles.Lookup caller = ReflectUtil.privateLookupIn(clazz);
+			final MethodHandle target = caller.unreflect(method);
+			final CallSite site = LambdaMetafactory.metafactory(
+				caller,
+				"run",
+				MethodType.methodType(Runnable.class, clazz),
+				MethodType.methodType(void.class),
+				target,
+				MethodType.methodType(void.class));
+
+			return (Runnable) site.getTarget().invoke(object);
+		}
+		catch (Throwable e)
+		{
+			log.warn("Unable to create lambda for method {}", method, e);
+			return null;
+		}
+	}
+
+	void invoke() throws Exception
+	{
+		if (invoker != null)
+		{
+			invoker.run();
+		}
+		else
+		{
+			method.invoke(object);
+		}
 	}
 
 	@Override
@@ -62,13 +118,34 @@ public class ScheduledMethod
 		return object;
 	}
 
-	public Instant getLast()
+	/**
+	 * Get the period of the schedule
+	 *
+	 * @return period in nanoseconds
+	 */
+	public long getPeriod()
+	{
+		return period;
+	}
+
+	/**
+	 * Get the number of times an asynchronous run was skipped because the previous run was still
+	 * running when the next was due
+	 *
+	 * @return number of skipped runs
+	 */
+	public synchronized int getOverruns()
+	{
+		return overruns;
+	}
+
+	synchronized void overrun()
 	{
-		return last;
+		++overruns;
 	}
 
-	public void setLast(Instant last)
+	AtomicBoolean getRunning()
 	{
-		this.last = last;
+		return running;
 	}
 }
@@ -24,34 +24,76 @@
  */
 package net.runelite.client.task;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.time.Duration;
-import java.time.Instant;
+import com.google.common.annotations.VisibleForTesting;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Runs {@link Schedule} methods from the client main loop. Methods are kept in a hashed timer wheel
+ * by their next deadline, so each tick only looks at the slots which have passed since the previous
+ * tick, and does nothing at all if none have.
+ */
 @Singleton
 @Slf4j
 public class Scheduler
 {
+	private static final long SLOT_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+	private static final int WHEEL_SIZE = 512;
+	private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
 	private final List<ScheduledMethod> scheduledMethods = new CopyOnWriteArrayList<>();
+	private final List<ScheduledMethod>[] wheel = new List[WHEEL_SIZE];
+	private final List<ScheduledMethod> due = new ArrayList<>();
+	private final LongSupplier clock;
+	private final long origin;
+	/**
+	 * The last slot the wheel has been advanced to
+	 */
+	private volatile long currentSlot;
 
 	@Inject
 	ScheduledExecutorService executor;
 
-	public void addScheduledMethod(ScheduledMethod method)
+	public Scheduler()
+	{
+		this(System::nanoTime);
+	}
+
+	@VisibleForTesting
+	Scheduler(LongSupplier clock)
+	{
+		this.clock = clock;
+		this.origin = clock.getAsLong();
+
+		for (int i = 0; i < WHEEL_SIZE; ++i)
+		{
+			wheel[i] = new ArrayList<>();
+		}
+	}
+
+	public synchronized void addScheduledMethod(ScheduledMethod method)
 	{
+		method.deadline = clock.getAsLong() + method.getPeriod();
+		insert(method);
 		scheduledMethods.add(method);
 	}
 
-	public void removeScheduledMethod(ScheduledMethod method)
+	public synchronized void removeScheduledMethod(ScheduledMethod method)
 	{
+		if (method.slot != -1)
+		{
+			wheel[method.slot].remove(method);
+			method.slot = -1;
+		}
+
 		scheduledMethods.remove(method);
 	}
 
@@ -60,48 +102,138 @@ public class Scheduler
 		return Collections.unmodifiableList(scheduledMethods);
 	}
 
+	/**
+	 * Run the methods which are due. Called every client frame, so schedules with periods down to a
+	 * single frame are honoured.
+	 */
 	public void tick()
 	{
-		Instant now = Instant.now();
+		final long now = clock.getAsLong();
+		final long slot = (now - origin) / SLOT_NANOS;
 
-		for (ScheduledMethod scheduledMethod : scheduledMethods)
+		if (slot == currentSlot)
 		{
-			Instant last = scheduledMethod.getLast();
+			return;
+		}
 
-			Duration difference = Duration.between(last, now);
+		final ScheduledMethod[] methods;
 
-			Schedule schedule = scheduledMethod.getSchedule();
-			Duration timeSinceRun = Duration.of(schedule.period(), schedule.unit());
+		synchronized (this)
+		{
+			advance(now, slot);
 
-			if (difference.compareTo(timeSinceRun) > 0)
+			if (due.isEmpty())
 			{
-				log.trace("Scheduled task triggered: {}", scheduledMethod);
+				return;
+			}
 
-				scheduledMethod.setLast(now);
+			// run without holding the lock, so plugins can be started and stopped meanwhile
+			methods = due.toArray(new ScheduledMethod[due.size()]);
+			due.clear();
+		}
 
-				if (schedule.asynchronous())
-				{
-					executor.submit(() -> run(scheduledMethod));
-				}
-				else
+		for (ScheduledMethod scheduledMethod : methods)
+		{
+			log.trace("Scheduled task triggered: {}", scheduledMethod);
+
+			if (scheduledMethod.getSchedule().asynchronous())
+			{
+				submit(scheduledMethod);
+			}
+			else
+			{
+				run(scheduledMethod);
+			}
+		}
+	}
+
+	private void advance(long now, long slot)
+	{
+		// a whole revolution visits every method already
+		final long first = Math.max(currentSlot + 1, slot - WHEEL_SIZE + 1);
+
+		for (long s = first; s <= slot; ++s)
+		{
+			final List<ScheduledMethod> methods = wheel[(int) s & WHEEL_MASK];
+
+			for (int i = 0; i < methods.size(); )
+			{
+				final ScheduledMethod method = methods.get(i);
+
+				// methods due in a later revolution share the slot
+				if (method.deadline > now)
 				{
-					run(scheduledMethod);
+					++i;
+					continue;
 				}
+
+				// swap remove
+				final int last = methods.size() - 1;
+				methods.set(i, methods.get(last));
+				methods.remove(last);
+
+				due.add(method);
+			}
+		}
+
+		currentSlot = slot;
+
+		for (ScheduledMethod method : due)
+		{
+			// stay in phase with the original deadline, skipping runs missed whilst falling behind
+			final long period = method.getPeriod();
+			long deadline = method.deadline + period;
+			if (deadline <= now)
+			{
+				deadline += ((now - deadline) / period + 1) * period;
 			}
+
+			method.deadline = deadline;
+			insert(method);
 		}
 	}
 
-	private void run(ScheduledMethod scheduledMethod)
+	private void insert(ScheduledMethod method)
 	{
-		Method method = scheduledMethod.getMethod();
+		// the first slot starting at or after the deadline, so the method is due when it is reached
+		long slot = (method.deadline - origin + SLOT_NANOS - 1) / SLOT_NANOS;
+		if (slot <= currentSlot)
+		{
+			slot = currentSlot + 1;
+		}
 
-		try
+		method.slot = (int) slot & WHEEL_MASK;
+		wheel[method.slot].add(method);
+	}
+
+	private void submit(ScheduledMethod scheduledMethod)
+	{
+		if (!scheduledMethod.getRunning().compareAndSet(false, true))
 		{
-			method.invoke(scheduledMethod.getObject());
+			// the previous run has not finished, don't let runs pile up in the executor
+			scheduledMethod.overrun();
+			log.debug("Scheduled task {} is still running, skipping run", scheduledMethod);
+			return;
 		}
-		catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException ex)
+
+		executor.execute(() ->
+		{
+			try
+			{
+				run(scheduledMethod);
+			}
+			finally
+			{
+				scheduledMethod.getRunning().set(false);
+			}
+		});
+	}
+
+	private void run(ScheduledMethod scheduledMethod)
+	{
+		try
 		{
-			log.warn("error invoking scheduled task", ex);
+			scheduledMethod.invoke();
 		}
 		catch (Exception ex)
 		{
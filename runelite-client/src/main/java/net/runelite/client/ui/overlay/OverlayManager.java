@@ -100,7 +100,7 @@ public class OverlayManager
 		this.configManager = configManager;
 	}
 
-	@Subscribe
+	@Subscribe(priority = 100)
 	public void onPluginChanged(final PluginChanged event)
 	{
 		overlays.forEach(this::loadOverlay);
@@ -24,34 +24,54 @@
  */
 package net.runelite.client.util;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
 public class WildcardMatcher
 {
-	private static final Pattern WILDCARD_PATTERN = Pattern.compile("(?i)[^*]+|(\\*)");
-
 	public static boolean matches(String pattern, String text)
 	{
-		final Matcher matcher = WILDCARD_PATTERN.matcher(pattern);
-		final StringBuffer buffer = new StringBuffer();
+		return matches(compile(pattern), text.toLowerCase());
+	}
+
+	/**
+	 * Split a pattern into its lower-cased literal segments, which are separated by wildcards
+	 */
+	static String[] compile(String pattern)
+	{
+		return pattern.toLowerCase().split("\\*", -1);
+	}
 
-		buffer.append("(?i)");
-		while (matcher.find())
+	/**
+	 * Match lower-cased text against a compiled pattern
+	 */
+	static boolean matches(String[] segments, String text)
+	{
+		if (segments.length == 1)
 		{
-			if (matcher.group(1) != null)
-			{
-				matcher.appendReplacement(buffer, ".*");
-			}
-			else
+			return text.equals(segments[0]);
+		}
+
+		final String prefix = segments[0];
+		final String suffix = segments[segments.length - 1];
+		final int end = text.length() - suffix.length();
+
+		if (end < prefix.length() || !text.startsWith(prefix) || !text.endsWith(suffix))
+		{
+			return false;
+		}
+
+		// each wildcard can match anything, so matching the earliest occurrence of each segment is always safe
+		int position = prefix.length();
+		for (int i = 1; i < segments.length - 1; ++i)
+		{
+			final int idx = text.indexOf(segments[i], position);
+
+			if (idx == -1 || idx + segments[i].length() > end)
 			{
-				matcher.appendReplacement(buffer, "\\\\Q" + matcher.group(0) + "\\\\E");
+				return false;
 			}
-		}
 
-		matcher.appendTail(buffer);
-		final String replaced = buffer.toString();
+			position = idx + segments[i].length();
+		}
 
-		return text.matches(replaced);
+		return true;
 	}
 }
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2018, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A set of case insensitive wildcard patterns, compiled once so that text can be matched
+ * against all of them together. Patterns without wildcards are looked up in a hash set,
+ * and the others are stored in a trie of their literal prefixes, so only the patterns whose
+ * prefix matches the text are checked.
+ */
+public class WildcardSet
+{
+	private static class Node
+	{
+		private final Map<Character, Node> children = new HashMap<>();
+		private final List<String[]> patterns = new ArrayList<>();
+	}
+
+	private final Set<String> exact = new HashSet<>();
+	private final Node root = new Node();
+
+	private WildcardSet(Collection<String> patterns)
+	{
+		for (String pattern : patterns)
+		{
+			final String[] segments = WildcardMatcher.compile(pattern);
+
+			if (segments.length == 1)
+			{
+				exact.add(segments[0]);
+				continue;
+			}
+
+			Node node = root;
+			for (char c : segments[0].toCharArray())
+			{
+				node = node.children.computeIfAbsent(c, k -> new Node());
+			}
+			node.patterns.add(segments);
+		}
+	}
+
+	/**
+	 * Compile a collection of wildcard patterns
+	 *
+	 * @param patterns patterns, where * matches any text
+	 * @return the compiled set
+	 */
+	public static WildcardSet compile(Collection<String> patterns)
+	{
+		return new WildcardSet(patterns);
+	}
+
+	/**
+	 * Check if the text matches any of the patterns, ignoring case
+	 *
+	 * @param text text to match
+	 * @return true if any pattern matches
+	 */
+	public boolean matches(String text)
+	{
+		text = text.toLowerCase();
+
+		if (exact.contains(text))
+		{
+			return true;
+		}
+
+		Node node = root;
+		for (int i = 0; node != null; ++i)
+		{
+			for (String[] segments : node.patterns)
+			{
+				if (WildcardMatcher.matches(segments, text))
+				{
+					return true;
+				}
+			}
+
+			node = i < text.length() ? node.children.get(text.charAt(i)) : null;
+		}
+
+		return false;
+	}
+}
@@ -0,0 +1,323 @@
+/*
+ * Copyright (c) 2018, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.chat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.ChatMessageType;
+import net.runelite.api.events.ChatMessage;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+
+@Slf4j
+public class ChatClassifierTest
+{
+	private static final Set<ChatMessageType> SERVER = EnumSet.of(ChatMessageType.SERVER, ChatMessageType.FILTERED);
+
+	private ChatClassifier chatClassifier;
+
+	@Before
+	public void before()
+	{
+		chatClassifier = new ChatClassifier();
+	}
+
+	@Test
+	public void testLiteralPrefix()
+	{
+		assertEquals("Your ", ChatClassifier.literalPrefix(Pattern.compile("Your (.+) kill count is: (\\d+)\\.")));
+		assertEquals("Your dodgy necklace protects you.", ChatClassifier.literalPrefix(Pattern.compile("Your dodgy necklace protects you\\..*")));
+		assertEquals("You're assigned to kill ", ChatClassifier.literalPrefix(Pattern.compile("^You're assigned to kill (.*)")));
+		assertEquals("charge", ChatClassifier.literalPrefix(Pattern.compile("charges? left")));
+		assertEquals("a", ChatClassifier.literalPrefix(Pattern.compile("a+b")));
+		assertEquals("", ChatClassifier.literalPrefix(Pattern.compile(".*Your new task is to kill")));
+		assertEquals("", ChatClassifier.literalPrefix(Pattern.compile("\\d+ coins")));
+		assertEquals("", ChatClassifier.literalPrefix(Pattern.compile("You have|Your")));
+		assertEquals("You ", ChatClassifier.literalPrefix(Pattern.compile("You (?:have|had)")));
+		assertEquals("", ChatClassifier.literalPrefix(Pattern.compile("You", Pattern.CASE_INSENSITIVE)));
+	}
+
+	@Test
+	public void testRequiredLiterals()
+	{
+		assertEquals(Arrays.asList("Your ", " kill count is: ", "."), ChatClassifier.requiredLiterals(Pattern.compile("Your (.+) kill count is: (\\d+)\\.")));
+		assertEquals(Arrays.asList("Your dodgy necklace protects you.", "It has ", " charge", " left."), ChatClassifier.requiredLiterals(Pattern.compile("Your dodgy necklace protects you\\..*It has (\\d+) charges? left\\.")));
+		assertEquals(Arrays.asList("", " monsters"), ChatClassifier.requiredLiterals(Pattern.compile("[0-9]{1,3} monsters")));
+		assertEquals(Arrays.asList("", "Your new task"), ChatClassifier.requiredLiterals(Pattern.compile(".*Your new task")));
+		assertEquals(Arrays.asList("You have ", " ["), ChatClassifier.requiredLiterals(Pattern.compile("You have (?:\\d+|no) \\[")));
+		assertEquals(Arrays.asList(""), ChatClassifier.requiredLiterals(Pattern.compile("Your (?i)task")));
+		assertEquals(Arrays.asList(""), ChatClassifier.requiredLiterals(Pattern.compile("Oh|dear")));
+	}
+
+	@Test
+	public void testDispatch()
+	{
+		List<String> kills = new ArrayList<>();
+		chatClassifier.register(this, Pattern.compile("Your (.+) kill count is: (\\d+)\\."), SERVER,
+			(chatMessage, matcher) -> kills.add(matcher.group(1) + "=" + matcher.group(2)));
+
+		chatClassifier.onChatMessage(new ChatMessage(ChatMessageType.SERVER, "", "Your Zulrah kill count is: <col=ff0000>5</col>.", null));
+		chatClassifier.onChatMessage(new ChatMessage(ChatMessageType.PUBLIC, "Adam", "Your Zulrah kill count is: 6.", null));
+		chatClassifier.onChatMessage(new ChatMessage(ChatMessageType.SERVER, "", "Welcome to RuneScape.", null));
+		chatClassifier.onChatMessage(new ChatMessage(ChatMessageType.SERVER, "", "Your", null));
+		chatClassifier.onChatMessage(new ChatMessage(ChatMessageType.SERVER, "", "Your 5. kill count is: 1", null));
+
+		assertEquals(Arrays.asList("Zulrah=5"), kills);
+	}
+
+	@Test
+	public void testUnprefixedPattern()
+	{
+		List<String> tasks = new ArrayList<>();
+		chatClassifier.register(this, Pattern.compile(".*Your new task is to kill (\\d+) (.*)\\."), SERVER,
+			(chatMessage, matcher) -> tasks.add(matcher.group(2)));
+
+		chatClassifier.onChatMessage(new ChatMessage(ChatMessageType.SERVER, "", "Excellent. Your new task is to kill 10 goblins.", null));
+
+		assertEquals(Arrays.asList("goblins"), tasks);
+	}
+
+	@Test
+	public void testMatchesFromStart()
+	{
+		List<String> matches = new ArrayList<>();
+		chatClassifier.register(this, Pattern.compile("kill count is: (\\d+)"), SERVER, (chatMessage, matcher) -> matches.add("start"));
+		chatClassifier.register(this, Pattern.compile(".*kill count is: (\\d+)"), SERVER, (chatMessage, matcher) -> matches.add("anywhere"));
+		chatClassifier.register(this, Pattern.compile("Your Zulrah kill count is: (\\d+)$"), SERVER, (chatMessage, matcher) -> matches.add("whole"));
+
+		chatClassifier.onChatMessage(new ChatMessage(ChatMessageType.SERVER, "", "Your Zulrah kill count is: 5.", null));
+
+		assertEquals(Arrays.asList("anywhere"), matches);
+	}
+
+	@Test
+	public void testQuote()
+	{
+		String message = "A superior foe has appeared... (1/2)";
+		Pattern pattern = Pattern.compile(ChatClassifier.quote(message) + "$");
+		assertEquals(message, ChatClassifier.literalPrefix(pattern));
+		assertTrue(pattern.matcher(message).matches());
+		assertFalse(pattern.matcher("A superior foe has appeared!!! (1/2)").matches());
+	}
+
+	@Test
+	public void testRegistrationOrder()
+	{
+		List<Integer> order = new ArrayList<>();
+		chatClassifier.register(this, Pattern.compile(".*"), SERVER, (chatMessage, matcher) -> order.add(0));
+		chatClassifier.register(this, Pattern.compile("Your dodgy necklace .*"), SERVER, (chatMessage, matcher) -> order.add(1));
+		chatClassifier.register(this, Pattern.compile("Your .*"), SERVER, (chatMessage, matcher) -> order.add(2));
+
+		chatClassifier.onChatMessage(new ChatMessage(ChatMessageType.SERVER, "", "Your dodgy necklace has 9 charges left.", null));
+
+		assertEquals(Arrays.asList(0, 1, 2), order);
+	}
+
+	@Test
+	public void testUnregister()
+	{
+		Object other = new Object();
+		List<Object> owners = new ArrayList<>();
+		chatClassifier.register(this, Pattern.compile("Your "), SERVER, (chatMessage, matcher) -> owners.add(this));
+		chatClassifier.register(other, Pattern.compile("Your "), SERVER, (chatMessage, matcher) -> owners.add(other));
+		chatClassifier.unregister(this);
+
+		chatClassifier.onChatMessage(new ChatMessage(ChatMessageType.SERVER, "", "Your ", null));
+
+		assertEquals(Arrays.asList(other), owners);
+	}
+
+	@Test
+	public void testHandlerException()
+	{
+		List<String> matches = new ArrayList<>();
+		chatClassifier.register(this, Pattern.compile("Oh dear"), SERVER, (chatMessage, matcher) ->
+		{
+			throw new IllegalStateException();
+		});
+		chatClassifier.register(this, Pattern.compile("Oh dear, you are dead!"), SERVER, (chatMessage, matcher) -> matches.add(matcher.group()));
+
+		chatClassifier.onChatMessage(new ChatMessage(ChatMessageType.SERVER, "", "Oh dear, you are dead!", null));
+
+		assertEquals(Arrays.asList("Oh dear, you are dead!"), matches);
+	}
+
+	/**
+	 * Replays a chat log through the patterns the chat plugins ran before they used the
+	 * classifier, with each plugin running all of its own patterns on every message, and
+	 * then through the classifier
+	 */
+	@Test
+	@Ignore
+	public void benchmarkClassify()
+	{
+		List<ChatMessage> messages = chatLog(100_000);
+
+		// The patterns as the plugins matched them against the raw message
+		List<List<Pattern>> plugins = Arrays.asList(
+			// chat commands
+			patterns(
+				"Your (.+) kill count is: <col=ff0000>(\\d+)</col>.",
+				"Your completed (.+) count is: <col=ff0000>(\\d+)</col>.",
+				"Your subdued Wintertodt count is: <col=ff0000>(\\d+)</col>.",
+				"Your Barrows chest count is: <col=ff0000>(\\d+)</col>."),
+			// item charges
+			patterns(
+				"Your dodgy necklace has (\\d+) charges? left\\.",
+				"Your dodgy necklace protects you\\..*It has (\\d+) charges? left\\.",
+				"Your dodgy necklace protects you\\..*It then crumbles to dust\\.",
+				"<col=7f007f>Your Ring of Recoil has shattered\\.</col>"),
+			// slayer
+			patterns(
+				"^(?:You're assigned to kill|You have received a new Slayer assignment from .*:) (?:the )?(.*?)(?: in the Wilderness)?(?:; only | \\()(\\d*)(?: more to go\\.|\\))$",
+				"Your bracelet of slaughter prevents your slayer count decreasing. It has (\\d{1,2}) charge[s]? left.",
+				"Your expeditious bracelet helps you progress your slayer (?:task )?faster. It has (\\d{1,2}) charge[s]? left.",
+				"Your bracelet of slaughter has (\\d{1,2}) charge[s]? left.",
+				"Your expeditious bracelet has (\\d{1,2}) charge[s]? left.",
+				"^You still need to kill (\\d+) monsters to complete your current Slayer assignment"));
+
+		int[] matches = new int[1];
+		chatClassifier.register(this, Pattern.compile("Your (.+) kill count is: (\\d+)\\."), SERVER, (m, matcher) -> ++matches[0]);
+		chatClassifier.register(this, Pattern.compile("Your completed (.+) count is: (\\d+)\\."), SERVER, (m, matcher) -> ++matches[0]);
+		chatClassifier.register(this, Pattern.compile("Your subdued Wintertodt count is: (\\d+)\\."), SERVER, (m, matcher) -> ++matches[0]);
+		chatClassifier.register(this, Pattern.compile("Your Barrows chest count is: (\\d+)\\."), SERVER, (m, matcher) -> ++matches[0]);
+		chatClassifier.register(this, Pattern.compile("Your dodgy necklace has (\\d+) charges? left\\."), SERVER, (m, matcher) -> ++matches[0]);
+		chatClassifier.register(this, Pattern.compile("Your dodgy necklace protects you\\..*It has (\\d+) charges? left\\."), SERVER, (m, matcher) -> ++matches[0]);
+		chatClassifier.register(this, Pattern.compile("Your dodgy necklace protects you\\..*It then crumbles to dust\\."), SERVER, (m, matcher) -> ++matches[0]);
+		chatClassifier.register(this, Pattern.compile("Your Ring of Recoil has shattered\\."), SERVER, (m, matcher) -> ++matches[0]);
+		chatClassifier.register(this, Pattern.compile("(?:You're assigned to kill|You have received a new Slayer assignment from .*:) (?:the )?(.*?)(?: in the Wilderness)?(?:; only | \\()(\\d*)(?: more to go\\.|\\))$"), SERVER, (m, matcher) -> ++matches[0]);
+		chatClassifier.register(this, Pattern.compile("Your bracelet of slaughter prevents your slayer(?: count decreasing. It has (\\d{1,2}) charge[s]? left.)?"), SERVER, (m, matcher) -> ++matches[0]);
+		chatClassifier.register(this, Pattern.compile("Your expeditious bracelet helps you progress your(?: slayer (?:task )?faster. It has (\\d{1,2}) charge[s]? left.)?"), SERVER, (m, matcher) -> ++matches[0]);
+		chatClassifier.register(this, Pattern.compile("Your bracelet of slaughter has (\\d{1,2}) charge[s]? left."), SERVER, (m, matcher) -> ++matches[0]);
+		chatClassifier.register(this, Pattern.compile("Your expeditious bracelet has (\\d{1,2}) charge[s]? left."), SERVER, (m, matcher) -> ++matches[0]);
+		chatClassifier.register(this, Pattern.compile("You still need to kill (\\d+) monsters to complete your current Slayer assignment"), SERVER, (m, matcher) -> ++matches[0]);
+
+		for (int run = 0; run < 10; ++run)
+		{
+			int pluginMatches = 0;
+			long start = System.nanoTime();
+			for (ChatMessage chatMessage : messages)
+			{
+				for (List<Pattern> plugin : plugins)
+				{
+					if (!SERVER.contains(chatMessage.getType()))
+					{
+						continue;
+					}
+
+					for (Pattern pattern : plugin)
+					{
+						if (pattern.matcher(chatMessage.getMessage()).find())
+						{
+							++pluginMatches;
+						}
+					}
+				}
+			}
+			long plugin = System.nanoTime() - start;
+
+			matches[0] = 0;
+			start = System.nanoTime();
+			for (ChatMessage chatMessage : messages)
+			{
+				chatClassifier.onChatMessage(chatMessage);
+			}
+			long classifier = System.nanoTime() - start;
+
+			assertEquals(pluginMatches, matches[0]);
+			log.info("plugins: {} us, classifier: {} us ({} matches)", plugin / 1000, classifier / 1000, matches[0]);
+		}
+	}
+
+	private static List<Pattern> patterns(String... regexes)
+	{
+		List<Pattern> patterns = new ArrayList<>();
+		for (String regex : regexes)
+		{
+			patterns.add(Pattern.compile(regex));
+		}
+		return patterns;
+	}
+
+	private static List<ChatMessage> chatLog(int size)
+	{
+		String[] server = {
+			"Your Zulrah kill count is: <col=ff0000>%d</col>.",
+			"Your completed Chambers of Xeric count is: <col=ff0000>%d</col>.",
+			"Your subdued Wintertodt count is: <col=ff0000>%d</col>.",
+			"Your Barrows chest count is: <col=ff0000>%d</col>.",
+			"Your dodgy necklace has %d charges left.",
+			"Your dodgy necklace protects you. <col=ff0000>It has %d charges left.</col>",
+			"Your dodgy necklace protects you. <col=ff0000>It then crumbles to dust.</col>",
+			"<col=7f007f>Your Ring of Recoil has shattered.</col>",
+			"You're assigned to kill Abyssal demons; only %d more to go.",
+			"Your bracelet of slaughter has %d charges left.",
+			"You still need to kill %d monsters to complete your current Slayer assignment",
+			"You have completed your task! You killed %d Abyssal demons.",
+			"You swing your axe at the tree.",
+			"You get some logs.",
+			"You catch a shark.",
+			"Your reward is: <col=ff0000>%d</col> coins.",
+			"Welcome to RuneScape.",
+			"You can't reach that.",
+			"The bank is closed.",
+			"Your inventory is too full to hold any more logs.",
+		};
+		String[] chat = {
+			"selling lobbies 200 ea",
+			"anyone doing wintertodt?",
+			"Your kill count is too low lol",
+			"gz on the drop!",
+			"w330 bank",
+		};
+
+		Random random = new Random(42);
+		List<ChatMessage> messages = new ArrayList<>(size);
+		for (int i = 0; i < size; ++i)
+		{
+			if (random.nextInt(3) == 0)
+			{
+				messages.add(new ChatMessage(ChatMessageType.PUBLIC, "Player" + random.nextInt(100), chat[random.nextInt(chat.length)], null));
+			}
+			else
+			{
+				String message = String.format(server[random.nextInt(server.length)], 1 + random.nextInt(1000));
+				messages.add(new ChatMessage(random.nextInt(4) == 0 ? ChatMessageType.FILTERED : ChatMessageType.SERVER, "", message, null));
+			}
+		}
+		return messages;
+	}
+}
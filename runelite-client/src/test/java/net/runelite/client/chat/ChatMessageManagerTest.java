@@ -0,0 +1,262 @@
+/*
+ * Copyright (c) 2018, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.chat;
+
+import com.google.inject.Guice;
+import com.google.inject.testing.fieldbinder.Bind;
+import com.google.inject.testing.fieldbinder.BoundFieldModule;
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import javax.inject.Inject;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.ChatLineBuffer;
+import net.runelite.api.ChatMessageType;
+import net.runelite.api.Client;
+import net.runelite.api.MessageNode;
+import net.runelite.client.callback.ClientThread;
+import net.runelite.client.config.ChatColorConfig;
+import net.runelite.client.ui.JagexColors;
+import net.runelite.client.util.ColorUtil;
+import static org.junit.Assert.assertEquals;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+@Slf4j
+public class ChatMessageManagerTest
+{
+	@Mock
+	@Bind
+	private Client client;
+
+	@Mock
+	@Bind
+	private ChatColorConfig chatColorConfig;
+
+	@Mock
+	@Bind
+	private ClientThread clientThread;
+
+	@Inject
+	private ChatMessageManager chatMessageManager;
+
+	@Before
+	public void before()
+	{
+		Guice.createInjector(BoundFieldModule.of(this)).injectMembers(this);
+
+		when(chatColorConfig.opaqueServerMessage()).thenReturn(Color.RED);
+		when(chatColorConfig.opaqueServerMessageHighlight()).thenReturn(Color.BLUE);
+		when(chatColorConfig.opaquePublicChat()).thenReturn(Color.GREEN);
+		chatMessageManager.loadColors();
+	}
+
+	@Test
+	public void testUpdate()
+	{
+		TestMessageNode node = new TestMessageNode(ChatMessageType.SERVER);
+		node.setRuneLiteFormatMessage(new ChatMessageBuilder()
+			.append(ChatColorType.NORMAL)
+			.append("Your ")
+			.append(ChatColorType.HIGHLIGHT)
+			.append("Zulrah")
+			.append(ChatColorType.NORMAL)
+			.append(" kill count is: <col=ff0000>5</col>.")
+			.build());
+
+		chatMessageManager.update(node);
+
+		assertEquals("<col=ff0000>Your <col=0000ff>Zulrah<col=ff0000> kill count is: <col=ff0000>5</col>.", node.getValue());
+	}
+
+	@Test
+	public void testUpdateReusedNode()
+	{
+		TestMessageNode node = new TestMessageNode(ChatMessageType.SERVER);
+		node.setRuneLiteFormatMessage("<colNORMAL>first");
+		chatMessageManager.update(node);
+		assertEquals("<col=ff0000>first", node.getValue());
+
+		node.setRuneLiteFormatMessage("<colHIGHLIGHT>second");
+		chatMessageManager.update(node);
+		assertEquals("<col=0000ff>second", node.getValue());
+	}
+
+	@Test
+	public void testUpdateMissingColor()
+	{
+		TestMessageNode node = new TestMessageNode(ChatMessageType.PUBLIC);
+		node.setRuneLiteFormatMessage("<colNORMAL>normal <colHIGHLIGHT>highlight");
+
+		chatMessageManager.update(node);
+
+		assertEquals("<col=00ff00>normal <colHIGHLIGHT>highlight", node.getValue());
+	}
+
+	@Test
+	public void testUpdateNoColors()
+	{
+		TestMessageNode node = new TestMessageNode(ChatMessageType.TRADE_SENT);
+		node.setRuneLiteFormatMessage("<colNORMAL>trade");
+
+		chatMessageManager.update(node);
+
+		assertEquals("<colNORMAL>trade", node.getValue());
+	}
+
+	@Test
+	public void testRefreshAll()
+	{
+		List<MessageNode> nodes = chatHistory(10);
+
+		chatMessageManager.refreshAll();
+
+		for (MessageNode node : nodes)
+		{
+			assertEquals(recolorMessage(node.getRuneLiteFormatMessage(), colors(node.getType())), node.getValue());
+		}
+	}
+
+	@Test
+	@Ignore
+	public void benchmarkRefreshAll()
+	{
+		List<MessageNode> nodes = chatHistory(100);
+
+		for (int run = 0; run < 10; ++run)
+		{
+			long start = System.nanoTime();
+			for (MessageNode node : nodes)
+			{
+				node.setValue(recolorMessage(node.getRuneLiteFormatMessage(), colors(node.getType())));
+			}
+			long replaceAll = System.nanoTime() - start;
+
+			start = System.nanoTime();
+			chatMessageManager.refreshAll();
+			long template = System.nanoTime() - start;
+
+			log.info("replaceAll: {} us, template: {} us ({} lines)", replaceAll / 1000, template / 1000, nodes.size());
+		}
+	}
+
+	/**
+	 * Fills a chat line buffer for each message type with RuneLite formatted messages
+	 */
+	private List<MessageNode> chatHistory(int linesPerType)
+	{
+		ChatMessageType[] types = {ChatMessageType.SERVER, ChatMessageType.PUBLIC, ChatMessageType.FILTERED, ChatMessageType.CLANCHAT};
+		Random random = new Random(42);
+		List<MessageNode> nodes = new ArrayList<>();
+		Map<Integer, ChatLineBuffer> chatLineMap = new HashMap<>();
+		for (ChatMessageType type : types)
+		{
+			MessageNode[] lines = new MessageNode[linesPerType];
+			for (int i = 0; i < lines.length; ++i)
+			{
+				TestMessageNode node = new TestMessageNode(type);
+				node.setRuneLiteFormatMessage(new ChatMessageBuilder()
+					.append(ChatColorType.NORMAL)
+					.append("Price of ")
+					.append(ChatColorType.HIGHLIGHT)
+					.append("Item " + random.nextInt(10000))
+					.append(ChatColorType.NORMAL)
+					.append(": GE average ")
+					.append(ChatColorType.HIGHLIGHT)
+					.append(Integer.toString(random.nextInt(1_000_000)))
+					.append(ChatColorType.NORMAL)
+					.append(" HA value ")
+					.append(ChatColorType.HIGHLIGHT)
+					.append(Integer.toString(random.nextInt(1_000_000)))
+					.build());
+				lines[i] = node;
+				nodes.add(node);
+			}
+
+			ChatLineBuffer chatLineBuffer = mock(ChatLineBuffer.class);
+			when(chatLineBuffer.getLines()).thenReturn(lines);
+			chatLineMap.put(type.getType(), chatLineBuffer);
+		}
+		when(client.getChatLineMap()).thenReturn(chatLineMap);
+		return nodes;
+	}
+
+	private Collection<ChatColor> colors(ChatMessageType type)
+	{
+		List<ChatColor> colors = new ArrayList<>();
+		switch (type)
+		{
+			case SERVER:
+				colors.add(new ChatColor(ChatColorType.NORMAL, Color.RED, false));
+				colors.add(new ChatColor(ChatColorType.HIGHLIGHT, Color.BLUE, false));
+				break;
+			case PUBLIC:
+				colors.add(new ChatColor(ChatColorType.NORMAL, Color.GREEN, false));
+				break;
+			case CLANCHAT:
+				colors.add(new ChatColor(ChatColorType.NORMAL, JagexColors.CHAT_CLAN_TEXT_OPAQUE_BACKGROUND, false));
+				break;
+		}
+		return colors;
+	}
+
+	/**
+	 * The recoloring done before messages were parsed into templates
+	 */
+	private static String recolorMessage(String message, Collection<ChatColor> chatColors)
+	{
+		for (ChatColor chatColor : chatColors)
+		{
+			message = message.replaceAll("<col" + chatColor.getType().name() + ">", ColorUtil.colorTag(chatColor.getColor()));
+		}
+		return message;
+	}
+
+	@Getter
+	@Setter
+	@RequiredArgsConstructor
+	private static class TestMessageNode implements MessageNode
+	{
+		private final ChatMessageType type;
+		private String name;
+		private String sender;
+		private String value;
+		private String runeLiteFormatMessage;
+	}
+}
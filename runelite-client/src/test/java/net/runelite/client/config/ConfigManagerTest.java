@@ -27,30 +27,77 @@ package net.runelite.client.config;
 import com.google.inject.Guice;
 import com.google.inject.testing.fieldbinder.Bind;
 import com.google.inject.testing.fieldbinder.BoundFieldModule;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
 import net.runelite.client.account.AccountSession;
 import net.runelite.client.eventbus.EventBus;
+import net.runelite.client.task.ExecutorLane;
+import net.runelite.client.task.ExecutorLanes;
+import net.runelite.http.api.config.ConfigClient;
+import net.runelite.http.api.config.ConfigEntry;
+import net.runelite.http.api.config.Configuration;
 import org.junit.Assert;
 import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Matchers;
 import org.mockito.Mock;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 import org.mockito.runners.MockitoJUnitRunner;
 
 @RunWith(MockitoJUnitRunner.class)
+@Slf4j
 public class ConfigManagerTest
 {
+	private static final int OVERLAYS = 50;
+	private static final int FRAMES = 200_000;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
 	@Mock
 	@Bind
 	EventBus eventBus;
 
 	@Mock
 	@Bind
-	ScheduledExecutorService executor;
+	ExecutorLanes executorLanes;
+
+	@Mock
+	ScheduledExecutorService diskExecutor;
+
+	@Mock
+	ScheduledExecutorService networkExecutor;
 
 	@Mock
 	@Bind
@@ -62,6 +109,8 @@ public class ConfigManagerTest
 	@Before
 	public void before()
 	{
+		when(executorLanes.getExecutor(ExecutorLane.DISK, "ConfigManager")).thenReturn(diskExecutor);
+		when(executorLanes.getExecutor(ExecutorLane.NETWORK, "ConfigManager")).thenReturn(networkExecutor);
 		Guice.createInjector(BoundFieldModule.of(this)).injectMembers(this);
 	}
 
@@ -109,4 +158,188 @@ public class ConfigManagerTest
 		ConfigDescriptor descriptor = manager.getConfigDescriptor(conf);
 		Assert.assertEquals(1, descriptor.getItems().size());
 	}
+
+	@Test
+	public void testGetConfigCached() throws IOException
+	{
+		RuneLiteConfig conf = manager.getConfig(RuneLiteConfig.class);
+		Assert.assertEquals(FontType.SMALL, conf.fontType());
+
+		manager.setConfiguration("runelite", "fontType", FontType.BOLD);
+		Assert.assertEquals(FontType.BOLD, conf.fontType());
+		Assert.assertEquals(FontType.BOLD, manager.getConfig(RuneLiteConfig.class).fontType());
+
+		manager.unsetConfiguration("runelite", "fontType");
+		Assert.assertEquals(FontType.SMALL, conf.fontType());
+	}
+
+	@Test
+	public void testGetConfigCachedCopy() throws IOException
+	{
+		RuneLiteConfig conf = manager.getConfig(RuneLiteConfig.class);
+		manager.setConfiguration("runelite", "gameSize", new Dimension(800, 600));
+
+		conf.gameSize().width = 1;
+		Assert.assertEquals(new Dimension(800, 600), conf.gameSize());
+	}
+
+	@Test
+	public void testSendConfig() throws Exception
+	{
+		// stand-in for the config service, storing the patches it receives
+		Map<String, String> remote = new ConcurrentHashMap<>();
+		AtomicInteger requests = new AtomicInteger();
+		ConfigClient client = mock(ConfigClient.class);
+		doAnswer(invocation ->
+		{
+			requests.incrementAndGet();
+			for (ConfigEntry entry : (List<ConfigEntry>) invocation.getArguments()[0])
+			{
+				if (entry.getValue() == null)
+				{
+					remote.remove(entry.getKey());
+				}
+				else
+				{
+					remote.put(entry.getKey(), entry.getValue());
+				}
+			}
+			return null;
+		}).when(client).patch(Matchers.anyList());
+
+		File file = new File(folder.getRoot(), "settings.properties");
+		ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+		ConfigManager configManager = new ConfigManager(file, client);
+		configManager.eventBus = eventBus;
+		configManager.diskExecutor = scheduler;
+		configManager.networkExecutor = scheduler;
+
+		// an overlay being dragged and sliders being moved at the same time
+		ExecutorService threads = Executors.newFixedThreadPool(4);
+		for (int t = 0; t < 4; ++t)
+		{
+			final int thread = t;
+			threads.execute(() ->
+			{
+				for (int i = 0; i < 2500; ++i)
+				{
+					String key = "key" + (i % 20);
+					if (i % 7 == 0)
+					{
+						configManager.unsetConfiguration("test" + thread, key);
+					}
+					else
+					{
+						configManager.setConfiguration("test" + thread, key, thread + ":" + i);
+					}
+				}
+			});
+		}
+		threads.shutdown();
+		Assert.assertTrue(threads.awaitTermination(1, TimeUnit.MINUTES));
+
+		// as on shutdown, the save scheduled by the updates is no longer needed
+		configManager.sendConfig();
+		scheduler.shutdownNow();
+		Assert.assertTrue(scheduler.awaitTermination(1, TimeUnit.MINUTES));
+
+		Map<String, String> expected = new HashMap<>();
+		for (String key : configManager.getConfigurationKeys(""))
+		{
+			expected.put(key, configManager.getConfiguration(key.split("\\.")[0], key.split("\\.")[1]));
+		}
+
+		Properties saved = new Properties();
+		try (FileInputStream in = new FileInputStream(file))
+		{
+			saved.load(new InputStreamReader(in, StandardCharsets.UTF_8));
+		}
+
+		Assert.assertFalse(expected.isEmpty());
+		Assert.assertEquals(expected, saved);
+		Assert.assertEquals(expected, remote);
+		Assert.assertEquals(1, requests.get());
+		Assert.assertEquals(1, folder.getRoot().list().length);
+	}
+
+	@Test
+	public void testSendConfigRetry() throws Exception
+	{
+		ConfigClient client = mock(ConfigClient.class);
+		doThrow(new IOException()).doNothing().when(client).patch(Matchers.anyList());
+
+		ConfigManager configManager = new ConfigManager(new File(folder.getRoot(), "settings.properties"), client);
+		configManager.eventBus = eventBus;
+		configManager.diskExecutor = diskExecutor;
+		configManager.networkExecutor = networkExecutor;
+
+		configManager.setConfiguration("test", "key", "value");
+		verify(diskExecutor).schedule(Matchers.any(Runnable.class), Matchers.eq(5L), Matchers.eq(TimeUnit.SECONDS));
+		verify(networkExecutor).schedule(Matchers.any(Runnable.class), Matchers.eq(5L), Matchers.eq(TimeUnit.SECONDS));
+
+		// the failed changes are scheduled to be sent again
+		configManager.sendConfig();
+		verify(networkExecutor).schedule(Matchers.any(Runnable.class), Matchers.eq(30L), Matchers.eq(TimeUnit.SECONDS));
+
+		configManager.sendConfig();
+		ArgumentCaptor<List> captor = ArgumentCaptor.forClass(List.class);
+		verify(client, times(2)).patch(captor.capture());
+		ConfigEntry entry = (ConfigEntry) captor.getValue().get(0);
+		Assert.assertEquals("test.key", entry.getKey());
+		Assert.assertEquals("value", entry.getValue());
+	}
+
+	@Test
+	public void testSwitchSessionDiscardsFailedChanges() throws Exception
+	{
+		ConfigClient oldClient = mock(ConfigClient.class);
+		doThrow(new IOException()).when(oldClient).patch(Matchers.anyList());
+		ConfigClient newClient = mock(ConfigClient.class);
+		when(newClient.get()).thenReturn(new Configuration(Collections.emptyList()));
+
+		ConfigManager configManager = new ConfigManager(new File(folder.getRoot(), "settings.properties"), oldClient);
+		configManager.eventBus = eventBus;
+		configManager.diskExecutor = diskExecutor;
+		configManager.networkExecutor = networkExecutor;
+
+		configManager.setConfiguration("test", "key", "value");
+		configManager.switchSession(new AccountSession(UUID.randomUUID(), Instant.now()), newClient);
+		configManager.sendConfig();
+
+		verify(oldClient).patch(Matchers.anyList());
+		verify(newClient, never()).patch(Matchers.anyList());
+	}
+
+	@Test
+	@Ignore
+	public void benchmarkOverlayFont()
+	{
+		RuneLiteConfig conf = manager.getConfig(RuneLiteConfig.class);
+		manager.setConfiguration("runelite", "fontType", FontType.BOLD);
+
+		// every frame each overlay looks up its font, as OverlayRenderer does
+		long start = System.nanoTime();
+		Font font = null;
+		for (int frame = 0; frame < FRAMES; ++frame)
+		{
+			for (int i = 0; i < OVERLAYS; ++i)
+			{
+				font = conf.fontType().getFont();
+			}
+		}
+		long end = System.nanoTime();
+		log.info("proxy getter: {} ns/op ({})", (double) (end - start) / (FRAMES * OVERLAYS), font.getName());
+
+		// the lookup and parse each getter call did before values were cached
+		start = System.nanoTime();
+		for (int frame = 0; frame < FRAMES; ++frame)
+		{
+			for (int i = 0; i < OVERLAYS; ++i)
+			{
+				font = manager.getConfiguration("runelite", "fontType", FontType.class).getFont();
+			}
+		}
+		end = System.nanoTime();
+		log.info("property lookup: {} ns/op ({})", (double) (end - start) / (FRAMES * OVERLAYS), font.getName());
+	}
 }
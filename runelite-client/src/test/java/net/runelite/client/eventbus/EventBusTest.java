@@ -0,0 +1,281 @@
+/*
+ * Copyright (c) 2018, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.eventbus;
+
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.MenuAction;
+import net.runelite.api.events.GameTick;
+import net.runelite.api.events.MenuEntryAdded;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Ignore;
+import org.junit.Test;
+
+@Slf4j
+public class EventBusTest
+{
+	private static final int WARMUP = 1_000_000;
+	private static final int ITERATIONS = 10_000_000;
+
+	private final List<String> calls = new ArrayList<>();
+
+	private class Subscriber
+	{
+		private final String name;
+		private int ticks;
+
+		Subscriber(String name)
+		{
+			this.name = name;
+		}
+
+		@Subscribe
+		public void onGameTick(GameTick event)
+		{
+			++ticks;
+			calls.add(name);
+		}
+	}
+
+	private static class TickCounter
+	{
+		private int ticks;
+		private int menuEntries;
+
+		@Subscribe
+		public void onGameTick(GameTick event)
+		{
+			++ticks;
+		}
+
+		@Subscribe
+		public void onMenuEntryAdded(MenuEntryAdded event)
+		{
+			++menuEntries;
+		}
+	}
+
+	@Test
+	public void testOrder()
+	{
+		EventBus eventBus = new EventBus();
+		Subscriber a = new Subscriber("a");
+		Subscriber b = new Subscriber("b");
+		Subscriber c = new Subscriber("c");
+
+		eventBus.register(a);
+		eventBus.register(b);
+		eventBus.register(c);
+
+		eventBus.post(new GameTick());
+		assertEquals(ImmutableList.of("a", "b", "c"), calls);
+
+		calls.clear();
+		eventBus.unregister(b);
+		eventBus.post(new GameTick());
+		assertEquals(ImmutableList.of("a", "c"), calls);
+
+		calls.clear();
+		eventBus.register(b);
+		eventBus.post(new GameTick());
+		assertEquals(ImmutableList.of("a", "c", "b"), calls);
+	}
+
+	@Test
+	public void testUnregister()
+	{
+		EventBus eventBus = new EventBus();
+		TickCounter counter = new TickCounter();
+
+		eventBus.register(counter);
+		eventBus.post(new GameTick());
+		eventBus.post(new MenuEntryAdded("Walk here", "", 0, MenuAction.WALK.getId(), 0, 0));
+		assertEquals(1, counter.ticks);
+		assertEquals(1, counter.menuEntries);
+
+		eventBus.unregister(counter);
+		eventBus.post(new GameTick());
+		eventBus.post(new MenuEntryAdded("Walk here", "", 0, MenuAction.WALK.getId(), 0, 0));
+		assertEquals(1, counter.ticks);
+		assertEquals(1, counter.menuEntries);
+
+		// unregistering an object which was never registered does nothing
+		eventBus.unregister(new TickCounter());
+		eventBus.post(new Object());
+	}
+
+	@Test
+	public void testExceptionHandler()
+	{
+		List<Throwable> exceptions = new ArrayList<>();
+		EventBus eventBus = new EventBus(exceptions::add);
+		Subscriber a = new Subscriber("a");
+
+		eventBus.register(new Object()
+		{
+			@Subscribe
+			public void onGameTick(GameTick event)
+			{
+				throw new IllegalStateException();
+			}
+		});
+		eventBus.register(a);
+
+		eventBus.post(new GameTick());
+
+		assertEquals(1, exceptions.size());
+		assertEquals(1, a.ticks);
+	}
+
+	@Test
+	public void testPriority()
+	{
+		EventBus eventBus = new EventBus();
+
+		eventBus.register(new Subscriber("a"));
+		eventBus.register(new Object()
+		{
+			@Subscribe(priority = 100)
+			public void onGameTick(GameTick event)
+			{
+				calls.add("high");
+			}
+		});
+		eventBus.register(new Object()
+		{
+			@Subscribe(priority = -1)
+			public void onGameTick(GameTick event)
+			{
+				calls.add("low");
+			}
+		});
+		eventBus.register(new Subscriber("b"));
+
+		eventBus.post(new GameTick());
+		assertEquals(ImmutableList.of("high", "a", "b", "low"), calls);
+	}
+
+	@Test
+	public void testProfiling()
+	{
+		EventBus eventBus = new EventBus();
+		TickCounter counter = new TickCounter();
+		eventBus.register(counter);
+
+		eventBus.post(new GameTick());
+		assertTrue(eventBus.getTimings().isEmpty());
+
+		eventBus.setProfiling(true);
+		for (int i = 0; i < 10; ++i)
+		{
+			eventBus.post(new GameTick());
+		}
+		eventBus.setProfiling(false);
+		eventBus.post(new GameTick());
+
+		List<SubscriberTiming> timings = eventBus.getTimings();
+		assertEquals(1, timings.size());
+
+		SubscriberTiming timing = timings.get(0);
+		assertEquals(GameTick.class, timing.getEventType());
+		assertEquals("TickCounter.onGameTick", timing.getSubscriber());
+		assertEquals(10, timing.getCount());
+		assertTrue(timing.getP50() <= timing.getP99());
+		assertTrue(timing.getP99() <= timing.getMax());
+		assertEquals(12, counter.ticks);
+
+		eventBus.resetTimings();
+		assertTrue(eventBus.getTimings().isEmpty());
+	}
+
+	@Test
+	@Ignore
+	public void benchmarkPost()
+	{
+		EventBus eventBus = new EventBus();
+		for (int i = 0; i < 100; ++i)
+		{
+			// plugins which subscribe to other events
+			eventBus.register(new Object()
+			{
+				@Subscribe
+				public void onMenuEntryAdded(MenuEntryAdded event)
+				{
+				}
+			});
+		}
+
+		TickCounter counter = new TickCounter();
+		eventBus.register(counter);
+
+		GameTick tick = new GameTick();
+		MenuEntryAdded menuEntryAdded = new MenuEntryAdded("Walk here", "", 0, MenuAction.WALK.getId(), 0, 0);
+		Object unsubscribed = new Object();
+
+		for (Object event : new Object[]{ tick, menuEntryAdded, unsubscribed })
+		{
+			for (int i = 0; i < WARMUP; ++i)
+			{
+				eventBus.post(event);
+			}
+
+			long start = System.nanoTime();
+			for (int i = 0; i < ITERATIONS; ++i)
+			{
+				eventBus.post(event);
+			}
+			long end = System.nanoTime();
+
+			log.info("post {}: {} ns/op", event.getClass().getSimpleName(), (double) (end - start) / ITERATIONS);
+		}
+	}
+
+	@Test
+	@Ignore
+	public void benchmarkRegister()
+	{
+		EventBus eventBus = new EventBus();
+		List<TickCounter> plugins = new ArrayList<>();
+		for (int i = 0; i < 150; ++i)
+		{
+			plugins.add(new TickCounter());
+		}
+
+		for (int run = 0; run < 10; ++run)
+		{
+			long start = System.nanoTime();
+			plugins.forEach(eventBus::register);
+			long registered = System.nanoTime();
+			plugins.forEach(eventBus::unregister);
+			long end = System.nanoTime();
+
+			log.info("register {} plugins: {} us, unregister: {} us", plugins.size(),
+				(registered - start) / 1000, (end - registered) / 1000);
+		}
+	}
+}
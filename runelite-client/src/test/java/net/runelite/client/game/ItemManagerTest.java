@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2018, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.game;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import net.runelite.api.Client;
+import net.runelite.api.ItemID;
+import net.runelite.client.callback.ClientThread;
+import net.runelite.client.task.ExecutorLane;
+import net.runelite.client.task.ExecutorLanes;
+import net.runelite.http.api.item.ItemClient;
+import net.runelite.http.api.item.ItemPrice;
+import net.runelite.http.api.item.ItemPriceDelta;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ItemManagerTest
+{
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Mock
+	Client client;
+
+	@Mock
+	ExecutorLanes executorLanes;
+
+	@Mock
+	ScheduledExecutorService executor;
+
+	@Mock
+	ScheduledExecutorService diskExecutor;
+
+	@Mock
+	ClientThread clientThread;
+
+	@Mock
+	ItemClient itemClient;
+
+	private File pricesFile;
+
+	@Before
+	public void before()
+	{
+		when(executorLanes.getExecutor(ExecutorLane.NETWORK, "ItemManager")).thenReturn(executor);
+		when(executorLanes.getExecutor(ExecutorLane.DISK, "ItemManager")).thenReturn(diskExecutor);
+		// run disk tasks immediately, so the snapshot is loaded and saved before each call returns
+		doAnswer(invocation ->
+		{
+			((Runnable) invocation.getArguments()[0]).run();
+			return null;
+		}).when(diskExecutor).execute(any(Runnable.class));
+		pricesFile = new File(folder.getRoot(), "prices.bin");
+	}
+
+	private ItemManager itemManager()
+	{
+		return new ItemManager(client, executorLanes, clientThread, itemClient, pricesFile);
+	}
+
+	private static ItemPrice price(int id, String name, int price)
+	{
+		ItemPrice itemPrice = new ItemPrice();
+		itemPrice.setId(id);
+		itemPrice.setName(name);
+		itemPrice.setPrice(price);
+		itemPrice.setTime(Instant.ofEpochMilli(1000L));
+		return itemPrice;
+	}
+
+	private static ItemPriceDelta delta(long version, ItemPrice... prices)
+	{
+		ItemPriceDelta delta = new ItemPriceDelta();
+		delta.setVersion(version);
+		delta.setPrices(prices);
+		return delta;
+	}
+
+	private static ItemPriceDelta removed(long version, int... ids)
+	{
+		ItemPriceDelta delta = delta(version);
+		delta.setRemoved(ids);
+		return delta;
+	}
+
+	@Test
+	public void testApplyPriceDelta()
+	{
+		ItemManager itemManager = itemManager();
+		itemManager.applyPriceDelta(delta(1,
+			price(ItemID.ABYSSAL_WHIP, "Abyssal whip", 100),
+			price(ItemID.DRAGON_SCIMITAR, "Dragon scimitar", 50)));
+
+		ItemPrice whip = itemManager.search("whip").get(0);
+		assertEquals(100, whip.getPrice());
+
+		itemManager.applyPriceDelta(delta(2, price(ItemID.ABYSSAL_WHIP, "Abyssal whip", 200)));
+
+		assertEquals(200, itemManager.getItemPrice(ItemID.ABYSSAL_WHIP));
+		assertEquals(50, itemManager.getItemPrice(ItemID.DRAGON_SCIMITAR));
+		// prices which have been handed out are not changed
+		assertEquals(100, whip.getPrice());
+		// the search index is not rebuilt for a price change, but still has the current price
+		assertEquals(200, itemManager.search("whip").get(0).getPrice());
+
+		itemManager.applyPriceDelta(delta(3, price(ItemID.ABYSSAL_WHIP, "Abyssal tentacle", 300)));
+		assertTrue(itemManager.search("whip").isEmpty());
+		assertEquals(300, itemManager.search("tentacle").get(0).getPrice());
+	}
+
+	@Test
+	public void testRemovedPrices() throws IOException
+	{
+		when(itemClient.getPriceDelta(0)).thenReturn(delta(1,
+			price(ItemID.ABYSSAL_WHIP, "Abyssal whip", 100),
+			price(ItemID.DRAGON_SCIMITAR, "Dragon scimitar", 50)));
+		when(itemClient.getPriceDelta(1)).thenReturn(removed(2, ItemID.DRAGON_SCIMITAR));
+
+		ItemManager itemManager = itemManager();
+		itemManager.refreshPrices();
+		itemManager.refreshPrices();
+
+		assertEquals(100, itemManager.getItemPrice(ItemID.ABYSSAL_WHIP));
+		assertEquals(0, itemManager.getItemPrice(ItemID.DRAGON_SCIMITAR));
+		assertTrue(itemManager.search("dragon").isEmpty());
+
+		// the removal is saved too
+		itemManager = itemManager();
+		assertEquals(100, itemManager.getItemPrice(ItemID.ABYSSAL_WHIP));
+		assertEquals(0, itemManager.getItemPrice(ItemID.DRAGON_SCIMITAR));
+
+		// a full delta drops every price not in it
+		ItemPriceDelta full = delta(3, price(ItemID.DRAGON_SCIMITAR, "Dragon scimitar", 60));
+		full.setFull(true);
+		assertTrue(itemManager.applyPriceDelta(full));
+		assertEquals(0, itemManager.getItemPrice(ItemID.ABYSSAL_WHIP));
+		assertEquals(60, itemManager.getItemPrice(ItemID.DRAGON_SCIMITAR));
+		assertTrue(itemManager.search("whip").isEmpty());
+	}
+
+	@Test
+	public void testPriceSnapshot() throws IOException
+	{
+		when(itemClient.getPriceDelta(0)).thenReturn(delta(5,
+			price(ItemID.ABYSSAL_WHIP, "Abyssal whip", 100),
+			price(ItemID.DRAGON_SCIMITAR, "Dragon scimitar", 50)));
+		itemManager().refreshPrices();
+		assertTrue(pricesFile.exists());
+
+		// the next session starts from the saved prices, even without the network
+		when(itemClient.getPriceDelta(5)).thenThrow(new IOException());
+		ItemManager itemManager = itemManager();
+		itemManager.refreshPrices();
+
+		verify(itemClient).getPriceDelta(5);
+		assertEquals(100, itemManager.getItemPrice(ItemID.ABYSSAL_WHIP));
+		assertEquals(50, itemManager.getItemPrice(ItemID.DRAGON_SCIMITAR));
+
+		List<ItemPrice> results = itemManager.search("dragon");
+		assertEquals(1, results.size());
+		assertEquals("Dragon scimitar", results.get(0).getName());
+		assertEquals(Instant.ofEpochMilli(1000L), results.get(0).getTime());
+	}
+
+	@Test
+	public void testDamagedSnapshot() throws IOException
+	{
+		Files.write(pricesFile.toPath(), new byte[]{ 0, 0, 0, 0, 0, 0, 0, 1, 0x7f, 0, 0, 0, 1 });
+		when(itemClient.getPriceDelta(0)).thenReturn(delta(1, price(ItemID.ABYSSAL_WHIP, "Abyssal whip", 100)));
+
+		ItemManager itemManager = itemManager();
+		itemManager.refreshPrices();
+
+		// the prices are still fetched, and replace the damaged snapshot
+		assertEquals(100, itemManager.getItemPrice(ItemID.ABYSSAL_WHIP));
+		assertFalse(itemManager.search("whip").isEmpty());
+		try (InputStream in = Files.newInputStream(pricesFile.toPath()))
+		{
+			assertEquals(1, ItemPriceDelta.read(in).getVersion());
+		}
+	}
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2018, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.game;
+
+import com.google.common.collect.ImmutableMap;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.ItemID;
+import net.runelite.http.api.item.ItemPrice;
+import static org.junit.Assert.assertEquals;
+import org.junit.Ignore;
+import org.junit.Test;
+
+@Slf4j
+public class ItemPriceTableTest
+{
+	private static final int WARMUP = 100;
+	private static final int ITERATIONS = 1000;
+	private static final int BANK_SIZE = 800;
+
+	/**
+	 * Build a price list of every item in {@link ItemID}, named after the constant
+	 */
+	static Map<Integer, ItemPrice> samplePrices() throws IllegalAccessException
+	{
+		ImmutableMap.Builder<Integer, ItemPrice> prices = ImmutableMap.builder();
+		Random random = new Random(42);
+
+		for (Field field : ItemID.class.getFields())
+		{
+			if (!Modifier.isStatic(field.getModifiers()) || field.getType() != int.class)
+			{
+				continue;
+			}
+
+			String name = field.getName().toLowerCase().replace('_', ' ');
+
+			ItemPrice price = new ItemPrice();
+			price.setId(field.getInt(null));
+			price.setName(Character.toUpperCase(name.charAt(0)) + name.substring(1));
+			price.setPrice(random.nextInt(100_000));
+			prices.put(price.getId(), price);
+		}
+
+		return prices.build();
+	}
+
+	@Test
+	public void testGetPrice() throws Exception
+	{
+		Map<Integer, ItemPrice> prices = samplePrices();
+		ItemPriceTable table = new ItemPriceTable(prices);
+
+		assertEquals(1, table.getPrice(ItemID.COINS_995));
+		assertEquals(1000, table.getPrice(ItemID.PLATINUM_TOKEN));
+		assertEquals(prices.get(ItemID.ABYSSAL_WHIP).getPrice(), table.getPrice(ItemID.ABYSSAL_WHIP));
+		assertEquals(table.getPrice(ItemID.AMYLASE_CRYSTAL) * 10, table.getPrice(ItemID.MARK_OF_GRACE));
+		assertEquals(table.getPrice(ItemID.MARK_OF_GRACE) * 28, table.getPrice(ItemID.GRACEFUL_HOOD));
+		assertEquals(0, table.getPrice(Integer.MAX_VALUE));
+		assertEquals(0, table.getPrice(-1));
+
+		for (int id = 0; id < 30_000; ++id)
+		{
+			assertEquals(table.computePrice(id), table.getPrice(id));
+		}
+	}
+
+	@Test
+	public void testEmpty()
+	{
+		assertEquals(1, ItemPriceTable.EMPTY.getPrice(ItemID.COINS_995));
+		assertEquals(0, ItemPriceTable.EMPTY.getPrice(ItemID.ABYSSAL_WHIP));
+	}
+
+	@Test
+	@Ignore
+	public void benchmarkBankPrice() throws Exception
+	{
+		Map<Integer, ItemPrice> prices = samplePrices();
+		ItemPriceTable table = new ItemPriceTable(prices);
+
+		List<Integer> ids = new ArrayList<>(prices.keySet());
+		Random random = new Random(42);
+		int[] bank = new int[BANK_SIZE];
+		for (int i = 0; i < bank.length; ++i)
+		{
+			bank[i] = ids.get(random.nextInt(ids.size()));
+		}
+
+		long total = 0;
+		for (int i = 0; i < WARMUP; ++i)
+		{
+			for (int id : bank)
+			{
+				total += table.getPrice(id) + table.computePrice(id);
+			}
+		}
+
+		long start = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; ++i)
+		{
+			for (int id : bank)
+			{
+				total += table.computePrice(id);
+			}
+		}
+		long computed = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; ++i)
+		{
+			for (int id : bank)
+			{
+				total += table.getPrice(id);
+			}
+		}
+		long end = System.nanoTime();
+
+		log.info("price {} items: mapped lookup {} us, table {} us ({})", bank.length,
+			(computed - start) / ITERATIONS / 1000.0, (end - computed) / ITERATIONS / 1000.0, total);
+	}
+
+	@Test
+	@Ignore
+	public void benchmarkBuild() throws Exception
+	{
+		Map<Integer, ItemPrice> prices = samplePrices();
+
+		for (int run = 0; run < 10; ++run)
+		{
+			long start = System.nanoTime();
+			ItemPriceTable table = new ItemPriceTable(prices);
+			long built = System.nanoTime();
+			ItemSearchIndex index = new ItemSearchIndex(prices.values());
+			long end = System.nanoTime();
+
+			log.info("build {} prices: table {} ms, search index {} ms", table.size(),
+				(built - start) / 1_000_000.0, (end - built) / 1_000_000.0);
+		}
+	}
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2018, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.game;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.http.api.item.ItemPrice;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+
+@Slf4j
+public class ItemSearchIndexTest
+{
+	private static final int ITERATIONS = 100;
+	private static final String[] QUERIES = {
+		"a", "ab", "aby", "abys", "abyss", "abyssa", "abyssal", "abyssal ", "abyssal w", "abyssal wh", "abyssal whi", "abyssal whip",
+		"d", "dr", "dra", "drag", "drago", "dragon", "dragon ", "dragon s", "dragon sc", "dragon sci", "dragon scim",
+		"4", "(4)", "xyz", "rune platebody"
+	};
+
+	private Collection<ItemPrice> prices;
+
+	@Before
+	public void before() throws Exception
+	{
+		prices = ItemPriceTableTest.samplePrices().values();
+	}
+
+	@Test
+	public void testSearch()
+	{
+		ItemSearchIndex index = new ItemSearchIndex(prices);
+
+		for (String query : QUERIES)
+		{
+			assertEquals(query, scan(query), index.search(query));
+			assertEquals(query, scan(query), index.search(query.toUpperCase()));
+		}
+
+		assertEquals(prices.size(), index.search("").size());
+		assertTrue(index.search("abyssal whip").stream().anyMatch(p -> p.getName().equals("Abyssal whip")));
+		assertTrue(ItemSearchIndex.EMPTY.search("whip").isEmpty());
+	}
+
+	@Test
+	@Ignore
+	public void benchmarkSearchAsYouType()
+	{
+		ItemSearchIndex index = new ItemSearchIndex(prices);
+
+		int total = 0;
+		for (int i = 0; i < ITERATIONS; ++i)
+		{
+			for (String query : QUERIES)
+			{
+				total += scan(query).size() + index.search(query).size();
+			}
+		}
+
+		long start = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; ++i)
+		{
+			for (String query : QUERIES)
+			{
+				total += scan(query).size();
+			}
+		}
+		long scanned = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; ++i)
+		{
+			for (String query : QUERIES)
+			{
+				total += index.search(query).size();
+			}
+		}
+		long end = System.nanoTime();
+
+		log.info("search {} items, {} keystrokes: scan {} us, index {} us ({})", prices.size(), QUERIES.length,
+			(scanned - start) / ITERATIONS / 1000.0, (end - scanned) / ITERATIONS / 1000.0, total);
+	}
+
+	private List<ItemPrice> scan(String itemName)
+	{
+		itemName = itemName.toLowerCase();
+
+		List<ItemPrice> result = new ArrayList<>();
+		for (ItemPrice itemPrice : prices)
+		{
+			if (itemPrice.getName().toLowerCase().contains(itemName))
+			{
+				result.add(itemPrice);
+			}
+		}
+		return result;
+	}
+}
@@ -24,6 +24,7 @@
  */
 package net.runelite.client.plugins;
 
+import com.google.common.graph.Graph;
 import com.google.common.reflect.ClassPath;
 import com.google.common.reflect.ClassPath.ClassInfo;
 import com.google.inject.Guice;
@@ -39,25 +40,37 @@ import java.io.File;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.Client;
 import net.runelite.client.RuneLite;
 import net.runelite.client.RuneLiteModule;
+import net.runelite.client.config.ConfigManager;
+import net.runelite.client.eventbus.EventBus;
 import net.runelite.client.rs.ClientUpdateCheckMode;
+import net.runelite.client.task.Scheduler;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import org.mockito.runners.MockitoJUnitRunner;
 
 @RunWith(MockitoJUnitRunner.class)
+@Slf4j
 public class PluginManagerTest
 {
 	private static final String PLUGIN_PACKAGE = "net.runelite.client.plugins";
@@ -125,6 +138,79 @@ public class PluginManagerTest
 		assertEquals(expected, plugins.size());
 	}
 
+	@Test
+	public void testPluginIndex() throws Exception
+	{
+		PluginManager pluginManager = new PluginManager(true, null, null, null, null, null);
+		Graph<Class<? extends Plugin>> index = pluginManager.readPluginIndex(getClass().getClassLoader());
+		assertNotNull("plugin index is missing", index);
+
+		Graph<Class<? extends Plugin>> scanned = pluginManager.scanPlugins(getClass().getClassLoader(), PLUGIN_PACKAGE);
+		assertEquals(scanned, index);
+	}
+
+	@Test
+	public void testStartCorePluginsError() throws Exception
+	{
+		EventBus eventBus = mock(EventBus.class);
+		PluginManager pluginManager = new PluginManager(false, eventBus, mock(Scheduler.class), mock(ConfigManager.class), null, null);
+
+		Plugin first = new StartPlugin();
+		Plugin failing = new ErrorPlugin();
+		Plugin last = new StartPlugin();
+		pluginManager.add(first);
+		pluginManager.add(failing);
+		pluginManager.add(last);
+
+		pluginManager.startCorePlugins();
+
+		// an error starting one plugin does not stop the plugins after it from starting
+		assertEquals(Arrays.asList(first, last), new ArrayList<>(pluginManager.getPlugins()));
+		verify(eventBus).register(first);
+		verify(eventBus).register(last);
+		verify(eventBus, never()).register(failing);
+	}
+
+	private static class StartPlugin extends Plugin
+	{
+	}
+
+	private static class ErrorPlugin extends Plugin
+	{
+		@Override
+		protected void startUp()
+		{
+			throw new NoClassDefFoundError();
+		}
+	}
+
+	@Test
+	public void testStartCorePlugins() throws Exception
+	{
+		PluginManager pluginManager = RuneLite.getInjector().getInstance(PluginManager.class);
+
+		long start = System.nanoTime();
+		pluginManager.loadCorePlugins();
+		long loaded = System.nanoTime();
+		pluginManager.startCorePlugins();
+		long started = System.nanoTime();
+
+		log.info("Loaded {} plugins in {}ms, started in {}ms", pluginManager.getPlugins().size(),
+			TimeUnit.NANOSECONDS.toMillis(loaded - start), TimeUnit.NANOSECONDS.toMillis(started - loaded));
+		for (PluginTiming timing : pluginManager.getStartupTimings())
+		{
+			log.info("{}: {}us / {}us", timing.getName(),
+				TimeUnit.NANOSECONDS.toMicros(timing.getInstantiateTime()), TimeUnit.NANOSECONDS.toMicros(timing.getStartTime()));
+		}
+
+		assertFalse(pluginManager.getPlugins().isEmpty());
+		for (Plugin plugin : pluginManager.getPlugins())
+		{
+			// plugins which failed to start are removed
+			assertFalse(pluginManager.startPlugin(plugin));
+		}
+	}
+
 	@Test
 	public void dumpGraph() throws Exception
 	{
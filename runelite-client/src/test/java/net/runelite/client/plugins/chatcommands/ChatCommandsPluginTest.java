@@ -29,9 +29,11 @@ import com.google.inject.testing.fieldbinder.Bind;
 import com.google.inject.testing.fieldbinder.BoundFieldModule;
 import java.util.concurrent.ScheduledExecutorService;
 import javax.inject.Inject;
+import javax.inject.Named;
 import static net.runelite.api.ChatMessageType.SERVER;
 import net.runelite.api.Client;
 import net.runelite.api.events.ChatMessage;
+import net.runelite.client.chat.ChatClassifier;
 import net.runelite.client.config.ChatColorConfig;
 import net.runelite.client.config.ConfigManager;
 import org.junit.Before;
@@ -55,6 +57,7 @@ public class ChatCommandsPluginTest
 
 	@Mock
 	@Bind
+	@Named("Network Executor")
 	ScheduledExecutorService scheduledExecutorService;
 
 	@Mock
@@ -68,10 +71,14 @@ public class ChatCommandsPluginTest
 	@Inject
 	ChatCommandsPlugin chatCommandsPlugin;
 
+	@Inject
+	ChatClassifier chatClassifier;
+
 	@Before
 	public void before()
 	{
 		Guice.createInjector(BoundFieldModule.of(this)).injectMembers(this);
+		chatCommandsPlugin.startUp();
 	}
 
 	@Test
@@ -80,7 +87,7 @@ public class ChatCommandsPluginTest
 		when(client.getUsername()).thenReturn("Adam");
 
 		ChatMessage chatMessageEvent = new ChatMessage(SERVER, "", "Your Corporeal Beast kill count is: <col=ff0000>4</col>.", null);
-		chatCommandsPlugin.onChatMessage(chatMessageEvent);
+		chatClassifier.onChatMessage(chatMessageEvent);
 
 		verify(configManager).setConfiguration("killcount.adam", "corporeal beast", 4);
 	}
@@ -91,7 +98,7 @@ public class ChatCommandsPluginTest
 		when(client.getUsername()).thenReturn("Adam");
 
 		ChatMessage chatMessageEvent = new ChatMessage(SERVER, "", "Your completed Theatre of Blood count is: <col=ff0000>73</col>.", null);
-		chatCommandsPlugin.onChatMessage(chatMessageEvent);
+		chatClassifier.onChatMessage(chatMessageEvent);
 
 		verify(configManager).setConfiguration("killcount.adam", "theatre of blood", 73);
 	}
@@ -102,7 +109,7 @@ public class ChatCommandsPluginTest
 		when(client.getUsername()).thenReturn("Adam");
 
 		ChatMessage chatMessageEvent = new ChatMessage(SERVER, "", "Your subdued Wintertodt count is: <col=ff0000>4</col>.", null);
-		chatCommandsPlugin.onChatMessage(chatMessageEvent);
+		chatClassifier.onChatMessage(chatMessageEvent);
 
 		verify(configManager).setConfiguration("killcount.adam", "wintertodt", 4);
 	}
@@ -113,7 +120,7 @@ public class ChatCommandsPluginTest
 		when(client.getUsername()).thenReturn("Adam");
 
 		ChatMessage chatMessageEvent = new ChatMessage(SERVER, "", "Your Kree'arra kill count is: <col=ff0000>4</col>.", null);
-		chatCommandsPlugin.onChatMessage(chatMessageEvent);
+		chatClassifier.onChatMessage(chatMessageEvent);
 
 		verify(configManager).setConfiguration("killcount.adam", "kree'arra", 4);
 	}
@@ -124,7 +131,7 @@ public class ChatCommandsPluginTest
 		when(client.getUsername()).thenReturn("Adam");
 
 		ChatMessage chatMessageEvent = new ChatMessage(SERVER, "", "Your Barrows chest count is: <col=ff0000>277</col>.", null);
-		chatCommandsPlugin.onChatMessage(chatMessageEvent);
+		chatClassifier.onChatMessage(chatMessageEvent);
 
 		verify(configManager).setConfiguration("killcount.adam", "barrows chests", 277);
 	}
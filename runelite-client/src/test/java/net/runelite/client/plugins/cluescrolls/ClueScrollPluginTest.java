@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2018, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.cluescrolls;
+
+import com.google.inject.Guice;
+import com.google.inject.testing.fieldbinder.Bind;
+import com.google.inject.testing.fieldbinder.BoundFieldModule;
+import javax.inject.Inject;
+import static net.runelite.api.ChatMessageType.SERVER;
+import net.runelite.api.Client;
+import net.runelite.api.NPC;
+import net.runelite.api.events.ChatMessage;
+import net.runelite.client.chat.ChatClassifier;
+import net.runelite.client.game.ItemManager;
+import net.runelite.client.plugins.cluescrolls.clues.HotColdClue;
+import net.runelite.client.ui.overlay.OverlayManager;
+import net.runelite.client.ui.overlay.worldmap.WorldMapPointManager;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ClueScrollPluginTest
+{
+	@Mock
+	@Bind
+	Client client;
+
+	@Mock
+	@Bind
+	ItemManager itemManager;
+
+	@Mock
+	@Bind
+	OverlayManager overlayManager;
+
+	@Mock
+	@Bind
+	ClueScrollOverlay clueScrollOverlay;
+
+	@Mock
+	@Bind
+	ClueScrollEmoteOverlay clueScrollEmoteOverlay;
+
+	@Mock
+	@Bind
+	ClueScrollWorldOverlay clueScrollWorldOverlay;
+
+	@Mock
+	@Bind
+	ClueScrollConfig config;
+
+	@Mock
+	@Bind
+	WorldMapPointManager worldMapPointManager;
+
+	@Inject
+	ClueScrollPlugin clueScrollPlugin;
+
+	@Inject
+	ChatClassifier chatClassifier;
+
+	@Before
+	public void before() throws Exception
+	{
+		Guice.createInjector(BoundFieldModule.of(this)).injectMembers(this);
+		when(client.getCachedNPCs()).thenReturn(new NPC[0]);
+		clueScrollPlugin.startUp();
+	}
+
+	@Test
+	public void testStrangeDevice()
+	{
+		HotColdClue clue = mock(HotColdClue.class);
+		clueScrollPlugin.updateClue(clue);
+
+		chatClassifier.onChatMessage(new ChatMessage(SERVER, "", "The device is warm, and colder than last time.", null));
+		// the device message is given without its tags
+		chatClassifier.onChatMessage(new ChatMessage(SERVER, "", "<col=ef1020>The device is visibly shaking and burns to the touch.</col>", null));
+
+		verify(clue).update("The device is warm, and colder than last time.", clueScrollPlugin);
+		verify(clue).update("The device is visibly shaking and burns to the touch.", clueScrollPlugin);
+	}
+
+	@Test
+	public void testStrangeDeviceOtherMessage()
+	{
+		HotColdClue clue = mock(HotColdClue.class);
+		clueScrollPlugin.updateClue(clue);
+
+		chatClassifier.onChatMessage(new ChatMessage(SERVER, "", "You feel the device is warm.", null));
+
+		verify(clue, never()).update(anyString(), any(ClueScrollPlugin.class));
+	}
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2018, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.hiscore;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.testing.fieldbinder.Bind;
+import com.google.inject.testing.fieldbinder.BoundFieldModule;
+import java.lang.reflect.Field;
+import java.util.concurrent.ScheduledExecutorService;
+import javax.inject.Inject;
+import static net.runelite.api.ChatMessageType.SERVER;
+import net.runelite.api.Client;
+import net.runelite.api.events.ChatMessage;
+import net.runelite.client.chat.ChatClassifier;
+import net.runelite.client.menus.MenuManager;
+import net.runelite.client.plugins.Plugin;
+import net.runelite.client.ui.ClientToolbar;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class HiscorePluginTest
+{
+	@Mock
+	@Bind
+	Client client;
+
+	@Mock
+	@Bind
+	MenuManager menuManager;
+
+	@Mock
+	@Bind
+	ClientToolbar clientToolbar;
+
+	@Mock
+	@Bind
+	ScheduledExecutorService executor;
+
+	@Mock
+	@Bind
+	HiscoreConfig config;
+
+	@Mock
+	@Bind
+	NameAutocompleter autocompleter;
+
+	@Inject
+	HiscorePlugin hiscorePlugin;
+
+	@Inject
+	ChatClassifier chatClassifier;
+
+	@Before
+	public void before() throws Exception
+	{
+		Injector injector = Guice.createInjector(BoundFieldModule.of(this));
+		injector.injectMembers(this);
+
+		// normally set by the plugin manager
+		Field field = Plugin.class.getDeclaredField("injector");
+		field.setAccessible(true);
+		field.set(hiscorePlugin, injector);
+
+		hiscorePlugin.startUp();
+	}
+
+	/**
+	 * The bounty target message is colored, but the tags are not part of what is matched
+	 */
+	@Test
+	public void testBountyTarget()
+	{
+		when(config.bountylookup()).thenReturn(true);
+
+		message("<col=ff0000>You've been assigned a target: Zezima</col>");
+
+		verify(executor).execute(any(Runnable.class));
+	}
+
+	@Test
+	public void testBountyLookupDisabled()
+	{
+		message("<col=ff0000>You've been assigned a target: Zezima</col>");
+
+		verify(executor, never()).execute(any(Runnable.class));
+	}
+
+	private void message(String message)
+	{
+		chatClassifier.onChatMessage(new ChatMessage(SERVER, "", message, null));
+	}
+}
@@ -32,6 +32,7 @@ import net.runelite.api.ChatMessageType;
 import net.runelite.api.Client;
 import net.runelite.api.events.ChatMessage;
 import net.runelite.client.Notifier;
+import net.runelite.client.chat.ChatClassifier;
 import net.runelite.client.ui.overlay.OverlayManager;
 import static org.junit.Assert.assertEquals;
 import org.junit.Before;
@@ -67,29 +68,33 @@ public class ItemChargePluginTest
 	@Inject
 	private ItemChargePlugin itemChargePlugin;
 
+	@Inject
+	private ChatClassifier chatClassifier;
+
 	@Before
 	public void before()
 	{
 		Guice.createInjector(BoundFieldModule.of(this)).injectMembers(this);
+		itemChargePlugin.startUp();
 	}
 
 	@Test
 	public void testOnChatMessage()
 	{
 		ChatMessage chatMessage = new ChatMessage(ChatMessageType.SERVER, "", CHECK, "");
-		itemChargePlugin.onChatMessage(chatMessage);
+		chatClassifier.onChatMessage(chatMessage);
 		assertEquals(10, itemChargePlugin.getDodgyCharges());
 
 		chatMessage = new ChatMessage(ChatMessageType.SERVER, "", PROTECT, "");
-		itemChargePlugin.onChatMessage(chatMessage);
+		chatClassifier.onChatMessage(chatMessage);
 		assertEquals(9, itemChargePlugin.getDodgyCharges());
 
 		chatMessage = new ChatMessage(ChatMessageType.SERVER, "", PROTECT_1, "");
-		itemChargePlugin.onChatMessage(chatMessage);
+		chatClassifier.onChatMessage(chatMessage);
 		assertEquals(1, itemChargePlugin.getDodgyCharges());
 
 		chatMessage = new ChatMessage(ChatMessageType.SERVER, "", BREAK, "");
-		itemChargePlugin.onChatMessage(chatMessage);
+		chatClassifier.onChatMessage(chatMessage);
 		assertEquals(10, itemChargePlugin.getDodgyCharges());
 	}
 }
\ No newline at end of file
@@ -37,6 +37,7 @@ import net.runelite.api.events.GameTick;
 import net.runelite.api.widgets.Widget;
 import net.runelite.api.widgets.WidgetInfo;
 import net.runelite.client.Notifier;
+import net.runelite.client.chat.ChatClassifier;
 import net.runelite.client.game.ItemManager;
 import net.runelite.client.ui.overlay.OverlayManager;
 import net.runelite.client.ui.overlay.infobox.InfoBoxManager;
@@ -129,10 +130,14 @@ public class SlayerPluginTest
 	@Inject
 	SlayerPlugin slayerPlugin;
 
+	@Inject
+	ChatClassifier chatClassifier;
+
 	@Before
-	public void before()
+	public void before() throws Exception
 	{
 		Guice.createInjector(BoundFieldModule.of(this)).injectMembers(this);
+		slayerPlugin.startUp();
 	}
 
 	@Test
@@ -201,7 +206,7 @@ public class SlayerPluginTest
 	public void testPartnerTask()
 	{
 		ChatMessage chatMessageEvent = new ChatMessage(SERVER, "", TASK_NEW_FROM_PARTNER, null);
-		slayerPlugin.onChatMessage(chatMessageEvent);
+		chatClassifier.onChatMessage(chatMessageEvent);
 
 		assertEquals("Dust Devils", slayerPlugin.getTaskName());
 		assertEquals(377, slayerPlugin.getAmount());
@@ -211,7 +216,7 @@ public class SlayerPluginTest
 	public void testCheckSlayerGem()
 	{
 		ChatMessage chatMessageEvent = new ChatMessage(SERVER, "", TASK_CHECKSLAYERGEM, null);
-		slayerPlugin.onChatMessage(chatMessageEvent);
+		chatClassifier.onChatMessage(chatMessageEvent);
 		assertEquals("Suqahs", slayerPlugin.getTaskName());
 		assertEquals(211, slayerPlugin.getAmount());
 	}
@@ -220,7 +225,7 @@ public class SlayerPluginTest
 	public void testCheckSlayerGemWildernessTask()
 	{
 		ChatMessage chatMessageEvent = new ChatMessage(SERVER, "", TASK_CHECKSLAYERGEM_WILDERNESS, null);
-		slayerPlugin.onChatMessage(chatMessageEvent);
+		chatClassifier.onChatMessage(chatMessageEvent);
 		assertEquals("Suqahs", slayerPlugin.getTaskName());
 		assertEquals(211, slayerPlugin.getAmount());
 	}
@@ -256,7 +261,7 @@ public class SlayerPluginTest
 	public void testOneTask()
 	{
 		ChatMessage chatMessageEvent = new ChatMessage(SERVER, "Perterter", TASK_ONE, null);
-		slayerPlugin.onChatMessage(chatMessageEvent);
+		chatClassifier.onChatMessage(chatMessageEvent);
 
 		assertEquals(1, slayerPlugin.getStreak());
 		assertEquals("", slayerPlugin.getTaskName());
@@ -267,7 +272,7 @@ public class SlayerPluginTest
 	public void testNoPoints()
 	{
 		ChatMessage chatMessageEvent = new ChatMessage(SERVER, "Perterter", TASK_COMPLETE_NO_POINTS, null);
-		slayerPlugin.onChatMessage(chatMessageEvent);
+		chatClassifier.onChatMessage(chatMessageEvent);
 
 		assertEquals(3, slayerPlugin.getStreak());
 		assertEquals("", slayerPlugin.getTaskName());
@@ -278,7 +283,7 @@ public class SlayerPluginTest
 	public void testPoints()
 	{
 		ChatMessage chatMessageEvent = new ChatMessage(SERVER, "Perterter", TASK_POINTS, null);
-		slayerPlugin.onChatMessage(chatMessageEvent);
+		chatClassifier.onChatMessage(chatMessageEvent);
 
 		assertEquals(9, slayerPlugin.getStreak());
 		assertEquals("", slayerPlugin.getTaskName());
@@ -290,7 +295,7 @@ public class SlayerPluginTest
 	public void testLargeStreak()
 	{
 		ChatMessage chatMessageEvent = new ChatMessage(SERVER, "Perterter", TASK_LARGE_STREAK, null);
-		slayerPlugin.onChatMessage(chatMessageEvent);
+		chatClassifier.onChatMessage(chatMessageEvent);
 
 		assertEquals(2465, slayerPlugin.getStreak());
 		assertEquals("", slayerPlugin.getTaskName());
@@ -305,7 +310,7 @@ public class SlayerPluginTest
 		slayerPlugin.setAmount(42);
 
 		ChatMessage chatMessageEvent = new ChatMessage(SERVER, "Perterter", TASK_COMPLETE, null);
-		slayerPlugin.onChatMessage(chatMessageEvent);
+		chatClassifier.onChatMessage(chatMessageEvent);
 
 		assertEquals("", slayerPlugin.getTaskName());
 		assertEquals(0, slayerPlugin.getAmount());
@@ -318,7 +323,7 @@ public class SlayerPluginTest
 		slayerPlugin.setAmount(42);
 
 		ChatMessage chatMessageEvent = new ChatMessage(SERVER, "Perterter", TASK_CANCELED, null);
-		slayerPlugin.onChatMessage(chatMessageEvent);
+		chatClassifier.onChatMessage(chatMessageEvent);
 
 		assertEquals("", slayerPlugin.getTaskName());
 		assertEquals(0, slayerPlugin.getAmount());
@@ -330,11 +335,11 @@ public class SlayerPluginTest
 		ChatMessage chatMessageEvent = new ChatMessage(SERVER, "Superior", SUPERIOR_MESSAGE, null);
 
 		when(slayerConfig.showSuperiorNotification()).thenReturn(true);
-		slayerPlugin.onChatMessage(chatMessageEvent);
+		chatClassifier.onChatMessage(chatMessageEvent);
 		verify(notifier).notify(SUPERIOR_MESSAGE);
 
 		when(slayerConfig.showSuperiorNotification()).thenReturn(false);
-		slayerPlugin.onChatMessage(chatMessageEvent);
+		chatClassifier.onChatMessage(chatMessageEvent);
 		verifyNoMoreInteractions(notifier);
 	}
 
@@ -346,24 +351,24 @@ public class SlayerPluginTest
 		slayerPlugin.setAmount(42);
 		slayerPlugin.setSlaughterChargeCount(10);
 
-		slayerPlugin.onChatMessage(chatMessageEvent);
+		chatClassifier.onChatMessage(chatMessageEvent);
 
 		assertEquals(9, slayerPlugin.getSlaughterChargeCount());
 		assertEquals(43, slayerPlugin.getAmount());
 
 		chatMessageEvent = new ChatMessage(SERVER, "", CHAT_BRACELET_SLAUGHTER_CHARGE, null);
-		slayerPlugin.onChatMessage(chatMessageEvent);
+		chatClassifier.onChatMessage(chatMessageEvent);
 
 		assertEquals(12, slayerPlugin.getSlaughterChargeCount());
 
 		chatMessageEvent = new ChatMessage(SERVER, "", CHAT_BRACELET_SLAUGHTER_CHARGE_ONE, null);
-		slayerPlugin.onChatMessage(chatMessageEvent);
+		chatClassifier.onChatMessage(chatMessageEvent);
 
 		assertEquals(1, slayerPlugin.getSlaughterChargeCount());
 
 		slayerPlugin.setSlaughterChargeCount(1);
 		chatMessageEvent = new ChatMessage(SERVER, "", BRACLET_SLAUGHTER_V3, null);
-		slayerPlugin.onChatMessage(chatMessageEvent);
+		chatClassifier.onChatMessage(chatMessageEvent);
 
 		assertEquals(30, slayerPlugin.getSlaughterChargeCount());
 
@@ -380,7 +385,7 @@ public class SlayerPluginTest
 		slayerPlugin.setAmount(42);
 		slayerPlugin.setSlaughterChargeCount(2);
 
-		slayerPlugin.onChatMessage(chatMessageEvent);
+		chatClassifier.onChatMessage(chatMessageEvent);
 
 		assertEquals(1, slayerPlugin.getSlaughterChargeCount());
 		assertEquals(43, slayerPlugin.getAmount());
@@ -394,24 +399,24 @@ public class SlayerPluginTest
 		slayerPlugin.setAmount(42);
 		slayerPlugin.setExpeditiousChargeCount(10);
 
-		slayerPlugin.onChatMessage(chatMessageEvent);
+		chatClassifier.onChatMessage(chatMessageEvent);
 
 		assertEquals(41, slayerPlugin.getAmount());
 		assertEquals(9, slayerPlugin.getExpeditiousChargeCount());
 
 		chatMessageEvent = new ChatMessage(SERVER, "", CHAT_BRACELET_EXPEDITIOUS_CHARGE, null);
-		slayerPlugin.onChatMessage(chatMessageEvent);
+		chatClassifier.onChatMessage(chatMessageEvent);
 
 		assertEquals(12, slayerPlugin.getExpeditiousChargeCount());
 
 		chatMessageEvent = new ChatMessage(SERVER, "", CHAT_BRACELET_EXPEDITIOUS_CHARGE_ONE, null);
-		slayerPlugin.onChatMessage(chatMessageEvent);
+		chatClassifier.onChatMessage(chatMessageEvent);
 
 		assertEquals(1, slayerPlugin.getExpeditiousChargeCount());
 
 		slayerPlugin.setExpeditiousChargeCount(1);
 		chatMessageEvent = new ChatMessage(SERVER, "", BRACLET_EXPEDITIOUS_V3, null);
-		slayerPlugin.onChatMessage(chatMessageEvent);
+		chatClassifier.onChatMessage(chatMessageEvent);
 
 		assertEquals(30, slayerPlugin.getExpeditiousChargeCount());
 
@@ -428,7 +433,7 @@ public class SlayerPluginTest
 		slayerPlugin.setAmount(42);
 		slayerPlugin.setExpeditiousChargeCount(2);
 
-		slayerPlugin.onChatMessage(chatMessageEvent);
+		chatClassifier.onChatMessage(chatMessageEvent);
 
 		assertEquals(41, slayerPlugin.getAmount());
 		assertEquals(1, slayerPlugin.getExpeditiousChargeCount());
@@ -445,7 +450,7 @@ public class SlayerPluginTest
 		slayerPlugin.setAmount(231);
 
 		ChatMessage chatMessage = new ChatMessage(SERVER, "", TASK_UPDATE_COMBAT_BRACELET, null);
-		slayerPlugin.onChatMessage(chatMessage);
+		chatClassifier.onChatMessage(chatMessage);
 
 		assertEquals("Suqahs", slayerPlugin.getTaskName());
 		slayerPlugin.killedOne();
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2018, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.timers;
+
+import com.google.inject.Guice;
+import com.google.inject.testing.fieldbinder.Bind;
+import com.google.inject.testing.fieldbinder.BoundFieldModule;
+import java.util.EnumSet;
+import javax.inject.Inject;
+import static net.runelite.api.ChatMessageType.FILTERED;
+import static net.runelite.api.ChatMessageType.SERVER;
+import net.runelite.api.Client;
+import net.runelite.api.WorldType;
+import net.runelite.api.events.ChatMessage;
+import net.runelite.client.chat.ChatClassifier;
+import net.runelite.client.game.ItemManager;
+import net.runelite.client.game.SpriteManager;
+import net.runelite.client.ui.overlay.infobox.InfoBox;
+import net.runelite.client.ui.overlay.infobox.InfoBoxManager;
+import static org.junit.Assert.assertEquals;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TimersPluginTest
+{
+	@Mock
+	@Bind
+	Client client;
+
+	@Mock
+	@Bind
+	TimersConfig config;
+
+	@Mock
+	@Bind
+	ItemManager itemManager;
+
+	@Mock
+	@Bind
+	SpriteManager spriteManager;
+
+	@Mock
+	@Bind
+	InfoBoxManager infoBoxManager;
+
+	@Inject
+	TimersPlugin timersPlugin;
+
+	@Inject
+	ChatClassifier chatClassifier;
+
+	@Before
+	public void before() throws Exception
+	{
+		Guice.createInjector(BoundFieldModule.of(this)).injectMembers(this);
+		when(client.getWorldType()).thenReturn(EnumSet.noneOf(WorldType.class));
+		timersPlugin.startUp();
+	}
+
+	/**
+	 * These messages are sent with color tags, which are not part of what is matched
+	 */
+	@Test
+	public void testColoredMessages()
+	{
+		when(config.showFreezes()).thenReturn(true);
+		when(config.showTeleblock()).thenReturn(true);
+		when(config.showCharge()).thenReturn(true);
+
+		message("<col=ef1020>You have been frozen!</col>");
+		message("<col=4f006f>A teleblock spell has been cast on you. It will expire in 5 minutes, 0 seconds.</col>");
+		message("<col=4f006f>A teleblock spell has been cast on you. It will expire in 2 minutes, 30 seconds.</col>");
+		message("<col=4f006f>A teleblock spell has been cast on you. It will expire in 1 minute, 15 seconds.</col>");
+		message("<col=ef1020>You feel charged with magic power.</col>");
+
+		ArgumentCaptor<InfoBox> captor = ArgumentCaptor.forClass(InfoBox.class);
+		verify(infoBoxManager, times(5)).addInfoBox(captor.capture());
+		assertEquals(GameTimer.ICEBARRAGE, ((TimerTimer) captor.getAllValues().get(0)).getTimer());
+		assertEquals(GameTimer.FULLTB, ((TimerTimer) captor.getAllValues().get(1)).getTimer());
+		assertEquals(GameTimer.HALFTB, ((TimerTimer) captor.getAllValues().get(2)).getTimer());
+		assertEquals(GameTimer.DMM_HALFTB, ((TimerTimer) captor.getAllValues().get(3)).getTimer());
+		assertEquals(GameTimer.CHARGE, ((TimerTimer) captor.getAllValues().get(4)).getTimer());
+	}
+
+	@Test
+	public void testUncoloredMessage()
+	{
+		when(config.showStamina()).thenReturn(true);
+
+		chatClassifier.onChatMessage(new ChatMessage(FILTERED, "", "You drink some of your stamina potion.", null));
+
+		ArgumentCaptor<InfoBox> captor = ArgumentCaptor.forClass(InfoBox.class);
+		verify(infoBoxManager).addInfoBox(captor.capture());
+		assertEquals(GameTimer.STAMINA, ((TimerTimer) captor.getValue()).getTimer());
+	}
+
+	@Test
+	public void testDisabled()
+	{
+		message("<col=ef1020>You have been frozen!</col>");
+
+		verify(infoBoxManager, never()).addInfoBox(any(InfoBox.class));
+	}
+
+	private void message(String message)
+	{
+		chatClassifier.onChatMessage(new ChatMessage(SERVER, "", message, null));
+	}
+}
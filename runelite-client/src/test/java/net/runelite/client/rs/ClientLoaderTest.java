@@ -0,0 +1,294 @@
+/*
+ * Copyright (c) 2018, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.rs;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.hash.Hashing;
+import io.sigpipe.jbsdiff.Diff;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.Random;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import org.junit.After;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ClientLoaderTest
+{
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final MockWebServer server = new MockWebServer();
+
+	private Map<String, byte[]> classes;
+	private byte[] gamepack;
+	private RSConfig config;
+	private File patchDir;
+
+	@Before
+	public void before() throws IOException
+	{
+		Random random = new Random(42);
+		byte[] a = new byte[4096];
+		byte[] b = new byte[8192];
+		random.nextBytes(a);
+		random.nextBytes(b);
+		classes = ImmutableMap.of("a.class", a, "b.class", b);
+		gamepack = jar(classes);
+
+		patchDir = folder.newFolder();
+		new File(patchDir, "patch").mkdir();
+		Files.write(new File(patchDir, "patch/hashes.json").toPath(), ("{"
+			+ "\"a.class\": \"" + Hashing.sha512().hashBytes(a) + "\", "
+			+ "\"b.class\": \"" + Hashing.sha512().hashBytes(b) + "\"}").getBytes(StandardCharsets.UTF_8));
+
+		server.start();
+
+		config = new RSConfig();
+		config.getClassLoaderProperties().put("codebase", server.url("/").toString());
+		config.getClassLoaderProperties().put("initial_jar", "gamepack_1234.jar");
+	}
+
+	@After
+	public void after() throws IOException
+	{
+		server.shutdown();
+	}
+
+	@Test
+	public void testCachedGamepack() throws Exception
+	{
+		File gamepackDir = folder.newFolder();
+
+		server.enqueue(new MockResponse()
+			.setHeader("ETag", "\"1234\"")
+			.setBody(new Buffer().write(gamepack)));
+		server.enqueue(new MockResponse().setResponseCode(304));
+
+		assertClasses(loader(ClientUpdateCheckMode.VANILLA, gamepackDir).loadClasses(config));
+		// a new launch only revalidates the cached gamepack
+		assertClasses(loader(ClientUpdateCheckMode.VANILLA, gamepackDir).loadClasses(config));
+
+		RecordedRequest request = server.takeRequest();
+		assertEquals("/gamepack_1234.jar", request.getPath());
+		assertNull(request.getHeader("If-None-Match"));
+
+		request = server.takeRequest();
+		assertEquals("\"1234\"", request.getHeader("If-None-Match"));
+	}
+
+	@Test
+	public void testCorruptGamepack() throws Exception
+	{
+		File gamepackDir = folder.newFolder();
+
+		server.enqueue(new MockResponse()
+			.setHeader("ETag", "\"1234\"")
+			.setBody(new Buffer().write(gamepack)));
+		server.enqueue(new MockResponse()
+			.setHeader("ETag", "\"1234\"")
+			.setBody(new Buffer().write(gamepack)));
+
+		assertClasses(loader(ClientUpdateCheckMode.VANILLA, gamepackDir).loadClasses(config));
+
+		for (File file : gamepackDir.listFiles((dir, name) -> name.endsWith(".jar")))
+		{
+			Files.write(file.toPath(), new byte[]{1, 2, 3});
+		}
+
+		assertClasses(loader(ClientUpdateCheckMode.VANILLA, gamepackDir).loadClasses(config));
+
+		server.takeRequest();
+		// the corrupt gamepack is downloaded again
+		assertNull(server.takeRequest().getHeader("If-None-Match"));
+	}
+
+	@Test
+	public void testOffline() throws Exception
+	{
+		File gamepackDir = folder.newFolder();
+
+		server.enqueue(new MockResponse()
+			.setBody(new Buffer().write(gamepack)));
+		server.enqueue(new MockResponse().setResponseCode(503));
+
+		assertClasses(loader(ClientUpdateCheckMode.VANILLA, gamepackDir).loadClasses(config));
+		assertClasses(loader(ClientUpdateCheckMode.VANILLA, gamepackDir).loadClasses(config));
+	}
+
+	@Test
+	public void testPatchedClassesReused() throws Exception
+	{
+		File gamepackDir = folder.newFolder();
+
+		server.enqueue(new MockResponse()
+			.setHeader("ETag", "\"1234\"")
+			.setBody(new Buffer().write(gamepack)));
+		server.enqueue(new MockResponse().setResponseCode(304));
+
+		byte[] a = writePatch(100);
+		Map<String, byte[]> loaded = loader(ClientUpdateCheckMode.AUTO, gamepackDir).loadClasses(config);
+		assertArrayEquals(a, loaded.get("a.class"));
+		assertArrayEquals(classes.get("b.class"), loaded.get("b.class"));
+
+		File[] patched = gamepackDir.listFiles((dir, name) -> name.endsWith(".patched"));
+		assertEquals(1, patched.length);
+
+		// a new launch loads the patched classes from disk instead of patching again
+		byte[] saved = new byte[]{1, 2, 3};
+		Files.write(patched[0].toPath(), jar(ImmutableMap.of("a.class", saved)));
+
+		loaded = loader(ClientUpdateCheckMode.AUTO, gamepackDir).loadClasses(config);
+		assertArrayEquals(saved, loaded.get("a.class"));
+		assertArrayEquals(classes.get("b.class"), loaded.get("b.class"));
+	}
+
+	@Test
+	public void testPatchsetChanged() throws Exception
+	{
+		File gamepackDir = folder.newFolder();
+
+		server.enqueue(new MockResponse()
+			.setHeader("ETag", "\"1234\"")
+			.setBody(new Buffer().write(gamepack)));
+		server.enqueue(new MockResponse().setResponseCode(304));
+
+		byte[] a = writePatch(100);
+		assertArrayEquals(a, loader(ClientUpdateCheckMode.AUTO, gamepackDir).loadClasses(config).get("a.class"));
+
+		// the patched classes saved for the old patches are not used with the new ones
+		a = writePatch(200);
+		assertArrayEquals(a, loader(ClientUpdateCheckMode.AUTO, gamepackDir).loadClasses(config).get("a.class"));
+
+		assertEquals(2, gamepackDir.listFiles((dir, name) -> name.endsWith(".patched")).length);
+	}
+
+	@Test
+	public void testVerify()
+	{
+		Map<String, String> hashes = ImmutableMap.of(
+			"a.class", Hashing.sha512().hashBytes(classes.get("a.class")).toString(),
+			"b.class", Hashing.sha512().hashBytes(classes.get("b.class")).toString());
+		assertTrue(ClientLoader.verify(classes, hashes));
+
+		hashes = ImmutableMap.of(
+			"a.class", Hashing.sha512().hashBytes(classes.get("a.class")).toString(),
+			"b.class", Hashing.sha512().hashBytes(classes.get("a.class")).toString());
+		assertFalse(ClientLoader.verify(classes, hashes));
+
+		assertFalse(ClientLoader.verify(classes, ImmutableMap.of("c.class", "")));
+	}
+
+	@Test
+	public void testPatch() throws Exception
+	{
+		byte[] a = classes.get("a.class").clone();
+		byte[] b = classes.get("b.class").clone();
+		a[100] ^= 1;
+		b[200] ^= 1;
+
+		ByteArrayOutputStream patchA = new ByteArrayOutputStream();
+		Diff.diff(classes.get("a.class"), a, patchA);
+		ByteArrayOutputStream patchB = new ByteArrayOutputStream();
+		Diff.diff(classes.get("b.class"), b, patchB);
+
+		Map<String, byte[]> patched = ClientLoader.patch(classes, ImmutableMap.of(
+			"a.class", patchA.toByteArray(),
+			"b.class", patchB.toByteArray()));
+
+		assertEquals(2, patched.size());
+		assertArrayEquals(a, patched.get("a.class"));
+		assertArrayEquals(b, patched.get("b.class"));
+	}
+
+	@Test(expected = IOException.class)
+	public void testBadPatch() throws Exception
+	{
+		ClientLoader.patch(classes, ImmutableMap.of("a.class", new byte[]{1, 2, 3}));
+	}
+
+	private ClientLoader loader(ClientUpdateCheckMode mode, File gamepackDir) throws IOException
+	{
+		// a new class loader each launch so the patch resources are read again
+		return new ClientLoader(mode, null, gamepackDir, new URLClassLoader(new URL[]{patchDir.toURI().toURL()}, null));
+	}
+
+	/**
+	 * Write a patch for a.class which flips a bit at the given offset
+	 *
+	 * @return the patched class
+	 */
+	private byte[] writePatch(int offset) throws Exception
+	{
+		byte[] a = classes.get("a.class").clone();
+		a[offset] ^= 1;
+
+		ByteArrayOutputStream patch = new ByteArrayOutputStream();
+		Diff.diff(classes.get("a.class"), a, patch);
+		Files.write(new File(patchDir, "patch/a.class.bs").toPath(), patch.toByteArray());
+		return a;
+	}
+
+	private static byte[] jar(Map<String, byte[]> classes) throws IOException
+	{
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (JarOutputStream jos = new JarOutputStream(out))
+		{
+			for (Map.Entry<String, byte[]> entry : classes.entrySet())
+			{
+				jos.putNextEntry(new JarEntry(entry.getKey()));
+				jos.write(entry.getValue());
+			}
+		}
+		return out.toByteArray();
+	}
+
+	private void assertClasses(Map<String, byte[]> loaded)
+	{
+		assertEquals(classes.keySet(), loaded.keySet());
+		for (Map.Entry<String, byte[]> entry : classes.entrySet())
+		{
+			assertArrayEquals(entry.getValue(), loaded.get(entry.getKey()));
+		}
+	}
+}
@@ -0,0 +1,291 @@
+/*
+ * Copyright (c) 2018, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.task;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.After;
+import org.junit.Test;
+
+public class ExecutorLanesTest
+{
+	private final ExecutorLanes executorLanes = new ExecutorLanes();
+	private final CountDownLatch release = new CountDownLatch(1);
+
+	@After
+	public void after()
+	{
+		release.countDown();
+		for (ExecutorLane lane : ExecutorLane.values())
+		{
+			executorLanes.getExecutor(lane).shutdownNow();
+		}
+	}
+
+	@Test
+	public void testTimings() throws Exception
+	{
+		ScheduledExecutorService executor = executorLanes.getExecutor(ExecutorLane.COMPUTE);
+		executor.submit(() ->
+		{
+			Thread.sleep(10);
+			return null;
+		}).get();
+		executor.schedule(() -> "done", 1, TimeUnit.MILLISECONDS).get();
+
+		TaskTiming timing = timing(ExecutorLane.COMPUTE, "ExecutorLanesTest");
+		assertEquals(2, timing.getCount());
+		assertEquals(0, timing.getRejected());
+		assertTrue(timing.getTotalRun() >= TimeUnit.MILLISECONDS.toNanos(10));
+		assertTrue(timing.getMaxRun() <= timing.getTotalRun());
+
+		executorLanes.resetTimings();
+		assertTrue(executorLanes.getTimings().isEmpty());
+	}
+
+	@Test
+	public void testSource() throws Exception
+	{
+		executorLanes.getExecutor(ExecutorLane.DISK, "Config").submit(this::getClass).get();
+
+		assertEquals(1, timing(ExecutorLane.DISK, "Config").getCount());
+	}
+
+	@Test
+	public void testException() throws Exception
+	{
+		Future<?> future = executorLanes.getExecutor(ExecutorLane.COMPUTE).submit(() ->
+		{
+			throw new IllegalStateException();
+		});
+
+		try
+		{
+			future.get();
+			fail();
+		}
+		catch (ExecutionException ex)
+		{
+			assertTrue(ex.getCause() instanceof IllegalStateException);
+		}
+
+		assertEquals(1, timing(ExecutorLane.COMPUTE, "ExecutorLanesTest").getCount());
+	}
+
+	@Test
+	public void testLanesAreIsolated() throws Exception
+	{
+		ScheduledExecutorService network = executorLanes.getExecutor(ExecutorLane.NETWORK);
+		for (int i = 0; i < ExecutorLane.NETWORK.getThreads() * 2; ++i)
+		{
+			network.execute(this::await);
+		}
+
+		// slow requests must not hold up writes
+		executorLanes.getExecutor(ExecutorLane.DISK).submit(() -> null).get(5, TimeUnit.SECONDS);
+	}
+
+	@Test
+	public void testAbortPolicy() throws InterruptedException
+	{
+		ScheduledExecutorService network = executorLanes.getExecutor(ExecutorLane.NETWORK);
+		fill(network, ExecutorLane.NETWORK);
+
+		try
+		{
+			network.execute(this::await);
+			fail();
+		}
+		catch (RejectedExecutionException ex)
+		{
+			// expected
+		}
+
+		assertEquals(1, timing(ExecutorLane.NETWORK, "ExecutorLanesTest").getRejected());
+		assertEquals(ExecutorLane.NETWORK.getQueueSize(), timing(ExecutorLane.NETWORK, "ExecutorLanesTest").getQueued());
+	}
+
+	@Test
+	public void testCallerRunsPolicy() throws InterruptedException
+	{
+		ScheduledExecutorService compute = executorLanes.getExecutor(ExecutorLane.COMPUTE);
+		fill(compute, ExecutorLane.COMPUTE);
+
+		AtomicReference<Thread> thread = new AtomicReference<>();
+		compute.execute(() -> thread.set(Thread.currentThread()));
+
+		assertSame(Thread.currentThread(), thread.get());
+		assertEquals(1, timing(ExecutorLane.COMPUTE, "ExecutorLanesTest").getRejected());
+	}
+
+	@Test
+	public void testDiskRunsOnLane() throws Exception
+	{
+		ScheduledExecutorService disk = executorLanes.getExecutor(ExecutorLane.DISK);
+		disk.execute(this::await);
+		for (int i = 0; i < 1000; ++i)
+		{
+			disk.execute(() ->
+			{
+			});
+		}
+
+		// writes are never run on the submitting thread, even with a long queue
+		Future<Thread> thread = disk.submit(Thread::currentThread);
+		release.countDown();
+		assertNotSame(Thread.currentThread(), thread.get(5, TimeUnit.SECONDS));
+		assertEquals(0, timing(ExecutorLane.DISK, "ExecutorLanesTest").getRejected());
+	}
+
+	@Test
+	public void testDelayedTasksNotQueued() throws InterruptedException
+	{
+		ScheduledExecutorService network = executorLanes.getExecutor(ExecutorLane.NETWORK);
+		for (int i = 0; i < ExecutorLane.NETWORK.getQueueSize(); ++i)
+		{
+			network.schedule(this::await, 1, TimeUnit.HOURS);
+		}
+		network.scheduleWithFixedDelay(this::await, 1, 1, TimeUnit.HOURS);
+
+		fill(network, ExecutorLane.NETWORK);
+		assertEquals(ExecutorLane.NETWORK.getQueueSize(), timing(ExecutorLane.NETWORK, "ExecutorLanesTest").getQueued());
+	}
+
+	@Test
+	public void testConcurrentSubmit() throws Exception
+	{
+		ScheduledExecutorService network = executorLanes.getExecutor(ExecutorLane.NETWORK);
+		occupy(network, ExecutorLane.NETWORK);
+
+		int submitters = 8;
+		AtomicInteger rejected = new AtomicInteger();
+		ExecutorService threads = Executors.newFixedThreadPool(submitters);
+		for (int t = 0; t < submitters; ++t)
+		{
+			threads.execute(() ->
+			{
+				for (int i = 0; i < ExecutorLane.NETWORK.getQueueSize(); ++i)
+				{
+					try
+					{
+						network.execute(this::await);
+					}
+					catch (RejectedExecutionException ex)
+					{
+						rejected.incrementAndGet();
+					}
+				}
+			});
+		}
+		threads.shutdown();
+		assertTrue(threads.awaitTermination(1, TimeUnit.MINUTES));
+
+		// the queue is never overfilled by submissions racing each other
+		assertEquals(ExecutorLane.NETWORK.getQueueSize(), timing(ExecutorLane.NETWORK, "ExecutorLanesTest").getQueued());
+		assertEquals((submitters - 1) * ExecutorLane.NETWORK.getQueueSize(), rejected.get());
+	}
+
+	@Test
+	public void testGetSource()
+	{
+		Runnable lambda = () ->
+		{
+		};
+		assertEquals("ExecutorLanesTest", LaneExecutorService.getSource(lambda));
+		assertEquals("ExecutorLanesTest", LaneExecutorService.getSource((Runnable) this::await));
+		assertEquals("ExecutorLanesTest$1", LaneExecutorService.getSource(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+			}
+		}));
+	}
+
+	/**
+	 * Occupies every thread of a lane and fills its queue
+	 */
+	private void fill(ScheduledExecutorService executor, ExecutorLane lane) throws InterruptedException
+	{
+		occupy(executor, lane);
+
+		for (int i = 0; i < lane.getQueueSize(); ++i)
+		{
+			executor.execute(this::await);
+		}
+	}
+
+	/**
+	 * Occupies every thread of a lane
+	 */
+	private void occupy(ScheduledExecutorService executor, ExecutorLane lane) throws InterruptedException
+	{
+		CountDownLatch started = new CountDownLatch(lane.getThreads());
+		for (int i = 0; i < lane.getThreads(); ++i)
+		{
+			executor.execute(() ->
+			{
+				started.countDown();
+				await();
+			});
+		}
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+	}
+
+	private void await()
+	{
+		try
+		{
+			release.await();
+		}
+		catch (InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private TaskTiming timing(ExecutorLane lane, String source)
+	{
+		List<TaskTiming> timings = executorLanes.getTimings();
+		return timings.stream()
+			.filter(t -> t.getLane() == lane && t.getSource().equals(source))
+			.findFirst()
+			.orElseThrow(AssertionError::new);
+	}
+}
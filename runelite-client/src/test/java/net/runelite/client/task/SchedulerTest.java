@@ -0,0 +1,250 @@
+/*
+ * Copyright (c) 2018, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.task;
+
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Ignore;
+import org.junit.Test;
+
+@Slf4j
+public class SchedulerTest
+{
+	private static final long FRAME = TimeUnit.MILLISECONDS.toNanos(20);
+
+	private final AtomicLong clock = new AtomicLong(TimeUnit.DAYS.toNanos(1));
+	private final Scheduler scheduler = new Scheduler(clock::get);
+
+	public class Task
+	{
+		private final List<Long> runs = new ArrayList<>();
+
+		@Schedule(period = 600, unit = ChronoUnit.MILLIS)
+		public void gameTick()
+		{
+			runs.add(clock.get());
+		}
+
+		@Schedule(period = 20, unit = ChronoUnit.MILLIS)
+		public void frame()
+		{
+			runs.add(clock.get());
+		}
+
+		@Schedule(period = 10, unit = ChronoUnit.MINUTES)
+		public void rarely()
+		{
+			runs.add(clock.get());
+		}
+
+		@Schedule(period = 600, unit = ChronoUnit.MILLIS, asynchronous = true)
+		public void async()
+		{
+			runs.add(clock.get());
+		}
+
+		@Schedule(period = 0, unit = ChronoUnit.MILLIS)
+		public void never()
+		{
+			runs.add(clock.get());
+		}
+	}
+
+	private ScheduledMethod schedule(Task task, String name) throws NoSuchMethodException
+	{
+		ScheduledMethod method = new ScheduledMethod(Task.class.getMethod(name).getAnnotation(Schedule.class), Task.class.getMethod(name), task);
+		scheduler.addScheduledMethod(method);
+		return method;
+	}
+
+	@Test
+	public void testDrift() throws Exception
+	{
+		Task task = new Task();
+		long start = clock.get();
+		schedule(task, "gameTick");
+
+		// frames of uneven length, for ten minutes
+		Random random = new Random(42);
+		while (clock.get() - start < TimeUnit.MINUTES.toNanos(10))
+		{
+			clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(15 + random.nextInt(10)));
+			scheduler.tick();
+		}
+
+		assertEquals(1000, task.runs.size());
+
+		long period = TimeUnit.MILLISECONDS.toNanos(600);
+		for (int i = 0; i < task.runs.size(); ++i)
+		{
+			long late = task.runs.get(i) - (start + (i + 1) * period);
+			assertTrue("run " + i + " late by " + late, late >= 0 && late < TimeUnit.MILLISECONDS.toNanos(25));
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testZeroPeriod() throws Exception
+	{
+		schedule(new Task(), "never");
+	}
+
+	@Test
+	public void testFramePeriod() throws Exception
+	{
+		Task task = new Task();
+		schedule(task, "frame");
+
+		for (int i = 0; i < 100; ++i)
+		{
+			clock.addAndGet(FRAME);
+			scheduler.tick();
+		}
+
+		assertEquals(100, task.runs.size());
+	}
+
+	@Test
+	public void testMissedRuns() throws Exception
+	{
+		Task task = new Task();
+		long start = clock.get();
+		schedule(task, "gameTick");
+
+		// the client stalls for 10 seconds, the missed runs are skipped and not caught up on
+		clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+		scheduler.tick();
+		assertEquals(1, task.runs.size());
+
+		clock.set(start + TimeUnit.MILLISECONDS.toNanos(10_200));
+		scheduler.tick();
+		assertEquals(2, task.runs.size());
+	}
+
+	@Test
+	public void testNothingDue() throws Exception
+	{
+		Task task = new Task();
+		for (int i = 0; i < 1000; ++i)
+		{
+			schedule(task, "rarely");
+		}
+
+		for (int i = 0; i < 100_000; ++i)
+		{
+			clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+			scheduler.tick();
+		}
+
+		assertTrue(task.runs.isEmpty());
+
+		clock.addAndGet(TimeUnit.MINUTES.toNanos(10));
+		scheduler.tick();
+		assertEquals(1000, task.runs.size());
+	}
+
+	@Test
+	public void testRemove() throws Exception
+	{
+		Task task = new Task();
+		ScheduledMethod method = schedule(task, "gameTick");
+		scheduler.removeScheduledMethod(method);
+
+		clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+		scheduler.tick();
+
+		assertTrue(task.runs.isEmpty());
+		assertTrue(scheduler.getScheduledMethods().isEmpty());
+	}
+
+	@Test
+	public void testOverrun() throws Exception
+	{
+		// an executor which never gets around to running anything
+		List<Runnable> submitted = new ArrayList<>();
+		scheduler.executor = new ScheduledThreadPoolExecutor(1)
+		{
+			@Override
+			public void execute(Runnable command)
+			{
+				submitted.add(command);
+			}
+		};
+
+		Task task = new Task();
+		ScheduledMethod method = schedule(task, "async");
+
+		for (int i = 0; i < 3; ++i)
+		{
+			clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(600));
+			scheduler.tick();
+		}
+
+		assertEquals(1, submitted.size());
+		assertEquals(2, method.getOverruns());
+
+		submitted.get(0).run();
+		clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(600));
+		scheduler.tick();
+
+		assertEquals(2, submitted.size());
+		assertEquals(1, task.runs.size());
+	}
+
+	@Test
+	@Ignore
+	public void benchmarkTick() throws Exception
+	{
+		Scheduler scheduler = new Scheduler();
+		Task task = new Task();
+		for (int i = 0; i < 1000; ++i)
+		{
+			ScheduledMethod method = new ScheduledMethod(Task.class.getMethod("rarely").getAnnotation(Schedule.class), Task.class.getMethod("rarely"), task);
+			scheduler.addScheduledMethod(method);
+		}
+
+		for (int i = 0; i < 10_000_000; ++i)
+		{
+			scheduler.tick();
+		}
+
+		int iterations = 100_000_000;
+		long start = System.nanoTime();
+		for (int i = 0; i < iterations; ++i)
+		{
+			scheduler.tick();
+		}
+		long end = System.nanoTime();
+
+		log.info("tick with 1000 methods and nothing due: {} ns/op", (double) (end - start) / iterations);
+	}
+}
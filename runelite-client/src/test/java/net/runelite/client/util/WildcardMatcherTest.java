@@ -39,5 +39,11 @@ public class WildcardMatcherTest
 		assertFalse(matches("Abyssal whip", "Adamant dagger"));
 		assertTrue(matches("rune*", "Runeite Ore"));
 		assertTrue(matches("Abyssal whip", "Abyssal whip"));
+		assertTrue(matches("*whip", "Abyssal whip"));
+		assertTrue(matches("aby*l*ip", "Abyssal whip"));
+		assertFalse(matches("aby*l*ip", "Abyssal whips"));
+		assertFalse(matches("abyssal*ssal", "Abyssal"));
+		assertTrue(matches("*", ""));
+		assertFalse(matches("", "a"));
 	}
 }
\ No newline at end of file
@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2018, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.util;
+
+import com.google.common.collect.ImmutableList;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.ItemID;
+import net.runelite.api.NpcID;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Ignore;
+import org.junit.Test;
+
+@Slf4j
+public class WildcardSetTest
+{
+	private static final Pattern WILDCARD_PATTERN = Pattern.compile("(?i)[^*]+|(\\*)");
+	private static final int ITERATIONS = 100;
+
+	@Test
+	public void testMatches()
+	{
+		WildcardSet set = WildcardSet.compile(ImmutableList.of("rune*", "Abyssal whip", "*dragon*", "goblin", "man"));
+
+		assertTrue(set.matches("rune pouch"));
+		assertTrue(set.matches("Rune pouch"));
+		assertTrue(set.matches("Abyssal whip"));
+		assertTrue(set.matches("Baby blue dragon"));
+		assertTrue(set.matches("Dragon scimitar"));
+		assertTrue(set.matches("GOBLIN"));
+		assertFalse(set.matches("Adamant dagger"));
+		assertFalse(set.matches("Abyssal dagger"));
+		assertFalse(set.matches("Hobgoblin"));
+		assertFalse(set.matches("Woman"));
+
+		assertFalse(WildcardSet.compile(Collections.emptyList()).matches("goblin"));
+		assertTrue(WildcardSet.compile(ImmutableList.of("*")).matches("goblin"));
+	}
+
+	@Test
+	public void testMatchesRegex() throws Exception
+	{
+		Random random = new Random(42);
+		List<String> names = names(NpcID.class);
+
+		for (int i = 0; i < 100; ++i)
+		{
+			List<String> patterns = patterns(names, random, 1 + random.nextInt(20));
+			WildcardSet set = WildcardSet.compile(patterns);
+
+			for (int j = 0; j < 100; ++j)
+			{
+				String name = names.get(random.nextInt(names.size()));
+				assertEquals(patterns + " " + name, regexMatches(patterns, name), set.matches(name));
+			}
+		}
+	}
+
+	@Test
+	@Ignore
+	public void benchmarkMatches() throws Exception
+	{
+		Random random = new Random(42);
+		List<String> npcNames = names(NpcID.class);
+		List<String> itemNames = names(ItemID.class);
+
+		// a crowded area, with 100 npcs and 100 ground items
+		List<String> crowd = new ArrayList<>();
+		for (int i = 0; i < 100; ++i)
+		{
+			crowd.add(npcNames.get(random.nextInt(npcNames.size())));
+			crowd.add(itemNames.get(random.nextInt(itemNames.size())));
+		}
+
+		List<String> patterns = new ArrayList<>(patterns(npcNames, random, 50));
+		patterns.addAll(patterns(itemNames, random, 50));
+
+		int matched = 0;
+		long start = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; ++i)
+		{
+			for (String name : crowd)
+			{
+				matched += regexMatches(patterns, name) ? 1 : 0;
+			}
+		}
+		long regex = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; ++i)
+		{
+			for (String name : crowd)
+			{
+				for (String pattern : patterns)
+				{
+					if (WildcardMatcher.matches(pattern, name))
+					{
+						++matched;
+						break;
+					}
+				}
+			}
+		}
+		long single = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; ++i)
+		{
+			WildcardSet set = WildcardSet.compile(patterns);
+			for (String name : crowd)
+			{
+				matched += set.matches(name) ? 1 : 0;
+			}
+		}
+		long end = System.nanoTime();
+
+		log.info("{} patterns, {} names: regex {} us, per pattern {} us, compiled set {} us ({})", patterns.size(), crowd.size(),
+			(regex - start) / ITERATIONS / 1000, (single - regex) / ITERATIONS / 1000, (end - single) / ITERATIONS / 1000, matched);
+	}
+
+	private static List<String> names(Class<?> ids)
+	{
+		List<String> names = new ArrayList<>();
+		for (Field field : ids.getFields())
+		{
+			if (Modifier.isStatic(field.getModifiers()))
+			{
+				names.add(field.getName().toLowerCase().replace('_', ' '));
+			}
+		}
+		return names;
+	}
+
+	/**
+	 * Generate patterns like a user would write, from whole names, prefixes, suffixes and infixes
+	 */
+	private static List<String> patterns(List<String> names, Random random, int count)
+	{
+		List<String> patterns = new ArrayList<>();
+		for (int i = 0; i < count; ++i)
+		{
+			String name = names.get(random.nextInt(names.size()));
+			int cut = random.nextInt(name.length());
+			switch (random.nextInt(5))
+			{
+				case 0:
+					patterns.add(name.toUpperCase());
+					break;
+				case 1:
+					patterns.add(name.substring(0, cut) + "*");
+					break;
+				case 2:
+					patterns.add("*" + name.substring(cut));
+					break;
+				case 3:
+					patterns.add("*" + name.substring(cut / 2, cut) + "*");
+					break;
+				default:
+					patterns.add(name.substring(0, cut / 2) + "*" + name.substring(cut));
+					break;
+			}
+		}
+		return patterns;
+	}
+
+	/**
+	 * The previous regex based implementation of {@link WildcardMatcher#matches(String, String)}
+	 */
+	private static boolean regexMatches(List<String> patterns, String text)
+	{
+		for (String pattern : patterns)
+		{
+			final Matcher matcher = WILDCARD_PATTERN.matcher(pattern);
+			final StringBuffer buffer = new StringBuffer();
+
+			buffer.append("(?i)");
+			while (matcher.find())
+			{
+				if (matcher.group(1) != null)
+				{
+					matcher.appendReplacement(buffer, ".*");
+				}
+				else
+				{
+					matcher.appendReplacement(buffer, "\\\\Q" + matcher.group(0) + "\\\\E");
+				}
+			}
+
+			matcher.appendTail(buffer);
+
+			if (text.matches(buffer.toString()))
+			{
+				return true;
+			}
+		}
+
+		return false;
+	}
+}
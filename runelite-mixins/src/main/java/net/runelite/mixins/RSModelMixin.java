@@ -29,15 +29,13 @@ import java.util.ArrayList;
 import java.util.List;
 import net.runelite.api.Model;
 import net.runelite.api.Perspective;
-import net.runelite.api.Point;
-import net.runelite.api.coords.LocalPoint;
 import net.runelite.api.mixins.Copy;
 import net.runelite.api.mixins.Inject;
 import net.runelite.api.mixins.MethodHook;
 import net.runelite.api.mixins.Mixin;
 import net.runelite.api.mixins.Replace;
 import net.runelite.api.mixins.Shadow;
-import net.runelite.api.model.Jarvis;
+import net.runelite.api.model.MonotoneChain;
 import net.runelite.api.model.Triangle;
 import net.runelite.api.model.Vertex;
 import net.runelite.rs.api.RSClient;
@@ -52,6 +50,13 @@ public abstract class RSModelMixin implements RSModel
 	@Shadow("clientInstance")
 	private static RSClient client;
 
+	// scratch buffers for getConvexHull, shared by every model so only usable from the client thread
+	@Inject
+	private static int[] rl$canvasXs = new int[0];
+
+	@Inject
+	private static int[] rl$canvasYs = new int[0];
+
 	@Inject
 	private int rl$sceneId;
 
@@ -325,45 +330,35 @@ public abstract class RSModelMixin implements RSModel
 	@Inject
 	public Polygon getConvexHull(int localX, int localY, int orientation)
 	{
-		List<Vertex> vertices = getVertices();
+		assert client.isClientThread();
+
+		int count = getVerticesCount();
 
-		// rotate vertices
-		for (int i = 0; i < vertices.size(); ++i)
+		if (rl$canvasXs.length < count)
 		{
-			Vertex v = vertices.get(i);
-			vertices.set(i, v.rotate(orientation));
+			rl$canvasXs = new int[count];
+			rl$canvasYs = new int[count];
 		}
 
-		List<Point> points = new ArrayList<Point>();
+		int[] xs = rl$canvasXs;
+		int[] ys = rl$canvasYs;
+
+		Perspective.modelToCanvas(client, count, localX, localY, client.getPlane(), orientation,
+			getVerticesX(), getVerticesY(), getVerticesZ(), xs, ys);
 
-		for (Vertex v : vertices)
+		// drop the vertices which are not on screen
+		int visible = 0;
+		for (int i = 0; i < count; ++i)
 		{
-			// Compute canvas location of vertex
-			Point p = Perspective.localToCanvas(client,
-				new LocalPoint(localX - v.getX(), localY - v.getZ()),
-				client.getPlane(),
-				-v.getY());
-			if (p != null)
+			if (xs[i] != Integer.MIN_VALUE)
 			{
-				points.add(p);
+				xs[visible] = xs[i];
+				ys[visible] = ys[i];
+				++visible;
 			}
 		}
 
-		// Run Jarvis march algorithm
-		points = Jarvis.convexHull(points);
-		if (points == null)
-		{
-			return null;
-		}
-
-		// Convert to a polygon
-		Polygon p = new Polygon();
-		for (Point point : points)
-		{
-			p.addPoint(point.getX(), point.getY());
-		}
-
-		return p;
+		return MonotoneChain.convexHull(xs, ys, visible);
 	}
 
 	@Inject
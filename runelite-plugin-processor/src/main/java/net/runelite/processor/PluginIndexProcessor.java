@@ -0,0 +1,250 @@
+/*
+ * Copyright (c) 2018, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.processor;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Writes an index of the plugins in a compilation, so the client can load them without
+ * scanning the classpath. Each line of the index is a plugin class, whether it is a
+ * developer plugin, whether it loads when the client is outdated, and the plugins it
+ * depends on, separated by tabs.
+ */
+@SupportedAnnotationTypes(PluginIndexProcessor.PLUGIN_DESCRIPTOR)
+public class PluginIndexProcessor extends AbstractProcessor
+{
+	public static final String INDEX = "META-INF/runelite-plugins";
+
+	static final String PLUGIN = "net.runelite.client.plugins.Plugin";
+	static final String PLUGIN_DESCRIPTOR = "net.runelite.client.plugins.PluginDescriptor";
+	static final String PLUGIN_DEPENDENCY = "net.runelite.client.plugins.PluginDependency";
+	static final String PLUGIN_DEPENDENCIES = "net.runelite.client.plugins.PluginDependencies";
+
+	private final Map<String, String> plugins = new TreeMap<>();
+
+	@Override
+	public SourceVersion getSupportedSourceVersion()
+	{
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv)
+	{
+		if (roundEnv.processingOver())
+		{
+			writeIndex();
+			return false;
+		}
+
+		final TypeElement descriptor = processingEnv.getElementUtils().getTypeElement(PLUGIN_DESCRIPTOR);
+
+		if (descriptor == null)
+		{
+			return false;
+		}
+
+		for (Element element : roundEnv.getElementsAnnotatedWith(descriptor))
+		{
+			final TypeElement type = (TypeElement) element;
+			final TypeMirror superclass = type.getSuperclass();
+
+			if (!(superclass instanceof DeclaredType)
+				|| !((TypeElement) ((DeclaredType) superclass).asElement()).getQualifiedName().contentEquals(PLUGIN))
+			{
+				processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "Class has plugin descriptor, but is not a plugin", element);
+				continue;
+			}
+
+			final AnnotationMirror descriptorMirror = getAnnotation(type, PLUGIN_DESCRIPTOR);
+			final Map<? extends ExecutableElement, ? extends AnnotationValue> values = processingEnv.getElementUtils().getElementValuesWithDefaults(descriptorMirror);
+
+			final List<String> dependencies = new ArrayList<>();
+			for (AnnotationMirror mirror : type.getAnnotationMirrors())
+			{
+				final String name = ((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().toString();
+
+				if (name.equals(PLUGIN_DEPENDENCY))
+				{
+					dependencies.add(getDependency(mirror));
+				}
+				else if (name.equals(PLUGIN_DEPENDENCIES))
+				{
+					for (AnnotationValue value : (List<? extends AnnotationValue>) getValue(mirror, "value").getValue())
+					{
+						dependencies.add(getDependency((AnnotationMirror) value.getValue()));
+					}
+				}
+			}
+
+			final String className = binaryName(type);
+			plugins.put(className, className
+				+ "\t" + getValue(values, "developerPlugin")
+				+ "\t" + getValue(values, "loadWhenOutdated")
+				+ "\t" + String.join(",", dependencies));
+		}
+
+		return false;
+	}
+
+	private void writeIndex()
+	{
+		readIndex();
+
+		if (plugins.isEmpty())
+		{
+			return;
+		}
+
+		try
+		{
+			final FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", INDEX);
+
+			try (Writer out = new OutputStreamWriter(file.openOutputStream(), StandardCharsets.UTF_8))
+			{
+				for (String line : plugins.values())
+				{
+					out.write(line);
+					out.write('\n');
+				}
+			}
+		}
+		catch (IOException ex)
+		{
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Unable to write plugin index: " + ex);
+		}
+	}
+
+	/**
+	 * Keep the entries of the index from a previous compilation for plugins which were not
+	 * compiled this time, so an incremental build doesn't drop them
+	 */
+	private void readIndex()
+	{
+		final List<String> lines = new ArrayList<>();
+
+		try
+		{
+			final FileObject file = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", INDEX);
+
+			try (BufferedReader in = new BufferedReader(new InputStreamReader(file.openInputStream(), StandardCharsets.UTF_8)))
+			{
+				String line;
+				while ((line = in.readLine()) != null)
+				{
+					lines.add(line);
+				}
+			}
+		}
+		catch (IOException ex)
+		{
+			// no index from a previous compilation
+			return;
+		}
+
+		for (String line : lines)
+		{
+			final String className = line.split("\t", 2)[0];
+
+			if (plugins.containsKey(className))
+			{
+				continue;
+			}
+
+			// drop plugins which have since been deleted or have lost their descriptor
+			final TypeElement type = processingEnv.getElementUtils().getTypeElement(className.replace('$', '.'));
+			if (type != null && getAnnotation(type, PLUGIN_DESCRIPTOR) != null)
+			{
+				plugins.put(className, line);
+			}
+		}
+	}
+
+	private String getDependency(AnnotationMirror mirror)
+	{
+		final DeclaredType dependency = (DeclaredType) getValue(mirror, "value").getValue();
+		return binaryName((TypeElement) dependency.asElement());
+	}
+
+	private String binaryName(TypeElement type)
+	{
+		return processingEnv.getElementUtils().getBinaryName(type).toString();
+	}
+
+	private static AnnotationMirror getAnnotation(Element element, String name)
+	{
+		for (AnnotationMirror mirror : element.getAnnotationMirrors())
+		{
+			if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(name))
+			{
+				return mirror;
+			}
+		}
+
+		return null;
+	}
+
+	private static AnnotationValue getValue(AnnotationMirror mirror, String name)
+	{
+		return getValue(mirror.getElementValues(), name);
+	}
+
+	private static AnnotationValue getValue(Map<? extends ExecutableElement, ? extends AnnotationValue> values, String name)
+	{
+		for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : values.entrySet())
+		{
+			if (entry.getKey().getSimpleName().contentEquals(name))
+			{
+				return entry.getValue();
+			}
+		}
+
+		return null;
+	}
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2018, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.processor;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class PluginIndexProcessorTest
+{
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private static JavaFileObject source(String className, String code)
+	{
+		return new SimpleJavaFileObject(new File(className.replace('.', '/') + ".java").toURI(), JavaFileObject.Kind.SOURCE)
+		{
+			@Override
+			public CharSequence getCharContent(boolean ignoreEncodingErrors)
+			{
+				return code;
+			}
+		};
+	}
+
+	private List<JavaFileObject> pluginApi()
+	{
+		return Arrays.asList(
+			source("net.runelite.client.plugins.Plugin", "package net.runelite.client.plugins; public abstract class Plugin {}"),
+			source("net.runelite.client.plugins.PluginDescriptor", "package net.runelite.client.plugins; "
+				+ "public @interface PluginDescriptor { String name(); boolean developerPlugin() default false; boolean loadWhenOutdated() default false; }"),
+			source("net.runelite.client.plugins.PluginDependencies", "package net.runelite.client.plugins; "
+				+ "public @interface PluginDependencies { PluginDependency[] value(); }"),
+			source("net.runelite.client.plugins.PluginDependency", "package net.runelite.client.plugins; "
+				+ "@java.lang.annotation.Repeatable(PluginDependencies.class) public @interface PluginDependency { Class<? extends Plugin> value(); }")
+		);
+	}
+
+	private List<String> compile(List<JavaFileObject> sources) throws IOException
+	{
+		return compile(folder.newFolder(), sources);
+	}
+
+	private List<String> compile(File out, List<JavaFileObject> sources) throws IOException
+	{
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+
+		try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8))
+		{
+			JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null,
+				Arrays.asList("-d", out.getAbsolutePath(), "-cp", out.getAbsolutePath()), null, sources);
+			task.setProcessors(Collections.singletonList(new PluginIndexProcessor()));
+			assertTrue(task.call());
+		}
+
+		File index = new File(out, PluginIndexProcessor.INDEX);
+		if (!index.exists())
+		{
+			return Collections.emptyList();
+		}
+
+		return Files.readAllLines(index.toPath(), StandardCharsets.UTF_8);
+	}
+
+	@Test
+	public void testIndex() throws IOException
+	{
+		List<JavaFileObject> sources = new ArrayList<>(pluginApi());
+		sources.add(source("test.a.APlugin", "package test.a; import net.runelite.client.plugins.*; "
+			+ "@PluginDescriptor(name = \"A\", loadWhenOutdated = true) public class APlugin extends Plugin {}"));
+		sources.add(source("test.b.BPlugin", "package test.b; import net.runelite.client.plugins.*; "
+			+ "@PluginDescriptor(name = \"B\", developerPlugin = true) @PluginDependency(test.a.APlugin.class) @PluginDependency(test.b.BPlugin.Inner.class) "
+			+ "public class BPlugin extends Plugin { @PluginDescriptor(name = \"Inner\") public static class Inner extends Plugin {} }"));
+		sources.add(source("test.c.NotAPlugin", "package test.c; import net.runelite.client.plugins.*; "
+			+ "@PluginDescriptor(name = \"C\") public class NotAPlugin {}"));
+
+		List<String> index = compile(sources);
+
+		assertEquals(Arrays.asList(
+			"test.a.APlugin\tfalse\ttrue\t",
+			"test.b.BPlugin\ttrue\tfalse\ttest.a.APlugin,test.b.BPlugin$Inner",
+			"test.b.BPlugin$Inner\tfalse\tfalse\t"
+		), index);
+	}
+
+	@Test
+	public void testIncremental() throws IOException
+	{
+		File out = folder.newFolder();
+
+		List<JavaFileObject> sources = new ArrayList<>(pluginApi());
+		sources.add(source("test.a.APlugin", "package test.a; import net.runelite.client.plugins.*; "
+			+ "@PluginDescriptor(name = \"A\") public class APlugin extends Plugin {}"));
+		sources.add(source("test.b.BPlugin", "package test.b; import net.runelite.client.plugins.*; "
+			+ "@PluginDescriptor(name = \"B\") public class BPlugin extends Plugin {}"));
+		sources.add(source("test.c.CPlugin", "package test.c; import net.runelite.client.plugins.*; "
+			+ "@PluginDescriptor(name = \"C\") public class CPlugin extends Plugin {}"));
+		assertEquals(3, compile(out, sources).size());
+		assertTrue(new File(out, "test/c/CPlugin.class").delete());
+
+		// only the changed plugin is recompiled, and C has been deleted
+		List<String> index = compile(out, Arrays.asList(
+			source("test.b.BPlugin", "package test.b; import net.runelite.client.plugins.*; "
+				+ "@PluginDescriptor(name = \"B\", developerPlugin = true) public class BPlugin extends Plugin {}")));
+
+		assertEquals(Arrays.asList(
+			"test.a.APlugin\tfalse\tfalse\t",
+			"test.b.BPlugin\ttrue\tfalse\t"
+		), index);
+	}
+
+	@Test
+	public void testNoPlugins() throws IOException
+	{
+		assertTrue(compile(pluginApi()).isEmpty());
+	}
+}
@@ -161,7 +161,7 @@ public interface RSModel extends RSRenderable, Model
 								int intervalCount);
 
 	/**
-	 * Compute the convex hull of this model
+	 * Compute the convex hull of this model. Must be called from the client thread.
 	 * @param localX
 	 * @param localY
 	 * @param orientation